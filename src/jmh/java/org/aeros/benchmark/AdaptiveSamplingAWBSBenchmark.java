@@ -0,0 +1,68 @@
+package org.aeros.benchmark;
+
+import static org.aeros.domain.AlgorithmType.AWBS;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.aeros.algorithms.AdaptiveSamplingAWBS;
+import org.aeros.algorithms.parameters.AWBSParameters;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the per-sample cost of {@link AdaptiveSamplingAWBS#estimateObservation}.
+ * Samples of the benchmarked phase are replayed cyclically and each pass starts from the state of the model trained
+ * on the samples preceding the phase (restored from its copy, once per pass), unless the model is reset.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdaptiveSamplingAWBSBenchmark {
+
+	@Param({ "STEADY", "ANOMALOUS", "RESET" })
+	private BenchmarkPhase phase;
+
+	private AWBSParameters parameters;
+	private AdaptiveSamplingAWBS trainedAlgorithm;
+	private AdaptiveSamplingAWBS samplingAlgorithm;
+	private TestInfrastructureElementStateREST[] states;
+	private int idx;
+
+	@Setup
+	public void setup(final ScenarioTrace trace) {
+		parameters = trace.getComparedParameters(AWBS, AWBSParameters.class);
+		trainedAlgorithm = new AdaptiveSamplingAWBS(parameters);
+		states = trace.getIeRESTData().subList(trace.getPhaseStart(phase), trace.getPhaseEnd(phase))
+				.toArray(TestInfrastructureElementStateREST[]::new);
+
+		trace.getIeRESTData().subList(0, trace.getPhaseStart(phase))
+				.forEach(trainedAlgorithm::estimateObservation);
+	}
+
+	@Benchmark
+	public Map<String, Double> estimateObservation() {
+		if (phase == BenchmarkPhase.RESET) {
+			samplingAlgorithm = new AdaptiveSamplingAWBS(parameters);
+		} else if (idx == 0) {
+			samplingAlgorithm = trainedAlgorithm.copy();
+		}
+		final TestInfrastructureElementStateREST state = states[idx];
+
+		idx = idx + 1 == states.length ? 0 : idx + 1;
+		return samplingAlgorithm.estimateObservation(state);
+	}
+}
@@ -0,0 +1,79 @@
+package org.aeros.benchmark;
+
+import static java.lang.String.format;
+import static org.aeros.domain.AlgorithmType.UDASA;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.aeros.algorithms.AdaptiveSamplingUDASA;
+import org.aeros.algorithms.parameters.UDASAParameters;
+import org.aeros.domain.MonitoredTrace;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the per-sample cost of {@link AdaptiveSamplingUDASA}. Since UDASA estimates sampling periods only
+ * within the simulation (which skips the observations that are not sampled), consecutive chunks of samples of the
+ * benchmarked phase are replayed cyclically by {@link AdaptiveSamplingUDASA#simulateMonitoredTrace} and the cost is
+ * reported per sample of the trace. Each pass starts from the state of the model trained on the samples preceding the
+ * phase (restored from its copy, once per pass), unless the model is reset. The phase must contain at least
+ * {@value #CHUNK_SIZE} samples.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdaptiveSamplingUDASABenchmark {
+
+	private static final int CHUNK_SIZE = 100;
+
+	@Param({ "STEADY", "ANOMALOUS", "RESET" })
+	private BenchmarkPhase phase;
+
+	private UDASAParameters parameters;
+	private AdaptiveSamplingUDASA trainedAlgorithm;
+	private AdaptiveSamplingUDASA samplingAlgorithm;
+	private List<TestInfrastructureElementStateREST> ieRESTData;
+	private int idx;
+
+	@Setup
+	public void setup(final ScenarioTrace trace) {
+		parameters = trace.getComparedParameters(UDASA, UDASAParameters.class);
+		trainedAlgorithm = new AdaptiveSamplingUDASA(parameters);
+		ieRESTData = List.copyOf(trace.getIeRESTData().subList(trace.getPhaseStart(phase), trace.getPhaseEnd(phase)));
+
+		if (ieRESTData.size() < CHUNK_SIZE) {
+			throw new IllegalStateException(format("Phase %s contains %d samples, while at least %d are required.",
+					phase, ieRESTData.size(), CHUNK_SIZE));
+		}
+		trainedAlgorithm.simulateMonitoredTrace(trace.getIeRESTData().subList(0, trace.getPhaseStart(phase)));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CHUNK_SIZE)
+	public MonitoredTrace simulateMonitoredTrace() {
+		if (phase == BenchmarkPhase.RESET) {
+			samplingAlgorithm = new AdaptiveSamplingUDASA(parameters);
+		} else if (idx == 0) {
+			samplingAlgorithm = trainedAlgorithm.copy();
+		}
+		final List<TestInfrastructureElementStateREST> chunk = ieRESTData.subList(idx, idx + CHUNK_SIZE);
+
+		idx = idx + 2 * CHUNK_SIZE > ieRESTData.size() ? 0 : idx + CHUNK_SIZE;
+		return samplingAlgorithm.simulateMonitoredTrace(chunk);
+	}
+}
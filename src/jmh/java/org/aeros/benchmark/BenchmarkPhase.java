@@ -0,0 +1,20 @@
+package org.aeros.benchmark;
+
+/**
+ * Phase of the trace replayed in the benchmarks.
+ */
+public enum BenchmarkPhase {
+
+	/**
+	 * Samples preceding the labelled anomaly window, processed by the models trained on the preceding samples.
+	 */
+	STEADY,
+	/**
+	 * Samples of the labelled anomaly window, processed by the models trained on the preceding samples.
+	 */
+	ANOMALOUS,
+	/**
+	 * Samples of the whole trace, processed by models newly created (i.e. reset) in each benchmark invocation.
+	 */
+	RESET
+}
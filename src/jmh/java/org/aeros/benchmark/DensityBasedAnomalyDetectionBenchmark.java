@@ -0,0 +1,73 @@
+package org.aeros.benchmark;
+
+import static org.aeros.domain.AlgorithmType.ANOMALY;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.aeros.base.DensityBasedAnomalyDetection;
+import org.aeros.base.config.DensityBasedAnomalyConfiguration;
+import org.aeros.domain.TestInfrastructureElement;
+import org.aeros.domain.TestInfrastructureElementState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the per-sample cost of {@link DensityBasedAnomalyDetection#detectAnomalies}.
+ * Samples of the benchmarked phase are replayed cyclically and each pass starts from the state of the model trained
+ * on the samples preceding the phase (restored from its snapshot, once per pass), unless the model is reset.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DensityBasedAnomalyDetectionBenchmark {
+
+	@Param({ "STEADY", "ANOMALOUS", "RESET" })
+	private BenchmarkPhase phase;
+
+	private DensityBasedAnomalyConfiguration configuration;
+	private DensityBasedAnomalyDetection anomalyDetection;
+	private TestInfrastructureElement ie;
+	private TestInfrastructureElementState[] states;
+	private ByteBuffer trainedSnapshot;
+	private int idx;
+
+	@Setup
+	public void setup(final ScenarioTrace trace) {
+		configuration = trace.getConfiguration(ANOMALY, DensityBasedAnomalyConfiguration.class);
+		anomalyDetection = new DensityBasedAnomalyDetection(configuration);
+		ie = trace.getIe();
+		states = trace.getStates().subList(trace.getPhaseStart(phase), trace.getPhaseEnd(phase))
+				.toArray(TestInfrastructureElementState[]::new);
+
+		trace.getStates().subList(0, trace.getPhaseStart(phase))
+				.forEach(state -> anomalyDetection.detectAnomalies(state, ie));
+		trainedSnapshot = anomalyDetection.createSnapshot();
+	}
+
+	@Benchmark
+	public List<String> detectAnomalies() {
+		if (phase == BenchmarkPhase.RESET) {
+			anomalyDetection = new DensityBasedAnomalyDetection(configuration);
+		} else if (idx == 0) {
+			anomalyDetection.restoreSnapshot(trainedSnapshot.duplicate());
+		}
+		final TestInfrastructureElementState state = states[idx];
+
+		idx = idx + 1 == states.length ? 0 : idx + 1;
+		return anomalyDetection.detectAnomalies(state, ie);
+	}
+}
@@ -0,0 +1,137 @@
+package org.aeros.benchmark;
+
+import static org.aeros.scheduler.IEStateCodec.decodeBatch;
+import static org.aeros.scheduler.IEStateCodec.encodeBatch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.aeros.domain.TestInfrastructureElementStateREST;
+import org.aeros.scheduler.IEStateBatch;
+import org.aeros.scheduler.IEStateCodec;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Benchmark of the per-sample cost of encoding and decoding IE states in JSON (with Jackson, as in the REST endpoint
+ * of IE states) and in binary batches of {@link IEStateCodec}. Each invocation transfers {@link #SAMPLES_COUNT}
+ * consecutive states of the trace, either in batches of a given size or one by one (batch size 1, in which case JSON
+ * states are written as separate objects rather than arrays). The auxiliary counter of encoded bytes is reported in
+ * the same unit as the throughput, so their ratio is the number of bytes per sample.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IEStateCodecBenchmark {
+
+	private static final int SAMPLES_COUNT = 60;
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	@Param({ "JSON", "BINARY" })
+	private String codec;
+
+	@Param({ "1", "60" })
+	private int batchSize;
+
+	private String ieId;
+	private JavaType batchType;
+	private List<List<TestInfrastructureElementStateREST>> batches;
+	private byte[][] encodedBatches;
+	private IEStateBatch decodedBatch;
+	private int idx;
+
+	/**
+	 * Counter of the bytes of encoded batches.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class EncodedBytes {
+
+		public long encodedBytes;
+	}
+
+	@Setup
+	public void setup(final ScenarioTrace trace) throws IOException {
+		final List<TestInfrastructureElementStateREST> ieRESTData = trace.getIeRESTData();
+
+		ieId = trace.getIe().getId();
+		batchType = mapper.getTypeFactory()
+				.constructCollectionType(List.class, TestInfrastructureElementStateREST.class);
+		batches = IntStream.range(0, ieRESTData.size() / batchSize)
+				.mapToObj(batchIdx -> ieRESTData.subList(batchIdx * batchSize, (batchIdx + 1) * batchSize))
+				.toList();
+		encodedBatches = new byte[batches.size()][];
+		for (int batchIdx = 0; batchIdx < batches.size(); batchIdx++) {
+			encodedBatches[batchIdx] = encode(batches.get(batchIdx));
+		}
+		decodedBatch = new IEStateBatch(batchSize);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SAMPLES_COUNT)
+	public long encode(final EncodedBytes encodedBytes) throws IOException {
+		long bytes = 0;
+
+		for (int transferred = 0; transferred < SAMPLES_COUNT; transferred += batchSize) {
+			bytes += encode(batches.get(nextBatchIdx())).length;
+		}
+		encodedBytes.encodedBytes += bytes;
+		return bytes;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(SAMPLES_COUNT)
+	public long decode() throws IOException {
+		long checksum = 0;
+
+		for (int transferred = 0; transferred < SAMPLES_COUNT; transferred += batchSize) {
+			final byte[] encodedBatch = encodedBatches[nextBatchIdx()];
+
+			if (codec.equals("BINARY")) {
+				checksum += decodeBatch(ByteBuffer.wrap(encodedBatch), decodedBatch)
+						.getValue(IEStateBatch.CURRENT_CPU_USAGE, batchSize - 1);
+			} else if (batchSize == 1) {
+				checksum += mapper.readValue(encodedBatch, TestInfrastructureElementStateREST.class)
+						.getCurrentCpuUsage();
+			} else {
+				final List<TestInfrastructureElementStateREST> states = mapper.readValue(encodedBatch, batchType);
+				checksum += states.getLast().getCurrentCpuUsage();
+			}
+		}
+		return checksum;
+	}
+
+	private byte[] encode(final List<TestInfrastructureElementStateREST> batch) throws IOException {
+		if (codec.equals("BINARY")) {
+			return encodeBatch(ieId, batch);
+		}
+		return batchSize == 1 ? mapper.writeValueAsBytes(batch.getFirst()) : mapper.writeValueAsBytes(batch);
+	}
+
+	private int nextBatchIdx() {
+		final int batchIdx = idx;
+
+		idx = idx + 1 == batches.size() ? 0 : idx + 1;
+		return batchIdx;
+	}
+}
@@ -0,0 +1,72 @@
+package org.aeros.benchmark;
+
+import static org.aeros.domain.AlgorithmType.SAMPLING;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.aeros.base.PEWMASampling;
+import org.aeros.base.config.PEWMASamplingConfiguration;
+import org.aeros.domain.TestInfrastructureElement;
+import org.aeros.domain.TestInfrastructureElementState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the per-sample cost of {@link PEWMASampling#estimateSamplingPeriod}.
+ * Samples of the benchmarked phase are replayed cyclically and each pass starts from the state of the model trained
+ * on the samples preceding the phase (restored from its snapshot, once per pass), unless the model is reset.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PEWMASamplingBenchmark {
+
+	@Param({ "STEADY", "ANOMALOUS", "RESET" })
+	private BenchmarkPhase phase;
+
+	private PEWMASamplingConfiguration configuration;
+	private PEWMASampling samplingAlgorithm;
+	private TestInfrastructureElement ie;
+	private TestInfrastructureElementState[] states;
+	private ByteBuffer trainedSnapshot;
+	private int idx;
+
+	@Setup
+	public void setup(final ScenarioTrace trace) {
+		configuration = trace.getConfiguration(SAMPLING, PEWMASamplingConfiguration.class);
+		samplingAlgorithm = new PEWMASampling(configuration);
+		ie = trace.getIe();
+		states = trace.getStates().subList(trace.getPhaseStart(phase), trace.getPhaseEnd(phase))
+				.toArray(TestInfrastructureElementState[]::new);
+
+		trace.getStates().subList(0, trace.getPhaseStart(phase))
+				.forEach(state -> samplingAlgorithm.estimateSamplingPeriod(state, ie));
+		trainedSnapshot = samplingAlgorithm.createSnapshot();
+	}
+
+	@Benchmark
+	public long estimateSamplingPeriod() {
+		if (phase == BenchmarkPhase.RESET) {
+			samplingAlgorithm = new PEWMASampling(configuration);
+		} else if (idx == 0) {
+			samplingAlgorithm.restoreSnapshot(trainedSnapshot.duplicate());
+		}
+		final TestInfrastructureElementState state = states[idx];
+
+		idx = idx + 1 == states.length ? 0 : idx + 1;
+		return samplingAlgorithm.estimateSamplingPeriod(state, ie);
+	}
+}
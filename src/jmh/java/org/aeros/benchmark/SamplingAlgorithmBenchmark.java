@@ -0,0 +1,91 @@
+package org.aeros.benchmark;
+
+import static org.aeros.domain.AlgorithmType.SAMPLING;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aeros.algorithms.SamplingAlgorithm;
+import org.aeros.algorithms.SamplingAlgorithmRegistry;
+import org.aeros.base.config.PEWMASamplingConfiguration;
+import org.aeros.domain.AlgorithmParameters;
+import org.aeros.domain.AlgorithmType;
+import org.aeros.domain.ResourceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the per-sample cost of {@link SamplingAlgorithm#observe} for all algorithms of
+ * {@link SamplingAlgorithmRegistry#createDefault() the default registry}. Observations of the benchmarked phase are
+ * read up front and passed cyclically, regardless of the returned sampling decisions. Each pass starts from the state
+ * of the algorithm trained on the observations preceding the phase (restored from its copy, once per pass), unless the
+ * algorithm is reset.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SamplingAlgorithmBenchmark {
+
+	private static final int METRICS_COUNT = ResourceType.values().length;
+
+	@Param({ "SAMPLING", "UDASA", "AWBS" })
+	private AlgorithmType algorithmType;
+
+	@Param({ "STEADY", "ANOMALOUS", "RESET" })
+	private BenchmarkPhase phase;
+
+	private SamplingAlgorithmRegistry samplingAlgorithmRegistry;
+	private Object parameters;
+	private SamplingAlgorithm trainedAlgorithm;
+	private SamplingAlgorithm samplingAlgorithm;
+	private double[][] observations;
+	private double[] monitoredValues;
+	private int idx;
+
+	@Setup
+	public void setup(final ScenarioTrace trace) {
+		samplingAlgorithmRegistry = SamplingAlgorithmRegistry.createDefault();
+		parameters = algorithmType == SAMPLING
+				? trace.getConfiguration(SAMPLING, PEWMASamplingConfiguration.class)
+				: trace.getComparedParameters(algorithmType, AlgorithmParameters.class);
+		trainedAlgorithm = samplingAlgorithmRegistry.create(algorithmType, parameters);
+		observations = trace.getIeRESTData().subList(trace.getPhaseStart(phase), trace.getPhaseEnd(phase)).stream()
+				.map(ieREST -> {
+					final double[] observation = new double[METRICS_COUNT];
+					trainedAlgorithm.readObservations(ieREST, observation);
+					return observation;
+				})
+				.toArray(double[][]::new);
+		monitoredValues = new double[METRICS_COUNT];
+
+		final double[] observation = new double[METRICS_COUNT];
+		trace.getIeRESTData().subList(0, trace.getPhaseStart(phase)).forEach(ieREST -> {
+			trainedAlgorithm.readObservations(ieREST, observation);
+			trainedAlgorithm.observe(observation, monitoredValues);
+		});
+	}
+
+	@Benchmark
+	public long observe() {
+		if (phase == BenchmarkPhase.RESET) {
+			samplingAlgorithm = samplingAlgorithmRegistry.create(algorithmType, parameters);
+		} else if (idx == 0) {
+			samplingAlgorithm = trainedAlgorithm.copy();
+		}
+		final double[] observation = observations[idx];
+
+		idx = idx + 1 == observations.length ? 0 : idx + 1;
+		return samplingAlgorithm.observe(observation, monitoredValues);
+	}
+}
@@ -0,0 +1,111 @@
+package org.aeros.benchmark;
+
+import static java.lang.String.format;
+import static org.aeros.domain.MetricType.ANOMALY_SCORE_CPU;
+import static org.aeros.domain.ScenarioDescription.NUMENTA_JUMPS_SCENARIO;
+import static org.aeros.domain.ScenarioDescription.RAINMON_SCENARIO;
+import static org.aeros.utils.ScenarioMapper.mapToIEREST;
+import static org.aeros.utils.ScenarioReader.getScenarioConfigName;
+import static org.aeros.utils.ScenarioReader.readScenario;
+import static org.aeros.utils.ScenarioReader.readScenarioData;
+
+import java.util.List;
+
+import org.aeros.domain.AlgorithmConfigDescription;
+import org.aeros.domain.AlgorithmDescription;
+import org.aeros.domain.AlgorithmType;
+import org.aeros.domain.AnomalyScoringParameters;
+import org.aeros.domain.AnomalyWindow;
+import org.aeros.domain.ScenarioDescription;
+import org.aeros.domain.TestInfrastructureElement;
+import org.aeros.domain.TestInfrastructureElementState;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import lombok.Getter;
+
+/**
+ * Trace shared by the benchmarks. States are read from Numenta daily jumps scenario, whose labelled anomaly window
+ * of CPU usage separates the steady and the anomalous phase. Parameters of the compared algorithms (which are not
+ * defined in that scenario) are taken from rainmon scenario.
+ */
+@Getter
+@State(Scope.Benchmark)
+public class ScenarioTrace {
+
+	private ScenarioDescription scenarioDescription;
+	private ScenarioDescription comparisonScenarioDescription;
+	private TestInfrastructureElement ie;
+	private List<TestInfrastructureElementState> states;
+	private List<TestInfrastructureElementStateREST> ieRESTData;
+	private AnomalyWindow anomalyWindow;
+
+	@Setup
+	public void setup() {
+		scenarioDescription = readScenario(getScenarioConfigName(NUMENTA_JUMPS_SCENARIO));
+		comparisonScenarioDescription = readScenario(getScenarioConfigName(RAINMON_SCENARIO));
+		ie = scenarioDescription.getIe();
+		states = readScenarioData(ie.getData());
+		ieRESTData = mapToIEREST(scenarioDescription, states);
+		anomalyWindow = ((AnomalyScoringParameters) scenarioDescription.getEvaluationMetrics().get(ANOMALY_SCORE_CPU))
+				.getAnomalyWindows().getFirst();
+	}
+
+	/**
+	 * Method computes index of the first sample of a given phase.
+	 *
+	 * @param phase phase of the trace
+	 * @return index of the first sample (starting from 0)
+	 */
+	public int getPhaseStart(final BenchmarkPhase phase) {
+		return phase == BenchmarkPhase.ANOMALOUS ? anomalyWindow.getStartIdx() - 1 : 0;
+	}
+
+	/**
+	 * Method computes index following the last sample of a given phase.
+	 *
+	 * @param phase phase of the trace
+	 * @return index following the last sample (starting from 0)
+	 */
+	public int getPhaseEnd(final BenchmarkPhase phase) {
+		return switch (phase) {
+			case STEADY -> anomalyWindow.getStartIdx() - 1;
+			case ANOMALOUS -> anomalyWindow.getEndIdx();
+			case RESET -> states.size();
+		};
+	}
+
+	/**
+	 * Method returns configuration of the base algorithm of the scenario.
+	 *
+	 * @param type               type of the algorithm
+	 * @param configurationClass class of the configuration
+	 * @return algorithm configuration
+	 */
+	public <T> T getConfiguration(final AlgorithmType type, final Class<T> configurationClass) {
+		return scenarioDescription.getBaseAlgorithmsConfig().stream()
+				.filter(config -> config.getType().equals(type))
+				.findFirst()
+				.map(AlgorithmConfigDescription::getConfig)
+				.map(configurationClass::cast)
+				.orElseThrow(() -> new IllegalStateException(format("Configuration of %s is not defined.", type)));
+	}
+
+	/**
+	 * Method returns parameters of the algorithm used in the comparison.
+	 *
+	 * @param type            type of the algorithm
+	 * @param parametersClass class of the parameters
+	 * @return algorithm parameters
+	 */
+	public <T> T getComparedParameters(final AlgorithmType type, final Class<T> parametersClass) {
+		return comparisonScenarioDescription.getAlgorithmsForComparison().stream()
+				.filter(algorithm -> algorithm.getType().equals(type))
+				.findFirst()
+				.map(AlgorithmDescription::getParams)
+				.map(parametersClass::cast)
+				.orElseThrow(() -> new IllegalStateException(format("Parameters of %s are not defined.", type)));
+	}
+}
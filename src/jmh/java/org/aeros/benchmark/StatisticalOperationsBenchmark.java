@@ -0,0 +1,163 @@
+package org.aeros.benchmark;
+
+import static org.aeros.utils.StatisticalOperations.computeDensity;
+import static org.aeros.utils.StatisticalOperations.computeMeanDensity;
+import static org.aeros.utils.StatisticalOperations.computeMeanValue;
+import static org.aeros.utils.StatisticalOperations.computePEWMAProbability;
+import static org.aeros.utils.StatisticalOperations.computeScalarProduct;
+import static org.aeros.utils.StatisticalOperations.computeStandardDeviation;
+import static org.aeros.utils.StatisticalOperations.updateMeanDensity;
+import static org.aeros.utils.StatisticalOperations.updateMeanValue;
+import static org.aeros.utils.StatisticalOperations.updateScalarProduct;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aeros.utils.StatisticalOperations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the per-sample cost of {@link StatisticalOperations} kernels, applied to CPU usage of the trace in the
+ * same order as in the density-based anomaly detection and PEWMA sampling. Boxed kernels are benchmarked along with
+ * their primitive counterparts. Density models are never switched to the anomalous state, so the occurrence number
+ * of density equals the size of the sample. Each pass over the phase starts from the state of the kernels applied to
+ * the preceding values, while in the reset phase, each value is the first observation of the sample.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatisticalOperationsBenchmark {
+
+	private static final String CPU_USAGE = "CPU_USAGE";
+
+	@Param({ "STEADY", "ANOMALOUS", "RESET" })
+	private BenchmarkPhase phase;
+
+	private double[] values;
+	private int idx;
+
+	private KernelsState trainedState;
+	private KernelsState state;
+
+	@Setup
+	public void setup(final ScenarioTrace trace) {
+		values = trace.getStates().subList(trace.getPhaseStart(phase), trace.getPhaseEnd(phase)).stream()
+				.mapToDouble(state -> state.getMetricValue(CPU_USAGE, trace.getIe()))
+				.toArray();
+		state = new KernelsState();
+
+		trace.getStates().subList(0, trace.getPhaseStart(phase)).stream()
+				.mapToDouble(state -> state.getMetricValue(CPU_USAGE, trace.getIe()))
+				.forEach(value -> {
+					computeBoxedDensity(value);
+					computePrimitiveDensity(value);
+					computeProbability(value);
+				});
+		trainedState = new KernelsState(state);
+	}
+
+	@Benchmark
+	public double computeBoxedDensity() {
+		return computeBoxedDensity(nextValue());
+	}
+
+	@Benchmark
+	public double computePrimitiveDensity() {
+		return computePrimitiveDensity(nextValue());
+	}
+
+	@Benchmark
+	public double computeProbability() {
+		return computeProbability(nextValue());
+	}
+
+	private double nextValue() {
+		if (phase == BenchmarkPhase.RESET) {
+			state = new KernelsState();
+		} else if (idx == 0) {
+			state = new KernelsState(trainedState);
+		}
+		final double value = values[idx];
+
+		idx = idx + 1 == values.length ? 0 : idx + 1;
+		return value;
+	}
+
+	private double computeBoxedDensity(final double value) {
+		state.boxedSampleSize++;
+		state.boxedMean = computeMeanValue(state.boxedSampleSize, state.boxedMean, value);
+		state.boxedScalarProduct = computeScalarProduct(state.boxedSampleSize, state.boxedScalarProduct, value);
+
+		final double density = computeDensity(state.boxedMean, state.boxedScalarProduct, value);
+		state.boxedDensity = computeMeanDensity(state.boxedDensity, state.boxedSampleSize, density);
+		return density;
+	}
+
+	private double computePrimitiveDensity(final double value) {
+		state.sampleSize++;
+		state.mean = updateMeanValue(state.sampleSize, state.mean, value);
+		state.scalarProduct = updateScalarProduct(state.sampleSize, state.scalarProduct, value);
+
+		final double density = computeDensity(state.mean, state.scalarProduct, value);
+		state.meanDensity = updateMeanDensity(state.sampleSize, state.meanDensity, state.sampleSize, density);
+		return density;
+	}
+
+	private double computeProbability(final double value) {
+		final double distance = Math.abs(value - state.lastValue);
+		final double probability =
+				computePEWMAProbability(distance, state.lastDistance, state.lastStandardDeviation);
+
+		state.lastValue = value;
+		state.lastDistance = distance;
+		state.lastStandardDeviation = computeStandardDeviation(distance);
+		return probability;
+	}
+
+	/**
+	 * State of the density and PEWMA kernels.
+	 */
+	private static final class KernelsState {
+
+		private int boxedSampleSize;
+		private int sampleSize;
+		private Double boxedMean;
+		private Double boxedScalarProduct;
+		private Double boxedDensity;
+		private double mean;
+		private double scalarProduct;
+		private double meanDensity;
+		private double lastValue;
+		private double lastDistance;
+		private double lastStandardDeviation;
+
+		private KernelsState() {
+		}
+
+		private KernelsState(final KernelsState state) {
+			this.boxedSampleSize = state.boxedSampleSize;
+			this.sampleSize = state.sampleSize;
+			this.boxedMean = state.boxedMean;
+			this.boxedScalarProduct = state.boxedScalarProduct;
+			this.boxedDensity = state.boxedDensity;
+			this.mean = state.mean;
+			this.scalarProduct = state.scalarProduct;
+			this.meanDensity = state.meanDensity;
+			this.lastValue = state.lastValue;
+			this.lastDistance = state.lastDistance;
+			this.lastStandardDeviation = state.lastStandardDeviation;
+		}
+	}
+}
@@ -1,37 +1,60 @@
 package org.aeros;
 
+import static java.lang.String.format;
 import static java.lang.String.join;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.stream.Collectors.toMap;
+import static org.aeros.algorithms.AnomalyDetectionRunner.runDetectors;
+import static org.aeros.base.CompiledDensityBasedAnomalyDetection.METRICS_COUNT;
 import static org.aeros.domain.AlgorithmType.ANOMALY;
 import static org.aeros.domain.ScenarioDescription.AEROS_SCENARIO;
 import static org.aeros.domain.ScenarioDescription.NUMENTA_JUMPS_SCENARIO;
 import static org.aeros.domain.ScenarioDescription.NUMENTA_SPIKES_SCENARIO;
 import static org.aeros.domain.TestInfrastructureElementStateREST.getAmountOfUsedCores;
 import static org.aeros.utils.ResultVisualization.plotAndSaveDataSampleChartWithAnomalies;
-import static org.aeros.utils.ScenarioMapper.mapToIEREST;
+import static org.aeros.utils.ScenarioMapper.mapFlatToIEREST;
 import static org.aeros.utils.ScenarioReader.getScenarioName;
 import static org.aeros.utils.ScenarioReader.readAnomalyDetectionResult;
+import static org.aeros.utils.ScenarioReader.readFlatScenarioData;
+import static org.aeros.utils.ScenarioReader.readNABScore;
 import static org.aeros.utils.ScenarioReader.readScenarioData;
+import static org.aeros.utils.ScenarioReader.streamFlatScenarioData;
+import static org.aeros.utils.ScenarioRunner.runScenarios;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.ToDoubleFunction;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import org.aeros.algorithms.AnomalyDetectionRunner.DetectedAnomalies;
+import org.aeros.algorithms.AnomalyDetector;
+import org.aeros.algorithms.NABAnomalyDetectionReplay;
 import org.aeros.algorithms.parameters.NABAnomalyParameters;
+import org.aeros.base.BulkDensityBasedAnomalyDetection;
+import org.aeros.base.CompiledDensityBasedAnomalyDetection;
 import org.aeros.base.DensityBasedAnomalyDetection;
 import org.aeros.base.config.DensityBasedAnomalyConfiguration;
 import org.aeros.domain.AlgorithmConfigDescription;
+import org.aeros.domain.AlgorithmDescription;
 import org.aeros.domain.AnomalyDetectionResult;
 import org.aeros.domain.ScenarioDescription;
+import org.aeros.domain.TestInfrastructureElementFlatState;
 import org.aeros.domain.TestInfrastructureElementState;
 import org.aeros.domain.TestInfrastructureElementStateREST;
 import org.aeros.metrics.MetricLogger;
-import org.aeros.utils.ScenarioReader;
+import org.aeros.utils.ScenarioRunner.AlgorithmRun;
+import org.aeros.utils.ScenarioRunner.RunResult;
+import org.aeros.utils.ScenarioRunner.ScenarioData;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.TestFactory;
@@ -44,67 +67,225 @@ public class AnomalyDetectionScenarioTest {
 
 	@TestFactory
 	Collection<DynamicTest> prepareTestScenarios() {
-		return scenarioNames.stream()
-				.map(ScenarioReader::getScenarioConfigName)
-				.map(ScenarioReader::readScenario)
-				.map(scenario -> dynamicTest(getScenarioName(scenario), () -> executeTestScenario(scenario)))
+		return runScenarios(scenarioNames, this::prepareAlgorithmRuns, ForkJoinPool.commonPool()).stream()
+				.flatMap(this::prepareDetectionTests)
 				.toList();
 	}
 
-	private void executeTestScenario(final ScenarioDescription scenarioDescription) {
+	private List<AlgorithmRun<List<DetectionResult>>> prepareAlgorithmRuns(final ScenarioData scenarioData) {
+		return List.of(new AlgorithmRun<>("Single-Pass Detection", this::executeDetection));
+	}
+
+	private Stream<DynamicTest> prepareDetectionTests(final RunResult<List<DetectionResult>> runResult) {
+		final String scenarioName = getScenarioName(runResult.scenarioData().scenarioDescription());
+
+		if (runResult.failure() != null) {
+			return Stream.of(dynamicTest(format("%s (%s)", scenarioName, runResult.algorithmName()),
+					runResult::getResult));
+		}
+		return runResult.getResult().stream()
+				.map(result -> dynamicTest(format("%s (%s)", scenarioName, result.detectorName()),
+						() -> displayDetectionResults(runResult, result)));
+	}
+
+	private List<DetectionResult> executeDetection(final ScenarioData scenarioData) {
+		final ScenarioDescription scenarioDescription = scenarioData.scenarioDescription();
 		final DensityBasedAnomalyConfiguration configuration = scenarioDescription.getBaseAlgorithmsConfig().stream()
 				.filter(config -> config.getType().equals(ANOMALY))
 				.findFirst()
 				.map(AlgorithmConfigDescription::getConfig)
 				.map(DensityBasedAnomalyConfiguration.class::cast)
 				.orElseThrow();
+		final List<AlgorithmDescription> comparedAlgorithms = scenarioDescription.getAlgorithmsForComparison();
+		final List<AnomalyDetector> detectors = Stream.concat(
+						Stream.of(new CompiledDensityBasedAnomalyDetection(configuration)),
+						comparedAlgorithms.stream()
+								.map(algorithm -> (NABAnomalyParameters) algorithm.getParams())
+								.map(NABAnomalyDetectionReplay::new))
+				.map(AnomalyDetector.class::cast)
+				.toList();
+
+		final List<DetectedAnomalies> detectedAnomalies;
+		try (final Stream<TestInfrastructureElementFlatState> ieFlatStates =
+				streamFlatScenarioData(scenarioDescription.getIe().getData())) {
+			detectedAnomalies = runDetectors(detectors, ieFlatStates, scenarioDescription.getIe());
+		}
+
+		final List<DetectionResult> results = new ArrayList<>();
+		results.add(executeDensityBasedDetection(scenarioData, configuration,
+				detectedAnomalies.getFirst().getAnomalyLabels(detectors.getFirst())));
+
+		for (int i = 0; i < comparedAlgorithms.size(); i++) {
+			results.add(executeComparisonAlgorithm(scenarioData, comparedAlgorithms.get(i),
+					detectedAnomalies.get(i + 1).getAnomalyLabels(detectors.get(i + 1))));
+		}
+		return results;
+	}
+
+	private DetectionResult executeDensityBasedDetection(final ScenarioData scenarioData,
+			final DensityBasedAnomalyConfiguration configuration, final Map<Integer, List<String>> anomalies) {
+		final ScenarioDescription scenarioDescription = scenarioData.scenarioDescription();
+		final List<TestInfrastructureElementState> ieData = scenarioData.ieData();
+		final List<TestInfrastructureElementStateREST> ieRESTData = scenarioData.ieRESTData();
+
+		verifyLegacyDetection(configuration, ieData, scenarioDescription, anomalies);
+		verifyBulkDetection(configuration, ieData, scenarioDescription, anomalies);
+		verifySnapshotRestore(configuration, ieData, scenarioDescription, anomalies);
+		verifyStreamingDetection(configuration, scenarioDescription, anomalies);
+		verifyFlatStateDetection(configuration, ieRESTData, scenarioDescription, anomalies);
+
+		plotDiskAnomalies(ieRESTData, anomalies, "Density-Based", join("-", scenarioDescription.getName(), "disk"));
+		plotRAMAnomalies(ieRESTData, anomalies, "Density-Based", join("-", scenarioDescription.getName(), "ram"));
+		plotCPUAnomalies(ieRESTData, anomalies, "Density-Based", join("-", scenarioDescription.getName(), "cpu"));
+
+		return new DetectionResult("Density-Based", anomalies, null);
+	}
+
+	private void verifyLegacyDetection(final DensityBasedAnomalyConfiguration configuration,
+			final List<TestInfrastructureElementState> ieData,
+			final ScenarioDescription scenarioDescription,
+			final Map<Integer, List<String>> anomalies) {
 		final DensityBasedAnomalyDetection densityBasedAnomalyDetection = new DensityBasedAnomalyDetection(
 				configuration);
 
-		final List<TestInfrastructureElementState> ieData = readScenarioData(scenarioDescription.getIe().getData());
-		final List<TestInfrastructureElementStateREST> ieRESTData = mapToIEREST(scenarioDescription, ieData);
-
-		final Map<Integer, List<String>> anomalies = IntStream.range(0, ieRESTData.size()).boxed()
+		final Map<Integer, List<String>> legacyAnomalies = IntStream.range(0, ieData.size()).boxed()
 				.map(idx -> Pair.of(idx + 1,
 						densityBasedAnomalyDetection.detectAnomalies(ieData.get(idx), scenarioDescription.getIe())))
 				.filter(idxPair -> !idxPair.getValue().isEmpty())
 				.collect(toMap(Pair::getKey, Pair::getValue));
 
-		logger.info("Anomalies detected by Density-Based: {}", anomalies);
+		assertEquals(legacyAnomalies, anomalies);
+	}
 
-		plotDiskAnomalies(ieRESTData, anomalies, "Density-Based", join("-", scenarioDescription.getName(), "disk"));
-		plotRAMAnomalies(ieRESTData, anomalies, "Density-Based", join("-", scenarioDescription.getName(), "ram"));
-		plotCPUAnomalies(ieRESTData, anomalies, "Density-Based", join("-", scenarioDescription.getName(), "cpu"));
+	private void verifyBulkDetection(final DensityBasedAnomalyConfiguration configuration,
+			final List<TestInfrastructureElementState> ieData,
+			final ScenarioDescription scenarioDescription,
+			final Map<Integer, List<String>> expectedAnomalies) {
+		final CompiledDensityBasedAnomalyDetection compiledAnomalyDetection =
+				new CompiledDensityBasedAnomalyDetection(configuration);
+		final BulkDensityBasedAnomalyDetection bulkAnomalyDetection = new BulkDensityBasedAnomalyDetection(configuration);
+		final double[][] trace = new double[METRICS_COUNT][ieData.size()];
+		final double[] observations = new double[METRICS_COUNT];
 
-		new MetricLogger(scenarioDescription, anomalies).printMetrics(scenarioDescription.getEvaluationMetrics());
-		runComparisonAlgorithms(ieRESTData, scenarioDescription);
-	}
-
-	private void runComparisonAlgorithms(final List<TestInfrastructureElementStateREST> ieRESTData,
-			final ScenarioDescription scenarioDescription) {
-		scenarioDescription.getAlgorithmsForComparison().forEach(algorithm -> {
-			final NABAnomalyParameters parameters = (NABAnomalyParameters) algorithm.getParams();
-			final AnomalyDetectionResult results = readAnomalyDetectionResult(
-					parameters.getDetectionResultsFileName(),
-					parameters.getDetectionCSVFileName(),
-					parameters.getScoreFileName(),
-					parameters.getThreshold()
-			);
-			final String methodName = algorithm.getType().name();
-			final Map<Integer, List<String>> anomalies = results.getDetectedAnomalies();
-			final String testTitle = join("-", methodName.toLowerCase(), scenarioDescription.getName());
-
-			logger.info("Anomalies detected by {}: {}", methodName, anomalies);
-
-			switch (parameters.getMetricType()) {
-				case "CPU" -> plotCPUAnomalies(ieRESTData, anomalies, methodName, join("-", testTitle, "cpu"));
-				case "RAM" -> plotRAMAnomalies(ieRESTData, anomalies, methodName, join("-", testTitle, "ram"));
-				case "DISK" -> plotDiskAnomalies(ieRESTData, anomalies, methodName, join("-", testTitle, "disk"));
+		for (int idx = 0; idx < ieData.size(); idx++) {
+			compiledAnomalyDetection.readObservations(ieData.get(idx), scenarioDescription.getIe(), observations);
+			for (int metric = 0; metric < METRICS_COUNT; metric++) {
+				trace[metric][idx] = observations[metric];
 			}
+		}
 
-			new MetricLogger(scenarioDescription, results.getScore())
-					.printMetricsForNAB(scenarioDescription.getEvaluationMetrics());
+		final int[] anomalies = bulkAnomalyDetection.detectAnomalies(trace);
+		assertEquals(expectedAnomalies, bulkAnomalyDetection.getDetectedAnomalies(anomalies));
+	}
+
+	private void verifySnapshotRestore(final DensityBasedAnomalyConfiguration configuration,
+			final List<TestInfrastructureElementState> ieData,
+			final ScenarioDescription scenarioDescription,
+			final Map<Integer, List<String>> expectedAnomalies) {
+		final int snapshotIdx = ieData.size() / 2;
+		final DensityBasedAnomalyDetection anomalyDetection = new DensityBasedAnomalyDetection(configuration);
+		IntStream.range(0, snapshotIdx)
+				.forEach(idx -> anomalyDetection.detectAnomalies(ieData.get(idx), scenarioDescription.getIe()));
+
+		final DensityBasedAnomalyDetection restoredAnomalyDetection = new DensityBasedAnomalyDetection(configuration);
+		restoredAnomalyDetection.restoreSnapshot(anomalyDetection.createSnapshot());
+
+		final Map<Integer, List<String>> anomalies = IntStream.range(snapshotIdx, ieData.size()).boxed()
+				.map(idx -> Pair.of(idx + 1,
+						restoredAnomalyDetection.detectAnomalies(ieData.get(idx), scenarioDescription.getIe())))
+				.filter(idxPair -> !idxPair.getValue().isEmpty())
+				.collect(toMap(Pair::getKey, Pair::getValue));
+		final Map<Integer, List<String>> expectedAfterSnapshot = expectedAnomalies.entrySet().stream()
+				.filter(anomaly -> anomaly.getKey() > snapshotIdx)
+				.collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+		assertEquals(expectedAfterSnapshot, anomalies);
+	}
+
+	private void verifyStreamingDetection(final DensityBasedAnomalyConfiguration configuration,
+			final ScenarioDescription scenarioDescription,
+			final Map<Integer, List<String>> expectedAnomalies) {
+		final CompiledDensityBasedAnomalyDetection compiledAnomalyDetection =
+				new CompiledDensityBasedAnomalyDetection(configuration);
+		final Map<Integer, List<String>> anomalies = new HashMap<>();
+		final AtomicInteger stateIdx = new AtomicInteger(0);
+
+		readScenarioData(scenarioDescription.getIe().getData(), ieState -> {
+			final int anomalyCodes = compiledAnomalyDetection.detectAnomalies(ieState, scenarioDescription.getIe());
+			final int idx = stateIdx.incrementAndGet();
+
+			if (anomalyCodes != 0) {
+				anomalies.put(idx, compiledAnomalyDetection.getAnomalyLabels(anomalyCodes));
+			}
 		});
+		assertEquals(expectedAnomalies, anomalies);
+	}
+
+	private void verifyFlatStateDetection(final DensityBasedAnomalyConfiguration configuration,
+			final List<TestInfrastructureElementStateREST> ieRESTData,
+			final ScenarioDescription scenarioDescription,
+			final Map<Integer, List<String>> expectedAnomalies) {
+		final CompiledDensityBasedAnomalyDetection compiledAnomalyDetection =
+				new CompiledDensityBasedAnomalyDetection(configuration);
+		final List<TestInfrastructureElementFlatState> ieFlatData =
+				readFlatScenarioData(scenarioDescription.getIe().getData());
+		final double[] observations = new double[METRICS_COUNT];
+
+		final Map<Integer, List<String>> anomalies = IntStream.range(0, ieFlatData.size()).boxed()
+				.map(idx -> {
+					compiledAnomalyDetection.readObservations(ieFlatData.get(idx), scenarioDescription.getIe(),
+							observations);
+					return Pair.of(idx + 1, compiledAnomalyDetection.getAnomalyLabels(
+							compiledAnomalyDetection.detectAnomalies(observations)));
+				})
+				.filter(idxPair -> !idxPair.getValue().isEmpty())
+				.collect(toMap(Pair::getKey, Pair::getValue));
+
+		assertEquals(expectedAnomalies, anomalies);
+		assertEquals(ieRESTData.toString(), mapFlatToIEREST(scenarioDescription, ieFlatData).toString());
+		assertEquals(readScenarioData(scenarioDescription.getIe().getData()).stream()
+				.map(TestInfrastructureElementFlatState::of)
+				.toList(), ieFlatData);
+	}
+
+	private DetectionResult executeComparisonAlgorithm(final ScenarioData scenarioData,
+			final AlgorithmDescription algorithm, final Map<Integer, List<String>> anomalies) {
+		final NABAnomalyParameters parameters = (NABAnomalyParameters) algorithm.getParams();
+		final AnomalyDetectionResult results = readAnomalyDetectionResult(
+				parameters.getDetectionResultsFileName(),
+				parameters.getDetectionCSVFileName(),
+				parameters.getScoreFileName(),
+				parameters.getThreshold()
+		);
+		final List<TestInfrastructureElementStateREST> ieRESTData = scenarioData.ieRESTData();
+		final String methodName = algorithm.getType().name();
+		final String testTitle = join("-", methodName.toLowerCase(), scenarioData.scenarioDescription().getName());
+
+		assertEquals(results.getDetectedAnomalies(), anomalies);
+
+		switch (parameters.getMetricType()) {
+			case "CPU" -> plotCPUAnomalies(ieRESTData, anomalies, methodName, join("-", testTitle, "cpu"));
+			case "RAM" -> plotRAMAnomalies(ieRESTData, anomalies, methodName, join("-", testTitle, "ram"));
+			case "DISK" -> plotDiskAnomalies(ieRESTData, anomalies, methodName, join("-", testTitle, "disk"));
+		}
+		return new DetectionResult(methodName, anomalies,
+				readNABScore(parameters.getScoreFileName(), parameters.getDetectionCSVFileName()));
+	}
+
+	private void displayDetectionResults(final RunResult<List<DetectionResult>> runResult,
+			final DetectionResult result) {
+		final ScenarioDescription scenarioDescription = runResult.scenarioData().scenarioDescription();
+
+		logger.info("Anomalies detected by {} (single pass of all detectors executed in {} ms): {}",
+				result.detectorName(), NANOSECONDS.toMillis(runResult.elapsedTime()), result.anomalies());
+
+		if (result.nabScore() == null) {
+			new MetricLogger(scenarioDescription, result.anomalies())
+					.printMetrics(scenarioDescription.getEvaluationMetrics());
+		} else {
+			new MetricLogger(scenarioDescription, result.nabScore())
+					.printMetricsForNAB(scenarioDescription.getEvaluationMetrics());
+		}
 	}
 
 	private void plotRAMAnomalies(final List<TestInfrastructureElementStateREST> ieRESTData,
@@ -146,4 +327,13 @@ public class AnomalyDetectionScenarioTest {
 				"MB");
 	}
 
+	/**
+	 * Result of anomaly detection.
+	 *
+	 * @param detectorName name of the detector
+	 * @param anomalies    detected anomalies
+	 * @param nabScore     raw anomaly score of pre-computed NAB results (null for the algorithms run in the test)
+	 */
+	private record DetectionResult(String detectorName, Map<Integer, List<String>> anomalies, Double nabScore) {
+	}
 }
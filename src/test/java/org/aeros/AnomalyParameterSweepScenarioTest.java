@@ -0,0 +1,111 @@
+package org.aeros;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toMap;
+import static org.aeros.base.DensityBasedAnomalyParameterSweep.createParametersGrid;
+import static org.aeros.domain.AlgorithmType.ANOMALY;
+import static org.aeros.domain.ResourceType.CPU_USAGE;
+import static org.aeros.domain.ScenarioDescription.NUMENTA_JUMPS_SCENARIO;
+import static org.aeros.domain.ScenarioDescription.NUMENTA_SPIKES_SCENARIO;
+import static org.aeros.utils.ScenarioReader.getScenarioName;
+import static org.aeros.utils.ScenarioReader.readScenarioData;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.aeros.base.DensityBasedAnomalyDetection;
+import org.aeros.base.DensityBasedAnomalyParameterSweep;
+import org.aeros.base.config.DensityBasedAnomalyConfiguration;
+import org.aeros.base.parameters.DensityBasedAnomaliesParameters;
+import org.aeros.domain.AlgorithmConfigDescription;
+import org.aeros.domain.ParameterSweepResult;
+import org.aeros.domain.ScenarioDescription;
+import org.aeros.domain.TestInfrastructureElementState;
+import org.aeros.metrics.AnomalyScoreEvaluator;
+import org.aeros.utils.ScenarioReader;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.slf4j.Logger;
+
+/**
+ * Tuning of CPU density-based models on Numenta traces. The parameters configured in the scenario are evaluated
+ * together with the grid, so that their score can be compared with the one obtained by the regular detection.
+ */
+public class AnomalyParameterSweepScenarioTest {
+
+	private static final Logger logger = getLogger(AnomalyParameterSweepScenarioTest.class);
+	private static final List<String> scenarioNames = List.of(NUMENTA_SPIKES_SCENARIO, NUMENTA_JUMPS_SCENARIO);
+	private static final int DISPLAYED_ROWS = 10;
+
+	@TestFactory
+	Collection<DynamicTest> prepareTestScenarios() {
+		return scenarioNames.stream()
+				.map(ScenarioReader::getScenarioConfigName)
+				.map(ScenarioReader::readScenario)
+				.map(scenario -> dynamicTest(getScenarioName(scenario), () -> executeParameterSweep(scenario)))
+				.toList();
+	}
+
+	private void executeParameterSweep(final ScenarioDescription scenarioDescription) {
+		final DensityBasedAnomalyConfiguration configuration = scenarioDescription.getBaseAlgorithmsConfig().stream()
+				.filter(config -> config.getType().equals(ANOMALY))
+				.findFirst()
+				.map(AlgorithmConfigDescription::getConfig)
+				.map(DensityBasedAnomalyConfiguration.class::cast)
+				.orElseThrow();
+		final DensityBasedAnomaliesParameters configuredParameters = configuration.getModelsProperties().stream()
+				.filter(parameters -> parameters.getName().equals(CPU_USAGE.name()))
+				.findFirst()
+				.orElseThrow();
+
+		final long startTime = System.nanoTime();
+		final DensityBasedAnomalyParameterSweep parameterSweep =
+				new DensityBasedAnomalyParameterSweep(scenarioDescription);
+		final List<DensityBasedAnomaliesParameters> parametersGrid = new ArrayList<>(createParametersGrid(
+				CPU_USAGE.name(),
+				IntStream.rangeClosed(1, 19).mapToObj(idx -> idx * 0.05).toList(),
+				IntStream.rangeClosed(1, 19).mapToObj(idx -> idx * 0.05).toList(),
+				IntStream.rangeClosed(1, 5).boxed().toList(),
+				IntStream.rangeClosed(1, 5).boxed().toList()));
+		parametersGrid.add(configuredParameters);
+
+		final List<ParameterSweepResult> results = parameterSweep.runSweep(parametersGrid, ForkJoinPool.commonPool());
+		final double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+
+		logger.info("Evaluated {} parameter combinations in {} s:\n{}", results.size(),
+				format("%.2f", elapsedSeconds), parameterSweep.formatRanking(results, DISPLAYED_ROWS));
+
+		final double configuredScore = results.stream()
+				.filter(result -> result.getParameters() == configuredParameters)
+				.findFirst()
+				.orElseThrow()
+				.getAnomalyScore();
+
+		assertEquals(parametersGrid.size(), results.size());
+		assertEquals(computeAnomalyScore(configuration, scenarioDescription), configuredScore);
+		assertTrue(results.getFirst().getAnomalyScore() >= configuredScore);
+	}
+
+	private double computeAnomalyScore(final DensityBasedAnomalyConfiguration configuration,
+			final ScenarioDescription scenarioDescription) {
+		final DensityBasedAnomalyDetection anomalyDetection = new DensityBasedAnomalyDetection(configuration);
+		final List<TestInfrastructureElementState> ieData = readScenarioData(scenarioDescription.getIe().getData());
+
+		final Map<Integer, List<String>> anomalies = IntStream.range(0, ieData.size()).boxed()
+				.map(idx -> Pair.of(idx + 1,
+						anomalyDetection.detectAnomalies(ieData.get(idx), scenarioDescription.getIe())))
+				.filter(idxPair -> !idxPair.getValue().isEmpty())
+				.collect(toMap(Pair::getKey, Pair::getValue));
+
+		return new AnomalyScoreEvaluator(anomalies).computeAnomalyScoreForCPU(scenarioDescription);
+	}
+}
@@ -0,0 +1,243 @@
+package org.aeros;
+
+import static java.lang.String.format;
+import static org.aeros.base.BatchDensityBasedAnomalyDetection.getBitsetLength;
+import static org.aeros.base.CompiledDensityBasedAnomalyDetection.METRICS_COUNT;
+import static org.aeros.base.CompiledDensityBasedAnomalyDetection.getAnomalyCode;
+import static org.aeros.domain.AlgorithmType.ANOMALY;
+import static org.aeros.domain.ScenarioDescription.NUMENTA_JUMPS_SCENARIO;
+import static org.aeros.utils.ScenarioReader.getScenarioConfigName;
+import static org.aeros.utils.ScenarioReader.readScenario;
+import static org.aeros.utils.ScenarioReader.readScenarioData;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.aeros.base.BatchDensityBasedAnomalyDetection;
+import org.aeros.base.CompiledDensityBasedAnomalyDetection;
+import org.aeros.base.FleetDensityBasedAnomalyDetection;
+import org.aeros.base.config.DensityBasedAnomalyConfiguration;
+import org.aeros.domain.AlgorithmConfigDescription;
+import org.aeros.domain.ResourceType;
+import org.aeros.domain.ScenarioDescription;
+import org.aeros.domain.TestInfrastructureElement;
+import org.aeros.domain.TestInfrastructureElementState;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+/**
+ * Throughput tests of the fleet and batch density-based anomaly detection. Numenta trace is replayed for many
+ * synthetic IEs (each starting at a different offset of the trace), which are reported in an interleaved manner by
+ * multiple producer threads or advanced in lockstep. The number of IEs is deliberately a prime (rather than 512), so
+ * that the last bitset word and the last vector of the batch kernel are only partially filled and the IEs cannot be
+ * split evenly between the producer threads. Since the comparison of single-threaded and multi-threaded throughput
+ * depends on the machine, it is tagged as {@value #BENCHMARK_TAG} and executed only in the benchmark profile.
+ */
+public class FleetAnomalyDetectionScenarioTest {
+
+	private static final Logger logger = getLogger(FleetAnomalyDetectionScenarioTest.class);
+	private static final int IE_COUNT = 509;
+	private static final int VERIFIED_IE_STEP = 64;
+	private static final String BENCHMARK_TAG = "benchmark";
+
+	@Test
+	void verifyFleetScenario() {
+		final ScenarioDescription scenarioDescription = readScenario(getScenarioConfigName(NUMENTA_JUMPS_SCENARIO));
+		final DensityBasedAnomalyConfiguration configuration = getAnomalyConfiguration(scenarioDescription);
+
+		final List<TestInfrastructureElementState> ieData = readScenarioData(scenarioDescription.getIe().getData());
+		final List<TestInfrastructureElement> ies = createSyntheticIEs(scenarioDescription.getIe());
+		final int[] offsets = getTraceOffsets(ieData.size());
+		final long[] expectedChecksums = computeExpectedChecksums(configuration, ieData, ies, offsets,
+				VERIFIED_IE_STEP);
+
+		runFleetScenario(configuration, ieData, ies, offsets, Math.max(2, Runtime.getRuntime().availableProcessors()),
+				expectedChecksums);
+	}
+
+	@Test
+	@Tag(BENCHMARK_TAG)
+	void executeFleetScenario() {
+		final ScenarioDescription scenarioDescription = readScenario(getScenarioConfigName(NUMENTA_JUMPS_SCENARIO));
+		final DensityBasedAnomalyConfiguration configuration = getAnomalyConfiguration(scenarioDescription);
+
+		final List<TestInfrastructureElementState> ieData = readScenarioData(scenarioDescription.getIe().getData());
+		final List<TestInfrastructureElement> ies = createSyntheticIEs(scenarioDescription.getIe());
+		final int[] offsets = getTraceOffsets(ieData.size());
+		final long[] expectedChecksums = computeExpectedChecksums(configuration, ieData, ies, offsets,
+				VERIFIED_IE_STEP);
+
+		final double singleThreadThroughput = runFleetScenario(configuration, ieData, ies, offsets, 1,
+				expectedChecksums);
+		final int threads = Runtime.getRuntime().availableProcessors();
+		final double multiThreadThroughput = runFleetScenario(configuration, ieData, ies, offsets, threads,
+				expectedChecksums);
+
+		logger.info("Fleet detection throughput: {} samples/s (1 thread), {} samples/s ({} threads), speedup {}.",
+				format("%.0f", singleThreadThroughput), format("%.0f", multiThreadThroughput), threads,
+				format("%.2f", multiThreadThroughput / singleThreadThroughput));
+	}
+
+	@Test
+	void executeBatchScenario() {
+		final ScenarioDescription scenarioDescription = readScenario(getScenarioConfigName(NUMENTA_JUMPS_SCENARIO));
+		final DensityBasedAnomalyConfiguration configuration = getAnomalyConfiguration(scenarioDescription);
+
+		final List<TestInfrastructureElementState> ieData = readScenarioData(scenarioDescription.getIe().getData());
+		final List<TestInfrastructureElement> ies = createSyntheticIEs(scenarioDescription.getIe());
+		final int[] offsets = getTraceOffsets(ieData.size());
+		final long[] expectedChecksums = computeExpectedChecksums(configuration, ieData, ies, offsets, 1);
+
+		final double[][] trace = new double[METRICS_COUNT][ieData.size()];
+		final double[] observations = new double[METRICS_COUNT];
+		final CompiledDensityBasedAnomalyDetection anomalyDetection =
+				new CompiledDensityBasedAnomalyDetection(configuration);
+
+		for (int step = 0; step < ieData.size(); step++) {
+			anomalyDetection.readObservations(ieData.get(step), scenarioDescription.getIe(), observations);
+			for (int metric = 0; metric < METRICS_COUNT; metric++) {
+				trace[metric][step] = observations[metric];
+			}
+		}
+
+		final double scalarThroughput = runBatchScenario(new BatchDensityBasedAnomalyDetection(configuration,
+				IE_COUNT, false), configuration, trace, offsets, expectedChecksums);
+		final BatchDensityBasedAnomalyDetection batchAnomalyDetection =
+				new BatchDensityBasedAnomalyDetection(configuration, IE_COUNT);
+		final double batchThroughput = runBatchScenario(batchAnomalyDetection, configuration, trace, offsets,
+				expectedChecksums);
+
+		logger.info("Batch detection throughput: {} samples/s (scalar), {} samples/s (vectorized: {}).",
+				format("%.0f", scalarThroughput), format("%.0f", batchThroughput),
+				batchAnomalyDetection.isVectorized());
+	}
+
+	private double runBatchScenario(final BatchDensityBasedAnomalyDetection batchAnomalyDetection,
+			final DensityBasedAnomalyConfiguration configuration,
+			final double[][] trace,
+			final int[] offsets,
+			final long[] expectedChecksums) {
+		final int traceLength = trace[0].length;
+		final int[] metrics = configuration.getModelsProperties().stream()
+				.mapToInt(modelProperties -> ResourceType.valueOf(modelProperties.getName()).ordinal())
+				.toArray();
+		final double[] column = new double[IE_COUNT];
+		final long[] anomalies = new long[getBitsetLength(IE_COUNT)];
+		final long[] increases = new long[getBitsetLength(IE_COUNT)];
+		final int[] stepAnomalies = new int[IE_COUNT];
+		final long[] checksums = new long[IE_COUNT];
+		final long startTime = System.nanoTime();
+
+		for (int step = 0; step < traceLength; step++) {
+			Arrays.fill(stepAnomalies, 0);
+
+			for (final int metric : metrics) {
+				for (int ieIdx = 0; ieIdx < IE_COUNT; ieIdx++) {
+					column[ieIdx] = trace[metric][(step + offsets[ieIdx]) % traceLength];
+				}
+				batchAnomalyDetection.detectAnomalies(metric, column, anomalies, increases);
+
+				for (int ieIdx = 0; ieIdx < IE_COUNT; ieIdx++) {
+					if ((anomalies[ieIdx >>> 6] & 1L << ieIdx) != 0) {
+						final boolean isIncrease = (increases[ieIdx >>> 6] & 1L << ieIdx) != 0;
+						stepAnomalies[ieIdx] |= 1 << getAnomalyCode(metric, isIncrease);
+					}
+				}
+			}
+			for (int ieIdx = 0; ieIdx < IE_COUNT; ieIdx++) {
+				checksums[ieIdx] += (long) (step + 1) * stepAnomalies[ieIdx];
+			}
+		}
+
+		final double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+		assertArrayEquals(expectedChecksums, checksums);
+
+		return (double) IE_COUNT * traceLength / elapsedSeconds;
+	}
+
+	private double runFleetScenario(final DensityBasedAnomalyConfiguration configuration,
+			final List<TestInfrastructureElementState> ieData,
+			final List<TestInfrastructureElement> ies,
+			final int[] offsets,
+			final int threads,
+			final long[] expectedChecksums) {
+		final FleetDensityBasedAnomalyDetection fleetAnomalyDetection =
+				new FleetDensityBasedAnomalyDetection(configuration, threads * 4);
+		final long[] checksums = new long[IE_COUNT];
+		final long startTime = System.nanoTime();
+
+		try (final ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+			IntStream.range(0, threads).forEach(producer -> executor.submit(() -> {
+				for (int step = 0; step < ieData.size(); step++) {
+					for (int ieIdx = producer; ieIdx < IE_COUNT; ieIdx += threads) {
+						final TestInfrastructureElementState state =
+								ieData.get((step + offsets[ieIdx]) % ieData.size());
+						final int anomalies = fleetAnomalyDetection.detectAnomalies(state, ies.get(ieIdx));
+						checksums[ieIdx] += (long) (step + 1) * anomalies;
+					}
+				}
+			}));
+		}
+
+		final double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+		assertEquals(IE_COUNT, fleetAnomalyDetection.getMonitoredElementsCount());
+		assertArrayEquals(expectedChecksums,
+				IntStream.range(0, IE_COUNT / VERIFIED_IE_STEP).mapToLong(idx -> checksums[idx * VERIFIED_IE_STEP])
+						.toArray());
+
+		return (double) IE_COUNT * ieData.size() / elapsedSeconds;
+	}
+
+	private long[] computeExpectedChecksums(final DensityBasedAnomalyConfiguration configuration,
+			final List<TestInfrastructureElementState> ieData,
+			final List<TestInfrastructureElement> ies,
+			final int[] offsets,
+			final int verifiedIEStep) {
+		return IntStream.range(0, IE_COUNT / verifiedIEStep)
+				.map(idx -> idx * verifiedIEStep)
+				.mapToLong(ieIdx -> {
+					final CompiledDensityBasedAnomalyDetection anomalyDetection =
+							new CompiledDensityBasedAnomalyDetection(configuration);
+					long checksum = 0;
+					for (int step = 0; step < ieData.size(); step++) {
+						final TestInfrastructureElementState state =
+								ieData.get((step + offsets[ieIdx]) % ieData.size());
+						checksum += (long) (step + 1) * anomalyDetection.detectAnomalies(state, ies.get(ieIdx));
+					}
+					return checksum;
+				})
+				.toArray();
+	}
+
+	private DensityBasedAnomalyConfiguration getAnomalyConfiguration(final ScenarioDescription scenarioDescription) {
+		return scenarioDescription.getBaseAlgorithmsConfig().stream()
+				.filter(config -> config.getType().equals(ANOMALY))
+				.findFirst()
+				.map(AlgorithmConfigDescription::getConfig)
+				.map(DensityBasedAnomalyConfiguration.class::cast)
+				.orElseThrow();
+	}
+
+	private List<TestInfrastructureElement> createSyntheticIEs(final TestInfrastructureElement baseIE) {
+		return IntStream.range(0, IE_COUNT).mapToObj(idx -> createSyntheticIE(baseIE, idx)).toList();
+	}
+
+	private int[] getTraceOffsets(final int traceLength) {
+		return IntStream.range(0, IE_COUNT).map(idx -> idx * 7 % traceLength).toArray();
+	}
+
+	private TestInfrastructureElement createSyntheticIE(final TestInfrastructureElement baseIE, final int idx) {
+		return new TestInfrastructureElement(format("%s:synthetic:%d", baseIE.getId(), idx),
+				baseIE.getCpuCores(),
+				baseIE.getRamCapacity(),
+				baseIE.getDiskCapacity(),
+				baseIE.getData());
+	}
+}
@@ -0,0 +1,167 @@
+package org.aeros;
+
+import static java.lang.String.format;
+import static org.aeros.algorithms.SamplingSimulator.simulateSampling;
+import static org.aeros.domain.AlgorithmType.ANOMALY;
+import static org.aeros.domain.AlgorithmType.SAMPLING;
+import static org.aeros.domain.ScenarioDescription.AEROS_SCENARIO;
+import static org.aeros.domain.ScenarioDescription.NUMENTA_JUMPS_SCENARIO;
+import static org.aeros.domain.ScenarioDescription.NUMENTA_SPIKES_SCENARIO;
+import static org.aeros.domain.ScenarioDescription.RAINMON_SCENARIO;
+import static org.aeros.metrics.SamplingQualityEvaluator.toColumns;
+import static org.aeros.utils.ScenarioMapper.mapToIEREST;
+import static org.aeros.utils.ScenarioReader.getScenarioConfigName;
+import static org.aeros.utils.ScenarioReader.readScenario;
+import static org.aeros.utils.ScenarioReader.readScenarioData;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.aeros.algorithms.SamplingAlgorithmRegistry;
+import org.aeros.base.DensityBasedAnomalyDetection;
+import org.aeros.base.config.DensityBasedAnomalyConfiguration;
+import org.aeros.base.config.PEWMASamplingConfiguration;
+import org.aeros.domain.AlgorithmConfigDescription;
+import org.aeros.domain.AlgorithmType;
+import org.aeros.domain.MetricType;
+import org.aeros.domain.MonitoredTrace;
+import org.aeros.domain.ScenarioDescription;
+import org.aeros.domain.TestInfrastructureElement;
+import org.aeros.domain.TestInfrastructureElementState;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+import org.aeros.metrics.SamplingQualityEvaluator;
+import org.aeros.pipeline.IEFeed;
+import org.aeros.pipeline.ScenarioPipeline;
+import org.aeros.pipeline.ScenarioPipeline.PipelineResult;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+/**
+ * Test of the streaming pipeline. States of all scenarios are processed concurrently (each scenario is reported by
+ * several synthetic IEs) with small buffers, and the results of the pipeline are compared with the ones of adaptive
+ * sampling simulated on complete traces, followed by anomaly detection of the monitored states. A pipeline with a feed
+ * whose data doesn't exist must fail instead of waiting for the states of the feed.
+ */
+public class PipelineScenarioTest {
+
+	private static final Logger logger = getLogger(PipelineScenarioTest.class);
+	private static final List<String> scenarioNames =
+			List.of(AEROS_SCENARIO, NUMENTA_SPIKES_SCENARIO, NUMENTA_JUMPS_SCENARIO, RAINMON_SCENARIO);
+	private static final Set<MetricType> QUALITY_METRICS = EnumSet.range(MetricType.MAPE_CPU, MetricType.SAMPLE_RATIO);
+	private static final int REPLICAS_COUNT = 2;
+	private static final int PARALLELISM = 3;
+	private static final int BUFFER_SIZE = 16;
+	private static final String MISSING_DATA_FILE = "missing-data.json";
+	private static final Duration FAILURE_TIMEOUT = Duration.ofSeconds(30);
+
+	private final SamplingAlgorithmRegistry samplingAlgorithmRegistry = SamplingAlgorithmRegistry.createDefault();
+
+	@Test
+	void executePipelineScenario() {
+		final List<ScenarioDescription> scenarioDescriptions = scenarioNames.stream()
+				.map(scenarioName -> readScenario(getScenarioConfigName(scenarioName)))
+				.toList();
+		final List<IEFeed> feeds = scenarioDescriptions.stream()
+				.flatMap(scenarioDescription -> IntStream.range(0, REPLICAS_COUNT)
+						.mapToObj(replica -> createFeed(scenarioDescription, replica)))
+				.toList();
+
+		final PipelineResult result = new ScenarioPipeline(feeds, PARALLELISM, BUFFER_SIZE).run();
+		result.stageMetrics().forEach(stageMetrics -> logger.info("Pipeline stage {}", stageMetrics));
+
+		scenarioDescriptions.forEach(scenarioDescription -> {
+			final List<TestInfrastructureElementState> ieData =
+					readScenarioData(scenarioDescription.getIe().getData());
+			final List<TestInfrastructureElementStateREST> ieRESTData = mapToIEREST(scenarioDescription, ieData);
+			final Pair<Integer, MonitoredTrace> samplingResult = simulateSampling(
+					samplingAlgorithmRegistry.create(SAMPLING, getConfiguration(scenarioDescription, SAMPLING,
+							PEWMASamplingConfiguration.class)), ieRESTData);
+			final Map<MetricType, Double> expectedMetrics = new SamplingQualityEvaluator(samplingResult.getValue(),
+					toColumns(ieRESTData, ieRESTData.size()), samplingResult.getKey(), null)
+					.computeMetrics(QUALITY_METRICS);
+			final Map<Integer, List<String>> expectedAnomalies =
+					detectMonitoredAnomalies(scenarioDescription, ieData, samplingResult.getValue());
+
+			feeds.stream()
+					.filter(feed -> feed.ie().getData().equals(scenarioDescription.getIe().getData()))
+					.map(feed -> feed.ie().getId())
+					.forEach(ieId -> {
+						assertEquals(expectedMetrics, result.samplingQualitySink().computeMetrics(ieId,
+								QUALITY_METRICS));
+						assertEquals(expectedAnomalies, result.anomalySink().getDetectedAnomalies(ieId));
+					});
+			logger.info("Pipeline results of {}: {}, anomalies: {}", scenarioDescription.getName(), expectedMetrics,
+					expectedAnomalies);
+		});
+	}
+
+	@Test
+	void failPipelineOnMissingScenarioData() {
+		final ScenarioDescription scenarioDescription = readScenario(getScenarioConfigName(RAINMON_SCENARIO));
+		final List<IEFeed> feeds = List.of(createFeed(scenarioDescription, 0),
+				createFeed(scenarioDescription, 1, MISSING_DATA_FILE));
+		final ScenarioPipeline pipeline = new ScenarioPipeline(feeds, PARALLELISM, BUFFER_SIZE);
+
+		final RuntimeException exception = assertTimeoutPreemptively(FAILURE_TIMEOUT,
+				() -> assertThrows(RuntimeException.class, pipeline::run));
+		assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+	}
+
+	private Map<Integer, List<String>> detectMonitoredAnomalies(final ScenarioDescription scenarioDescription,
+			final List<TestInfrastructureElementState> ieData, final MonitoredTrace monitoredTrace) {
+		final DensityBasedAnomalyDetection anomalyDetection = new DensityBasedAnomalyDetection(
+				getConfiguration(scenarioDescription, ANOMALY, DensityBasedAnomalyConfiguration.class));
+		final Map<Integer, List<String>> anomalies = new HashMap<>();
+
+		for (int sampleIdx = 0; sampleIdx < monitoredTrace.getSamplesCount(); sampleIdx++) {
+			final int idx = monitoredTrace.getSampleStart(sampleIdx);
+			final List<String> detectedAnomalies =
+					anomalyDetection.detectAnomalies(ieData.get(idx), scenarioDescription.getIe());
+
+			if (!detectedAnomalies.isEmpty()) {
+				anomalies.put(idx + 1, detectedAnomalies);
+			}
+		}
+		return anomalies;
+	}
+
+	private IEFeed createFeed(final ScenarioDescription scenarioDescription, final int replica) {
+		return createFeed(scenarioDescription, replica, scenarioDescription.getIe().getData());
+	}
+
+	private IEFeed createFeed(final ScenarioDescription scenarioDescription, final int replica,
+			final String dataFileName) {
+		final TestInfrastructureElement baseIE = scenarioDescription.getIe();
+		final TestInfrastructureElement ie = new TestInfrastructureElement(
+				format("%s:%s:%d", baseIE.getId(), scenarioDescription.getName(), replica),
+				baseIE.getCpuCores(),
+				baseIE.getRamCapacity(),
+				baseIE.getDiskCapacity(),
+				dataFileName);
+
+		return new IEFeed(ie,
+				getConfiguration(scenarioDescription, SAMPLING, PEWMASamplingConfiguration.class),
+				getConfiguration(scenarioDescription, ANOMALY, DensityBasedAnomalyConfiguration.class));
+	}
+
+	private <T> T getConfiguration(final ScenarioDescription scenarioDescription, final AlgorithmType type,
+			final Class<T> configurationClass) {
+		return scenarioDescription.getBaseAlgorithmsConfig().stream()
+				.filter(config -> config.getType().equals(type))
+				.findFirst()
+				.map(AlgorithmConfigDescription::getConfig)
+				.map(configurationClass::cast)
+				.orElseThrow();
+	}
+}
@@ -1,36 +1,47 @@
 package org.aeros;
 
+import static java.lang.String.format;
 import static java.lang.String.join;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.aeros.algorithms.SamplingSimulator.simulateSampling;
 import static org.aeros.domain.AlgorithmType.SAMPLING;
 import static org.aeros.domain.ScenarioDescription.AEROS_SCENARIO;
 import static org.aeros.domain.ScenarioDescription.RAINMON_SCENARIO;
 import static org.aeros.domain.TestInfrastructureElementStateREST.getAmountOfUsedCores;
 import static org.aeros.utils.ResultVisualization.plotAndSaveSamplingCharts;
-import static org.aeros.utils.ScenarioMapper.mapToIEREST;
 import static org.aeros.utils.ScenarioReader.getScenarioName;
-import static org.aeros.utils.ScenarioReader.readScenarioData;
+import static org.aeros.utils.ScenarioRunner.runScenarios;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
 
 import org.aeros.algorithms.AdaptiveSamplingAWBS;
 import org.aeros.algorithms.AdaptiveSamplingUDASA;
+import org.aeros.algorithms.CompiledAdaptiveSamplingAWBS;
+import org.aeros.algorithms.SamplingAlgorithmRegistry;
 import org.aeros.algorithms.parameters.AWBSParameters;
 import org.aeros.algorithms.parameters.UDASAParameters;
+import org.aeros.base.CompiledPEWMASampling;
+import org.aeros.base.OffHeapPEWMASamplingStore;
 import org.aeros.base.PEWMASampling;
 import org.aeros.base.config.PEWMASamplingConfiguration;
 import org.aeros.domain.AlgorithmConfigDescription;
+import org.aeros.domain.AlgorithmDescription;
+import org.aeros.domain.MonitoredTrace;
 import org.aeros.domain.ScenarioDescription;
 import org.aeros.domain.TestInfrastructureElementState;
 import org.aeros.domain.TestInfrastructureElementStateREST;
 import org.aeros.metrics.MetricLogger;
-import org.aeros.utils.ScenarioReader;
+import org.aeros.utils.ScenarioRunner.AlgorithmRun;
+import org.aeros.utils.ScenarioRunner.RunResult;
+import org.aeros.utils.ScenarioRunner.ScenarioData;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.TestFactory;
@@ -40,91 +51,173 @@ public class ResourceSamplingScenarioTest {
 
 	private static final Logger logger = getLogger(ResourceSamplingScenarioTest.class);
 	private static final List<String> scenarioNames = List.of(AEROS_SCENARIO, RAINMON_SCENARIO);
+	private static final int OFF_HEAP_IE_COUNT = 8;
+
+	private final SamplingAlgorithmRegistry samplingAlgorithmRegistry = SamplingAlgorithmRegistry.createDefault();
 
 	@TestFactory
 	Collection<DynamicTest> prepareTestScenarios() {
-		return scenarioNames.stream()
-				.map(ScenarioReader::getScenarioConfigName)
-				.map(ScenarioReader::readScenario)
-				.map(scenario -> dynamicTest(getScenarioName(scenario), () -> executeTestScenario(scenario)))
+		return runScenarios(scenarioNames, this::prepareAlgorithmRuns, ForkJoinPool.commonPool()).stream()
+				.map(runResult -> dynamicTest(format("%s (%s)", getScenarioName(runResult.scenarioData()
+						.scenarioDescription()), runResult.algorithmName()), () -> displaySamplingResults(runResult)))
+				.toList();
+	}
+
+	private List<AlgorithmRun<SamplingResult>> prepareAlgorithmRuns(final ScenarioData scenarioData) {
+		return Stream.concat(
+						Stream.of(new AlgorithmRun<>("AdaM", this::executeAdaMSampling)),
+						scenarioData.scenarioDescription().getAlgorithmsForComparison().stream()
+								.map(algorithm -> new AlgorithmRun<>(algorithm.getType().name(),
+										data -> executeComparisonAlgorithm(data, algorithm))))
 				.toList();
 	}
 
-	private void executeTestScenario(final ScenarioDescription scenarioDescription) {
+	private SamplingResult executeAdaMSampling(final ScenarioData scenarioData) {
+		final ScenarioDescription scenarioDescription = scenarioData.scenarioDescription();
 		final PEWMASamplingConfiguration configuration = scenarioDescription.getBaseAlgorithmsConfig().stream()
 				.filter(config -> config.getType().equals(SAMPLING))
 				.findFirst()
 				.map(AlgorithmConfigDescription::getConfig)
 				.map(PEWMASamplingConfiguration.class::cast)
 				.orElseThrow();
-		final PEWMASampling pewmaSamplingAlgorithm = new PEWMASampling(configuration);
-
-		final List<TestInfrastructureElementState> ieData = readScenarioData(scenarioDescription.getIe().getData());
-		final List<TestInfrastructureElementStateREST> ieRESTData = mapToIEREST(scenarioDescription, ieData);
-		final List<TestInfrastructureElementStateREST> monitoredSamples = new ArrayList<>();
-		final AtomicInteger monitoredSamplesCount = new AtomicInteger(0);
+		final List<TestInfrastructureElementState> ieData = scenarioData.ieData();
+		final Pair<Integer, MonitoredTrace> samplingResult = simulateSampling(
+				samplingAlgorithmRegistry.create(SAMPLING, configuration), scenarioData.ieRESTData());
 
-		int nextExpectedIdx = 0;
+		verifyLegacySampling(configuration, ieData, scenarioDescription, samplingResult.getValue());
+		verifyOffHeapSampling(configuration, ieData, scenarioDescription);
+		verifyOffHeapSamplingGrowth(configuration, ieData, scenarioDescription, false);
+		verifyOffHeapSamplingGrowth(configuration, ieData, scenarioDescription, true);
+		return plotSamplingResults(scenarioData, new SamplingResult(samplingResult.getValue(),
+				samplingResult.getKey()), "AdaM");
+	}
 
-		for (int i = 0; i < ieRESTData.size(); i++) {
-			if (nextExpectedIdx != i) {
-				monitoredSamples.add(monitoredSamples.getLast());
-				continue;
-			}
+	private void verifyLegacySampling(final PEWMASamplingConfiguration configuration,
+			final List<TestInfrastructureElementState> ieData,
+			final ScenarioDescription scenarioDescription,
+			final MonitoredTrace monitoredTrace) {
+		final PEWMASampling pewmaSamplingAlgorithm = new PEWMASampling(configuration);
 
-			final long samplingPeriod = pewmaSamplingAlgorithm.estimateSamplingPeriod(ieData.get(i),
+		for (int sampleIdx = 0; sampleIdx < monitoredTrace.getSamplesCount(); sampleIdx++) {
+			final int idx = monitoredTrace.getSampleStart(sampleIdx);
+			final long samplingPeriod = pewmaSamplingAlgorithm.estimateSamplingPeriod(ieData.get(idx),
 					scenarioDescription.getIe());
-			monitoredSamples.add(ieRESTData.get(i));
-			nextExpectedIdx = i + (int) (samplingPeriod / 1000);
-			monitoredSamplesCount.incrementAndGet();
+
+			assertEquals(Math.min(idx + (int) (samplingPeriod / 1000), ieData.size()),
+					monitoredTrace.getSampleEnd(sampleIdx));
 		}
+	}
+
+	private void verifyOffHeapSampling(final PEWMASamplingConfiguration configuration,
+			final List<TestInfrastructureElementState> ieData,
+			final ScenarioDescription scenarioDescription) {
+		final CompiledPEWMASampling compiledSamplingAlgorithm = new CompiledPEWMASampling(configuration);
 
-		displaySamplingResults(scenarioDescription, monitoredSamples, ieRESTData, monitoredSamplesCount.get(), "AdaM");
-		runComparisonAlgorithms(scenarioDescription, ieRESTData);
+		try (final OffHeapPEWMASamplingStore samplingStore = new OffHeapPEWMASamplingStore(1, false)) {
+			ieData.forEach(ieState -> assertEquals(
+					compiledSamplingAlgorithm.estimateSamplingPeriod(ieState, scenarioDescription.getIe()),
+					compiledSamplingAlgorithm.estimateSamplingPeriod(samplingStore, ieState,
+							scenarioDescription.getIe())));
+		}
 	}
 
-	private void runComparisonAlgorithms(final ScenarioDescription scenarioDescription,
-			final List<TestInfrastructureElementStateREST> ieRESTData) {
-		scenarioDescription.getAlgorithmsForComparison().forEach(algorithm -> {
-			final Pair<Integer, List<TestInfrastructureElementStateREST>> result = switch (algorithm.getType()) {
-				case UDASA -> {
-					final UDASAParameters params = (UDASAParameters) algorithm.getParams();
-					final AdaptiveSamplingUDASA udasa = new AdaptiveSamplingUDASA(params);
-					yield udasa.simulateSampling(ieRESTData);
-				}
-				case AWBS -> {
-					final AWBSParameters params = (AWBSParameters) algorithm.getParams();
-					final AdaptiveSamplingAWBS awbs = new AdaptiveSamplingAWBS(params);
-					yield awbs.simulateSampling(ieRESTData);
+	private void verifyOffHeapSamplingGrowth(final PEWMASamplingConfiguration configuration,
+			final List<TestInfrastructureElementState> ieData,
+			final ScenarioDescription scenarioDescription,
+			final boolean isSinglePrecision) {
+		final CompiledPEWMASampling compiledSamplingAlgorithm = new CompiledPEWMASampling(configuration);
+		final double[] observations = new double[CompiledPEWMASampling.METRICS_COUNT];
+
+		try (final OffHeapPEWMASamplingStore growingStore = new OffHeapPEWMASamplingStore(1, isSinglePrecision);
+				final OffHeapPEWMASamplingStore preallocatedStore =
+						new OffHeapPEWMASamplingStore(OFF_HEAP_IE_COUNT, isSinglePrecision)) {
+			final long initialBytes = growingStore.getAllocatedBytes();
+
+			for (int idx = 0; idx < ieData.size(); idx++) {
+				for (int ieIdx = 0; ieIdx < OFF_HEAP_IE_COUNT; ieIdx++) {
+					final String ieId = format("ie-%d", ieIdx);
+
+					compiledSamplingAlgorithm.readObservations(ieData.get((idx + 7 * ieIdx) % ieData.size()),
+							scenarioDescription.getIe(), observations);
+					assertEquals(
+							compiledSamplingAlgorithm.estimateSamplingPeriod(preallocatedStore,
+									preallocatedStore.getFirstSlot(ieId), observations),
+							compiledSamplingAlgorithm.estimateSamplingPeriod(growingStore,
+									growingStore.getFirstSlot(ieId), observations));
 				}
-				default -> throw new IllegalStateException("Unexpected value: " + algorithm.getType());
-			};
-			displaySamplingResults(scenarioDescription, result.getValue(), ieRESTData, result.getKey(),
-					algorithm.getType().name());
-		});
+			}
+
+			assertEquals((isSinglePrecision ? 24 : 32) * CompiledPEWMASampling.METRICS_COUNT, initialBytes);
+			assertEquals(OFF_HEAP_IE_COUNT, growingStore.getMonitoredElementsCount());
+			assertEquals(OFF_HEAP_IE_COUNT * initialBytes, growingStore.getAllocatedBytes());
+		}
 	}
 
-	private void displaySamplingResults(final ScenarioDescription scenarioDescription,
-			final List<TestInfrastructureElementStateREST> monitoredSamples,
+	private SamplingResult executeComparisonAlgorithm(final ScenarioData scenarioData,
+			final AlgorithmDescription algorithm) {
+		final List<TestInfrastructureElementStateREST> ieRESTData = scenarioData.ieRESTData();
+		final Pair<Integer, MonitoredTrace> samplingResult = simulateSampling(
+				samplingAlgorithmRegistry.create(algorithm.getType(), algorithm.getParams()), ieRESTData);
+
+		verifyLegacySampling(algorithm, ieRESTData, samplingResult);
+		return plotSamplingResults(scenarioData, new SamplingResult(samplingResult.getValue(), samplingResult.getKey()),
+				algorithm.getType().name());
+	}
+
+	private void verifyLegacySampling(final AlgorithmDescription algorithm,
 			final List<TestInfrastructureElementStateREST> ieRESTData,
-			final Integer monitoredSamplesCount,
+			final Pair<Integer, MonitoredTrace> samplingResult) {
+		final Pair<Integer, MonitoredTrace> legacySamplingResult = switch (algorithm.getType()) {
+			case UDASA -> {
+				final UDASAParameters params = (UDASAParameters) algorithm.getParams();
+				final MonitoredTrace udasaTrace = new AdaptiveSamplingUDASA(params).simulateMonitoredTrace(ieRESTData);
+				yield Pair.of(udasaTrace.getSamplesCount(), udasaTrace);
+			}
+			case AWBS -> {
+				final AWBSParameters params = (AWBSParameters) algorithm.getParams();
+				final AdaptiveSamplingAWBS awbs = new AdaptiveSamplingAWBS(params);
+				final Pair<Integer, List<TestInfrastructureElementStateREST>> awbsResult =
+						awbs.simulateSampling(ieRESTData);
+				assertEquals(awbsResult.toString(),
+						new CompiledAdaptiveSamplingAWBS(params).simulateSampling(ieRESTData).toString());
+				yield Pair.of(awbsResult.getKey(), MonitoredTrace.fromList(awbsResult.getValue()));
+			}
+			// algorithms without legacy implementation are not verified
+			default -> samplingResult;
+		};
+
+		assertEquals(legacySamplingResult.getKey(), samplingResult.getKey());
+		assertEquals(legacySamplingResult.getValue().toList().toString(),
+				samplingResult.getValue().toList().toString());
+	}
+
+	private SamplingResult plotSamplingResults(final ScenarioData scenarioData, final SamplingResult result,
 			final String methodName) {
-		final String testTitle = join("-", methodName.toLowerCase(), scenarioDescription.getName());
-		logger.info("Results of {} sampling:", methodName);
+		final String testTitle = join("-", methodName.toLowerCase(), scenarioData.scenarioDescription().getName());
+		final MonitoredTrace monitoredTrace = result.monitoredTrace();
+		final List<TestInfrastructureElementStateREST> ieRESTData = scenarioData.ieRESTData();
 
-		plotDiskMonitoring(monitoredSamples, ieRESTData, methodName, join("-", testTitle, "disk"));
-		plotRAMMonitoring(monitoredSamples, ieRESTData, methodName, join("-", testTitle, "ram"));
-		plotCPUMonitoring(ieRESTData, monitoredSamples, methodName, join("-", testTitle, "cpu"));
+		plotDiskMonitoring(monitoredTrace, ieRESTData, methodName, join("-", testTitle, "disk"));
+		plotRAMMonitoring(monitoredTrace, ieRESTData, methodName, join("-", testTitle, "ram"));
+		plotCPUMonitoring(monitoredTrace, ieRESTData, methodName, join("-", testTitle, "cpu"));
+		return result;
+	}
+
+	private void displaySamplingResults(final RunResult<SamplingResult> runResult) {
+		final SamplingResult result = runResult.getResult();
+		final ScenarioData scenarioData = runResult.scenarioData();
+		logger.info("Results of {} sampling (executed in {} ms):", runResult.algorithmName(),
+				NANOSECONDS.toMillis(runResult.elapsedTime()));
 
-		new MetricLogger(monitoredSamples, ieRESTData, monitoredSamplesCount).printMetrics(
-				scenarioDescription.getEvaluationMetrics());
+		new MetricLogger(result.monitoredTrace(), scenarioData.ieRESTData(), result.monitoredSamplesCount())
+				.printMetrics(scenarioData.scenarioDescription().getEvaluationMetrics());
 	}
 
-	private void plotDiskMonitoring(final List<TestInfrastructureElementStateREST> monitoredSamples,
+	private void plotDiskMonitoring(final MonitoredTrace monitoredTrace,
 			final List<TestInfrastructureElementStateREST> ieRESTData, final String methodName,
 			final String testTitle) {
 		plotAndSaveSamplingCharts(ieRESTData,
-				monitoredSamples,
+				monitoredTrace,
 				TestInfrastructureElementStateREST::getCurrentDiskUsage,
 				TestInfrastructureElementStateREST::getDiskCapacity,
 				testTitle,
@@ -133,11 +226,11 @@ public class ResourceSamplingScenarioTest {
 				"MB");
 	}
 
-	private void plotRAMMonitoring(final List<TestInfrastructureElementStateREST> monitoredSamples,
+	private void plotRAMMonitoring(final MonitoredTrace monitoredTrace,
 			final List<TestInfrastructureElementStateREST> ieRESTData, final String methodName,
 			final String testTitle) {
 		plotAndSaveSamplingCharts(ieRESTData,
-				monitoredSamples,
+				monitoredTrace,
 				TestInfrastructureElementStateREST::getCurrentRamUsage,
 				TestInfrastructureElementStateREST::getRamCapacity,
 				testTitle,
@@ -146,14 +239,14 @@ public class ResourceSamplingScenarioTest {
 				"MB");
 	}
 
-	private void plotCPUMonitoring(final List<TestInfrastructureElementStateREST> monitoredSamples,
+	private void plotCPUMonitoring(final MonitoredTrace monitoredTrace,
 			final List<TestInfrastructureElementStateREST> ieRESTData, final String methodName,
 			final String testTitle) {
 		final ToDoubleFunction<TestInfrastructureElementStateREST> getCPUUtilization = ie ->
 				testTitle.contains("aeros") ? requireNonNull(getAmountOfUsedCores(ie)) : ie.getCurrentCpuUsage();
 
 		plotAndSaveSamplingCharts(ieRESTData,
-				monitoredSamples,
+				monitoredTrace,
 				getCPUUtilization,
 				TestInfrastructureElementStateREST::getCpuCores,
 				testTitle,
@@ -161,4 +254,7 @@ public class ResourceSamplingScenarioTest {
 				"CPU",
 				"cores");
 	}
+
+	private record SamplingResult(MonitoredTrace monitoredTrace, int monitoredSamplesCount) {
+	}
 }
@@ -0,0 +1,282 @@
+package org.aeros;
+
+import static java.lang.String.format;
+import static org.aeros.algorithms.SamplingAlgorithm.OBSERVATION_INTERVAL;
+import static org.aeros.domain.AlgorithmType.ANOMALY;
+import static org.aeros.domain.AlgorithmType.SAMPLING;
+import static org.aeros.domain.ScenarioDescription.NUMENTA_JUMPS_SCENARIO;
+import static org.aeros.scheduler.IEStateCodec.decodeBatch;
+import static org.aeros.scheduler.IEStateCodec.encodeBatch;
+import static org.aeros.utils.ScenarioMapper.mapToIEREST;
+import static org.aeros.utils.ScenarioReader.getScenarioConfigName;
+import static org.aeros.utils.ScenarioReader.readScenario;
+import static org.aeros.utils.ScenarioReader.readScenarioData;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import org.aeros.base.CompiledDensityBasedAnomalyDetection;
+import org.aeros.base.config.DensityBasedAnomalyConfiguration;
+import org.aeros.base.config.PEWMASamplingConfiguration;
+import org.aeros.base.parameters.PEWMASamplingParameters;
+import org.aeros.domain.AlgorithmConfigDescription;
+import org.aeros.domain.ScenarioDescription;
+import org.aeros.domain.TestInfrastructureElementFlatState;
+import org.aeros.domain.TestInfrastructureElementState;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+import org.aeros.scheduler.HttpIEStatePoller;
+import org.aeros.scheduler.IEStateBatch;
+import org.aeros.scheduler.IEStateCodec;
+import org.aeros.scheduler.IEStatePoller;
+import org.aeros.scheduler.IEStateStandInServer;
+import org.aeros.scheduler.PolledStateDetection;
+import org.aeros.scheduler.SamplingScheduler;
+import org.aeros.scheduler.TraceReplay;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tests of the sampling scheduler. Numenta trace is replayed in real time (one sample per second) for many synthetic
+ * IEs, each starting at a different offset of the trace. In the load scenario, states of IEs (1000 per available
+ * processor, since the stand-in server runs on the same machine, but at most {@value #MAX_LOAD_IE_COUNT}) are polled
+ * over HTTP and passed to anomaly detectors, both with adaptive sampling and at a fixed rate (the minimal sampling
+ * period), in order to measure requests and bytes saved by adaptive sampling. Since it depends on the performance of
+ * the machine, the load scenario is tagged as {@value #BENCHMARK_TAG} and executed only in the benchmark profile. In
+ * the batched ingest scenario, the trace is transferred in binary batches of {@link IEStateCodec}, which are compared
+ * with JSON representation of the same states.
+ */
+public class SamplingSchedulerScenarioTest {
+
+	private static final Logger logger = getLogger(SamplingSchedulerScenarioTest.class);
+	private static final int HTTP_IE_COUNT = 500;
+	private static final int FLEET_IE_COUNT = 100_000;
+	private static final long TICK_DURATION = 10;
+	private static final int MAX_BATCH_SIZE = 64;
+	private static final long SCENARIO_DURATION = 3000;
+	private static final String BENCHMARK_TAG = "benchmark";
+	private static final int MAX_LOAD_IE_COUNT = 16_000;
+	private static final int LOAD_IE_COUNT =
+			Math.min(1_000 * Runtime.getRuntime().availableProcessors(), MAX_LOAD_IE_COUNT);
+	private static final long LOAD_SCENARIO_DURATION = 5000;
+	private static final long WARM_UP_DURATION = 2000;
+	private static final int INGEST_BATCH_SIZE = 60;
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	void executeHttpScenario() throws InterruptedException {
+		final ScenarioDescription scenarioDescription = readScenario(getScenarioConfigName(NUMENTA_JUMPS_SCENARIO));
+		final List<TestInfrastructureElementStateREST> ieRESTData = mapToIEREST(scenarioDescription,
+				readScenarioData(scenarioDescription.getIe().getData()));
+		final Map<String, LongAdder> pollsPerIE = new ConcurrentHashMap<>();
+		final long startTime = System.currentTimeMillis();
+
+		try (final IEStateStandInServer server = new IEStateStandInServer(
+				createTraceReplay(ieRESTData, startTime, HTTP_IE_COUNT))) {
+			final SamplingScheduler scheduler = new SamplingScheduler(getSamplingConfiguration(scenarioDescription),
+					new HttpIEStatePoller(server.getBaseUri()),
+					state -> pollsPerIE.computeIfAbsent(state.getId(), _ -> new LongAdder()).increment(),
+					HTTP_IE_COUNT, TICK_DURATION, MAX_BATCH_SIZE);
+
+			try (scheduler) {
+				IntStream.range(0, HTTP_IE_COUNT).forEach(idx ->
+						scheduler.register(getSyntheticId(idx), startTime + idx * 1000L / HTTP_IE_COUNT));
+				Thread.sleep(SCENARIO_DURATION);
+			}
+
+			logSchedulerStatistics("HTTP", scheduler);
+			assertEquals(0, scheduler.getFailedPollsCount());
+			assertEquals(HTTP_IE_COUNT, pollsPerIE.size());
+			assertEquals(server.getRequestsCount(), scheduler.getPollsCount());
+		}
+	}
+
+	@Test
+	@Tag(BENCHMARK_TAG)
+	void executeHttpLoadScenario() throws InterruptedException {
+		final ScenarioDescription scenarioDescription = readScenario(getScenarioConfigName(NUMENTA_JUMPS_SCENARIO));
+		final List<TestInfrastructureElementStateREST> ieRESTData = mapToIEREST(scenarioDescription,
+				readScenarioData(scenarioDescription.getIe().getData()));
+		final PEWMASamplingConfiguration samplingConfiguration = getSamplingConfiguration(scenarioDescription);
+
+		runHttpPolling("warm-up", scenarioDescription, samplingConfiguration, ieRESTData, WARM_UP_DURATION);
+		final PollingResult adaptiveResult = runHttpPolling("adaptive", scenarioDescription, samplingConfiguration,
+				ieRESTData, LOAD_SCENARIO_DURATION);
+		final PollingResult fixedRateResult = runHttpPolling("fixed-rate", scenarioDescription,
+				toFixedRateConfiguration(samplingConfiguration), ieRESTData, LOAD_SCENARIO_DURATION);
+
+		logger.info("Adaptive sampling of {} IEs saved {} requests ({}%) and {} bytes ({}%) of fixed-rate polling.",
+				LOAD_IE_COUNT, fixedRateResult.requestsCount() - adaptiveResult.requestsCount(),
+				format("%.2f", 100 - 100.0 * adaptiveResult.requestsCount() / fixedRateResult.requestsCount()),
+				fixedRateResult.sentBytes() - adaptiveResult.sentBytes(),
+				format("%.2f", 100 - 100.0 * adaptiveResult.sentBytes() / fixedRateResult.sentBytes()));
+		assertTrue(adaptiveResult.requestsCount() < fixedRateResult.requestsCount());
+		assertTrue(adaptiveResult.sentBytes() < fixedRateResult.sentBytes());
+	}
+
+	@Test
+	void executeBatchedIngestScenario() throws JsonProcessingException {
+		final ScenarioDescription scenarioDescription = readScenario(getScenarioConfigName(NUMENTA_JUMPS_SCENARIO));
+		final List<TestInfrastructureElementState> ieData = readScenarioData(scenarioDescription.getIe().getData());
+		final List<TestInfrastructureElementStateREST> ieRESTData = mapToIEREST(scenarioDescription, ieData);
+		final String ieId = scenarioDescription.getIe().getId();
+		final IEStateBatch batch = new IEStateBatch(INGEST_BATCH_SIZE);
+		long jsonBytes = 0;
+		long binaryBytes = 0;
+
+		for (int batchStart = 0; batchStart < ieRESTData.size(); batchStart += INGEST_BATCH_SIZE) {
+			final int batchEnd = Math.min(batchStart + INGEST_BATCH_SIZE, ieRESTData.size());
+			final byte[] encodedBatch = encodeBatch(ieId, ieRESTData.subList(batchStart, batchEnd));
+
+			binaryBytes += encodedBatch.length;
+			decodeBatch(ByteBuffer.wrap(encodedBatch), batch);
+			assertEquals(batchEnd - batchStart, batch.getSize());
+
+			for (int idx = 0; idx < batch.getSize(); idx++) {
+				jsonBytes += mapper.writeValueAsBytes(ieRESTData.get(batchStart + idx)).length;
+				assertEquals(ieRESTData.get(batchStart + idx).toString(), batch.toREST(idx).toString());
+				assertEquals(TestInfrastructureElementFlatState.of(ieData.get(batchStart + idx)),
+						batch.toFlatState(idx));
+			}
+		}
+
+		final TestInfrastructureElementStateREST partialState = new TestInfrastructureElementStateREST(ieId, 4, -7,
+				null, 1024, Integer.MIN_VALUE, null, null, null, Integer.MAX_VALUE, 0, null);
+		decodeBatch(ByteBuffer.wrap(encodeBatch(ieId, List.of(ieRESTData.getFirst(), partialState))), batch);
+		assertEquals(partialState.toString(), batch.toREST(1).toString());
+
+		logger.info("Binary batches of {} states took {} bytes ({} bytes per state) instead of {} bytes in JSON.",
+				ieRESTData.size(), binaryBytes, format("%.2f", (double) binaryBytes / ieRESTData.size()), jsonBytes);
+		assertTrue(binaryBytes * 4 < jsonBytes);
+	}
+
+	@Test
+	void executeFleetScenario() throws InterruptedException {
+		final ScenarioDescription scenarioDescription = readScenario(getScenarioConfigName(NUMENTA_JUMPS_SCENARIO));
+		final List<TestInfrastructureElementStateREST> ieRESTData = mapToIEREST(scenarioDescription,
+				readScenarioData(scenarioDescription.getIe().getData()));
+		final TraceReplay traceReplay = createTraceReplay(ieRESTData, System.currentTimeMillis(), FLEET_IE_COUNT);
+		final IEStatePoller statePoller = traceReplay::apply;
+		final LongAdder consumedStates = new LongAdder();
+		final long startTime = System.currentTimeMillis();
+
+		final SamplingScheduler scheduler = new SamplingScheduler(getSamplingConfiguration(scenarioDescription),
+				statePoller, _ -> consumedStates.increment(), FLEET_IE_COUNT, TICK_DURATION, MAX_BATCH_SIZE);
+
+		try (scheduler) {
+			IntStream.range(0, FLEET_IE_COUNT).forEach(idx ->
+					scheduler.register(getSyntheticId(idx), startTime + idx * 1000L / FLEET_IE_COUNT));
+			Thread.sleep(SCENARIO_DURATION);
+		}
+
+		logSchedulerStatistics("in-memory", scheduler);
+		assertEquals(0, scheduler.getFailedPollsCount());
+		assertEquals(consumedStates.sum(), scheduler.getPollsCount());
+		assertTrue(scheduler.getPollsCount() >= FLEET_IE_COUNT);
+		assertTrue(scheduler.getWakeUpsCount() <= 2 * SCENARIO_DURATION / TICK_DURATION);
+	}
+
+	private PollingResult runHttpPolling(final String pollingName, final ScenarioDescription scenarioDescription,
+			final PEWMASamplingConfiguration samplingConfiguration,
+			final List<TestInfrastructureElementStateREST> ieRESTData, final long duration)
+			throws InterruptedException {
+		final DensityBasedAnomalyConfiguration anomalyConfiguration = getAnomalyConfiguration(scenarioDescription);
+		final PolledStateDetection stateDetection = new PolledStateDetection(
+				() -> new CompiledDensityBasedAnomalyDetection(anomalyConfiguration));
+		final long startTime = System.currentTimeMillis();
+
+		try (final IEStateStandInServer server = new IEStateStandInServer(
+				createTraceReplay(ieRESTData, startTime, LOAD_IE_COUNT))) {
+			final SamplingScheduler scheduler = new SamplingScheduler(samplingConfiguration,
+					new HttpIEStatePoller(server.getBaseUri()), stateDetection, LOAD_IE_COUNT, TICK_DURATION,
+					MAX_BATCH_SIZE);
+
+			try (scheduler) {
+				IntStream.range(0, LOAD_IE_COUNT).forEach(idx ->
+						scheduler.register(getSyntheticId(idx), startTime + idx * 1000L / LOAD_IE_COUNT));
+				Thread.sleep(duration);
+			}
+
+			logSchedulerStatistics(format("HTTP %s", pollingName), scheduler);
+			logger.info("Polling ({}): {} requests, {} bytes sent, {} states of {} IEs passed to detectors ({} "
+							+ "anomalous).", pollingName, server.getRequestsCount(), server.getSentBytes(),
+					stateDetection.getStatesCount(), stateDetection.getDetectorsCount(),
+					stateDetection.getAnomalousStatesCount());
+			assertEquals(0, scheduler.getFailedPollsCount());
+			assertEquals(LOAD_IE_COUNT, stateDetection.getDetectorsCount());
+			assertEquals(server.getRequestsCount(), scheduler.getPollsCount());
+			assertEquals(scheduler.getPollsCount(), stateDetection.getStatesCount());
+
+			return new PollingResult(server.getRequestsCount(), server.getSentBytes());
+		}
+	}
+
+	private TraceReplay createTraceReplay(final List<TestInfrastructureElementStateREST> ieRESTData,
+			final long startTime, final int ieCount) {
+		final TraceReplay traceReplay = new TraceReplay(startTime, OBSERVATION_INTERVAL);
+
+		IntStream.range(0, ieCount).forEach(idx ->
+				traceReplay.register(getSyntheticId(idx), ieRESTData, (int) (idx * 7L % ieRESTData.size())));
+		return traceReplay;
+	}
+
+	private PEWMASamplingConfiguration toFixedRateConfiguration(final PEWMASamplingConfiguration configuration) {
+		return new PEWMASamplingConfiguration(configuration.getModelsProperties().stream()
+				.map(parameters -> new PEWMASamplingParameters(parameters.getType(),
+						parameters.getMinPeriod(),
+						parameters.getMinPeriod(),
+						parameters.getValueWeightFactor(),
+						parameters.getProbabilityWeightFactor(),
+						parameters.getImprecision(),
+						parameters.getMultiplicity()))
+				.toList());
+	}
+
+	private void logSchedulerStatistics(final String scenarioName, final SamplingScheduler scheduler) {
+		logger.info("Scheduler ({}): {} IEs, {} polls in {} batches, {} wake-ups, lateness {} ms (mean), {} ms (max).",
+				scenarioName, scheduler.getRegisteredElementsCount(), scheduler.getPollsCount(),
+				scheduler.getBatchesCount(), scheduler.getWakeUpsCount(), format("%.2f", scheduler.getMeanLateness()),
+				scheduler.getMaxLateness());
+	}
+
+	private PEWMASamplingConfiguration getSamplingConfiguration(final ScenarioDescription scenarioDescription) {
+		return scenarioDescription.getBaseAlgorithmsConfig().stream()
+				.filter(config -> config.getType().equals(SAMPLING))
+				.findFirst()
+				.map(AlgorithmConfigDescription::getConfig)
+				.map(PEWMASamplingConfiguration.class::cast)
+				.orElseThrow();
+	}
+
+	private DensityBasedAnomalyConfiguration getAnomalyConfiguration(final ScenarioDescription scenarioDescription) {
+		return scenarioDescription.getBaseAlgorithmsConfig().stream()
+				.filter(config -> config.getType().equals(ANOMALY))
+				.findFirst()
+				.map(AlgorithmConfigDescription::getConfig)
+				.map(DensityBasedAnomalyConfiguration.class::cast)
+				.orElseThrow();
+	}
+
+	private String getSyntheticId(final int idx) {
+		return format("urn:ngsi-ld:InfrastructureElement:synthetic:%d", idx);
+	}
+
+	/**
+	 * Result of polling the states of IEs over HTTP.
+	 *
+	 * @param requestsCount number of requests handled by the stand-in server
+	 * @param sentBytes     number of bytes sent by the stand-in server
+	 */
+	private record PollingResult(long requestsCount, long sentBytes) {
+	}
+}
@@ -0,0 +1,361 @@
+package org.aeros;
+
+import static java.lang.String.format;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static org.aeros.algorithms.SamplingSimulator.simulateSampling;
+import static org.aeros.base.CompiledDensityBasedAnomalyDetection.METRICS_COUNT;
+import static org.aeros.domain.AlgorithmType.ANOMALY;
+import static org.aeros.domain.AlgorithmType.AWBS;
+import static org.aeros.domain.AlgorithmType.SAMPLING;
+import static org.aeros.domain.AlgorithmType.UDASA;
+import static org.aeros.domain.MetricType.ANOMALY_SCORE_CPU;
+import static org.aeros.domain.MetricType.ANOMALY_SCORE_DISK;
+import static org.aeros.domain.MetricType.ANOMALY_SCORE_RAM;
+import static org.aeros.domain.MetricType.JPM_AVG;
+import static org.aeros.domain.MetricType.MAPE_AVG;
+import static org.aeros.domain.MetricType.SAMPLE_RATIO;
+import static org.aeros.domain.ResourceType.CPU_USAGE;
+import static org.aeros.domain.ResourceType.DISK_USAGE;
+import static org.aeros.domain.ResourceType.RAM_USAGE;
+import static org.aeros.domain.ScenarioDescription.RAINMON_SCENARIO;
+import static org.aeros.utils.ScenarioMapper.mapToIEREST;
+import static org.aeros.utils.ScenarioReader.getScenarioConfigName;
+import static org.aeros.utils.ScenarioReader.readScenario;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.aeros.algorithms.SamplingAlgorithm;
+import org.aeros.algorithms.SamplingAlgorithmRegistry;
+import org.aeros.algorithms.parameters.AWBSParameters;
+import org.aeros.algorithms.parameters.UDASAParameters;
+import org.aeros.base.CompiledDensityBasedAnomalyDetection;
+import org.aeros.base.config.DensityBasedAnomalyConfiguration;
+import org.aeros.base.config.PEWMASamplingConfiguration;
+import org.aeros.domain.AlgorithmConfigDescription;
+import org.aeros.domain.AlgorithmDescription;
+import org.aeros.domain.AlgorithmType;
+import org.aeros.domain.AnomalyScoringParameters;
+import org.aeros.domain.AnomalyWindow;
+import org.aeros.domain.MetricType;
+import org.aeros.domain.MonitoredTrace;
+import org.aeros.domain.ResourceType;
+import org.aeros.domain.ScenarioDescription;
+import org.aeros.domain.SyntheticTraceParameters;
+import org.aeros.domain.TestInfrastructureElement;
+import org.aeros.domain.TestInfrastructureElementFlatState;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+import org.aeros.metrics.AnomalyScoreEvaluator;
+import org.aeros.metrics.SamplingQualityEvaluator;
+import org.aeros.utils.ScenarioDataCache;
+import org.aeros.utils.ScenarioReader;
+import org.aeros.utils.SyntheticTraceGenerator;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+
+/**
+ * Scaling benchmark of sampling and anomaly detection algorithms. Synthetic traces of growing length (from 10^3
+ * samples up to the size given by {@value #MAX_SIZE_PROPERTY} system property, by default 10^5) are generated into
+ * columnar files and replayed through AdaM, UDASA, AWBS and density-based anomaly detection, configured as in rainmon
+ * scenario. Throughput, memory allocated per sample and quality metrics (MAPE, JPM and sample ratio of sampling,
+ * anomaly scores of detection computed against ground-truth windows of the trace) are reported for each size.
+ * <p>
+ * Each trace is streamed from its columnar file only (states are mapped lazily from the columns), so that traces much
+ * larger than the heap can be replayed. The columnar files are verified against the same trace generated in memory
+ * once, for a trace of {@value #VERIFIED_SIZE} samples. The complete benchmark is tagged as {@value #BENCHMARK_TAG},
+ * so it is executed only in the benchmark profile, while the default suite verifies the smallest size.
+ */
+public class ScalingBenchmarkScenarioTest {
+
+	private static final Logger logger = getLogger(ScalingBenchmarkScenarioTest.class);
+	private static final String BENCHMARK_TAG = "benchmark";
+	private static final String MAX_SIZE_PROPERTY = "aeros.benchmark.max.size";
+	private static final int DEFAULT_MAX_SIZE = 100_000;
+	private static final int MIN_SIZE = 1000;
+	private static final int VERIFIED_SIZE = 5000;
+
+	private static final double TRUE_POSITIVE_WEIGHT = 1.0;
+	private static final double FALSE_POSITIVE_WEIGHT = 0.045;
+	private static final double FALSE_NEGATIVE_WEIGHT = 1.0;
+	private static final double BASELINE = -1.0;
+
+	private static final com.sun.management.ThreadMXBean threadBean =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private final SamplingAlgorithmRegistry samplingAlgorithmRegistry = SamplingAlgorithmRegistry.createDefault();
+
+	@TempDir
+	Path traceDirectory;
+
+	@Test
+	void verifySyntheticTraceGeneration() throws IOException {
+		final ScenarioDescription scenarioDescription = readScenario(getScenarioConfigName(RAINMON_SCENARIO));
+		final SyntheticTraceParameters parameters = SyntheticTraceParameters.builder()
+				.length(VERIFIED_SIZE)
+				.build();
+		final SyntheticTraceGenerator generator =
+				new SyntheticTraceGenerator(parameters, scenarioDescription.getIe());
+
+		final List<TestInfrastructureElementFlatState> states = new ArrayList<>();
+		final Map<ResourceType, List<AnomalyWindow>> anomalyWindows = generator.generate(states::add);
+		final List<TestInfrastructureElementFlatState> regeneratedStates = new ArrayList<>();
+		generator.generate(regeneratedStates::add);
+
+		assertEquals(VERIFIED_SIZE, states.size());
+		assertEquals(states, regeneratedStates);
+		anomalyWindows.values().forEach(windows -> assertFalse(windows.isEmpty()));
+
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		assertWindowsEqual(anomalyWindows, generator.generate(outputStream));
+		try (final Stream<TestInfrastructureElementFlatState> jsonStates =
+				ScenarioReader.streamFlatScenarioData(new ByteArrayInputStream(outputStream.toByteArray()))) {
+			assertEquals(states, jsonStates.toList());
+		}
+
+		final Path tracePath = traceDirectory.resolve("synthetic-verified.bin");
+		assertWindowsEqual(anomalyWindows, generator.generate(tracePath));
+		try (final ScenarioDataCache cache = ScenarioDataCache.open(tracePath)) {
+			assertEquals(states, cache.asList());
+		}
+	}
+
+	@Test
+	void verifyScalingBenchmark() throws IOException {
+		final ScenarioDescription scenarioDescription = readScenario(getScenarioConfigName(RAINMON_SCENARIO));
+		final List<BenchmarkResult> results = runBenchmark(scenarioDescription, MIN_SIZE);
+
+		assertEquals(List.of("Generator", "AdaM", "UDASA", "AWBS", "Density-based detection"),
+				results.stream().map(BenchmarkResult::algorithm).toList());
+	}
+
+	@Test
+	@Tag(BENCHMARK_TAG)
+	void executeScalingBenchmark() throws IOException {
+		final ScenarioDescription scenarioDescription = readScenario(getScenarioConfigName(RAINMON_SCENARIO));
+		final int maxSize = Integer.getInteger(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE);
+		final List<BenchmarkResult> results = new ArrayList<>();
+
+		for (long size = MIN_SIZE; size <= maxSize; size *= 10) {
+			results.addAll(runBenchmark(scenarioDescription, (int) size));
+		}
+
+		results.stream()
+				.map(BenchmarkResult::algorithm)
+				.distinct()
+				.forEach(algorithm -> {
+					logger.info("Scaling of {}:", algorithm);
+					results.stream()
+							.filter(result -> result.algorithm().equals(algorithm))
+							.forEach(result -> logger.info("{}", result.formatLog()));
+				});
+	}
+
+	private List<BenchmarkResult> runBenchmark(final ScenarioDescription baseScenario, final int size)
+			throws IOException {
+		final TestInfrastructureElement baseIE = baseScenario.getIe();
+		final Path tracePath = traceDirectory.resolve(format("synthetic-%d.bin", size));
+		final TestInfrastructureElement ie = new TestInfrastructureElement(
+				format("%s:synthetic:%d", baseIE.getId(), size),
+				baseIE.getCpuCores(),
+				baseIE.getRamCapacity(),
+				baseIE.getDiskCapacity(),
+				tracePath.getFileName().toString());
+		final ScenarioDescription scenarioDescription = new ScenarioDescription(format("synthetic-%d", size),
+				format("Synthetic trace of %d samples.", size), ie, baseScenario.getEvaluationMetrics(),
+				baseScenario.getBaseAlgorithmsConfig(), baseScenario.getAlgorithmsForComparison());
+		final SyntheticTraceGenerator generator = new SyntheticTraceGenerator(SyntheticTraceParameters.builder()
+				.seed(size)
+				.length(size)
+				.build(), ie);
+		final List<BenchmarkResult> results = new ArrayList<>();
+
+		final Measurement<Map<ResourceType, List<AnomalyWindow>>> generation =
+				measure(() -> generator.generate(tracePath));
+		results.add(new BenchmarkResult("Generator", size, generation, Map.of()));
+
+		try (final ScenarioDataCache cache = ScenarioDataCache.open(tracePath)) {
+			final List<TestInfrastructureElementFlatState> states = cache.asList();
+			final List<TestInfrastructureElementStateREST> ieRESTData = mapToIERESTList(scenarioDescription, states);
+			final int[][] trueColumns = new int[METRICS_COUNT][];
+			trueColumns[CPU_USAGE.ordinal()] = cache.getColumn(ScenarioDataCache.Column.CURRENT_CPU_USAGE)
+					.toArray(JAVA_INT);
+			trueColumns[RAM_USAGE.ordinal()] = cache.getColumn(ScenarioDataCache.Column.CURRENT_RAM_USAGE)
+					.toArray(JAVA_INT);
+			trueColumns[DISK_USAGE.ordinal()] = cache.getColumn(ScenarioDataCache.Column.CURRENT_DISK_USAGE)
+					.toArray(JAVA_INT);
+
+			final PEWMASamplingConfiguration samplingConfiguration =
+					getConfiguration(scenarioDescription, SAMPLING, PEWMASamplingConfiguration.class);
+			final UDASAParameters udasaParameters =
+					getComparedParameters(scenarioDescription, UDASA, UDASAParameters.class);
+			final AWBSParameters awbsParameters =
+					getComparedParameters(scenarioDescription, AWBS, AWBSParameters.class);
+
+			final DensityBasedAnomalyConfiguration anomalyConfiguration =
+					getConfiguration(scenarioDescription, ANOMALY, DensityBasedAnomalyConfiguration.class);
+
+			results.add(evaluateSampling("AdaM", size, trueColumns, ieRESTData,
+					() -> samplingAlgorithmRegistry.create(SAMPLING, samplingConfiguration)));
+			results.add(evaluateSampling("UDASA", size, trueColumns, ieRESTData,
+					() -> samplingAlgorithmRegistry.create(UDASA, udasaParameters)));
+			results.add(evaluateSampling("AWBS", size, trueColumns, ieRESTData,
+					() -> samplingAlgorithmRegistry.create(AWBS, awbsParameters)));
+			results.add(evaluateDetection("Density-based detection", size, generation.result(),
+					measure(() -> detectAnomalies(anomalyConfiguration, states, ie))));
+		} finally {
+			Files.deleteIfExists(tracePath);
+		}
+		return results;
+	}
+
+	private List<TestInfrastructureElementStateREST> mapToIERESTList(final ScenarioDescription scenarioDescription,
+			final List<TestInfrastructureElementFlatState> states) {
+		return new AbstractList<>() {
+			@Override
+			public TestInfrastructureElementStateREST get(final int idx) {
+				return mapToIEREST(scenarioDescription, states.get(idx));
+			}
+
+			@Override
+			public int size() {
+				return states.size();
+			}
+		};
+	}
+
+	private Map<Integer, List<String>> detectAnomalies(final DensityBasedAnomalyConfiguration configuration,
+			final List<TestInfrastructureElementFlatState> states, final TestInfrastructureElement ie) {
+		final CompiledDensityBasedAnomalyDetection anomalyDetection =
+				new CompiledDensityBasedAnomalyDetection(configuration);
+		final Map<Integer, List<String>> anomalies = new HashMap<>();
+		final double[] observations = new double[METRICS_COUNT];
+
+		for (int idx = 0; idx < states.size(); idx++) {
+			anomalyDetection.readObservations(states.get(idx), ie, observations);
+			final int detectedAnomalies = anomalyDetection.detectAnomalies(observations);
+
+			if (detectedAnomalies != 0) {
+				anomalies.put(idx + 1, anomalyDetection.getAnomalyLabels(detectedAnomalies));
+			}
+		}
+		return anomalies;
+	}
+
+	private BenchmarkResult evaluateSampling(final String algorithm, final int size, final int[][] trueColumns,
+			final List<TestInfrastructureElementStateREST> ieRESTData,
+			final Supplier<SamplingAlgorithm> samplingAlgorithmFactory) {
+		final Measurement<Pair<Integer, MonitoredTrace>> measurement =
+				measure(() -> simulateSampling(samplingAlgorithmFactory.get(), ieRESTData));
+		final int observationsCount = measurement.result().getKey();
+		final MonitoredTrace monitoredTrace = measurement.result().getValue();
+		final SamplingQualityEvaluator qualityEvaluator = new SamplingQualityEvaluator(monitoredTrace, trueColumns,
+				observationsCount, ForkJoinPool.commonPool());
+		final Map<MetricType, Double> quality = qualityEvaluator.computeMetrics(List.of(MAPE_AVG, JPM_AVG,
+				SAMPLE_RATIO));
+
+		assertEquals(size, monitoredTrace.getLength());
+		// only the observations passed to the algorithm are monitored, except the first one which is always held
+		assertTrue(observationsCount > 0 && monitoredTrace.getSamplesCount() <= observationsCount + 1, algorithm);
+		assertEquals(0, monitoredTrace.getSampleStart(0), algorithm);
+		assertEquals(100.0 * observationsCount / size, quality.get(SAMPLE_RATIO), 1e-9, algorithm);
+		return new BenchmarkResult(algorithm, size, measurement, quality);
+	}
+
+	private BenchmarkResult evaluateDetection(final String algorithm, final int size,
+			final Map<ResourceType, List<AnomalyWindow>> anomalyWindows,
+			final Measurement<Map<Integer, List<String>>> measurement) {
+		assertTrue(measurement.result().keySet().stream().allMatch(idx -> idx >= 1 && idx <= size));
+
+		final AnomalyScoreEvaluator scoreEvaluator = new AnomalyScoreEvaluator(measurement.result());
+		final Map<MetricType, Double> quality = new EnumMap<>(MetricType.class);
+
+		Map.of(CPU_USAGE, ANOMALY_SCORE_CPU, RAM_USAGE, ANOMALY_SCORE_RAM, DISK_USAGE, ANOMALY_SCORE_DISK)
+				.forEach((resourceType, metricType) -> {
+					final List<AnomalyWindow> windows = anomalyWindows.get(resourceType);
+					if (!windows.isEmpty()) {
+						quality.put(metricType, scoreEvaluator.computeAnomalyScore(new AnomalyScoringParameters(
+								windows, TRUE_POSITIVE_WEIGHT, FALSE_POSITIVE_WEIGHT, FALSE_NEGATIVE_WEIGHT,
+								BASELINE), resourceType));
+					}
+				});
+		return new BenchmarkResult(algorithm, size, measurement, quality);
+	}
+
+	private <T> Measurement<T> measure(final Supplier<T> benchmarkedTask) {
+		final long startAllocatedBytes = threadBean.getCurrentThreadAllocatedBytes();
+		final long startTime = System.nanoTime();
+		final T result = benchmarkedTask.get();
+		final long elapsedTime = System.nanoTime() - startTime;
+
+		return new Measurement<>(result, elapsedTime,
+				threadBean.getCurrentThreadAllocatedBytes() - startAllocatedBytes);
+	}
+
+	private <T> T getConfiguration(final ScenarioDescription scenarioDescription, final AlgorithmType type,
+			final Class<T> configurationClass) {
+		return scenarioDescription.getBaseAlgorithmsConfig().stream()
+				.filter(config -> config.getType().equals(type))
+				.findFirst()
+				.map(AlgorithmConfigDescription::getConfig)
+				.map(configurationClass::cast)
+				.orElseThrow();
+	}
+
+	private <T> T getComparedParameters(final ScenarioDescription scenarioDescription, final AlgorithmType type,
+			final Class<T> parametersClass) {
+		return scenarioDescription.getAlgorithmsForComparison().stream()
+				.filter(algorithm -> algorithm.getType().equals(type))
+				.findFirst()
+				.map(AlgorithmDescription::getParams)
+				.map(parametersClass::cast)
+				.orElseThrow();
+	}
+
+	private void assertWindowsEqual(final Map<ResourceType, List<AnomalyWindow>> expectedWindows,
+			final Map<ResourceType, List<AnomalyWindow>> windows) {
+		expectedWindows.forEach((resourceType, expected) -> assertEquals(
+				expected.stream().map(window -> List.of(window.getStartIdx(), window.getEndIdx())).toList(),
+				windows.get(resourceType).stream().map(window -> List.of(window.getStartIdx(), window.getEndIdx()))
+						.toList()));
+	}
+
+	private record Measurement<T>(T result, long elapsedTime, long allocatedBytes) {
+	}
+
+	private record BenchmarkResult(String algorithm, int size, double throughput, double allocatedBytesPerSample,
+								   Map<MetricType, Double> quality) {
+
+		private BenchmarkResult(final String algorithm, final int size, final Measurement<?> measurement,
+				final Map<MetricType, Double> quality) {
+			this(algorithm, size, size / (measurement.elapsedTime() / 1e9),
+					(double) measurement.allocatedBytes() / size, quality);
+		}
+
+		private String formatLog() {
+			final StringBuilder log = new StringBuilder(format("%,12d samples: %,14.0f samples/s, %,10.1f B/sample",
+					size, throughput, allocatedBytesPerSample));
+			quality.forEach((metricType, value) -> log.append(format(", %s: %.3f", metricType, value)));
+			return log.toString();
+		}
+	}
+}
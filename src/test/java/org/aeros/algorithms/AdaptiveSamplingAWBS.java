@@ -52,6 +52,26 @@ public class AdaptiveSamplingAWBS {
 		this.lastAverage = new HashMap<>(Map.of("CPU", -1.0, "RAM", -1.0, "DISK", -1.0));
 	}
 
+	private AdaptiveSamplingAWBS(final AdaptiveSamplingAWBS samplingAlgorithm) {
+		this.threshold = samplingAlgorithm.threshold;
+		this.maxWindowSize = samplingAlgorithm.maxWindowSize;
+
+		this.windowObservations = new HashMap<>();
+		samplingAlgorithm.windowObservations.forEach((type, observations) ->
+				windowObservations.put(type, new ArrayList<>(observations)));
+		this.windowSize = new HashMap<>(samplingAlgorithm.windowSize);
+		this.lastAverage = new HashMap<>(samplingAlgorithm.lastAverage);
+	}
+
+	/**
+	 * Method creates a copy of the algorithm in its current state, which is updated independently of the original.
+	 *
+	 * @return copy of the algorithm
+	 */
+	public AdaptiveSamplingAWBS copy() {
+		return new AdaptiveSamplingAWBS(this);
+	}
+
 	/**
 	 * Method simulates adaptive sampling using AWBS algorithm.
 	 *
@@ -6,14 +6,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import org.aeros.domain.MonitoredTrace;
 import org.aeros.domain.TestInfrastructureElementStateREST;
 import org.aeros.algorithms.parameters.UDASAParameters;
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.commons.math3.stat.descriptive.rank.Median;
 
 /**
  * Class implements the user-driven window-based adaptive sampling approach.
@@ -25,6 +24,8 @@ public class AdaptiveSamplingUDASA {
 
 	private final Map<String, List<Double>> windowObservations;
 	private final Map<String, Integer> samplingPeriod;
+	private final PrefixMedianAbsoluteDeviation prefixMAD;
+	private final double[] prefixMADs;
 
 	private final int windowSize;
 	private final int savingSize;
@@ -39,6 +40,8 @@ public class AdaptiveSamplingUDASA {
 		this.windowSize = udasaParameters.getWindowSize();
 		this.savingSize = udasaParameters.getSavingSize();
 		this.baseSamplingPeriod = udasaParameters.getBaseSamplingPeriod();
+		this.prefixMAD = new PrefixMedianAbsoluteDeviation(windowSize);
+		this.prefixMADs = new double[windowSize];
 
 		this.windowObservations = new HashMap<>(Map.of(
 				"CPU", new ArrayList<>(),
@@ -52,6 +55,28 @@ public class AdaptiveSamplingUDASA {
 		);
 	}
 
+	private AdaptiveSamplingUDASA(final AdaptiveSamplingUDASA samplingAlgorithm) {
+		this.windowSize = samplingAlgorithm.windowSize;
+		this.savingSize = samplingAlgorithm.savingSize;
+		this.baseSamplingPeriod = samplingAlgorithm.baseSamplingPeriod;
+		this.prefixMAD = new PrefixMedianAbsoluteDeviation(windowSize);
+		this.prefixMADs = new double[windowSize];
+
+		this.windowObservations = new HashMap<>();
+		samplingAlgorithm.windowObservations.forEach((type, observations) ->
+				windowObservations.put(type, new ArrayList<>(observations)));
+		this.samplingPeriod = new HashMap<>(samplingAlgorithm.samplingPeriod);
+	}
+
+	/**
+	 * Method creates a copy of the algorithm in its current state, which is updated independently of the original.
+	 *
+	 * @return copy of the algorithm
+	 */
+	public AdaptiveSamplingUDASA copy() {
+		return new AdaptiveSamplingUDASA(this);
+	}
+
 	/**
 	 * Method simulates adaptive sampling using UDASA algorithm.
 	 *
@@ -60,22 +85,34 @@ public class AdaptiveSamplingUDASA {
 	 */
 	public Pair<Integer, List<TestInfrastructureElementStateREST>> simulateSampling(
 			final List<TestInfrastructureElementStateREST> ieRESTData) {
-		final List<TestInfrastructureElementStateREST> monitoredSamples = new ArrayList<>();
-		final AtomicInteger monitoredSamplesCount = new AtomicInteger(0);
+		final MonitoredTrace monitoredTrace = simulateMonitoredTrace(ieRESTData);
+		return Pair.of(monitoredTrace.getSamplesCount(), monitoredTrace.toList());
+	}
+
+	/**
+	 * Method simulates adaptive sampling using UDASA algorithm. The simulation jumps directly to the indexes of
+	 * observations that are to be sampled, so the skipped observations are never visited.
+	 *
+	 * @param ieRESTData input data on which sampling is to be simulated
+	 * @return trace of monitored observations
+	 */
+	public MonitoredTrace simulateMonitoredTrace(final List<TestInfrastructureElementStateREST> ieRESTData) {
+		final MonitoredTrace monitoredTrace = new MonitoredTrace(ieRESTData.size());
 		int nextExpectedIdx = 0;
 
-		for (int i = 0; i < ieRESTData.size(); i++) {
-			if (nextExpectedIdx != i) {
-				monitoredSamples.add(monitoredSamples.getLast());
-				continue;
-			}
+		while (nextExpectedIdx < ieRESTData.size()) {
+			final int idx = nextExpectedIdx;
+			final long period = estimateSamplingPeriod(ieRESTData.get(idx));
+
+			monitoredTrace.addSample(idx, ieRESTData.get(idx));
+			nextExpectedIdx = idx + (int) (period / 1000);
 
-			final long period = estimateSamplingPeriod(ieRESTData.get(i));
-			monitoredSamples.add(ieRESTData.get(i));
-			nextExpectedIdx = i + (int) (period / 1000);
-			monitoredSamplesCount.incrementAndGet();
+			if (nextExpectedIdx <= idx) {
+				// sampling period shorter than the interval of observations - the last sample is held until the end
+				break;
+			}
 		}
-		return Pair.of(monitoredSamplesCount.get(), monitoredSamples);
+		return monitoredTrace;
 	}
 
 	private long estimateSamplingPeriod(final TestInfrastructureElementStateREST nextObs) {
@@ -93,11 +130,14 @@ public class AdaptiveSamplingUDASA {
 		windowObservations.get(type).add(nextObs);
 
 		if (windowObservations.get(type).size() == windowSize) {
-			final double madSum = IntStream.range(1, windowObservations.get(type).size())
-					.mapToDouble(i -> calculateMAD(windowObservations.get(type).subList(0, i)))
+			prefixMAD.computePrefixMADs(windowObservations.get(type).stream().mapToDouble(Double::doubleValue).toArray(),
+					prefixMADs);
+
+			final double madSum = IntStream.range(1, windowSize)
+					.mapToDouble(i -> prefixMADs[i - 1])
 					.sum();
 			final double meadMAD = madSum / windowSize;
-			final double currentMAD = calculateMAD(windowObservations.get(type));
+			final double currentMAD = prefixMADs[windowSize - 1];
 			final double savingRatio = (((double) savingSize + 1) / 2);
 			final double changeDeg = currentMAD - savingRatio * meadMAD;
 
@@ -107,13 +147,4 @@ public class AdaptiveSamplingUDASA {
 		}
 		return samplingPeriod.get(type);
 	}
-
-	private double calculateMAD(final List<Double> sample) {
-		final double median = new Median().evaluate(sample.stream().mapToDouble(Double::doubleValue).toArray());
-		final double[] distances = sample.stream()
-				.map(obs -> Math.abs(obs - median))
-				.mapToDouble(Double::doubleValue)
-				.toArray();
-		return new Median().evaluate(distances);
-	}
 }
@@ -0,0 +1,126 @@
+package org.aeros.algorithms;
+
+import static org.aeros.algorithms.AnomalyDetector.NO_ANOMALIES;
+import static org.aeros.domain.ResourceType.CPU_USAGE;
+import static org.aeros.domain.ResourceType.DISK_USAGE;
+import static org.aeros.domain.ResourceType.RAM_USAGE;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.aeros.domain.ResourceType;
+import org.aeros.domain.TestInfrastructureElement;
+import org.aeros.domain.TestInfrastructureElementFlatState;
+
+/**
+ * Runner pushing the observations of a trace through several {@link AnomalyDetector anomaly detectors} at once.
+ * <p>
+ * The trace is read in a single pass and the values of all metrics are read once per IE state, directly from the
+ * primitive fields of {@link TestInfrastructureElementFlatState}, so comparing several detectors doesn't require
+ * reading the trace several times. Detections are collected per detector into
+ * primitive arrays of indexes of anomalous observations and anomaly bitmasks, which are mapped to labels only on
+ * demand.
+ */
+public class AnomalyDetectionRunner {
+
+	private static final int METRICS_COUNT = ResourceType.values().length;
+
+	/**
+	 * Method runs anomaly detectors on a trace of IE states.
+	 *
+	 * @param detectors anomaly detectors (each of them must have its own state)
+	 * @param ieStates  IE states of the trace
+	 * @param testIe    IE for which the states were reported
+	 * @return anomalies detected by each detector (in the order of detectors)
+	 */
+	public static List<DetectedAnomalies> runDetectors(final List<? extends AnomalyDetector> detectors,
+			final Stream<TestInfrastructureElementFlatState> ieStates, final TestInfrastructureElement testIe) {
+		final List<DetectedAnomalies> detectedAnomalies = detectors.stream()
+				.map(_ -> new DetectedAnomalies())
+				.toList();
+		final double[] observations = new double[METRICS_COUNT];
+		final Iterator<TestInfrastructureElementFlatState> statesIterator = ieStates.iterator();
+
+		for (int idx = 1; statesIterator.hasNext(); idx++) {
+			readObservations(statesIterator.next(), testIe, observations);
+
+			for (int detector = 0; detector < detectors.size(); detector++) {
+				final int anomalies = detectors.get(detector).detectAnomalies(observations);
+
+				if (anomalies != NO_ANOMALIES) {
+					detectedAnomalies.get(detector).add(idx, anomalies);
+				}
+			}
+		}
+		return detectedAnomalies;
+	}
+
+	private static void readObservations(final TestInfrastructureElementFlatState ieState,
+			final TestInfrastructureElement testIe, final double[] observations) {
+		observations[CPU_USAGE.ordinal()] = testIe.getCpuCores() * ieState.currentCpuUsage() / 100;
+		observations[RAM_USAGE.ordinal()] = ieState.currentRamUsage();
+		observations[DISK_USAGE.ordinal()] = ieState.currentDiskUsage();
+	}
+
+	/**
+	 * Anomalies detected by a single detector, stored as indexes of anomalous observations (starting from 1) and
+	 * corresponding bitmasks of anomaly codes.
+	 */
+	public static final class DetectedAnomalies {
+
+		private static final int INITIAL_CAPACITY = 16;
+
+		private int[] indexes = new int[INITIAL_CAPACITY];
+		private int[] anomalies = new int[INITIAL_CAPACITY];
+		private int size;
+
+		/**
+		 * @return number of anomalous observations
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * @return indexes of anomalous observations (in ascending order)
+		 */
+		public int[] getIndexes() {
+			return Arrays.copyOf(indexes, size);
+		}
+
+		/**
+		 * @return bitmasks of anomaly codes (in the order of anomalous observations)
+		 */
+		public int[] getAnomalies() {
+			return Arrays.copyOf(anomalies, size);
+		}
+
+		/**
+		 * Method maps detected anomalies to the labels of a given detector.
+		 *
+		 * @param detector detector which detected the anomalies
+		 * @return map of indexes of anomalous observations to anomaly labels
+		 */
+		public Map<Integer, List<String>> getAnomalyLabels(final AnomalyDetector detector) {
+			final Map<Integer, List<String>> anomalyLabels = new HashMap<>(size * 2);
+
+			for (int i = 0; i < size; i++) {
+				anomalyLabels.put(indexes[i], detector.getAnomalyLabels(anomalies[i]));
+			}
+			return anomalyLabels;
+		}
+
+		private void add(final int idx, final int anomalyCodes) {
+			if (size == indexes.length) {
+				indexes = Arrays.copyOf(indexes, size * 2);
+				anomalies = Arrays.copyOf(anomalies, size * 2);
+			}
+			indexes[size] = idx;
+			anomalies[size++] = anomalyCodes;
+		}
+	}
+}
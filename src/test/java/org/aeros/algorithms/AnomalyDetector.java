@@ -0,0 +1,40 @@
+package org.aeros.algorithms;
+
+import java.util.List;
+
+import org.aeros.domain.ResourceType;
+
+/**
+ * Common streaming interface of anomaly detectors.
+ * <p>
+ * Observations are pushed to the detector one by one, in the order of the trace, and for each of them the detector
+ * returns the bitmask of detected anomaly codes. Codes are specific to the detector and are mapped to labels by
+ * {@link #getAnomalyLabels(int)}. Observations are passed in an array indexed by {@link ResourceType#ordinal()},
+ * which is reused by the caller, so that both detectors run live and detectors replaying precomputed results can be
+ * driven by the same pass over the trace.
+ *
+ * @see AnomalyDetectionRunner
+ */
+public interface AnomalyDetector {
+
+	/**
+	 * Bitmask returned for the observations in which no anomalies were detected.
+	 */
+	int NO_ANOMALIES = 0;
+
+	/**
+	 * Method processes the next observation of the trace.
+	 *
+	 * @param observations observed values of all metrics (indexed by {@link ResourceType#ordinal()})
+	 * @return bitmask of detected anomaly codes
+	 */
+	int detectAnomalies(double[] observations);
+
+	/**
+	 * Method maps bitmask of anomaly codes to anomaly labels.
+	 *
+	 * @param anomalies bitmask of detected anomaly codes
+	 * @return list of anomaly labels
+	 */
+	List<String> getAnomalyLabels(int anomalies);
+}
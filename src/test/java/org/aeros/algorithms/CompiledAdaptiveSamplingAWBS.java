@@ -0,0 +1,200 @@
+package org.aeros.algorithms;
+
+import static org.aeros.domain.ResourceType.CPU_USAGE;
+import static org.aeros.domain.ResourceType.DISK_USAGE;
+import static org.aeros.domain.ResourceType.RAM_USAGE;
+import static org.aeros.domain.TestInfrastructureElementStateREST.getAmountOfUsedCores;
+import static org.aeros.utils.ScenarioMapper.mapToMonitoredIE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.aeros.algorithms.parameters.AWBSParameters;
+import org.aeros.domain.ResourceType;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Compiled mode of {@link AdaptiveSamplingAWBS}.
+ * <p>
+ * Windows of observations are replaced by running sums kept in arrays indexed by {@link ResourceType#ordinal()}, so
+ * that closing a window takes constant time, and monitored values are written to an array provided by the caller.
+ * The running sums are compensated in the same way as in {@link java.util.stream.DoubleStream#sum()}, hence the
+ * results are identical to the ones of {@link AdaptiveSamplingAWBS}.
+ */
+public class CompiledAdaptiveSamplingAWBS implements SamplingAlgorithm {
+
+	public static final int METRICS_COUNT = ResourceType.values().length;
+
+	private static final double NO_AVERAGE = -1.0;
+
+	private final double threshold;
+	private final int maxWindowSize;
+
+	private final int[] windowSize;
+	private final int[] windowObservationsCount;
+	private final double[] windowSum;
+	private final double[] windowSumCompensation;
+	private final double[] windowSimpleSum;
+	private final double[] lastAverage;
+	private final double[] observations;
+	private final double[] averages;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param parameters parameters of the algorithm
+	 */
+	public CompiledAdaptiveSamplingAWBS(final AWBSParameters parameters) {
+		this.threshold = parameters.getThreshold();
+		this.maxWindowSize = parameters.getMaxWindowSize();
+
+		this.windowSize = new int[METRICS_COUNT];
+		this.windowObservationsCount = new int[METRICS_COUNT];
+		this.windowSum = new double[METRICS_COUNT];
+		this.windowSumCompensation = new double[METRICS_COUNT];
+		this.windowSimpleSum = new double[METRICS_COUNT];
+		this.lastAverage = new double[METRICS_COUNT];
+		this.observations = new double[METRICS_COUNT];
+		this.averages = new double[METRICS_COUNT];
+
+		Arrays.fill(windowSize, parameters.getInitialWindowSize());
+		Arrays.fill(lastAverage, NO_AVERAGE);
+	}
+
+	private CompiledAdaptiveSamplingAWBS(final CompiledAdaptiveSamplingAWBS samplingAlgorithm) {
+		this.threshold = samplingAlgorithm.threshold;
+		this.maxWindowSize = samplingAlgorithm.maxWindowSize;
+
+		this.windowSize = samplingAlgorithm.windowSize.clone();
+		this.windowObservationsCount = samplingAlgorithm.windowObservationsCount.clone();
+		this.windowSum = samplingAlgorithm.windowSum.clone();
+		this.windowSumCompensation = samplingAlgorithm.windowSumCompensation.clone();
+		this.windowSimpleSum = samplingAlgorithm.windowSimpleSum.clone();
+		this.lastAverage = samplingAlgorithm.lastAverage.clone();
+		this.observations = new double[METRICS_COUNT];
+		this.averages = new double[METRICS_COUNT];
+	}
+
+	/**
+	 * Method simulates adaptive sampling using AWBS algorithm.
+	 *
+	 * @param ieRESTData input data on which sampling is to be simulated
+	 * @return Pair that contains the count of monitored sample and the monitored observations
+	 */
+	public Pair<Integer, List<TestInfrastructureElementStateREST>> simulateSampling(
+			final List<TestInfrastructureElementStateREST> ieRESTData) {
+		final List<TestInfrastructureElementStateREST> monitoredSamples = new ArrayList<>(ieRESTData.size());
+		final double[] monitoredValues = new double[METRICS_COUNT];
+		TestInfrastructureElementStateREST lastMonitoredSample = ieRESTData.getFirst();
+
+		for (final TestInfrastructureElementStateREST ieREST : ieRESTData) {
+			if (estimateObservation(ieREST, monitoredValues)) {
+				lastMonitoredSample = mapToMonitoredIE(ieREST, monitoredValues[CPU_USAGE.ordinal()],
+						monitoredValues[RAM_USAGE.ordinal()], monitoredValues[DISK_USAGE.ordinal()]);
+			}
+			monitoredSamples.add(lastMonitoredSample);
+		}
+		return Pair.of(monitoredSamples.size(), monitoredSamples);
+	}
+
+	@Override
+	public long observe(final double[] observations, final double[] monitoredValues) {
+		return estimateObservation(observations, monitoredValues) ? OBSERVATION_INTERVAL : NOT_MONITORED;
+	}
+
+	@Override
+	public boolean isAggregating() {
+		return true;
+	}
+
+	@Override
+	public CompiledAdaptiveSamplingAWBS copy() {
+		return new CompiledAdaptiveSamplingAWBS(this);
+	}
+
+	/**
+	 * Method computes next optimal window size based on the current observation.
+	 *
+	 * @param nextObs         current observation
+	 * @param monitoredValues array to which monitored values are written (indexed by {@link ResourceType#ordinal()})
+	 * @return information if the observation is monitored (i.e. if the monitored values were written)
+	 */
+	public boolean estimateObservation(final TestInfrastructureElementStateREST nextObs,
+			final double[] monitoredValues) {
+		observations[CPU_USAGE.ordinal()] = getAmountOfUsedCores(nextObs);
+		observations[RAM_USAGE.ordinal()] = nextObs.getCurrentRamUsage();
+		observations[DISK_USAGE.ordinal()] = nextObs.getCurrentDiskUsage();
+		return estimateObservation(observations, monitoredValues);
+	}
+
+	/**
+	 * Method computes next optimal window size based on the current observation.
+	 *
+	 * @param nextObs         current observation of all metrics (indexed by {@link ResourceType#ordinal()})
+	 * @param monitoredValues array to which monitored values are written (indexed by {@link ResourceType#ordinal()})
+	 * @return information if the observation is monitored (i.e. if the monitored values were written)
+	 */
+	public boolean estimateObservation(final double[] nextObs, final double[] monitoredValues) {
+		boolean isMonitored = true;
+		int commonWindowSize = Integer.MAX_VALUE;
+
+		for (int metric = 0; metric < METRICS_COUNT; metric++) {
+			averages[metric] = applyAWBSAlgorithm(metric, nextObs[metric]);
+			isMonitored &= averages[metric] != NO_AVERAGE;
+			commonWindowSize = Math.min(commonWindowSize, windowSize[metric]);
+		}
+
+		if (isMonitored) {
+			Arrays.fill(windowSize, commonWindowSize);
+			System.arraycopy(averages, 0, monitoredValues, 0, METRICS_COUNT);
+		}
+		return isMonitored;
+	}
+
+	private double applyAWBSAlgorithm(final int metric, final double nextObs) {
+		addToWindow(metric, nextObs);
+
+		if (windowObservationsCount[metric] == windowSize[metric]) {
+			final double average = getWindowSum(metric) / windowSize[metric];
+			final double prevAverage = lastAverage[metric];
+
+			lastAverage[metric] = average;
+			clearWindow(metric);
+
+			if (prevAverage != NO_AVERAGE) {
+				final double avgDifference =
+						prevAverage == 0 ? 0 : Math.abs((prevAverage - average) / prevAverage) * 100;
+				windowSize[metric] = avgDifference <= threshold
+						? Math.min(windowSize[metric] + 1, maxWindowSize)
+						: Math.max(windowSize[metric] - 1, 1);
+
+				return average;
+			}
+		}
+		return NO_AVERAGE;
+	}
+
+	private void addToWindow(final int metric, final double nextObs) {
+		final double compensatedObs = nextObs - windowSumCompensation[metric];
+		final double sum = windowSum[metric] + compensatedObs;
+
+		windowSumCompensation[metric] = (sum - windowSum[metric]) - compensatedObs;
+		windowSum[metric] = sum;
+		windowSimpleSum[metric] += nextObs;
+		windowObservationsCount[metric]++;
+	}
+
+	private double getWindowSum(final int metric) {
+		final double sum = windowSum[metric] - windowSumCompensation[metric];
+		return Double.isNaN(sum) && Double.isInfinite(windowSimpleSum[metric]) ? windowSimpleSum[metric] : sum;
+	}
+
+	private void clearWindow(final int metric) {
+		windowObservationsCount[metric] = 0;
+		windowSum[metric] = 0;
+		windowSumCompensation[metric] = 0;
+		windowSimpleSum[metric] = 0;
+	}
+}
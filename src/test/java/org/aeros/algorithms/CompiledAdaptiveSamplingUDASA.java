@@ -0,0 +1,123 @@
+package org.aeros.algorithms;
+
+import java.util.Arrays;
+
+import org.aeros.algorithms.parameters.UDASAParameters;
+import org.aeros.domain.ResourceType;
+
+/**
+ * Compiled mode of {@link AdaptiveSamplingUDASA}.
+ * <p>
+ * Windows of observations are kept in primitive arrays indexed by {@link ResourceType#ordinal()} and the sum of
+ * prefix MADs is compensated in the same way as in {@link java.util.stream.DoubleStream#sum()}, hence the estimated
+ * sampling periods are identical to the ones of {@link AdaptiveSamplingUDASA}, but no objects are created while
+ * observations are processed.
+ */
+public class CompiledAdaptiveSamplingUDASA implements SamplingAlgorithm {
+
+	public static final int METRICS_COUNT = ResourceType.values().length;
+
+	private final int windowSize;
+	private final int savingSize;
+	private final int baseSamplingPeriod;
+
+	private final PrefixMedianAbsoluteDeviation prefixMAD;
+	private final double[] prefixMADs;
+	private final double[][] windowObservations;
+	private final int[] windowObservationsCount;
+	private final int[] samplingPeriod;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param udasaParameters parameters of the algorithm
+	 */
+	public CompiledAdaptiveSamplingUDASA(final UDASAParameters udasaParameters) {
+		this.windowSize = udasaParameters.getWindowSize();
+		this.savingSize = udasaParameters.getSavingSize();
+		this.baseSamplingPeriod = udasaParameters.getBaseSamplingPeriod();
+
+		this.prefixMAD = new PrefixMedianAbsoluteDeviation(windowSize);
+		this.prefixMADs = new double[windowSize];
+		this.windowObservations = new double[METRICS_COUNT][windowSize];
+		this.windowObservationsCount = new int[METRICS_COUNT];
+		this.samplingPeriod = new int[METRICS_COUNT];
+
+		Arrays.fill(samplingPeriod, baseSamplingPeriod);
+	}
+
+	private CompiledAdaptiveSamplingUDASA(final CompiledAdaptiveSamplingUDASA samplingAlgorithm) {
+		this.windowSize = samplingAlgorithm.windowSize;
+		this.savingSize = samplingAlgorithm.savingSize;
+		this.baseSamplingPeriod = samplingAlgorithm.baseSamplingPeriod;
+
+		this.prefixMAD = new PrefixMedianAbsoluteDeviation(windowSize);
+		this.prefixMADs = new double[windowSize];
+		this.windowObservations = Arrays.stream(samplingAlgorithm.windowObservations)
+				.map(double[]::clone)
+				.toArray(double[][]::new);
+		this.windowObservationsCount = samplingAlgorithm.windowObservationsCount.clone();
+		this.samplingPeriod = samplingAlgorithm.samplingPeriod.clone();
+	}
+
+	@Override
+	public long observe(final double[] observations, final double[] monitoredValues) {
+		return estimateSamplingPeriod(observations);
+	}
+
+	@Override
+	public CompiledAdaptiveSamplingUDASA copy() {
+		return new CompiledAdaptiveSamplingUDASA(this);
+	}
+
+	/**
+	 * Method estimates the sampling period based on observations of all metrics.
+	 *
+	 * @param observations observed metric values indexed by {@link ResourceType#ordinal()}
+	 * @return sampling period (in milliseconds)
+	 */
+	public long estimateSamplingPeriod(final double[] observations) {
+		long minSamplingPeriod = Long.MAX_VALUE;
+
+		for (int metric = 0; metric < METRICS_COUNT; metric++) {
+			minSamplingPeriod = Math.min(minSamplingPeriod, applyUDASAAlgorithm(metric, observations[metric]));
+		}
+		return minSamplingPeriod;
+	}
+
+	private long applyUDASAAlgorithm(final int metric, final double nextObs) {
+		windowObservations[metric][windowObservationsCount[metric]++] = nextObs;
+
+		if (windowObservationsCount[metric] == windowSize) {
+			prefixMAD.computePrefixMADs(windowObservations[metric], prefixMADs);
+
+			final double meadMAD = computeMADSum() / windowSize;
+			final double currentMAD = prefixMADs[windowSize - 1];
+			final double savingRatio = (((double) savingSize + 1) / 2);
+			final double changeDeg = currentMAD - savingRatio * meadMAD;
+
+			samplingPeriod[metric] = (int) Math.round(
+					(savingSize + (1 - savingSize) / (1 + Math.exp(-savingSize * changeDeg))) * baseSamplingPeriod);
+			windowObservationsCount[metric] = 0;
+		}
+		return samplingPeriod[metric];
+	}
+
+	private double computeMADSum() {
+		double sum = 0;
+		double compensation = 0;
+		double simpleSum = 0;
+
+		for (int i = 1; i < windowSize; i++) {
+			final double compensatedMAD = prefixMADs[i - 1] - compensation;
+			final double nextSum = sum + compensatedMAD;
+
+			compensation = (nextSum - sum) - compensatedMAD;
+			sum = nextSum;
+			simpleSum += prefixMADs[i - 1];
+		}
+
+		final double compensatedSum = sum - compensation;
+		return Double.isNaN(compensatedSum) && Double.isInfinite(simpleSum) ? simpleSum : compensatedSum;
+	}
+}
@@ -0,0 +1,58 @@
+package org.aeros.algorithms;
+
+import static org.aeros.utils.ScenarioReader.readAnomalyScores;
+
+import java.util.List;
+
+import org.aeros.algorithms.parameters.NABAnomalyParameters;
+
+/**
+ * Adapter replaying precomputed results of NAB anomaly detection algorithms (e.g. ARTime or ContextOSE) as a
+ * streaming {@link AnomalyDetector}.
+ * <p>
+ * Anomaly scores are read once from the CSV file of detection results and each pushed observation advances the replay
+ * by one row, so that the observation is reported as anomalous when its score exceeds the threshold. Observations
+ * beyond the end of the results are never reported.
+ */
+public class NABAnomalyDetectionReplay implements AnomalyDetector {
+
+	private static final int ANOMALY = 1;
+	private static final List<String> ANOMALY_LABELS = List.of("OTHER");
+
+	private final double[] anomalyScores;
+	private final double threshold;
+	private int idx;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param parameters parameters of the NAB algorithm
+	 */
+	public NABAnomalyDetectionReplay(final NABAnomalyParameters parameters) {
+		this(readAnomalyScores(parameters.getDetectionResultsFileName()), parameters.getThreshold());
+	}
+
+	/**
+	 * Constructor replaying given anomaly scores.
+	 *
+	 * @param anomalyScores anomaly scores ordered in the same way as observations
+	 * @param threshold     threshold above which an observation is considered as anomaly
+	 */
+	public NABAnomalyDetectionReplay(final double[] anomalyScores, final double threshold) {
+		this.anomalyScores = anomalyScores;
+		this.threshold = threshold;
+	}
+
+	@Override
+	public int detectAnomalies(final double[] observations) {
+		final int anomalies = idx < anomalyScores.length && anomalyScores[idx] > threshold ? ANOMALY : NO_ANOMALIES;
+
+		idx++;
+		return anomalies;
+	}
+
+	@Override
+	public List<String> getAnomalyLabels(final int anomalies) {
+		return anomalies == NO_ANOMALIES ? List.of() : ANOMALY_LABELS;
+	}
+}
@@ -0,0 +1,142 @@
+package org.aeros.algorithms;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.stat.descriptive.rank.Median;
+
+/**
+ * Class computes median absolute deviations (MADs) of all prefixes of a window of observations in a single pass.
+ * <p>
+ * Observations are ranked once by sorting the window. The prefixes are then built by adding observations one by one
+ * to a Fenwick tree over the ranks, which selects the i-th smallest observation of the current prefix in O(log w).
+ * On each side of the median, the absolute deviations are ordered by the ranks of observations, so the median of
+ * deviations is selected from two sorted sequences by a binary search. MADs of all prefixes are thus computed in
+ * O(w log² w), instead of O(w² log w) needed to evaluate {@link Median} on each prefix.
+ * <p>
+ * Medians are estimated in the same way as in {@link Median} (legacy estimation of Commons Math), hence the results
+ * are identical to the ones obtained with {@link Median}.
+ */
+public class PrefixMedianAbsoluteDeviation {
+
+	private final double[] sortedObservations;
+	private final int[] tiesCount;
+	private final int[] rankTree;
+
+	private int windowSize;
+	private int prefixSize;
+	private int leftSize;
+	private double prefixMedian;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param maxWindowSize maximal size of the window of observations
+	 */
+	public PrefixMedianAbsoluteDeviation(final int maxWindowSize) {
+		this.sortedObservations = new double[maxWindowSize];
+		this.tiesCount = new int[maxWindowSize];
+		this.rankTree = new int[maxWindowSize + 1];
+	}
+
+	/**
+	 * Method computes MADs of all prefixes of the window.
+	 *
+	 * @param window     window of observations
+	 * @param prefixMADs array to which the MADs are written (i-th element is the MAD of the first i + 1 observations)
+	 */
+	public void computePrefixMADs(final double[] window, final double[] prefixMADs) {
+		windowSize = window.length;
+		prefixSize = 0;
+
+		System.arraycopy(window, 0, sortedObservations, 0, windowSize);
+		Arrays.sort(sortedObservations, 0, windowSize);
+		Arrays.fill(tiesCount, 0, windowSize, 0);
+		Arrays.fill(rankTree, 0, windowSize + 1, 0);
+
+		for (int i = 0; i < windowSize; i++) {
+			final int lowestRank = findLowestRank(window[i]);
+			addRank(lowestRank + tiesCount[lowestRank]++);
+
+			prefixSize = i + 1;
+			leftSize = (prefixSize + 1) / 2;
+			prefixMedian = prefixSize == 1 ? selectObservation(0) : interpolateMedian(true);
+			prefixMADs[i] = prefixSize == 1 ? 0 : interpolateMedian(false);
+		}
+	}
+
+	private double interpolateMedian(final boolean isObservationMedian) {
+		final double position = 0.5 * (prefixSize + 1);
+		final double floorPosition = Math.floor(position);
+		final int lowerIdx = (int) floorPosition - 1;
+
+		final double lower = isObservationMedian ? selectObservation(lowerIdx) : selectDeviation(lowerIdx);
+		final double upper = isObservationMedian ? selectObservation(lowerIdx + 1) : selectDeviation(lowerIdx + 1);
+		return lower + (position - floorPosition) * (upper - lower);
+	}
+
+	private double selectDeviation(final int idx) {
+		final int rightSize = prefixSize - leftSize;
+		int low = Math.max(0, idx + 1 - rightSize);
+		int high = Math.min(idx + 1, leftSize);
+
+		while (low < high) {
+			final int leftCount = (low + high) >>> 1;
+			if (getLeftDeviation(leftCount) < getRightDeviation(idx - leftCount)) {
+				low = leftCount + 1;
+			} else {
+				high = leftCount;
+			}
+		}
+
+		final int rightCount = idx + 1 - low;
+		if (low == 0) {
+			return getRightDeviation(rightCount - 1);
+		}
+		if (rightCount == 0) {
+			return getLeftDeviation(low - 1);
+		}
+		return Math.max(getLeftDeviation(low - 1), getRightDeviation(rightCount - 1));
+	}
+
+	private double getLeftDeviation(final int idx) {
+		return Math.abs(selectObservation(leftSize - 1 - idx) - prefixMedian);
+	}
+
+	private double getRightDeviation(final int idx) {
+		return Math.abs(selectObservation(leftSize + idx) - prefixMedian);
+	}
+
+	private double selectObservation(final int idx) {
+		int rank = 0;
+		int remaining = idx + 1;
+
+		for (int step = Integer.highestOneBit(windowSize); step > 0; step >>= 1) {
+			if (rank + step <= windowSize && rankTree[rank + step] < remaining) {
+				rank += step;
+				remaining -= rankTree[rank];
+			}
+		}
+		return sortedObservations[rank];
+	}
+
+	private void addRank(final int rank) {
+		for (int node = rank + 1; node <= windowSize; node += node & -node) {
+			rankTree[node]++;
+		}
+	}
+
+	private int findLowestRank(final double observation) {
+		int low = 0;
+		int high = windowSize;
+
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (Double.compare(sortedObservations[mid], observation) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+}
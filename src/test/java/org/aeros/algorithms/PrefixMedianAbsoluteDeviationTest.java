@@ -0,0 +1,63 @@
+package org.aeros.algorithms;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.commons.math3.stat.descriptive.rank.Median;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests comparing prefix MADs with the MADs computed by evaluating {@link Median} on each prefix, as in the legacy
+ * implementation of UDASA. The results must be identical, including windows with ties and windows of size 1 and 2.
+ */
+public class PrefixMedianAbsoluteDeviationTest {
+
+	private static final int MAX_WINDOW_SIZE = 200;
+	private static final int WINDOWS_COUNT = 3000;
+
+	@Test
+	void computePrefixMADsOfRandomWindows() {
+		final Random random = new Random(42);
+		final PrefixMedianAbsoluteDeviation prefixMAD = new PrefixMedianAbsoluteDeviation(MAX_WINDOW_SIZE);
+		final double[] prefixMADs = new double[MAX_WINDOW_SIZE];
+
+		for (int windowIdx = 0; windowIdx < WINDOWS_COUNT; windowIdx++) {
+			final int windowSize = windowIdx < 10 ? windowIdx % 3 + 1 : random.nextInt(1, MAX_WINDOW_SIZE + 1);
+			final double[] window = switch (windowIdx % 4) {
+				// few distinct values, hence many ties
+				case 0 -> random.doubles(windowSize).map(value -> Math.floor(value * 4)).toArray();
+				case 1 -> random.ints(windowSize, -3, 3).asDoubleStream().toArray();
+				case 2 -> random.doubles(windowSize, -1e6, 1e6).toArray();
+				default -> random.doubles(windowSize).map(value -> value * value * 100).toArray();
+			};
+
+			prefixMAD.computePrefixMADs(window, prefixMADs);
+			for (int prefixSize = 1; prefixSize <= windowSize; prefixSize++) {
+				final int size = prefixSize;
+				assertEquals(computeMAD(Arrays.copyOf(window, size)), prefixMADs[size - 1],
+						() -> format("MAD of the prefix of size %d of %s", size, Arrays.toString(window)));
+			}
+		}
+	}
+
+	@Test
+	void computePrefixMADsOfConstantWindow() {
+		final PrefixMedianAbsoluteDeviation prefixMAD = new PrefixMedianAbsoluteDeviation(5);
+		final double[] prefixMADs = new double[5];
+
+		prefixMAD.computePrefixMADs(new double[] { 7, 7, 7, 7, 7 }, prefixMADs);
+		assertEquals(0, Arrays.stream(prefixMADs).sum());
+
+		prefixMAD.computePrefixMADs(new double[] { 1, 3 }, prefixMADs);
+		assertEquals(0, prefixMADs[0]);
+		assertEquals(1, prefixMADs[1]);
+	}
+
+	private double computeMAD(final double[] sample) {
+		final double median = new Median().evaluate(sample);
+		return new Median().evaluate(Arrays.stream(sample).map(obs -> Math.abs(obs - median)).toArray());
+	}
+}
@@ -0,0 +1,80 @@
+package org.aeros.algorithms;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNullElse;
+import static org.aeros.domain.ResourceType.CPU_USAGE;
+import static org.aeros.domain.ResourceType.DISK_USAGE;
+import static org.aeros.domain.ResourceType.RAM_USAGE;
+import static org.aeros.domain.TestInfrastructureElementStateREST.getAmountOfUsedCores;
+
+import org.aeros.domain.ResourceType;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+
+/**
+ * Common push-based interface of adaptive sampling algorithms.
+ * <p>
+ * Observations are passed to the algorithm one by one and, for each of them, the algorithm returns the sampling
+ * decision, i.e. either the sampling period after which the next observation is to be passed, or
+ * {@link #NOT_MONITORED}, if the observation was consumed but nothing is monitored yet (the next observation is then
+ * passed right after the current one). Observations and monitored values are passed in arrays indexed by
+ * {@link ResourceType#ordinal()}, which are reused by the caller, so that no objects are created for each observation.
+ *
+ * @see SamplingAlgorithmRegistry
+ * @see SamplingSimulator
+ */
+public interface SamplingAlgorithm {
+
+	/**
+	 * Sampling decision returned for the observations that are not monitored.
+	 */
+	long NOT_MONITORED = -1;
+
+	/**
+	 * Interval between consecutive observations of the traces (in milliseconds).
+	 */
+	long OBSERVATION_INTERVAL = 1000;
+
+	/**
+	 * Method processes an observation and returns the sampling decision.
+	 *
+	 * @param observations    observed values of all metrics (indexed by {@link ResourceType#ordinal()})
+	 * @param monitoredValues array to which monitored values are written (indexed by {@link ResourceType#ordinal()}),
+	 *                        if the algorithm aggregates observations (see {@link #isAggregating()})
+	 * @return sampling period (in milliseconds) after which the next observation is to be passed or
+	 * {@link #NOT_MONITORED}
+	 */
+	long observe(double[] observations, double[] monitoredValues);
+
+	/**
+	 * Method retrieves values of all metrics from a given IE state. By default, CPU usage is observed as the amount
+	 * of used cores, while RAM and disk usage are observed directly. Metrics missing in the state are observed as 0
+	 * (as in {@link org.aeros.domain.TestInfrastructureElementFlatState}).
+	 *
+	 * @param ieState      IE state
+	 * @param observations array to which metric values are written (indexed by {@link ResourceType#ordinal()})
+	 */
+	default void readObservations(final TestInfrastructureElementStateREST ieState, final double[] observations) {
+		observations[CPU_USAGE.ordinal()] = requireNonNullElse(getAmountOfUsedCores(ieState), 0d);
+		observations[RAM_USAGE.ordinal()] = requireNonNullElse(ieState.getCurrentRamUsage(), 0);
+		observations[DISK_USAGE.ordinal()] = requireNonNullElse(ieState.getCurrentDiskUsage(), 0);
+	}
+
+	/**
+	 * @return information if the monitored values are aggregates of observations written by
+	 * {@link #observe(double[], double[])} (otherwise, the monitored observation is the sampled one)
+	 */
+	default boolean isAggregating() {
+		return false;
+	}
+
+	/**
+	 * Method creates a copy of the algorithm in its current state. The copy is updated independently of the
+	 * original algorithm, so it can be used to replay observations from a given state several times.
+	 *
+	 * @return copy of the algorithm
+	 */
+	default SamplingAlgorithm copy() {
+		throw new UnsupportedOperationException(format("Sampling algorithm %s can't be copied.",
+				getClass().getSimpleName()));
+	}
+}
@@ -0,0 +1,104 @@
+package org.aeros.algorithms;
+
+import static java.lang.String.format;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.aeros.algorithms.parameters.AWBSParameters;
+import org.aeros.algorithms.parameters.UDASAParameters;
+import org.aeros.base.CompiledPEWMASampling;
+import org.aeros.base.config.PEWMASamplingConfiguration;
+import org.aeros.domain.AlgorithmConfig;
+import org.aeros.domain.AlgorithmParameters;
+import org.aeros.domain.AlgorithmType;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+
+/**
+ * Registry of factories of {@link SamplingAlgorithm sampling algorithms}.
+ * <p>
+ * Types of algorithms are resolved from the Jackson subtypes declared on {@link AlgorithmParameters} and
+ * {@link AlgorithmConfig}, so that algorithms are created directly from the parameters read from the configuration
+ * of scenarios. A new algorithm is plugged in by declaring its parameters as a subtype and registering its factory.
+ */
+public class SamplingAlgorithmRegistry {
+
+	private final Map<AlgorithmType, Class<?>> parametersClasses;
+	private final Map<Class<?>, Function<Object, SamplingAlgorithm>> factories;
+
+	/**
+	 * Default constructor. It creates an empty registry.
+	 */
+	public SamplingAlgorithmRegistry() {
+		this.parametersClasses = new EnumMap<>(AlgorithmType.class);
+		this.factories = new HashMap<>();
+
+		Stream.of(AlgorithmParameters.class, AlgorithmConfig.class)
+				.map(baseClass -> baseClass.getAnnotation(JsonSubTypes.class))
+				.flatMap(subTypes -> Stream.of(subTypes.value()))
+				.forEach(subType -> parametersClasses.put(AlgorithmType.valueOf(subType.name()), subType.value()));
+	}
+
+	/**
+	 * Method creates a registry of all sampling algorithms available in the framework (AdaM, UDASA and AWBS, all in
+	 * compiled mode).
+	 *
+	 * @return sampling algorithm registry
+	 */
+	public static SamplingAlgorithmRegistry createDefault() {
+		return new SamplingAlgorithmRegistry()
+				.register(PEWMASamplingConfiguration.class, CompiledPEWMASampling::new)
+				.register(UDASAParameters.class, CompiledAdaptiveSamplingUDASA::new)
+				.register(AWBSParameters.class, CompiledAdaptiveSamplingAWBS::new);
+	}
+
+	/**
+	 * Method registers the factory of sampling algorithm.
+	 *
+	 * @param parametersClass class of the parameters of the algorithm (declared as Jackson subtype)
+	 * @param factory         factory creating the algorithm from its parameters
+	 * @param <P>             type of the parameters
+	 * @return this registry
+	 */
+	public <P> SamplingAlgorithmRegistry register(final Class<P> parametersClass,
+			final Function<? super P, ? extends SamplingAlgorithm> factory) {
+		if (!parametersClasses.containsValue(parametersClass)) {
+			throw new IllegalArgumentException(format("%s is not declared as a subtype of algorithm parameters.",
+					parametersClass.getSimpleName()));
+		}
+		factories.put(parametersClass, parameters -> factory.apply(parametersClass.cast(parameters)));
+		return this;
+	}
+
+	/**
+	 * @param type type of the algorithm
+	 * @return information if the sampling algorithm of a given type is registered
+	 */
+	public boolean isRegistered(final AlgorithmType type) {
+		return factories.containsKey(parametersClasses.get(type));
+	}
+
+	/**
+	 * Method creates a new instance of the sampling algorithm.
+	 *
+	 * @param type       type of the algorithm
+	 * @param parameters parameters (or configuration) of the algorithm
+	 * @return sampling algorithm
+	 */
+	public SamplingAlgorithm create(final AlgorithmType type, final Object parameters) {
+		final Class<?> parametersClass = parametersClasses.get(type);
+
+		if (!isRegistered(type)) {
+			throw new IllegalArgumentException(format("Sampling algorithm %s is not registered.", type));
+		}
+		if (!parametersClass.isInstance(parameters)) {
+			throw new IllegalArgumentException(format("Parameters of %s must be of type %s.", type,
+					parametersClass.getSimpleName()));
+		}
+		return factories.get(parametersClass).apply(parameters);
+	}
+}
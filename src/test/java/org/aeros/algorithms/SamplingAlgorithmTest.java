@@ -0,0 +1,107 @@
+package org.aeros.algorithms;
+
+import static org.aeros.algorithms.SamplingSimulator.simulateSampling;
+import static org.aeros.domain.AlgorithmType.SAMPLING;
+import static org.aeros.domain.ScenarioDescription.RAINMON_SCENARIO;
+import static org.aeros.utils.ScenarioReader.getScenarioConfigName;
+import static org.aeros.utils.ScenarioReader.readScenario;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.aeros.domain.AlgorithmConfigDescription;
+import org.aeros.domain.AlgorithmDescription;
+import org.aeros.domain.AlgorithmType;
+import org.aeros.domain.MonitoredTrace;
+import org.aeros.domain.ResourceType;
+import org.aeros.domain.ScenarioDescription;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Tests of sampling algorithms of the default registry, configured as in rainmon scenario.
+ */
+public class SamplingAlgorithmTest {
+
+	private static final int METRICS_COUNT = ResourceType.values().length;
+	private static final int TRACE_LENGTH = 2000;
+
+	private final ScenarioDescription scenarioDescription = readScenario(getScenarioConfigName(RAINMON_SCENARIO));
+	private final SamplingAlgorithmRegistry samplingAlgorithmRegistry = SamplingAlgorithmRegistry.createDefault();
+
+	@ParameterizedTest
+	@EnumSource(value = AlgorithmType.class, names = { "SAMPLING", "UDASA", "AWBS" })
+	void observeMissingMetricsAsZero(final AlgorithmType algorithmType) {
+		final SamplingAlgorithm samplingAlgorithm = createAlgorithm(algorithmType);
+		final double[] observations = { 1, 1, 1 };
+		final List<TestInfrastructureElementStateREST> ieRESTData = IntStream.range(0, TRACE_LENGTH)
+				.mapToObj(idx -> idx % 3 == 0 ? new TestInfrastructureElementStateREST() : createState(idx, idx))
+				.toList();
+
+		samplingAlgorithm.readObservations(new TestInfrastructureElementStateREST(), observations);
+		final Pair<Integer, MonitoredTrace> sampling = simulateSampling(createAlgorithm(algorithmType), ieRESTData);
+
+		assertArrayEquals(new double[METRICS_COUNT], observations);
+		assertEquals(TRACE_LENGTH, sampling.getValue().getLength());
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = AlgorithmType.class, names = { "SAMPLING", "UDASA", "AWBS" })
+	void copyAlgorithmState(final AlgorithmType algorithmType) {
+		final Random random = new Random(42);
+		final double[][] observations = IntStream.range(0, TRACE_LENGTH)
+				.mapToObj(idx -> {
+					final double[] observation = new double[METRICS_COUNT];
+					createAlgorithm(algorithmType).readObservations(
+							createState(random.nextInt(0, 101), random.nextInt(0, 16_000)), observation);
+					return observation;
+				})
+				.toArray(double[][]::new);
+		final SamplingAlgorithm samplingAlgorithm = createAlgorithm(algorithmType);
+
+		IntStream.range(0, TRACE_LENGTH / 2).forEach(idx ->
+				samplingAlgorithm.observe(observations[idx], new double[METRICS_COUNT]));
+
+		final SamplingAlgorithm copiedAlgorithm = samplingAlgorithm.copy();
+		final SamplingAlgorithm secondCopiedAlgorithm = samplingAlgorithm.copy();
+		final List<Long> copiedDecisions = observe(copiedAlgorithm, observations);
+
+		assertEquals(copiedDecisions, observe(samplingAlgorithm, observations));
+		assertEquals(copiedDecisions, observe(secondCopiedAlgorithm, observations));
+	}
+
+	private List<Long> observe(final SamplingAlgorithm samplingAlgorithm, final double[][] observations) {
+		final double[] monitoredValues = new double[METRICS_COUNT];
+
+		return IntStream.range(TRACE_LENGTH / 2, TRACE_LENGTH)
+				.mapToObj(idx -> List.of(samplingAlgorithm.observe(observations[idx], monitoredValues),
+						(long) monitoredValues[0], (long) monitoredValues[1], (long) monitoredValues[2]))
+				.flatMap(List::stream)
+				.toList();
+	}
+
+	private SamplingAlgorithm createAlgorithm(final AlgorithmType algorithmType) {
+		final Object parameters = algorithmType == SAMPLING
+				? scenarioDescription.getBaseAlgorithmsConfig().stream()
+						.filter(config -> config.getType().equals(SAMPLING))
+						.findFirst()
+						.map(AlgorithmConfigDescription::getConfig)
+						.orElseThrow()
+				: scenarioDescription.getAlgorithmsForComparison().stream()
+						.filter(algorithm -> algorithm.getType().equals(algorithmType))
+						.findFirst()
+						.map(AlgorithmDescription::getParams)
+						.orElseThrow();
+		return samplingAlgorithmRegistry.create(algorithmType, parameters);
+	}
+
+	private TestInfrastructureElementStateREST createState(final int cpuUsage, final int ramUsage) {
+		return new TestInfrastructureElementStateREST("ie", 8, cpuUsage, 16_000, 16_000 - ramUsage, ramUsage, 50,
+				500_000, 250_000, 250_000, 50, true);
+	}
+}
@@ -0,0 +1,83 @@
+package org.aeros.algorithms;
+
+import static org.aeros.algorithms.SamplingAlgorithm.NOT_MONITORED;
+import static org.aeros.algorithms.SamplingAlgorithm.OBSERVATION_INTERVAL;
+import static org.aeros.domain.ResourceType.CPU_USAGE;
+import static org.aeros.domain.ResourceType.DISK_USAGE;
+import static org.aeros.domain.ResourceType.RAM_USAGE;
+import static org.aeros.utils.ScenarioMapper.mapToMonitoredIE;
+
+import java.util.List;
+
+import org.aeros.domain.MonitoredTrace;
+import org.aeros.domain.ResourceType;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Simulator of adaptive sampling performed by any {@link SamplingAlgorithm}.
+ */
+public class SamplingSimulator {
+
+	private static final int METRICS_COUNT = ResourceType.values().length;
+
+	/**
+	 * Method simulates adaptive sampling of a trace.
+	 *
+	 * @param samplingAlgorithm algorithm used in sampling
+	 * @param ieRESTData        input data on which sampling is to be simulated
+	 * @return trace of monitored observations
+	 */
+	public static MonitoredTrace simulateMonitoredTrace(final SamplingAlgorithm samplingAlgorithm,
+			final List<TestInfrastructureElementStateREST> ieRESTData) {
+		return simulateSampling(samplingAlgorithm, ieRESTData).getValue();
+	}
+
+	/**
+	 * Method simulates adaptive sampling of a trace. The simulation jumps directly to the indexes of observations
+	 * that are to be passed to the algorithm, so the skipped observations are never visited. The first observation
+	 * of the trace is held until the first monitored one.
+	 *
+	 * @param samplingAlgorithm algorithm used in sampling
+	 * @param ieRESTData        input data on which sampling is to be simulated
+	 * @return Pair that contains the count of observations passed to the algorithm (i.e. the count of monitored
+	 * samples) and the trace of monitored observations
+	 */
+	public static Pair<Integer, MonitoredTrace> simulateSampling(final SamplingAlgorithm samplingAlgorithm,
+			final List<TestInfrastructureElementStateREST> ieRESTData) {
+		final MonitoredTrace monitoredTrace = new MonitoredTrace(ieRESTData.size());
+		final double[] observations = new double[METRICS_COUNT];
+		final double[] monitoredValues = new double[METRICS_COUNT];
+		int observationsCount = 0;
+		int nextExpectedIdx = 0;
+
+		while (nextExpectedIdx < ieRESTData.size()) {
+			final int idx = nextExpectedIdx;
+			final TestInfrastructureElementStateREST ieREST = ieRESTData.get(idx);
+
+			samplingAlgorithm.readObservations(ieREST, observations);
+			final long samplingPeriod = samplingAlgorithm.observe(observations, monitoredValues);
+			observationsCount++;
+
+			if (samplingPeriod == NOT_MONITORED) {
+				if (idx == 0) {
+					monitoredTrace.addSample(idx, ieREST);
+				}
+				nextExpectedIdx = idx + 1;
+				continue;
+			}
+
+			monitoredTrace.addSample(idx, samplingAlgorithm.isAggregating()
+					? mapToMonitoredIE(ieREST, monitoredValues[CPU_USAGE.ordinal()],
+					monitoredValues[RAM_USAGE.ordinal()], monitoredValues[DISK_USAGE.ordinal()])
+					: ieREST);
+			nextExpectedIdx = idx + (int) (samplingPeriod / OBSERVATION_INTERVAL);
+
+			if (nextExpectedIdx <= idx) {
+				// sampling period shorter than the interval of observations - the last sample is held until the end
+				break;
+			}
+		}
+		return Pair.of(observationsCount, monitoredTrace);
+	}
+}
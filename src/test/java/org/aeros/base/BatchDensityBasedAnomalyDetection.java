@@ -0,0 +1,111 @@
+package org.aeros.base;
+
+import static org.aeros.base.CompiledDensityBasedAnomalyDetection.METRICS_COUNT;
+import static org.aeros.base.CompiledDensityBasedAnomalyDetection.NO_ANOMALY;
+
+import java.util.Arrays;
+
+import org.aeros.base.config.DensityBasedAnomalyConfiguration;
+
+/**
+ * Batch mode of density-based anomaly detection that advances the models of many IEs in lockstep.
+ * <p>
+ * Observations of a single time step are passed as a column (indexed by IE) for each metric. The models of
+ * a metric are stored as a {@link DensityBasedAnomalyState} column (slot = IE index), which allows advancing them
+ * with the {@code jdk.incubator.vector} API. When the module is not available at runtime (i.e. JVM was started without
+ * {@code --add-modules jdk.incubator.vector}), the columns are advanced with the scalar kernel of
+ * {@link CompiledDensityBasedAnomalyDetection}. Both paths yield identical detections.
+ */
+public class BatchDensityBasedAnomalyDetection {
+
+	private static final boolean IS_VECTOR_API_AVAILABLE =
+			ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+	private final CompiledDensityBasedAnomalyDetection anomalyDetection;
+	private final DensityBasedAnomalyState[] states;
+	private final boolean[] isMetricConfigured;
+	private final boolean isVectorized;
+	private final int iesCount;
+
+	/**
+	 * Default constructor. The vector API is used whenever it is available.
+	 *
+	 * @param anomalyModelConfiguration configuration of density-based models
+	 * @param iesCount                  number of IEs advanced in each time step
+	 */
+	public BatchDensityBasedAnomalyDetection(final DensityBasedAnomalyConfiguration anomalyModelConfiguration,
+			final int iesCount) {
+		this(anomalyModelConfiguration, iesCount, IS_VECTOR_API_AVAILABLE);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param anomalyModelConfiguration configuration of density-based models
+	 * @param iesCount                  number of IEs advanced in each time step
+	 * @param useVectorAPI              flag indicating if the vector API should be used (ignored if it is not
+	 *                                  available)
+	 */
+	public BatchDensityBasedAnomalyDetection(final DensityBasedAnomalyConfiguration anomalyModelConfiguration,
+			final int iesCount, final boolean useVectorAPI) {
+		this.anomalyDetection = new CompiledDensityBasedAnomalyDetection(anomalyModelConfiguration);
+		this.states = new DensityBasedAnomalyState[METRICS_COUNT];
+		this.isMetricConfigured = new boolean[METRICS_COUNT];
+		this.isVectorized = useVectorAPI && IS_VECTOR_API_AVAILABLE;
+		this.iesCount = iesCount;
+
+		Arrays.setAll(states, _ -> new DensityBasedAnomalyState(iesCount));
+		for (final int metric : anomalyDetection.getMetrics()) {
+			isMetricConfigured[metric] = true;
+		}
+	}
+
+	/**
+	 * Method advances models of a given metric for all IEs by a single time step.
+	 *
+	 * @param metric       ordinal of the metric ({@link org.aeros.domain.ResourceType#ordinal()})
+	 * @param observations observed metric values indexed by IE
+	 * @param anomalies    bitset (indexed by IE) to which detected anomalies are written
+	 * @param increases    bitset (indexed by IE) to which the detected anomalies that are increases are written
+	 */
+	public void detectAnomalies(final int metric, final double[] observations, final long[] anomalies,
+			final long[] increases) {
+		if (!isMetricConfigured[metric]) {
+			throw new IllegalArgumentException("Density-based model is not configured for metric " + metric);
+		}
+		Arrays.fill(anomalies, 0L);
+		Arrays.fill(increases, 0L);
+
+		final int processedCount = isVectorized
+				? VectorizedDensityKernel.detectAnomalies(anomalyDetection, states[metric], metric, observations,
+				iesCount, anomalies, increases)
+				: 0;
+
+		for (int ieIdx = processedCount; ieIdx < iesCount; ieIdx++) {
+			final int anomalyCode = anomalyDetection.detectAnomaly(states[metric], ieIdx, metric,
+					observations[ieIdx]);
+
+			if (anomalyCode != NO_ANOMALY) {
+				anomalies[ieIdx >>> 6] |= 1L << ieIdx;
+				if (anomalyCode == CompiledDensityBasedAnomalyDetection.getAnomalyCode(metric, true)) {
+					increases[ieIdx >>> 6] |= 1L << ieIdx;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return flag indicating if the models are advanced with the vector API
+	 */
+	public boolean isVectorized() {
+		return isVectorized;
+	}
+
+	/**
+	 * @param iesCount number of IEs
+	 * @return length of the bitset that stores flags of all IEs
+	 */
+	public static int getBitsetLength(final int iesCount) {
+		return (iesCount + 63) >>> 6;
+	}
+}
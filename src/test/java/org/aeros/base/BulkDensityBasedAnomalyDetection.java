@@ -0,0 +1,212 @@
+package org.aeros.base;
+
+import static java.lang.Math.pow;
+import static org.aeros.base.CompiledDensityBasedAnomalyDetection.METRICS_COUNT;
+import static org.aeros.base.CompiledDensityBasedAnomalyDetection.NO_ANOMALY;
+import static org.aeros.base.CompiledDensityBasedAnomalyDetection.getAnomalyCode;
+import static org.aeros.utils.StatisticalOperations.computeDensity;
+import static org.aeros.utils.StatisticalOperations.updateMeanDensity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.aeros.base.config.DensityBasedAnomalyConfiguration;
+
+/**
+ * Bulk (offline) mode of density-based anomaly detection used to evaluate complete traces.
+ * <p>
+ * The recursive sample mean and scalar product are prefix sums of the observations and their squares divided by the
+ * sample size. Therefore, in the first pass, the prefix sums and the density series are computed in parallel
+ * ({@link Arrays#parallelPrefix}). The second, sequential pass runs only the state machine of the detector
+ * (anomaly/normal windows and resets). After a reset, the mean and scalar product are re-based on the reset
+ * observation and still obtained in O(1) from the prefix sums. The observations are shifted by the first value of
+ * the trace to limit the cancellation error, but, since the order of floating-point operations differs from
+ * {@link DensityBasedAnomalyDetection}, observations lying exactly on the tolerance thresholds may be classified
+ * differently.
+ */
+public class BulkDensityBasedAnomalyDetection {
+
+	private final CompiledDensityBasedAnomalyDetection anomalyDetection;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param anomalyModelConfiguration configuration of density-based models
+	 */
+	public BulkDensityBasedAnomalyDetection(final DensityBasedAnomalyConfiguration anomalyModelConfiguration) {
+		this.anomalyDetection = new CompiledDensityBasedAnomalyDetection(anomalyModelConfiguration);
+	}
+
+	/**
+	 * Method detects anomalies in a complete trace of all configured metrics. Metrics are evaluated in parallel.
+	 *
+	 * @param trace observations of metrics indexed by {@link org.aeros.domain.ResourceType#ordinal()} and then by
+	 *              the sample index
+	 * @return bitmasks of detected anomaly codes indexed by the sample index (without any anomalies, if no metrics
+	 * are configured)
+	 */
+	public int[] detectAnomalies(final double[][] trace) {
+		final int[] metrics = anomalyDetection.getMetrics();
+
+		if (metrics.length == 0) {
+			return new int[trace.length == 0 ? 0 : trace[0].length];
+		}
+
+		final int[][] anomalyCodes = new int[METRICS_COUNT][];
+		final int traceLength = trace[metrics[0]].length;
+
+		Arrays.stream(metrics).parallel()
+				.forEach(metric -> anomalyCodes[metric] = detectAnomalies(metric, trace[metric]));
+
+		final int[] anomalies = new int[traceLength];
+		for (final int metric : metrics) {
+			for (int idx = 0; idx < traceLength; idx++) {
+				if (anomalyCodes[metric][idx] != NO_ANOMALY) {
+					anomalies[idx] |= 1 << anomalyCodes[metric][idx];
+				}
+			}
+		}
+		return anomalies;
+	}
+
+	/**
+	 * Method detects anomalies in a complete trace of a single metric.
+	 *
+	 * @param metric ordinal of the metric
+	 * @param trace  observations of the metric
+	 * @return codes of detected anomalies (or {@link CompiledDensityBasedAnomalyDetection#NO_ANOMALY}) indexed by
+	 * the sample index
+	 */
+	public int[] detectAnomalies(final int metric, final double[] trace) {
+		return detectAnomalies(metric, prepareTrace(trace));
+	}
+
+	/**
+	 * Method detects anomalies in a trace of a single metric, for which the prefix sums and densities were already
+	 * computed. Since they do not depend on the parameters of the detector, a prepared trace may be shared by many
+	 * detectors (e.g. when tuning the parameters).
+	 *
+	 * @param metric        ordinal of the metric
+	 * @param preparedTrace trace of the metric with its prefix sums and densities
+	 * @return codes of detected anomalies (or {@link CompiledDensityBasedAnomalyDetection#NO_ANOMALY}) indexed by
+	 * the sample index
+	 */
+	public int[] detectAnomalies(final int metric, final PreparedTrace preparedTrace) {
+		return runStateMachine(metric, preparedTrace.trace(), preparedTrace.shift(), preparedTrace.sums(),
+				preparedTrace.squareSums(), preparedTrace.densities());
+	}
+
+	/**
+	 * Method computes (in parallel) the prefix sums and densities of a trace of a single metric.
+	 *
+	 * @param trace observations of the metric
+	 * @return prepared trace
+	 */
+	public static PreparedTrace prepareTrace(final double[] trace) {
+		final int traceLength = trace.length;
+		final double shift = traceLength == 0 ? 0 : trace[0];
+		final double[] sums = new double[traceLength];
+		final double[] squareSums = new double[traceLength];
+		final double[] densities = new double[traceLength];
+
+		Arrays.parallelSetAll(sums, idx -> trace[idx] - shift);
+		Arrays.parallelSetAll(squareSums, idx -> pow(sums[idx], 2));
+		Arrays.parallelPrefix(sums, Double::sum);
+		Arrays.parallelPrefix(squareSums, Double::sum);
+		Arrays.parallelSetAll(densities, idx -> computeDensity(sums[idx] / (idx + 1), squareSums[idx] / (idx + 1),
+				trace[idx] - shift));
+
+		return new PreparedTrace(trace, shift, sums, squareSums, densities);
+	}
+
+	/**
+	 * Method maps bitmasks of detected anomalies to the format used in scenario evaluation.
+	 *
+	 * @param anomalies bitmasks of detected anomaly codes indexed by the sample index
+	 * @return a map consisting of anomaly indexes (starting from 1) and types of anomalies
+	 */
+	public Map<Integer, List<String>> getDetectedAnomalies(final int[] anomalies) {
+		final Map<Integer, List<String>> detectedAnomalies = new HashMap<>();
+		for (int idx = 0; idx < anomalies.length; idx++) {
+			if (anomalies[idx] != 0) {
+				detectedAnomalies.put(idx + 1, anomalyDetection.getAnomalyLabels(anomalies[idx]));
+			}
+		}
+		return detectedAnomalies;
+	}
+
+	private int[] runStateMachine(final int metric, final double[] trace, final double shift, final double[] sums,
+			final double[] squareSums, final double[] densities) {
+		final double toleranceAnomaly = anomalyDetection.getToleranceThresholdAnomaly(metric);
+		final double toleranceNormal = anomalyDetection.getToleranceThresholdNormal(metric);
+		final int windowAnomaly = anomalyDetection.getWindowAnomaly(metric);
+		final int windowNormal = anomalyDetection.getWindowNormal(metric);
+		final int[] anomalyCodes = new int[trace.length];
+
+		boolean isInAnomalousState = false;
+		int currentStateCounter = 0;
+		int changeIndicationCounter = 0;
+		double sampleDensity = 0;
+		double averageDensity = 0;
+
+		int resetIdx = -1;
+		double resetSum = 0;
+		double resetSquareSum = 0;
+
+		Arrays.fill(anomalyCodes, NO_ANOMALY);
+		for (int idx = 0; idx < trace.length; idx++) {
+			final int sampleSize = idx + 1;
+			final int stateCounter = ++currentStateCounter;
+			final double currentValue = trace[idx] - shift;
+			final double sampleMean;
+			final double density;
+
+			if (resetIdx < 0) {
+				sampleMean = sums[idx] / sampleSize;
+				density = densities[idx];
+			} else {
+				sampleMean = (resetSum + sums[idx] - sums[resetIdx]) / sampleSize;
+				density = computeDensity(sampleMean,
+						(resetSquareSum + squareSums[idx] - squareSums[resetIdx]) / sampleSize, currentValue);
+			}
+			final double currentAverageDensity = updateMeanDensity(sampleSize, sampleDensity, stateCounter, density);
+			sampleDensity = density;
+
+			if (!isInAnomalousState) {
+				averageDensity = currentAverageDensity;
+				if (density <= averageDensity * toleranceAnomaly) {
+					if (++changeIndicationCounter >= windowAnomaly) {
+						isInAnomalousState = true;
+						currentStateCounter = 0;
+						anomalyCodes[idx] = getAnomalyCode(metric, currentValue > sampleMean);
+					}
+				} else {
+					changeIndicationCounter = 0;
+				}
+			} else if (density >= averageDensity * toleranceNormal) {
+				if (++changeIndicationCounter >= windowNormal) {
+					isInAnomalousState = false;
+					currentStateCounter = 0;
+					resetIdx = idx;
+					resetSum = sampleSize * currentValue;
+					resetSquareSum = sampleSize * pow(currentValue, 2);
+					sampleDensity = 1D;
+					averageDensity = 1D;
+				}
+			} else {
+				changeIndicationCounter = 0;
+			}
+		}
+		return anomalyCodes;
+	}
+
+	/**
+	 * Trace of a single metric together with the prefix sums of its (shifted) observations and their squares and
+	 * the densities computed without resets.
+	 */
+	public record PreparedTrace(double[] trace, double shift, double[] sums, double[] squareSums,
+			double[] densities) {
+	}
+}
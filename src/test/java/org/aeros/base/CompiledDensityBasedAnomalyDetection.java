@@ -0,0 +1,291 @@
+package org.aeros.base;
+
+import static java.lang.Math.pow;
+import static java.lang.String.format;
+import static org.aeros.utils.StatisticalOperations.computeDensity;
+import static org.aeros.utils.StatisticalOperations.updateMeanDensity;
+import static org.aeros.utils.StatisticalOperations.updateMeanValue;
+import static org.aeros.utils.StatisticalOperations.updateScalarProduct;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.aeros.algorithms.AnomalyDetector;
+import org.aeros.base.config.DensityBasedAnomalyConfiguration;
+import org.aeros.base.parameters.DensityBasedAnomaliesParameters;
+import org.aeros.domain.ResourceType;
+import org.aeros.domain.TestInfrastructureElement;
+import org.aeros.domain.TestInfrastructureElementFlatState;
+import org.aeros.domain.TestInfrastructureElementState;
+
+/**
+ * Compiled mode of {@link DensityBasedAnomalyDetection}.
+ * <p>
+ * The configuration is resolved once into primitive arrays indexed by {@link ResourceType#ordinal()}, the state is
+ * kept in {@link DensityBasedAnomalyState} and detected anomalies are returned as a bitmask of anomaly codes
+ * (metric x INCREASE/DECREASE). Processing of a single observation does not allocate any objects, while the
+ * detections remain identical to the ones of {@link DensityBasedAnomalyDetection}. Unlike in
+ * {@link DensityBasedAnomalyDetection}, where unknown metrics are observed as 0, only metrics of {@link ResourceType}
+ * can be configured.
+ */
+public class CompiledDensityBasedAnomalyDetection implements AnomalyDetector {
+
+	public static final int NO_ANOMALY = -1;
+	public static final int METRICS_COUNT = ResourceType.values().length;
+
+	private static final ResourceType[] METRICS = ResourceType.values();
+	private static final String[] ANOMALY_LABELS = initializeAnomalyLabels();
+
+	private final int[] metrics;
+	private final double[] toleranceThresholdAnomaly;
+	private final double[] toleranceThresholdNormal;
+	private final int[] windowAnomaly;
+	private final int[] windowNormal;
+
+	private final DensityBasedAnomalyState state;
+	private final double[] metricValues;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param anomalyModelConfiguration configuration of density-based models
+	 */
+	public CompiledDensityBasedAnomalyDetection(final DensityBasedAnomalyConfiguration anomalyModelConfiguration) {
+		final List<DensityBasedAnomaliesParameters> modelsProperties = anomalyModelConfiguration.getModelsProperties();
+
+		this.metrics = new int[modelsProperties.size()];
+		this.toleranceThresholdAnomaly = new double[METRICS_COUNT];
+		this.toleranceThresholdNormal = new double[METRICS_COUNT];
+		this.windowAnomaly = new int[METRICS_COUNT];
+		this.windowNormal = new int[METRICS_COUNT];
+
+		for (int i = 0; i < modelsProperties.size(); i++) {
+			final DensityBasedAnomaliesParameters modelProperties = modelsProperties.get(i);
+			final int metric = getMetric(modelProperties.getName());
+
+			metrics[i] = metric;
+			toleranceThresholdAnomaly[metric] = modelProperties.getToleranceThresholdAnomaly();
+			toleranceThresholdNormal[metric] = modelProperties.getToleranceThresholdNormal();
+			windowAnomaly[metric] = modelProperties.getWindowAnomaly();
+			windowNormal[metric] = modelProperties.getWindowNormal();
+		}
+		this.state = new DensityBasedAnomalyState(METRICS_COUNT);
+		this.metricValues = new double[METRICS_COUNT];
+	}
+
+	/**
+	 * Method detects anomalies in a given IE state.
+	 *
+	 * @param infrastructureElementState current IE state
+	 * @param testIe                     IE for which the state was reported
+	 * @return bitmask of detected anomaly codes
+	 */
+	public int detectAnomalies(final TestInfrastructureElementState infrastructureElementState,
+			final TestInfrastructureElement testIe) {
+		readObservations(infrastructureElementState, testIe, metricValues);
+		return detectAnomalies(metricValues);
+	}
+
+	/**
+	 * Method retrieves values of all configured metrics from a given IE state.
+	 *
+	 * @param infrastructureElementState current IE state
+	 * @param testIe                     IE for which the state was reported
+	 * @param observations               array to which metric values are written (indexed by
+	 *                                   {@link ResourceType#ordinal()})
+	 */
+	public void readObservations(final TestInfrastructureElementState infrastructureElementState,
+			final TestInfrastructureElement testIe, final double[] observations) {
+		for (final int metric : metrics) {
+			observations[metric] = infrastructureElementState.getMetricValue(METRICS[metric].name(), testIe);
+		}
+	}
+
+	/**
+	 * Method retrieves values of all configured metrics from a given flat IE state.
+	 *
+	 * @param infrastructureElementState current IE state
+	 * @param testIe                     IE for which the state was reported
+	 * @param observations               array to which metric values are written (indexed by
+	 *                                   {@link ResourceType#ordinal()})
+	 */
+	public void readObservations(final TestInfrastructureElementFlatState infrastructureElementState,
+			final TestInfrastructureElement testIe, final double[] observations) {
+		for (final int metric : metrics) {
+			observations[metric] = infrastructureElementState.getMetricValue(METRICS[metric].name(), testIe);
+		}
+	}
+
+	/**
+	 * Method detects anomalies in observations of all configured metrics.
+	 *
+	 * @param observations observed metric values indexed by {@link ResourceType#ordinal()}
+	 * @return bitmask of detected anomaly codes
+	 */
+	@Override
+	public int detectAnomalies(final double[] observations) {
+		return detectAnomalies(state, 0, observations);
+	}
+
+	/**
+	 * Method detects anomalies in observations of all configured metrics using an externally managed state.
+	 *
+	 * @param anomalyState state in which the models are stored
+	 * @param firstSlot    slot of the first metric (the models occupy {@link #METRICS_COUNT} consecutive slots)
+	 * @param observations observed metric values indexed by {@link ResourceType#ordinal()}
+	 * @return bitmask of detected anomaly codes
+	 */
+	public int detectAnomalies(final DensityBasedAnomalyState anomalyState, final int firstSlot,
+			final double[] observations) {
+		int anomalies = 0;
+		for (final int metric : metrics) {
+			final int anomalyCode = detectAnomaly(anomalyState, firstSlot + metric, metric, observations[metric]);
+			if (anomalyCode != NO_ANOMALY) {
+				anomalies |= 1 << anomalyCode;
+			}
+		}
+		return anomalies;
+	}
+
+	/**
+	 * Method updates a single density-based model with a new observation.
+	 *
+	 * @param anomalyState state in which the model is stored
+	 * @param slot         slot of the model
+	 * @param metric       ordinal of the metric
+	 * @param currentValue new observation value
+	 * @return code of the detected anomaly or {@link #NO_ANOMALY}
+	 */
+	public int detectAnomaly(final DensityBasedAnomalyState anomalyState, final int slot, final int metric,
+			final double currentValue) {
+		final int sampleSize = ++anomalyState.dataSampleSize[slot];
+		final int stateCounter = ++anomalyState.currentStateCounter[slot];
+
+		final double sampleMean = updateMeanValue(sampleSize, anomalyState.sampleMean[slot], currentValue);
+		final double scalarProduct = updateScalarProduct(sampleSize, anomalyState.scalarProduct[slot], currentValue);
+		final double density = computeDensity(sampleMean, scalarProduct, currentValue);
+		final double averageDensity = updateMeanDensity(sampleSize, anomalyState.sampleDensity[slot], stateCounter,
+				density);
+
+		anomalyState.sampleMean[slot] = sampleMean;
+		anomalyState.scalarProduct[slot] = scalarProduct;
+		anomalyState.sampleDensity[slot] = density;
+
+		return anomalyState.isInAnomalousState[slot]
+				? handleAnomalousState(anomalyState, slot, metric, density, currentValue)
+				: handleNormalState(anomalyState, slot, metric, density, averageDensity, currentValue);
+	}
+
+	/**
+	 * Method maps bitmask of anomaly codes to the anomaly labels returned by {@link DensityBasedAnomalyDetection}.
+	 *
+	 * @param anomalies bitmask of detected anomaly codes
+	 * @return list of anomaly labels ordered in the same way as configured metrics
+	 */
+	@Override
+	public List<String> getAnomalyLabels(final int anomalies) {
+		if (anomalies == 0) {
+			return List.of();
+		}
+		final List<String> labels = new ArrayList<>(Integer.bitCount(anomalies));
+		for (final int metric : metrics) {
+			final int increaseCode = getAnomalyCode(metric, true);
+			final int decreaseCode = getAnomalyCode(metric, false);
+
+			if ((anomalies & 1 << increaseCode) != 0) {
+				labels.add(ANOMALY_LABELS[increaseCode]);
+			} else if ((anomalies & 1 << decreaseCode) != 0) {
+				labels.add(ANOMALY_LABELS[decreaseCode]);
+			}
+		}
+		return labels;
+	}
+
+	/**
+	 * @param metric     ordinal of the metric
+	 * @param isIncrease flag indicating if the anomaly is an increase of the metric value
+	 * @return code of the anomaly
+	 */
+	public static int getAnomalyCode(final int metric, final boolean isIncrease) {
+		return metric << 1 | (isIncrease ? 0 : 1);
+	}
+
+	/**
+	 * @param anomalyCode code of the anomaly
+	 * @return preallocated label of the anomaly
+	 */
+	public static String getAnomalyLabel(final int anomalyCode) {
+		return ANOMALY_LABELS[anomalyCode];
+	}
+
+	int[] getMetrics() {
+		return metrics;
+	}
+
+	double getToleranceThresholdAnomaly(final int metric) {
+		return toleranceThresholdAnomaly[metric];
+	}
+
+	double getToleranceThresholdNormal(final int metric) {
+		return toleranceThresholdNormal[metric];
+	}
+
+	int getWindowAnomaly(final int metric) {
+		return windowAnomaly[metric];
+	}
+
+	int getWindowNormal(final int metric) {
+		return windowNormal[metric];
+	}
+
+	private int handleNormalState(final DensityBasedAnomalyState anomalyState, final int slot, final int metric,
+			final double density, final double averageDensity, final double currentValue) {
+		anomalyState.averageDensity[slot] = averageDensity;
+		if (density <= averageDensity * toleranceThresholdAnomaly[metric]) {
+			if (++anomalyState.changeIndicationCounter[slot] >= windowAnomaly[metric]) {
+				anomalyState.isInAnomalousState[slot] = true;
+				anomalyState.currentStateCounter[slot] = 0;
+				return getAnomalyCode(metric, currentValue > anomalyState.sampleMean[slot]);
+			}
+		} else {
+			anomalyState.changeIndicationCounter[slot] = 0;
+		}
+		return NO_ANOMALY;
+	}
+
+	private int handleAnomalousState(final DensityBasedAnomalyState anomalyState, final int slot, final int metric,
+			final double density, final double currentValue) {
+		if (density >= anomalyState.averageDensity[slot] * toleranceThresholdNormal[metric]) {
+			if (++anomalyState.changeIndicationCounter[slot] >= windowNormal[metric]) {
+				anomalyState.isInAnomalousState[slot] = false;
+				anomalyState.currentStateCounter[slot] = 0;
+				anomalyState.sampleMean[slot] = currentValue;
+				anomalyState.scalarProduct[slot] = pow(currentValue, 2);
+				anomalyState.sampleDensity[slot] = 1D;
+				anomalyState.averageDensity[slot] = 1D;
+			}
+		} else {
+			anomalyState.changeIndicationCounter[slot] = 0;
+		}
+		return NO_ANOMALY;
+	}
+
+	private static int getMetric(final String metricName) {
+		return Stream.of(METRICS)
+				.filter(metric -> metric.name().equals(metricName))
+				.findFirst()
+				.map(ResourceType::ordinal)
+				.orElseThrow(() -> new IllegalArgumentException(
+						format("Metric %s is not supported by compiled density-based anomaly detection.", metricName)));
+	}
+
+	private static String[] initializeAnomalyLabels() {
+		final String[] labels = new String[METRICS_COUNT * 2];
+		for (final ResourceType metric : ResourceType.values()) {
+			labels[getAnomalyCode(metric.ordinal(), true)] = format("%s_%s", metric.name(), "INCREASE");
+			labels[getAnomalyCode(metric.ordinal(), false)] = format("%s_%s", metric.name(), "DECREASE");
+		}
+		return labels;
+	}
+}
@@ -0,0 +1,243 @@
+package org.aeros.base;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.ceil;
+import static java.lang.Math.clamp;
+import static java.lang.Math.pow;
+import static java.lang.Math.sqrt;
+import static java.util.Objects.requireNonNullElse;
+import static org.aeros.domain.ResourceType.CPU_USAGE;
+import static org.aeros.domain.ResourceType.DISK_USAGE;
+import static org.aeros.domain.ResourceType.RAM_USAGE;
+import static org.aeros.domain.SamplingModelType.RESOURCE;
+import static org.aeros.utils.StatisticalOperations.computePEWMAProbability;
+import static org.aeros.utils.StatisticalOperations.computeStandardDeviation;
+
+import org.aeros.algorithms.SamplingAlgorithm;
+import org.aeros.base.config.PEWMASamplingConfiguration;
+import org.aeros.base.parameters.PEWMASamplingParameters;
+import org.aeros.domain.ResourceType;
+import org.aeros.domain.TestInfrastructureElement;
+import org.aeros.domain.TestInfrastructureElementFlatState;
+import org.aeros.domain.TestInfrastructureElementState;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+
+/**
+ * Compiled mode of {@link PEWMASampling}.
+ * <p>
+ * The parameters of the resource sampling model are resolved once, the state is kept in {@link PEWMASamplingState}
+ * (or any other {@link PEWMASamplingStore}) indexed by {@link ResourceType#ordinal()} and no intermediate objects are
+ * created. The computations are performed in the same order as in {@link PEWMASampling}, so that the estimated
+ * sampling periods are identical, but the estimations are not logged.
+ */
+public class CompiledPEWMASampling implements SamplingAlgorithm {
+
+	public static final int METRICS_COUNT = ResourceType.values().length;
+
+	private static final ResourceType[] METRICS = ResourceType.values();
+
+	private final long minPeriod;
+	private final long maxPeriod;
+	private final long multiplicity;
+	private final double valueWeightFactor;
+	private final double probabilityWeightFactor;
+	private final double imprecision;
+	private final double requiredPrecision;
+
+	private final PEWMASamplingState state;
+	private final double[] metricValues;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param samplingModelConfiguration configuration of PEWMA sampling models
+	 */
+	public CompiledPEWMASampling(final PEWMASamplingConfiguration samplingModelConfiguration) {
+		final PEWMASamplingParameters parameters = samplingModelConfiguration.getModelsProperties().stream()
+				.filter(props -> props.getType().equals(RESOURCE))
+				.findFirst()
+				.orElseThrow();
+
+		this.minPeriod = parameters.getMinPeriod();
+		this.maxPeriod = parameters.getMaxPeriod();
+		this.multiplicity = parameters.getMultiplicity();
+		this.valueWeightFactor = parameters.getValueWeightFactor();
+		this.probabilityWeightFactor = parameters.getProbabilityWeightFactor();
+		this.imprecision = parameters.getImprecision();
+		this.requiredPrecision = 1 - imprecision;
+		this.state = new PEWMASamplingState(METRICS_COUNT);
+		this.metricValues = new double[METRICS_COUNT];
+	}
+
+	private CompiledPEWMASampling(final CompiledPEWMASampling samplingAlgorithm) {
+		this.minPeriod = samplingAlgorithm.minPeriod;
+		this.maxPeriod = samplingAlgorithm.maxPeriod;
+		this.multiplicity = samplingAlgorithm.multiplicity;
+		this.valueWeightFactor = samplingAlgorithm.valueWeightFactor;
+		this.probabilityWeightFactor = samplingAlgorithm.probabilityWeightFactor;
+		this.imprecision = samplingAlgorithm.imprecision;
+		this.requiredPrecision = samplingAlgorithm.requiredPrecision;
+		this.state = new PEWMASamplingState(samplingAlgorithm.state);
+		this.metricValues = new double[METRICS_COUNT];
+	}
+
+	/**
+	 * Method estimates the sampling period of IE based on its current state.
+	 *
+	 * @param currentIEState current IE state
+	 * @param ie             IE for which the state was reported
+	 * @return sampling period (in milliseconds)
+	 */
+	public long estimateSamplingPeriod(final TestInfrastructureElementState currentIEState,
+			final TestInfrastructureElement ie) {
+		readObservations(currentIEState, ie, metricValues);
+		return estimateSamplingPeriod(metricValues);
+	}
+
+	/**
+	 * Method retrieves values of all metrics from a given IE state.
+	 *
+	 * @param currentIEState current IE state
+	 * @param ie             IE for which the state was reported
+	 * @param observations   array to which metric values are written (indexed by {@link ResourceType#ordinal()})
+	 */
+	public void readObservations(final TestInfrastructureElementState currentIEState,
+			final TestInfrastructureElement ie, final double[] observations) {
+		for (final ResourceType metric : METRICS) {
+			observations[metric.ordinal()] = currentIEState.getMetricValue(metric.name(), ie);
+		}
+	}
+
+	/**
+	 * Method retrieves values of all metrics from a given flat IE state.
+	 *
+	 * @param currentIEState current IE state
+	 * @param ie             IE for which the state was reported
+	 * @param observations   array to which metric values are written (indexed by {@link ResourceType#ordinal()})
+	 */
+	public void readObservations(final TestInfrastructureElementFlatState currentIEState,
+			final TestInfrastructureElement ie, final double[] observations) {
+		for (final ResourceType metric : METRICS) {
+			observations[metric.ordinal()] = currentIEState.getMetricValue(metric.name(), ie);
+		}
+	}
+
+	/**
+	 * Method retrieves values of all metrics from a given IE state reported by the self-awareness service. The values
+	 * are computed in the same way as in {@link TestInfrastructureElementState#getMetricValue}, while the metrics
+	 * missing in the state are observed as 0.
+	 *
+	 * @param currentIEState current IE state
+	 * @param observations   array to which metric values are written (indexed by {@link ResourceType#ordinal()})
+	 */
+	@Override
+	public void readObservations(final TestInfrastructureElementStateREST currentIEState,
+			final double[] observations) {
+		observations[CPU_USAGE.ordinal()] = requireNonNullElse(currentIEState.getCpuCores(), 0)
+				* requireNonNullElse(currentIEState.getCurrentCpuUsage(), 0) / 100;
+		observations[RAM_USAGE.ordinal()] = requireNonNullElse(currentIEState.getCurrentRamUsage(), 0);
+		observations[DISK_USAGE.ordinal()] = requireNonNullElse(currentIEState.getCurrentDiskUsage(), 0);
+	}
+
+	@Override
+	public long observe(final double[] observations, final double[] monitoredValues) {
+		return estimateSamplingPeriod(observations);
+	}
+
+	@Override
+	public CompiledPEWMASampling copy() {
+		return new CompiledPEWMASampling(this);
+	}
+
+	/**
+	 * Method estimates the sampling period based on observations of all metrics.
+	 *
+	 * @param observations observed metric values indexed by {@link ResourceType#ordinal()}
+	 * @return sampling period (in milliseconds)
+	 */
+	public long estimateSamplingPeriod(final double[] observations) {
+		return estimateSamplingPeriod(state, 0, observations);
+	}
+
+	/**
+	 * Method estimates the sampling period of IE using the models kept in the off-heap store.
+	 *
+	 * @param samplingStore  store in which the models of IEs are kept
+	 * @param currentIEState current IE state
+	 * @param ie             IE for which the state was reported
+	 * @return sampling period (in milliseconds)
+	 */
+	public long estimateSamplingPeriod(final OffHeapPEWMASamplingStore samplingStore,
+			final TestInfrastructureElementState currentIEState, final TestInfrastructureElement ie) {
+		readObservations(currentIEState, ie, metricValues);
+		return estimateSamplingPeriod(samplingStore, samplingStore.getFirstSlot(ie.getId()), metricValues);
+	}
+
+	/**
+	 * Method estimates the sampling period based on observations of all metrics using an externally managed store.
+	 *
+	 * @param samplingStore store in which the models are kept
+	 * @param firstSlot     slot of the first metric (the models occupy {@link #METRICS_COUNT} consecutive slots)
+	 * @param observations  observed metric values indexed by {@link ResourceType#ordinal()}
+	 * @return sampling period (in milliseconds)
+	 */
+	public long estimateSamplingPeriod(final PEWMASamplingStore samplingStore, final int firstSlot,
+			final double[] observations) {
+		long samplingPeriod = Long.MAX_VALUE;
+		for (int metric = 0; metric < METRICS_COUNT; metric++) {
+			samplingPeriod = Math.min(samplingPeriod,
+					computeSamplingPeriod(samplingStore, firstSlot + metric, observations[metric]));
+		}
+		return samplingPeriod;
+	}
+
+	/**
+	 * Method updates a single PEWMA sampling model with a new observation.
+	 *
+	 * @param samplingStore store in which the model is kept
+	 * @param slot          slot of the model
+	 * @param sampleValue   new observation value
+	 * @return sampling period estimated for the model (in milliseconds)
+	 */
+	public long computeSamplingPeriod(final PEWMASamplingStore samplingStore, final int slot,
+			final double sampleValue) {
+		if (!samplingStore.isInitialized(slot)) {
+			samplingStore.updateModel(slot, minPeriod, 0D, 0, sampleValue);
+			return minPeriod;
+		}
+
+		final double lastSampleDistance = samplingStore.getLastSampleDistance(slot);
+		final double lastMovingStd = samplingStore.getLastMovingStandardDeviation(slot);
+
+		final double distance = abs(sampleValue - samplingStore.getLastSampleValue(slot));
+		final double observedStd = computeStandardDeviation(distance);
+		final double probability = computePEWMAProbability(distance, lastSampleDistance, lastMovingStd);
+
+		final double adaptableFactor = valueWeightFactor * (1 - probabilityWeightFactor * probability);
+		final double lastPEWMAStd = pow(lastMovingStd, 2) + pow(lastSampleDistance, 2);
+		final double newPEWMA = adaptableFactor * lastSampleDistance + ((1 - adaptableFactor) * distance);
+		final double newPEWMAStd = adaptableFactor * lastPEWMAStd + ((1 - adaptableFactor) * pow(distance, 2));
+		final double newMovingStd = sqrt(newPEWMAStd - pow(newPEWMA, 2));
+
+		final double confidence = observedStd == 0 ? 1 : 1 - (abs(lastMovingStd - observedStd) / observedStd);
+		final long samplingPeriod = confidence >= requiredPrecision
+				? getEstimatedSamplingPeriod(confidence, samplingStore.getLastSamplingPeriod(slot))
+				: minPeriod;
+
+		samplingStore.updateModel(slot, samplingPeriod, newPEWMA, newMovingStd, sampleValue);
+		return samplingPeriod;
+	}
+
+	/**
+	 * @return minimal sampling period (in milliseconds)
+	 */
+	public long getMinPeriod() {
+		return minPeriod;
+	}
+
+	private long getEstimatedSamplingPeriod(final double confidence, final long lastSamplingPeriod) {
+		final double samplingPeriodEstimation =
+				lastSamplingPeriod + multiplicity * (1 + ((confidence - imprecision) / confidence));
+		return (long) clamp(ceil(samplingPeriodEstimation), minPeriod, maxPeriod);
+	}
+}
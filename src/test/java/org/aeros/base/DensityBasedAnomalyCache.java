@@ -1,5 +1,8 @@
 package org.aeros.base;
 
+import static java.util.Objects.nonNull;
+
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import lombok.Getter;
@@ -40,4 +43,53 @@ public class DensityBasedAnomalyCache {
 		isInAnomalousState = !isInAnomalousState;
 	}
 
+	/**
+	 * Method writes the cache as a density-based model record of {@link StateSnapshot}.
+	 *
+	 * @param buffer buffer to which the cache is written
+	 */
+	public void writeSnapshot(final ByteBuffer buffer) {
+		final int flags = (isInAnomalousState ? 1 : 0)
+						  | (nonNull(sampleDensity) ? 1 << 1 : 0)
+						  | (nonNull(averageDensity) ? 1 << 2 : 0)
+						  | (nonNull(sampleMean) ? 1 << 3 : 0)
+						  | (nonNull(scalarProduct) ? 1 << 4 : 0);
+
+		buffer.put((byte) flags)
+				.putInt(currentStateCounter.get())
+				.putInt(changeIndicationCounter.get())
+				.putInt(dataSampleSize.get())
+				.putDouble(nonNull(sampleDensity) ? sampleDensity : 0D)
+				.putDouble(nonNull(averageDensity) ? averageDensity : 0D)
+				.putDouble(nonNull(sampleMean) ? sampleMean : 0D)
+				.putDouble(nonNull(scalarProduct) ? scalarProduct : 0D);
+	}
+
+	/**
+	 * Method reads the cache from a density-based model record of {@link StateSnapshot}.
+	 *
+	 * @param buffer buffer from which the cache is read
+	 * @return restored cache
+	 */
+	public static DensityBasedAnomalyCache readSnapshot(final ByteBuffer buffer) {
+		final DensityBasedAnomalyCache cache = new DensityBasedAnomalyCache();
+		final int flags = buffer.get();
+
+		cache.isInAnomalousState = (flags & 1) != 0;
+		cache.currentStateCounter.set(buffer.getInt());
+		cache.changeIndicationCounter.set(buffer.getInt());
+		cache.dataSampleSize.set(buffer.getInt());
+
+		final double density = buffer.getDouble();
+		final double avgDensity = buffer.getDouble();
+		final double mean = buffer.getDouble();
+		final double product = buffer.getDouble();
+
+		cache.sampleDensity = (flags & 1 << 1) != 0 ? density : null;
+		cache.averageDensity = (flags & 1 << 2) != 0 ? avgDensity : null;
+		cache.sampleMean = (flags & 1 << 3) != 0 ? mean : null;
+		cache.scalarProduct = (flags & 1 << 4) != 0 ? product : null;
+		return cache;
+	}
+
 }
@@ -6,12 +6,21 @@ import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static java.util.function.Predicate.not;
 import static java.util.stream.Collectors.toMap;
+import static org.aeros.base.StateSnapshot.DENSITY_BASED_ANOMALY;
+import static org.aeros.base.StateSnapshot.DENSITY_RECORD_SIZE;
+import static org.aeros.base.StateSnapshot.HEADER_SIZE;
+import static org.aeros.base.StateSnapshot.getKeySize;
+import static org.aeros.base.StateSnapshot.readHeader;
+import static org.aeros.base.StateSnapshot.readKey;
+import static org.aeros.base.StateSnapshot.writeHeader;
+import static org.aeros.base.StateSnapshot.writeKey;
 import static org.aeros.utils.StatisticalOperations.computeDensity;
 import static org.aeros.utils.StatisticalOperations.computeMeanDensity;
 import static org.aeros.utils.StatisticalOperations.computeMeanValue;
 import static org.aeros.utils.StatisticalOperations.computeScalarProduct;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -43,6 +52,42 @@ public class DensityBasedAnomalyDetection {
 				.toList();
 	}
 
+	/**
+	 * Method creates a binary snapshot of the caches of all models.
+	 *
+	 * @return buffer containing the snapshot (ready to be read)
+	 * @see StateSnapshot
+	 */
+	public ByteBuffer createSnapshot() {
+		final int snapshotSize = HEADER_SIZE + cacheMap.keySet().stream()
+				.mapToInt(metricName -> getKeySize(metricName) + DENSITY_RECORD_SIZE)
+				.sum();
+		final ByteBuffer snapshot = ByteBuffer.allocate(snapshotSize);
+
+		writeHeader(snapshot, DENSITY_BASED_ANOMALY, cacheMap.size());
+		cacheMap.forEach((metricName, cache) -> {
+			writeKey(snapshot, metricName);
+			cache.writeSnapshot(snapshot);
+		});
+		return snapshot.flip();
+	}
+
+	/**
+	 * Method restores the caches of models from a binary snapshot. Caches of metrics that are not configured are
+	 * skipped.
+	 *
+	 * @param snapshot buffer containing the snapshot
+	 */
+	public void restoreSnapshot(final ByteBuffer snapshot) {
+		final int entriesCount = readHeader(snapshot, DENSITY_BASED_ANOMALY);
+
+		for (int i = 0; i < entriesCount; i++) {
+			final String metricName = readKey(snapshot);
+			final DensityBasedAnomalyCache cache = DensityBasedAnomalyCache.readSnapshot(snapshot);
+			cacheMap.computeIfPresent(metricName, (_, _) -> cache);
+		}
+	}
+
 	private Optional<String> detectAnomalyForModel(final DensityBasedAnomaliesParameters modelProperties,
 			final TestInfrastructureElementState infrastructureElementState,
 			final TestInfrastructureElement testIe) {
@@ -0,0 +1,192 @@
+package org.aeros.base;
+
+import static java.lang.String.format;
+import static java.util.Comparator.comparing;
+import static org.aeros.base.BulkDensityBasedAnomalyDetection.prepareTrace;
+import static org.aeros.base.CompiledDensityBasedAnomalyDetection.METRICS_COUNT;
+import static org.aeros.base.CompiledDensityBasedAnomalyDetection.NO_ANOMALY;
+import static org.aeros.base.CompiledDensityBasedAnomalyDetection.getAnomalyLabel;
+import static org.aeros.domain.AlgorithmType.ANOMALY;
+import static org.aeros.domain.MetricType.ANOMALY_SCORE_CPU;
+import static org.aeros.domain.MetricType.ANOMALY_SCORE_DISK;
+import static org.aeros.domain.MetricType.ANOMALY_SCORE_RAM;
+import static org.aeros.utils.ScenarioReader.readScenarioData;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.aeros.base.BulkDensityBasedAnomalyDetection.PreparedTrace;
+import org.aeros.base.config.DensityBasedAnomalyConfiguration;
+import org.aeros.base.parameters.DensityBasedAnomaliesParameters;
+import org.aeros.domain.AlgorithmConfigDescription;
+import org.aeros.domain.MetricType;
+import org.aeros.domain.ParameterSweepResult;
+import org.aeros.domain.ResourceType;
+import org.aeros.domain.ScenarioDescription;
+import org.aeros.domain.TestInfrastructureElementState;
+import org.aeros.metrics.AnomalyScoreEvaluator;
+
+/**
+ * Engine used to tune the parameters of density-based anomaly detection.
+ * <p>
+ * The trace of the scenario is read once into primitive columns, for which the prefix sums and densities are
+ * computed up front (see {@link BulkDensityBasedAnomalyDetection}). Evaluation of a single combination of parameters
+ * is then reduced to running the state machine of the detector over the trace and computing the Anomaly Score of
+ * the corresponding metric, so the combinations are evaluated in parallel on a fork-join pool.
+ */
+public class DensityBasedAnomalyParameterSweep {
+
+	private static final Comparator<ParameterSweepResult> RANKING_ORDER =
+			comparing((ParameterSweepResult result) -> result.getParameters().getName())
+					.thenComparing(ParameterSweepResult::getAnomalyScore, Comparator.reverseOrder());
+
+	private final ScenarioDescription scenarioDescription;
+	private final PreparedTrace[] preparedTraces;
+
+	/**
+	 * Default constructor. It reads the trace of the scenario for all metrics configured in the scenario.
+	 *
+	 * @param scenarioDescription description of test scenario
+	 */
+	public DensityBasedAnomalyParameterSweep(final ScenarioDescription scenarioDescription) {
+		final DensityBasedAnomalyConfiguration configuration = scenarioDescription.getBaseAlgorithmsConfig().stream()
+				.filter(config -> config.getType().equals(ANOMALY))
+				.findFirst()
+				.map(AlgorithmConfigDescription::getConfig)
+				.map(DensityBasedAnomalyConfiguration.class::cast)
+				.orElseThrow();
+		final CompiledDensityBasedAnomalyDetection anomalyDetection =
+				new CompiledDensityBasedAnomalyDetection(configuration);
+		final List<TestInfrastructureElementState> ieData = readScenarioData(scenarioDescription.getIe().getData());
+		final double[][] trace = new double[METRICS_COUNT][ieData.size()];
+		final double[] observations = new double[METRICS_COUNT];
+
+		for (int idx = 0; idx < ieData.size(); idx++) {
+			anomalyDetection.readObservations(ieData.get(idx), scenarioDescription.getIe(), observations);
+			for (int metric = 0; metric < METRICS_COUNT; metric++) {
+				trace[metric][idx] = observations[metric];
+			}
+		}
+
+		this.scenarioDescription = scenarioDescription;
+		this.preparedTraces = new PreparedTrace[METRICS_COUNT];
+		for (final int metric : anomalyDetection.getMetrics()) {
+			preparedTraces[metric] = prepareTrace(trace[metric]);
+		}
+	}
+
+	/**
+	 * Method creates all combinations of given parameter values for a single metric.
+	 *
+	 * @param metricName                 name of the metric (see {@link ResourceType})
+	 * @param toleranceThresholdsAnomaly values of tolerance threshold used to detect anomalies
+	 * @param toleranceThresholdsNormal  values of tolerance threshold used to return to normal state
+	 * @param windowsAnomaly             values of window used to detect anomalies
+	 * @param windowsNormal              values of window used to return to normal state
+	 * @return list of parameter combinations
+	 */
+	public static List<DensityBasedAnomaliesParameters> createParametersGrid(final String metricName,
+			final List<Double> toleranceThresholdsAnomaly,
+			final List<Double> toleranceThresholdsNormal,
+			final List<Integer> windowsAnomaly,
+			final List<Integer> windowsNormal) {
+		final List<DensityBasedAnomaliesParameters> parametersGrid = new ArrayList<>();
+
+		toleranceThresholdsAnomaly.forEach(toleranceAnomaly ->
+				toleranceThresholdsNormal.forEach(toleranceNormal ->
+						windowsAnomaly.forEach(windowAnomaly ->
+								windowsNormal.forEach(windowNormal -> parametersGrid.add(
+										new DensityBasedAnomaliesParameters(metricName, toleranceAnomaly,
+												toleranceNormal, windowAnomaly, windowNormal))))));
+		return parametersGrid;
+	}
+
+	/**
+	 * Method evaluates given combinations of parameters in parallel.
+	 *
+	 * @param parametersGrid combinations of parameters (each combination refers to a single metric)
+	 * @param forkJoinPool   pool in which the combinations are evaluated
+	 * @return evaluation results ranked by metric name and descending Anomaly Score
+	 */
+	public List<ParameterSweepResult> runSweep(final List<DensityBasedAnomaliesParameters> parametersGrid,
+			final ForkJoinPool forkJoinPool) {
+		return forkJoinPool.submit(() -> parametersGrid.parallelStream()
+						.map(this::evaluateParameters)
+						.sorted(RANKING_ORDER)
+						.toList())
+				.join();
+	}
+
+	/**
+	 * Method formats the ranking of evaluated parameter combinations as a table.
+	 *
+	 * @param results       evaluation results ranked by {@link #runSweep}
+	 * @param rowsPerMetric maximal number of combinations displayed for each metric
+	 * @return formatted table
+	 */
+	public String formatRanking(final List<ParameterSweepResult> results, final int rowsPerMetric) {
+		final StringBuilder ranking = new StringBuilder(format("%-12s %5s %10s %10s %8s %8s %10s %10s%n",
+				"METRIC", "RANK", "TOL_ANOM", "TOL_NORM", "WIN_ANOM", "WIN_NORM", "ANOMALIES", "SCORE[%]"));
+		final Map<String, Integer> ranks = new HashMap<>();
+
+		results.forEach(result -> {
+			final DensityBasedAnomaliesParameters parameters = result.getParameters();
+			final int rank = ranks.merge(parameters.getName(), 1, Integer::sum);
+
+			if (rank <= rowsPerMetric) {
+				ranking.append(format("%-12s %5d %10.3f %10.3f %8d %8d %10d %10.3f%n", parameters.getName(), rank,
+						parameters.getToleranceThresholdAnomaly(), parameters.getToleranceThresholdNormal(),
+						parameters.getWindowAnomaly(), parameters.getWindowNormal(),
+						result.getDetectedAnomaliesCount(), result.getAnomalyScore()));
+			}
+		});
+		return ranking.toString();
+	}
+
+	private ParameterSweepResult evaluateParameters(final DensityBasedAnomaliesParameters parameters) {
+		final ResourceType resourceType = ResourceType.valueOf(parameters.getName());
+		final PreparedTrace preparedTrace = preparedTraces[resourceType.ordinal()];
+
+		if (preparedTrace == null) {
+			throw new IllegalArgumentException(
+					format("Metric %s is not configured in scenario %s.", resourceType, scenarioDescription.getName()));
+		}
+
+		final BulkDensityBasedAnomalyDetection anomalyDetection = new BulkDensityBasedAnomalyDetection(
+				new DensityBasedAnomalyConfiguration(List.of(parameters)));
+		final int[] anomalyCodes = anomalyDetection.detectAnomalies(resourceType.ordinal(), preparedTrace);
+		final Map<Integer, List<String>> detectedAnomalies = new HashMap<>();
+
+		for (int idx = 0; idx < anomalyCodes.length; idx++) {
+			if (anomalyCodes[idx] != NO_ANOMALY) {
+				detectedAnomalies.put(idx + 1, List.of(getAnomalyLabel(anomalyCodes[idx])));
+			}
+		}
+		return new ParameterSweepResult(parameters, computeAnomalyScore(resourceType, detectedAnomalies),
+				detectedAnomalies.size());
+	}
+
+	private double computeAnomalyScore(final ResourceType resourceType,
+			final Map<Integer, List<String>> detectedAnomalies) {
+		final AnomalyScoreEvaluator scoreEvaluator = new AnomalyScoreEvaluator(detectedAnomalies);
+		final MetricType metricType = switch (resourceType) {
+			case CPU_USAGE -> ANOMALY_SCORE_CPU;
+			case RAM_USAGE -> ANOMALY_SCORE_RAM;
+			case DISK_USAGE -> ANOMALY_SCORE_DISK;
+		};
+
+		if (scenarioDescription.getEvaluationMetrics().get(metricType) == null) {
+			throw new IllegalArgumentException(
+					format("Scenario %s does not define %s.", scenarioDescription.getName(), metricType));
+		}
+		return switch (resourceType) {
+			case CPU_USAGE -> scoreEvaluator.computeAnomalyScoreForCPU(scenarioDescription);
+			case RAM_USAGE -> scoreEvaluator.computeAnomalyScoreForRAM(scenarioDescription);
+			case DISK_USAGE -> scoreEvaluator.computeAnomalyScoreForDisk(scenarioDescription);
+		};
+	}
+}
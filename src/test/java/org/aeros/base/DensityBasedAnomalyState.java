@@ -0,0 +1,118 @@
+package org.aeros.base;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Primitive (struct-of-arrays) counterpart of {@link DensityBasedAnomalyCache}.
+ * Each slot holds the state of a single density-based model (i.e. one metric of one IE).
+ */
+public class DensityBasedAnomalyState {
+
+	final boolean[] isInAnomalousState;
+	final int[] currentStateCounter;
+	final int[] changeIndicationCounter;
+	final int[] dataSampleSize;
+
+	final double[] sampleDensity;
+	final double[] averageDensity;
+	final double[] sampleMean;
+	final double[] scalarProduct;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param size number of slots (models) stored in the state
+	 */
+	public DensityBasedAnomalyState(final int size) {
+		this.isInAnomalousState = new boolean[size];
+		this.currentStateCounter = new int[size];
+		this.changeIndicationCounter = new int[size];
+		this.dataSampleSize = new int[size];
+		this.sampleDensity = new double[size];
+		this.averageDensity = new double[size];
+		this.sampleMean = new double[size];
+		this.scalarProduct = new double[size];
+	}
+
+	/**
+	 * @return number of slots stored in the state
+	 */
+	public int size() {
+		return dataSampleSize.length;
+	}
+
+	/**
+	 * Method creates a copy of the state with a changed number of slots.
+	 *
+	 * @param newSize number of slots in the copy
+	 * @return resized state
+	 */
+	public DensityBasedAnomalyState resize(final int newSize) {
+		final DensityBasedAnomalyState resizedState = new DensityBasedAnomalyState(newSize);
+		final int copiedSize = Math.min(size(), newSize);
+
+		System.arraycopy(isInAnomalousState, 0, resizedState.isInAnomalousState, 0, copiedSize);
+		System.arraycopy(currentStateCounter, 0, resizedState.currentStateCounter, 0, copiedSize);
+		System.arraycopy(changeIndicationCounter, 0, resizedState.changeIndicationCounter, 0, copiedSize);
+		System.arraycopy(dataSampleSize, 0, resizedState.dataSampleSize, 0, copiedSize);
+		System.arraycopy(sampleDensity, 0, resizedState.sampleDensity, 0, copiedSize);
+		System.arraycopy(averageDensity, 0, resizedState.averageDensity, 0, copiedSize);
+		System.arraycopy(sampleMean, 0, resizedState.sampleMean, 0, copiedSize);
+		System.arraycopy(scalarProduct, 0, resizedState.scalarProduct, 0, copiedSize);
+		return resizedState;
+	}
+
+	/**
+	 * Method writes a slot as a density-based model record of {@link StateSnapshot}.
+	 *
+	 * @param buffer buffer to which the slot is written
+	 * @param slot   slot that is to be written
+	 */
+	public void writeSnapshot(final ByteBuffer buffer, final int slot) {
+		final int presenceFlags = dataSampleSize[slot] > 0 ? 0b11110 : 0;
+
+		buffer.put((byte) ((isInAnomalousState[slot] ? 1 : 0) | presenceFlags))
+				.putInt(currentStateCounter[slot])
+				.putInt(changeIndicationCounter[slot])
+				.putInt(dataSampleSize[slot])
+				.putDouble(sampleDensity[slot])
+				.putDouble(averageDensity[slot])
+				.putDouble(sampleMean[slot])
+				.putDouble(scalarProduct[slot]);
+	}
+
+	/**
+	 * Method reads a slot from a density-based model record of {@link StateSnapshot}.
+	 *
+	 * @param buffer buffer from which the slot is read
+	 * @param slot   slot that is to be restored
+	 */
+	public void readSnapshot(final ByteBuffer buffer, final int slot) {
+		isInAnomalousState[slot] = (buffer.get() & 1) != 0;
+		currentStateCounter[slot] = buffer.getInt();
+		changeIndicationCounter[slot] = buffer.getInt();
+		dataSampleSize[slot] = buffer.getInt();
+		sampleDensity[slot] = buffer.getDouble();
+		averageDensity[slot] = buffer.getDouble();
+		sampleMean[slot] = buffer.getDouble();
+		scalarProduct[slot] = buffer.getDouble();
+	}
+
+	/**
+	 * Method clears the state of selected slots, so that they can be reused by new models.
+	 *
+	 * @param fromSlot first slot that is to be cleared (inclusive)
+	 * @param toSlot   last slot that is to be cleared (exclusive)
+	 */
+	public void reset(final int fromSlot, final int toSlot) {
+		Arrays.fill(isInAnomalousState, fromSlot, toSlot, false);
+		Arrays.fill(currentStateCounter, fromSlot, toSlot, 0);
+		Arrays.fill(changeIndicationCounter, fromSlot, toSlot, 0);
+		Arrays.fill(dataSampleSize, fromSlot, toSlot, 0);
+		Arrays.fill(sampleDensity, fromSlot, toSlot, 0);
+		Arrays.fill(averageDensity, fromSlot, toSlot, 0);
+		Arrays.fill(sampleMean, fromSlot, toSlot, 0);
+		Arrays.fill(scalarProduct, fromSlot, toSlot, 0);
+	}
+}
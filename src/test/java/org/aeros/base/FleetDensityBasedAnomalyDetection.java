@@ -0,0 +1,266 @@
+package org.aeros.base;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.aeros.base.CompiledDensityBasedAnomalyDetection.METRICS_COUNT;
+import static org.aeros.base.StateSnapshot.DENSITY_RECORD_SIZE;
+import static org.aeros.base.StateSnapshot.FLEET_DENSITY_BASED_ANOMALY;
+import static org.aeros.base.StateSnapshot.HEADER_SIZE;
+import static org.aeros.base.StateSnapshot.getKeySize;
+import static org.aeros.base.StateSnapshot.getTemporaryFile;
+import static org.aeros.base.StateSnapshot.moveSnapshot;
+import static org.aeros.base.StateSnapshot.readHeader;
+import static org.aeros.base.StateSnapshot.readKey;
+import static org.aeros.base.StateSnapshot.writeHeader;
+import static org.aeros.base.StateSnapshot.writeKey;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.aeros.base.config.DensityBasedAnomalyConfiguration;
+import org.aeros.domain.TestInfrastructureElement;
+import org.aeros.domain.TestInfrastructureElementState;
+
+/**
+ * Density-based anomaly detection for a fleet of IEs.
+ * <p>
+ * The per-IE, per-metric models are partitioned into shards selected by the hash of IE id. Each shard has its own
+ * lock and its own {@link DensityBasedAnomalyState}, so that multiple producer threads may report states of
+ * different IEs concurrently, while the states of a single IE are always processed sequentially.
+ * <p>
+ * Snapshots of the models are created shard by shard - each shard is locked only for the time of copying its state,
+ * so snapshots may be written in the background without pausing the detection.
+ */
+public class FleetDensityBasedAnomalyDetection {
+
+	private static final int INITIAL_SHARD_CAPACITY = 16;
+
+	private final CompiledDensityBasedAnomalyDetection anomalyDetection;
+	private final Shard[] shards;
+	private final int shardMask;
+
+	/**
+	 * Default constructor. The number of shards is derived from the number of available processors.
+	 *
+	 * @param anomalyModelConfiguration configuration of density-based models
+	 */
+	public FleetDensityBasedAnomalyDetection(final DensityBasedAnomalyConfiguration anomalyModelConfiguration) {
+		this(anomalyModelConfiguration, Runtime.getRuntime().availableProcessors() * 4);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param anomalyModelConfiguration configuration of density-based models
+	 * @param concurrencyLevel          expected number of concurrently reporting threads (rounded up to the power
+	 *                                  of two to obtain the number of shards)
+	 */
+	public FleetDensityBasedAnomalyDetection(final DensityBasedAnomalyConfiguration anomalyModelConfiguration,
+			final int concurrencyLevel) {
+		final int shardsCount = Integer.highestOneBit(Math.max(1, concurrencyLevel) * 2 - 1);
+
+		this.anomalyDetection = new CompiledDensityBasedAnomalyDetection(anomalyModelConfiguration);
+		this.shards = new Shard[shardsCount];
+		this.shardMask = shardsCount - 1;
+		Arrays.setAll(shards, _ -> new Shard());
+	}
+
+	/**
+	 * Method detects anomalies in a given state of IE. It may be called concurrently by multiple threads.
+	 *
+	 * @param infrastructureElementState current IE state
+	 * @param testIe                     IE for which the state was reported
+	 * @return bitmask of detected anomaly codes
+	 * @see CompiledDensityBasedAnomalyDetection#getAnomalyLabels(int)
+	 */
+	public int detectAnomalies(final TestInfrastructureElementState infrastructureElementState,
+			final TestInfrastructureElement testIe) {
+		final Shard shard = getShard(testIe.getId());
+
+		synchronized (shard) {
+			final int firstSlot = shard.getFirstSlot(testIe.getId());
+			anomalyDetection.readObservations(infrastructureElementState, testIe, shard.observations);
+			return anomalyDetection.detectAnomalies(shard.state, firstSlot, shard.observations);
+		}
+	}
+
+	/**
+	 * Method detects anomalies in observations of a given IE. It may be called concurrently by multiple threads.
+	 *
+	 * @param ieId         identifier of IE
+	 * @param observations observed metric values indexed by {@link org.aeros.domain.ResourceType#ordinal()}
+	 * @return bitmask of detected anomaly codes
+	 */
+	public int detectAnomalies(final String ieId, final double[] observations) {
+		final Shard shard = getShard(ieId);
+
+		synchronized (shard) {
+			return anomalyDetection.detectAnomalies(shard.state, shard.getFirstSlot(ieId), observations);
+		}
+	}
+
+	/**
+	 * @param anomalies bitmask of detected anomaly codes
+	 * @return list of anomaly labels
+	 */
+	public List<String> getAnomalyLabels(final int anomalies) {
+		return anomalyDetection.getAnomalyLabels(anomalies);
+	}
+
+	/**
+	 * @return number of IEs for which the models are stored
+	 */
+	public int getMonitoredElementsCount() {
+		int elementsCount = 0;
+		for (final Shard shard : shards) {
+			synchronized (shard) {
+				elementsCount += shard.slots.size();
+			}
+		}
+		return elementsCount;
+	}
+
+	/**
+	 * Method creates a binary snapshot of the models of all IEs.
+	 *
+	 * @return buffer containing the snapshot (ready to be read)
+	 * @see StateSnapshot
+	 */
+	public ByteBuffer createSnapshot() {
+		final List<ShardSnapshot> shardSnapshots = Arrays.stream(shards).map(this::createShardSnapshot).toList();
+		final int entriesCount = shardSnapshots.stream().mapToInt(ShardSnapshot::entriesCount).sum();
+		final int snapshotSize = HEADER_SIZE + shardSnapshots.stream()
+				.mapToInt(shardSnapshot -> shardSnapshot.data().remaining())
+				.sum();
+		final ByteBuffer snapshot = ByteBuffer.allocate(snapshotSize);
+
+		writeHeader(snapshot, FLEET_DENSITY_BASED_ANOMALY, entriesCount);
+		shardSnapshots.forEach(shardSnapshot -> snapshot.put(shardSnapshot.data()));
+		return snapshot.flip();
+	}
+
+	/**
+	 * Method writes the snapshot of the models of all IEs to the file, one shard at a time.
+	 *
+	 * @param file path of the snapshot file
+	 */
+	public void writeSnapshot(final Path file) {
+		final Path temporaryFile = getTemporaryFile(file);
+
+		try (final FileChannel channel = FileChannel.open(temporaryFile, CREATE, WRITE, TRUNCATE_EXISTING)) {
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			int entriesCount = 0;
+
+			channel.position(HEADER_SIZE);
+			for (final Shard shard : shards) {
+				final ShardSnapshot shardSnapshot = createShardSnapshot(shard);
+				while (shardSnapshot.data().hasRemaining()) {
+					channel.write(shardSnapshot.data());
+				}
+				entriesCount += shardSnapshot.entriesCount();
+			}
+
+			writeHeader(header, FLEET_DENSITY_BASED_ANOMALY, entriesCount);
+			channel.write(header.flip(), 0);
+			channel.force(false);
+		} catch (final IOException e) {
+			throw new RuntimeException("Couldn't write the state snapshot.", e);
+		}
+		moveSnapshot(temporaryFile, file);
+	}
+
+	/**
+	 * Method writes the snapshot of the models of all IEs to the file in the background.
+	 *
+	 * @param file     path of the snapshot file
+	 * @param executor executor used to write the snapshot
+	 * @return future completed once the snapshot is written
+	 */
+	public CompletableFuture<Void> writeSnapshot(final Path file, final Executor executor) {
+		return CompletableFuture.runAsync(() -> writeSnapshot(file), executor);
+	}
+
+	/**
+	 * Method restores the models of IEs from a binary snapshot.
+	 *
+	 * @param snapshot buffer containing the snapshot
+	 */
+	public void restoreSnapshot(final ByteBuffer snapshot) {
+		final int entriesCount = readHeader(snapshot, FLEET_DENSITY_BASED_ANOMALY);
+
+		for (int i = 0; i < entriesCount; i++) {
+			final String ieId = readKey(snapshot);
+			final Shard shard = getShard(ieId);
+
+			synchronized (shard) {
+				final int firstSlot = shard.getFirstSlot(ieId);
+				for (int metric = 0; metric < METRICS_COUNT; metric++) {
+					shard.state.readSnapshot(snapshot, firstSlot + metric);
+				}
+			}
+		}
+	}
+
+	private ShardSnapshot createShardSnapshot(final Shard shard) {
+		final String[] ieIds;
+		final int[] firstSlots;
+		final DensityBasedAnomalyState stateCopy;
+
+		synchronized (shard) {
+			ieIds = shard.slots.keySet().toArray(String[]::new);
+			firstSlots = Arrays.stream(ieIds).mapToInt(shard.slots::get).toArray();
+			stateCopy = shard.state.resize(shard.state.size());
+		}
+
+		final int snapshotSize = Arrays.stream(ieIds)
+				.mapToInt(ieId -> getKeySize(ieId) + METRICS_COUNT * DENSITY_RECORD_SIZE)
+				.sum();
+		final ByteBuffer data = ByteBuffer.allocate(snapshotSize);
+
+		for (int i = 0; i < ieIds.length; i++) {
+			writeKey(data, ieIds[i]);
+			for (int metric = 0; metric < METRICS_COUNT; metric++) {
+				stateCopy.writeSnapshot(data, firstSlots[i] + metric);
+			}
+		}
+		return new ShardSnapshot(ieIds.length, data.flip());
+	}
+
+	private Shard getShard(final String ieId) {
+		final int hash = ieId.hashCode();
+		return shards[(hash ^ (hash >>> 16)) & shardMask];
+	}
+
+	private record ShardSnapshot(int entriesCount, ByteBuffer data) {
+	}
+
+	private static final class Shard {
+
+		private final Map<String, Integer> slots = new HashMap<>();
+		private final double[] observations = new double[METRICS_COUNT];
+		private DensityBasedAnomalyState state = new DensityBasedAnomalyState(INITIAL_SHARD_CAPACITY * METRICS_COUNT);
+
+		private int getFirstSlot(final String ieId) {
+			final Integer firstSlot = slots.get(ieId);
+			if (firstSlot != null) {
+				return firstSlot;
+			}
+
+			final int newFirstSlot = slots.size() * METRICS_COUNT;
+			if (newFirstSlot + METRICS_COUNT > state.size()) {
+				state = state.resize(state.size() * 2);
+			}
+			slots.put(ieId, newFirstSlot);
+			return newFirstSlot;
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package org.aeros.base;
+
+import static java.lang.foreign.ValueLayout.JAVA_DOUBLE;
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static org.aeros.base.CompiledPEWMASampling.METRICS_COUNT;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Off-heap {@link PEWMASamplingStore} used to keep the sampling models of a large number of IEs.
+ * <p>
+ * The models are stored in a single {@link MemorySegment} as fixed-size records (the models of a single IE occupy
+ * {@link CompiledPEWMASampling#METRICS_COUNT} consecutive slots), so their number does not affect the size of the
+ * heap and the time of garbage collection. Each record consists of the last sampling period (long) followed by the
+ * last sample distance, last moving standard deviation and last sample value, which are stored either as doubles
+ * (32-byte records) or, when the single precision is selected, as floats (24-byte records). In the latter case the
+ * estimated sampling periods may slightly differ from the ones of {@link PEWMASampling}.
+ * <p>
+ * The store is not thread-safe. It must be closed to release the memory.
+ */
+public class OffHeapPEWMASamplingStore implements PEWMASamplingStore, AutoCloseable {
+
+	private static final long NOT_INITIALIZED = Long.MIN_VALUE;
+	private static final long PERIOD_OFFSET = 0;
+	private static final long DISTANCE_OFFSET = Long.BYTES;
+
+	private final boolean isSinglePrecision;
+	private final long recordSize;
+	private final long valueSize;
+	private final Map<String, Integer> slots;
+
+	private Arena arena;
+	private MemorySegment segment;
+	private int size;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param initialCapacity   number of IEs for which the memory is initially allocated
+	 * @param isSinglePrecision flag indicating if the values of models are to be stored as floats
+	 */
+	public OffHeapPEWMASamplingStore(final int initialCapacity, final boolean isSinglePrecision) {
+		this.isSinglePrecision = isSinglePrecision;
+		this.valueSize = isSinglePrecision ? Float.BYTES : Double.BYTES;
+		this.recordSize = Math.ceilDiv(Long.BYTES + 3 * valueSize, Long.BYTES) * Long.BYTES;
+		this.slots = new HashMap<>();
+		this.arena = Arena.ofShared();
+		this.segment = arena.allocate(Math.max(1, initialCapacity) * METRICS_COUNT * recordSize, Long.BYTES);
+	}
+
+	/**
+	 * Method returns the slot of the first metric of IE. If the IE is not yet known, the slots for its models are
+	 * allocated.
+	 *
+	 * @param ieId identifier of IE
+	 * @return slot of the first metric
+	 */
+	public int getFirstSlot(final String ieId) {
+		final Integer firstSlot = slots.get(ieId);
+		if (firstSlot != null) {
+			return firstSlot;
+		}
+
+		final int newFirstSlot = slots.size() * METRICS_COUNT;
+		if ((newFirstSlot + METRICS_COUNT) * recordSize > segment.byteSize()) {
+			grow();
+		}
+		for (int slot = newFirstSlot; slot < newFirstSlot + METRICS_COUNT; slot++) {
+			segment.set(JAVA_LONG, slot * recordSize + PERIOD_OFFSET, NOT_INITIALIZED);
+		}
+		slots.put(ieId, newFirstSlot);
+		size = newFirstSlot + METRICS_COUNT;
+		return newFirstSlot;
+	}
+
+	/**
+	 * @return number of IEs for which the models are stored
+	 */
+	public int getMonitoredElementsCount() {
+		return slots.size();
+	}
+
+	/**
+	 * @return number of bytes of off-heap memory allocated for the models
+	 */
+	public long getAllocatedBytes() {
+		return segment.byteSize();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isInitialized(final int slot) {
+		return getLastSamplingPeriod(slot) != NOT_INITIALIZED;
+	}
+
+	@Override
+	public long getLastSamplingPeriod(final int slot) {
+		return segment.get(JAVA_LONG, slot * recordSize + PERIOD_OFFSET);
+	}
+
+	@Override
+	public double getLastSampleDistance(final int slot) {
+		return getValue(slot, 0);
+	}
+
+	@Override
+	public double getLastMovingStandardDeviation(final int slot) {
+		return getValue(slot, 1);
+	}
+
+	@Override
+	public double getLastSampleValue(final int slot) {
+		return getValue(slot, 2);
+	}
+
+	@Override
+	public void updateModel(final int slot, final long samplingPeriod, final double sampleDistance,
+			final double movingStandardDeviation, final double sampleValue) {
+		segment.set(JAVA_LONG, slot * recordSize + PERIOD_OFFSET, samplingPeriod);
+		setValue(slot, 0, sampleDistance);
+		setValue(slot, 1, movingStandardDeviation);
+		setValue(slot, 2, sampleValue);
+	}
+
+	@Override
+	public void close() {
+		arena.close();
+	}
+
+	private double getValue(final int slot, final int valueIdx) {
+		final long offset = slot * recordSize + DISTANCE_OFFSET + valueIdx * valueSize;
+		return isSinglePrecision ? segment.get(JAVA_FLOAT, offset) : segment.get(JAVA_DOUBLE, offset);
+	}
+
+	private void setValue(final int slot, final int valueIdx, final double value) {
+		final long offset = slot * recordSize + DISTANCE_OFFSET + valueIdx * valueSize;
+		if (isSinglePrecision) {
+			segment.set(JAVA_FLOAT, offset, (float) value);
+		} else {
+			segment.set(JAVA_DOUBLE, offset, value);
+		}
+	}
+
+	private void grow() {
+		final Arena newArena = Arena.ofShared();
+		final MemorySegment newSegment = newArena.allocate(segment.byteSize() * 2, Long.BYTES);
+
+		MemorySegment.copy(segment, 0, newSegment, 0, segment.byteSize());
+		arena.close();
+		arena = newArena;
+		segment = newSegment;
+	}
+}
@@ -8,11 +8,20 @@ import static java.lang.Math.sqrt;
 import static java.lang.String.join;
 import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toSet;
+import static org.aeros.base.StateSnapshot.HEADER_SIZE;
+import static org.aeros.base.StateSnapshot.PEWMA_RECORD_SIZE;
+import static org.aeros.base.StateSnapshot.PEWMA_SAMPLING;
+import static org.aeros.base.StateSnapshot.getKeySize;
+import static org.aeros.base.StateSnapshot.readHeader;
+import static org.aeros.base.StateSnapshot.readKey;
+import static org.aeros.base.StateSnapshot.writeHeader;
+import static org.aeros.base.StateSnapshot.writeKey;
 import static org.aeros.domain.SamplingModelType.RESOURCE;
 import static org.aeros.utils.StatisticalOperations.computePEWMAProbability;
 import static org.aeros.utils.StatisticalOperations.computeStandardDeviation;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -54,6 +63,42 @@ public class PEWMASampling {
 				.orElse(getParamsForType(RESOURCE).getMinPeriod());
 	}
 
+	/**
+	 * Method creates a binary snapshot of the caches of all sampling models.
+	 *
+	 * @return buffer containing the snapshot (ready to be read)
+	 * @see StateSnapshot
+	 */
+	public ByteBuffer createSnapshot() {
+		final int snapshotSize = HEADER_SIZE + cacheMap.keySet().stream()
+				.mapToInt(type -> getKeySize(type) + PEWMA_RECORD_SIZE)
+				.sum();
+		final ByteBuffer snapshot = ByteBuffer.allocate(snapshotSize);
+
+		writeHeader(snapshot, PEWMA_SAMPLING, cacheMap.size());
+		cacheMap.forEach((type, cache) -> {
+			writeKey(snapshot, type);
+			cache.writeSnapshot(snapshot);
+		});
+		return snapshot.flip();
+	}
+
+	/**
+	 * Method restores the caches of sampling models from a binary snapshot. Caches of unknown model types are
+	 * skipped.
+	 *
+	 * @param snapshot buffer containing the snapshot
+	 */
+	public void restoreSnapshot(final ByteBuffer snapshot) {
+		final int entriesCount = readHeader(snapshot, PEWMA_SAMPLING);
+
+		for (int i = 0; i < entriesCount; i++) {
+			final String type = readKey(snapshot);
+			final PEWMASamplingCache cache = PEWMASamplingCache.readSnapshot(snapshot);
+			cacheMap.computeIfPresent(type, (_, _) -> cache);
+		}
+	}
+
 	private long computeSamplingPeriod(final PEWMASamplingParameters properties, final String type,
 			final double sampleValue) {
 		final PEWMASamplingCache cache = cacheMap.get(type);
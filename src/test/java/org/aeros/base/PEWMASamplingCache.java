@@ -3,6 +3,8 @@ package org.aeros.base;
 import static java.lang.Math.pow;
 import static java.util.Objects.isNull;
 
+import java.nio.ByteBuffer;
+
 import org.springframework.stereotype.Service;
 
 import lombok.Getter;
@@ -35,4 +37,41 @@ public class PEWMASamplingCache {
 	public double getLastPEWMAStd() {
 		return pow(lastMovingStandardDeviation, 2) + pow(lastSampleDistance, 2);
 	}
+
+	/**
+	 * Method writes the cache as a PEWMA sampling model record of {@link StateSnapshot}.
+	 *
+	 * @param buffer buffer to which the cache is written
+	 */
+	public void writeSnapshot(final ByteBuffer buffer) {
+		if (isEmpty()) {
+			buffer.put((byte) 0).putLong(0).putDouble(0D).putDouble(0D).putDouble(0D);
+			return;
+		}
+		buffer.put((byte) 1)
+				.putLong(lastSamplingPeriod)
+				.putDouble(lastSampleDistance)
+				.putDouble(lastMovingStandardDeviation)
+				.putDouble(lastSampleValue);
+	}
+
+	/**
+	 * Method reads the cache from a PEWMA sampling model record of {@link StateSnapshot}.
+	 *
+	 * @param buffer buffer from which the cache is read
+	 * @return restored cache
+	 */
+	public static PEWMASamplingCache readSnapshot(final ByteBuffer buffer) {
+		final PEWMASamplingCache cache = new PEWMASamplingCache();
+		final boolean isPresent = buffer.get() != 0;
+		final long samplingPeriod = buffer.getLong();
+		final double sampleDistance = buffer.getDouble();
+		final double movingStandardDeviation = buffer.getDouble();
+		final double sampleValue = buffer.getDouble();
+
+		if (isPresent) {
+			cache.setCacheValues(samplingPeriod, sampleDistance, sampleValue, movingStandardDeviation);
+		}
+		return cache;
+	}
 }
@@ -0,0 +1,81 @@
+package org.aeros.base;
+
+/**
+ * Primitive (struct-of-arrays) counterpart of {@link PEWMASamplingCache}.
+ * Each slot holds the state of a single PEWMA sampling model (i.e. one metric of one IE).
+ */
+public class PEWMASamplingState implements PEWMASamplingStore {
+
+	final boolean[] isInitialized;
+	final long[] lastSamplingPeriod;
+
+	final double[] lastSampleDistance;
+	final double[] lastMovingStandardDeviation;
+	final double[] lastSampleValue;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param size number of slots (models) stored in the state
+	 */
+	public PEWMASamplingState(final int size) {
+		this.isInitialized = new boolean[size];
+		this.lastSamplingPeriod = new long[size];
+		this.lastSampleDistance = new double[size];
+		this.lastMovingStandardDeviation = new double[size];
+		this.lastSampleValue = new double[size];
+	}
+
+	/**
+	 * Copy constructor.
+	 *
+	 * @param state state whose slots are copied
+	 */
+	public PEWMASamplingState(final PEWMASamplingState state) {
+		this.isInitialized = state.isInitialized.clone();
+		this.lastSamplingPeriod = state.lastSamplingPeriod.clone();
+		this.lastSampleDistance = state.lastSampleDistance.clone();
+		this.lastMovingStandardDeviation = state.lastMovingStandardDeviation.clone();
+		this.lastSampleValue = state.lastSampleValue.clone();
+	}
+
+	@Override
+	public int size() {
+		return isInitialized.length;
+	}
+
+	@Override
+	public boolean isInitialized(final int slot) {
+		return isInitialized[slot];
+	}
+
+	@Override
+	public long getLastSamplingPeriod(final int slot) {
+		return lastSamplingPeriod[slot];
+	}
+
+	@Override
+	public double getLastSampleDistance(final int slot) {
+		return lastSampleDistance[slot];
+	}
+
+	@Override
+	public double getLastMovingStandardDeviation(final int slot) {
+		return lastMovingStandardDeviation[slot];
+	}
+
+	@Override
+	public double getLastSampleValue(final int slot) {
+		return lastSampleValue[slot];
+	}
+
+	@Override
+	public void updateModel(final int slot, final long samplingPeriod, final double sampleDistance,
+			final double movingStandardDeviation, final double sampleValue) {
+		isInitialized[slot] = true;
+		lastSamplingPeriod[slot] = samplingPeriod;
+		lastSampleDistance[slot] = sampleDistance;
+		lastMovingStandardDeviation[slot] = movingStandardDeviation;
+		lastSampleValue[slot] = sampleValue;
+	}
+}
@@ -0,0 +1,55 @@
+package org.aeros.base;
+
+/**
+ * Slot-based storage of PEWMA sampling models used by {@link CompiledPEWMASampling}. Each slot holds the state of a
+ * single model (i.e. one metric of one IE).
+ */
+public interface PEWMASamplingStore {
+
+	/**
+	 * @return number of slots stored in the store
+	 */
+	int size();
+
+	/**
+	 * @param slot slot of the model
+	 * @return information if the model has already received its first observation
+	 */
+	boolean isInitialized(int slot);
+
+	/**
+	 * @param slot slot of the model
+	 * @return last estimated sampling period
+	 */
+	long getLastSamplingPeriod(int slot);
+
+	/**
+	 * @param slot slot of the model
+	 * @return last PEWMA estimation of the distance between samples
+	 */
+	double getLastSampleDistance(int slot);
+
+	/**
+	 * @param slot slot of the model
+	 * @return last moving standard deviation of the distance between samples
+	 */
+	double getLastMovingStandardDeviation(int slot);
+
+	/**
+	 * @param slot slot of the model
+	 * @return last observation value
+	 */
+	double getLastSampleValue(int slot);
+
+	/**
+	 * Method stores the updated state of the model.
+	 *
+	 * @param slot                    slot of the model
+	 * @param samplingPeriod          estimated sampling period
+	 * @param sampleDistance          PEWMA estimation of the distance between samples
+	 * @param movingStandardDeviation moving standard deviation of the distance between samples
+	 * @param sampleValue             observation value
+	 */
+	void updateModel(int slot, long samplingPeriod, double sampleDistance, double movingStandardDeviation,
+			double sampleValue);
+}
@@ -0,0 +1,169 @@
+package org.aeros.base;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Class with methods used to write and read binary snapshots of the states of base algorithms.
+ * <p>
+ * Each snapshot starts with a header: magic number (int), format version (short), kind of the snapshot (byte) and
+ * number of entries (int). Each entry consists of a key (e.g. metric name or IE id) encoded as a length-prefixed
+ * UTF-8 string followed by fixed-size records:
+ * <ul>
+ *     <li>density-based model - flags (byte: anomalous state and presence of each double value), current state
+ *     counter, change indication counter, data sample size (ints), sample density, average density, sample mean and
+ *     scalar product (doubles),</li>
+ *     <li>PEWMA sampling model - flags (byte: presence of values), last sampling period (long), last sample distance,
+ *     last moving standard deviation and last sample value (doubles).</li>
+ * </ul>
+ */
+public class StateSnapshot {
+
+	public static final int MAGIC = 0x41455253;
+	public static final short VERSION = 1;
+	public static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Byte.BYTES + Integer.BYTES;
+
+	public static final byte DENSITY_BASED_ANOMALY = 1;
+	public static final byte PEWMA_SAMPLING = 2;
+	public static final byte FLEET_DENSITY_BASED_ANOMALY = 3;
+
+	public static final int DENSITY_RECORD_SIZE = Byte.BYTES + 3 * Integer.BYTES + 4 * Double.BYTES;
+	public static final int PEWMA_RECORD_SIZE = Byte.BYTES + Long.BYTES + 3 * Double.BYTES;
+	public static final int MAX_KEY_SIZE = 0xFFFF;
+
+	/**
+	 * Method writes the snapshot header.
+	 *
+	 * @param buffer       buffer to which the header is written
+	 * @param snapshotKind kind of the snapshot
+	 * @param entriesCount number of entries stored in the snapshot
+	 */
+	public static void writeHeader(final ByteBuffer buffer, final byte snapshotKind, final int entriesCount) {
+		buffer.putInt(MAGIC).putShort(VERSION).put(snapshotKind).putInt(entriesCount);
+	}
+
+	/**
+	 * Method reads and validates the snapshot header.
+	 *
+	 * @param buffer       buffer from which the header is read
+	 * @param snapshotKind expected kind of the snapshot
+	 * @return number of entries stored in the snapshot
+	 */
+	public static int readHeader(final ByteBuffer buffer, final byte snapshotKind) {
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+			throw new IllegalStateException("Provided data is not a state snapshot.");
+		}
+
+		final short version = buffer.getShort();
+		final byte kind = buffer.get();
+
+		if (version > VERSION) {
+			throw new IllegalStateException(format("Unsupported snapshot version %d.", version));
+		}
+		if (kind != snapshotKind) {
+			throw new IllegalStateException(format("Expected snapshot of kind %d, but found %d.", snapshotKind, kind));
+		}
+		return buffer.getInt();
+	}
+
+	/**
+	 * @param key key of the snapshot entry
+	 * @return number of bytes occupied by the encoded key
+	 */
+	public static int getKeySize(final String key) {
+		return Short.BYTES + encodeKey(key).length;
+	}
+
+	/**
+	 * Method writes the key of the snapshot entry. Keys are length-prefixed with unsigned short, hence keys longer
+	 * than {@link #MAX_KEY_SIZE} bytes (in UTF-8) are rejected.
+	 *
+	 * @param buffer buffer to which the key is written
+	 * @param key    key of the snapshot entry
+	 */
+	public static void writeKey(final ByteBuffer buffer, final String key) {
+		final byte[] encodedKey = encodeKey(key);
+		buffer.putShort((short) encodedKey.length).put(encodedKey);
+	}
+
+	/**
+	 * Method reads the key of the snapshot entry.
+	 *
+	 * @param buffer buffer from which the key is read
+	 * @return key of the snapshot entry
+	 */
+	public static String readKey(final ByteBuffer buffer) {
+		final byte[] encodedKey = new byte[Short.toUnsignedInt(buffer.getShort())];
+		buffer.get(encodedKey);
+		return new String(encodedKey, UTF_8);
+	}
+
+	/**
+	 * Method writes the snapshot to the file. The snapshot is first written to a temporary file, which then
+	 * atomically replaces the target file, so that a complete snapshot is always available.
+	 *
+	 * @param snapshot snapshot that is to be written
+	 * @param file     path of the snapshot file
+	 */
+	public static void writeSnapshot(final ByteBuffer snapshot, final Path file) {
+		final Path temporaryFile = getTemporaryFile(file);
+
+		try (final FileChannel channel = FileChannel.open(temporaryFile, CREATE, WRITE, TRUNCATE_EXISTING)) {
+			while (snapshot.hasRemaining()) {
+				channel.write(snapshot);
+			}
+			channel.force(false);
+		} catch (final IOException e) {
+			throw new RuntimeException("Couldn't write the state snapshot.", e);
+		}
+		moveSnapshot(temporaryFile, file);
+	}
+
+	/**
+	 * Method reads the snapshot from the file by mapping it into memory.
+	 *
+	 * @param file path of the snapshot file
+	 * @return buffer containing the snapshot
+	 */
+	public static ByteBuffer readSnapshot(final Path file) {
+		try (final FileChannel channel = FileChannel.open(file, READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} catch (final IOException e) {
+			throw new RuntimeException("Couldn't read the state snapshot.", e);
+		}
+	}
+
+	private static byte[] encodeKey(final String key) {
+		final byte[] encodedKey = key.getBytes(UTF_8);
+
+		if (encodedKey.length > MAX_KEY_SIZE) {
+			throw new IllegalArgumentException(format("Key of %d bytes exceeds the maximal key size of %d bytes.",
+					encodedKey.length, MAX_KEY_SIZE));
+		}
+		return encodedKey;
+	}
+
+	static Path getTemporaryFile(final Path file) {
+		return file.resolveSibling(file.getFileName() + ".tmp");
+	}
+
+	static void moveSnapshot(final Path temporaryFile, final Path file) {
+		try {
+			Files.move(temporaryFile, file, REPLACE_EXISTING, ATOMIC_MOVE);
+		} catch (final IOException e) {
+			throw new RuntimeException("Couldn't replace the state snapshot.", e);
+		}
+	}
+}
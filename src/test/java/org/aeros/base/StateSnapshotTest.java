@@ -0,0 +1,173 @@
+package org.aeros.base;
+
+import static java.lang.String.format;
+import static org.aeros.base.CompiledDensityBasedAnomalyDetection.METRICS_COUNT;
+import static org.aeros.base.StateSnapshot.FLEET_DENSITY_BASED_ANOMALY;
+import static org.aeros.base.StateSnapshot.MAGIC;
+import static org.aeros.base.StateSnapshot.MAX_KEY_SIZE;
+import static org.aeros.base.StateSnapshot.PEWMA_SAMPLING;
+import static org.aeros.base.StateSnapshot.VERSION;
+import static org.aeros.base.StateSnapshot.readHeader;
+import static org.aeros.base.StateSnapshot.readKey;
+import static org.aeros.base.StateSnapshot.readSnapshot;
+import static org.aeros.base.StateSnapshot.writeHeader;
+import static org.aeros.base.StateSnapshot.writeKey;
+import static org.aeros.base.StateSnapshot.writeSnapshot;
+import static org.aeros.domain.AlgorithmType.ANOMALY;
+import static org.aeros.domain.AlgorithmType.SAMPLING;
+import static org.aeros.domain.ScenarioDescription.NUMENTA_JUMPS_SCENARIO;
+import static org.aeros.utils.ScenarioReader.getScenarioConfigName;
+import static org.aeros.utils.ScenarioReader.readScenario;
+import static org.aeros.utils.ScenarioReader.readScenarioData;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.aeros.base.config.DensityBasedAnomalyConfiguration;
+import org.aeros.base.config.PEWMASamplingConfiguration;
+import org.aeros.domain.AlgorithmConfigDescription;
+import org.aeros.domain.AlgorithmType;
+import org.aeros.domain.ScenarioDescription;
+import org.aeros.domain.TestInfrastructureElement;
+import org.aeros.domain.TestInfrastructureElementState;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of binary snapshots of the states of base algorithms. Models are trained on the first half of Numenta trace,
+ * restored from the snapshot and compared with the original models on the second half of the trace.
+ */
+public class StateSnapshotTest {
+
+	private static final int FLEET_IE_COUNT = 50;
+
+	private static ScenarioDescription scenarioDescription;
+	private static TestInfrastructureElement ie;
+	private static List<TestInfrastructureElementState> ieData;
+
+	@TempDir
+	private Path snapshotDirectory;
+
+	@BeforeAll
+	static void readTrace() {
+		scenarioDescription = readScenario(getScenarioConfigName(NUMENTA_JUMPS_SCENARIO));
+		ie = scenarioDescription.getIe();
+		ieData = readScenarioData(ie.getData());
+	}
+
+	@Test
+	void restorePEWMASamplingSnapshot() {
+		final PEWMASamplingConfiguration configuration = getConfiguration(SAMPLING, PEWMASamplingConfiguration.class);
+		final PEWMASampling sampling = new PEWMASampling(configuration);
+		final int snapshotIdx = ieData.size() / 2;
+
+		IntStream.range(0, snapshotIdx).forEach(idx -> sampling.estimateSamplingPeriod(ieData.get(idx), ie));
+
+		final PEWMASampling restoredSampling = new PEWMASampling(configuration);
+		final Path snapshotFile = snapshotDirectory.resolve("pewma.snapshot");
+		writeSnapshot(sampling.createSnapshot(), snapshotFile);
+		restoredSampling.restoreSnapshot(readSnapshot(snapshotFile));
+
+		assertFalse(Files.exists(snapshotFile.resolveSibling("pewma.snapshot.tmp")));
+		IntStream.range(snapshotIdx, ieData.size()).forEach(idx -> assertEquals(
+				sampling.estimateSamplingPeriod(ieData.get(idx), ie),
+				restoredSampling.estimateSamplingPeriod(ieData.get(idx), ie)));
+	}
+
+	@Test
+	void restoreFleetSnapshotWrittenIncrementally() throws Exception {
+		final DensityBasedAnomalyConfiguration configuration =
+				getConfiguration(ANOMALY, DensityBasedAnomalyConfiguration.class);
+		final CompiledDensityBasedAnomalyDetection observationsReader =
+				new CompiledDensityBasedAnomalyDetection(configuration);
+		final double[][] observations = ieData.stream()
+				.map(state -> {
+					final double[] observation = new double[METRICS_COUNT];
+					observationsReader.readObservations(state, ie, observation);
+					return observation;
+				})
+				.toArray(double[][]::new);
+		final FleetDensityBasedAnomalyDetection anomalyDetection =
+				new FleetDensityBasedAnomalyDetection(configuration, 4);
+		final int snapshotIdx = observations.length / 2;
+
+		detectFleetAnomalies(anomalyDetection, observations, 0, snapshotIdx);
+
+		final Path incrementalFile = snapshotDirectory.resolve("fleet.snapshot");
+		final Path backgroundFile = snapshotDirectory.resolve("fleet-background.snapshot");
+		anomalyDetection.writeSnapshot(incrementalFile);
+		try (final ExecutorService executor = Executors.newSingleThreadExecutor()) {
+			anomalyDetection.writeSnapshot(backgroundFile, executor).join();
+		}
+
+		final ByteBuffer snapshot = anomalyDetection.createSnapshot();
+		assertEquals(snapshot, readSnapshot(incrementalFile));
+		assertEquals(snapshot, readSnapshot(backgroundFile));
+
+		final FleetDensityBasedAnomalyDetection restoredAnomalyDetection =
+				new FleetDensityBasedAnomalyDetection(configuration, 1);
+		restoredAnomalyDetection.restoreSnapshot(readSnapshot(backgroundFile));
+
+		assertEquals(FLEET_IE_COUNT, restoredAnomalyDetection.getMonitoredElementsCount());
+		assertArrayEquals(detectFleetAnomalies(anomalyDetection, observations, snapshotIdx, observations.length),
+				detectFleetAnomalies(restoredAnomalyDetection, observations, snapshotIdx, observations.length));
+	}
+
+	@Test
+	void rejectInvalidHeader() {
+		final ByteBuffer invalidMagic = ByteBuffer.allocate(StateSnapshot.HEADER_SIZE)
+				.putInt(MAGIC + 1).putShort(VERSION).put(PEWMA_SAMPLING).putInt(0).flip();
+		final ByteBuffer invalidVersion = ByteBuffer.allocate(StateSnapshot.HEADER_SIZE)
+				.putInt(MAGIC).putShort((short) (VERSION + 1)).put(PEWMA_SAMPLING).putInt(0).flip();
+		final ByteBuffer invalidKind = ByteBuffer.allocate(StateSnapshot.HEADER_SIZE);
+		writeHeader(invalidKind, FLEET_DENSITY_BASED_ANOMALY, 0);
+
+		assertThrows(IllegalStateException.class, () -> readHeader(invalidMagic, PEWMA_SAMPLING));
+		assertThrows(IllegalStateException.class, () -> readHeader(invalidVersion, PEWMA_SAMPLING));
+		assertThrows(IllegalStateException.class, () -> readHeader(invalidKind.flip(), PEWMA_SAMPLING));
+		assertThrows(IllegalStateException.class, () -> readHeader(ByteBuffer.allocate(2), PEWMA_SAMPLING));
+	}
+
+	@Test
+	void rejectTooLongKey() {
+		final String maxKey = "k".repeat(MAX_KEY_SIZE);
+		final ByteBuffer buffer = ByteBuffer.allocate(2 * MAX_KEY_SIZE);
+
+		writeKey(buffer, maxKey);
+		assertEquals(maxKey, readKey(buffer.flip()));
+		assertThrows(IllegalArgumentException.class, () -> writeKey(buffer.clear(), maxKey + "k"));
+		assertThrows(IllegalArgumentException.class, () -> StateSnapshot.getKeySize(maxKey + "k"));
+	}
+
+	private int[] detectFleetAnomalies(final FleetDensityBasedAnomalyDetection anomalyDetection,
+			final double[][] observations, final int startIdx, final int endIdx) {
+		final int[] anomalies = new int[(endIdx - startIdx) * FLEET_IE_COUNT];
+
+		for (int idx = startIdx; idx < endIdx; idx++) {
+			for (int ieIdx = 0; ieIdx < FLEET_IE_COUNT; ieIdx++) {
+				anomalies[(idx - startIdx) * FLEET_IE_COUNT + ieIdx] = anomalyDetection.detectAnomalies(
+						format("ie-%d", ieIdx), observations[(idx + ieIdx * 7) % observations.length]);
+			}
+		}
+		return anomalies;
+	}
+
+	private <T> T getConfiguration(final AlgorithmType type, final Class<T> configurationClass) {
+		return scenarioDescription.getBaseAlgorithmsConfig().stream()
+				.filter(config -> config.getType().equals(type))
+				.findFirst()
+				.map(AlgorithmConfigDescription::getConfig)
+				.map(configurationClass::cast)
+				.orElseThrow();
+	}
+}
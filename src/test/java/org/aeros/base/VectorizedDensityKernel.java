@@ -0,0 +1,108 @@
+package org.aeros.base;
+
+import static jdk.incubator.vector.VectorOperators.GE;
+import static jdk.incubator.vector.VectorOperators.GT;
+import static jdk.incubator.vector.VectorOperators.I2D;
+import static jdk.incubator.vector.VectorOperators.LE;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vectorized counterpart of {@link CompiledDensityBasedAnomalyDetection#detectAnomaly}. It is the only class that
+ * refers to the {@code jdk.incubator.vector} API, hence it is loaded only when the module is available.
+ * <p>
+ * The operations are performed in the same order as in the scalar kernel (without fused multiply-add), so that
+ * the results are bit-identical.
+ */
+final class VectorizedDensityKernel {
+
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Integer> INT_SPECIES =
+			VectorSpecies.of(int.class, VectorShape.forBitSize(SPECIES.vectorBitSize() / 2));
+
+	private VectorizedDensityKernel() {
+	}
+
+	/**
+	 * Method advances the models of a given metric for the longest prefix of IEs that fits into full vectors.
+	 *
+	 * @return number of IEs that were processed
+	 */
+	static int detectAnomalies(final CompiledDensityBasedAnomalyDetection anomalyDetection,
+			final DensityBasedAnomalyState state,
+			final int metric,
+			final double[] observations,
+			final int iesCount,
+			final long[] anomalies,
+			final long[] increases) {
+		final DoubleVector one = DoubleVector.broadcast(SPECIES, 1D);
+		final double toleranceAnomaly = anomalyDetection.getToleranceThresholdAnomaly(metric);
+		final double toleranceNormal = anomalyDetection.getToleranceThresholdNormal(metric);
+		final IntVector windowAnomaly = IntVector.broadcast(INT_SPECIES, anomalyDetection.getWindowAnomaly(metric));
+		final IntVector windowNormal = IntVector.broadcast(INT_SPECIES, anomalyDetection.getWindowNormal(metric));
+		final int bound = SPECIES.loopBound(iesCount);
+
+		for (int i = 0; i < bound; i += SPECIES.length()) {
+			final DoubleVector currentValue = DoubleVector.fromArray(SPECIES, observations, i);
+			final IntVector sampleSize = IntVector.fromArray(INT_SPECIES, state.dataSampleSize, i).add(1);
+			final IntVector stateCounter = IntVector.fromArray(INT_SPECIES, state.currentStateCounter, i).add(1);
+			final DoubleVector sampleSizeValue = (DoubleVector) sampleSize.convertShape(I2D, SPECIES, 0);
+			final DoubleVector stateCounterValue = (DoubleVector) stateCounter.convertShape(I2D, SPECIES, 0);
+			final VectorMask<Double> isFirstSample = sampleSizeValue.eq(one);
+
+			final DoubleVector previousMean = DoubleVector.fromArray(SPECIES, state.sampleMean, i);
+			final DoubleVector previousScalarProduct = DoubleVector.fromArray(SPECIES, state.scalarProduct, i);
+			final DoubleVector previousDensity = DoubleVector.fromArray(SPECIES, state.sampleDensity, i);
+			final DoubleVector squaredValue = currentValue.mul(currentValue);
+
+			final DoubleVector sampleMean = previousMean.add(currentValue.sub(previousMean).div(sampleSizeValue))
+					.blend(currentValue, isFirstSample);
+			final DoubleVector scalarProduct = previousScalarProduct
+					.add(squaredValue.sub(previousScalarProduct).div(sampleSizeValue))
+					.blend(squaredValue, isFirstSample);
+			final DoubleVector meanDeviation = currentValue.sub(sampleMean);
+			final DoubleVector density = one.div(one.add(meanDeviation.mul(meanDeviation)).add(scalarProduct)
+					.sub(sampleMean.mul(sampleMean)));
+			final DoubleVector densityDifference = density.sub(previousDensity).abs();
+			final DoubleVector averageDensity = previousDensity
+					.add(density.sub(previousDensity).div(stateCounterValue))
+					.mul(one.sub(densityDifference))
+					.add(density.mul(densityDifference))
+					.blend(one, isFirstSample);
+
+			final VectorMask<Double> isAnomalous = VectorMask.fromArray(SPECIES, state.isInAnomalousState, i);
+			final VectorMask<Double> isNormal = isAnomalous.not();
+			final DoubleVector storedAverageDensity = averageDensity.blend(
+					DoubleVector.fromArray(SPECIES, state.averageDensity, i), isAnomalous);
+
+			final VectorMask<Double> isChangeIndicated = density
+					.compare(LE, averageDensity.mul(toleranceAnomaly)).and(isNormal)
+					.or(density.compare(GE, storedAverageDensity.mul(toleranceNormal)).and(isAnomalous));
+			final VectorMask<Integer> isChangeIndicatedInt = isChangeIndicated.cast(INT_SPECIES);
+			final IntVector changeCounter = IntVector.fromArray(INT_SPECIES, state.changeIndicationCounter, i).add(1)
+					.blend(0, isChangeIndicatedInt.not());
+			final IntVector window = windowNormal.blend(windowAnomaly, isNormal.cast(INT_SPECIES));
+			final VectorMask<Double> isSwitched = changeCounter.compare(GE, window).and(isChangeIndicatedInt)
+					.cast(SPECIES);
+			final VectorMask<Double> isDetected = isSwitched.and(isNormal);
+			final VectorMask<Double> isReset = isSwitched.and(isAnomalous);
+
+			sampleSize.intoArray(state.dataSampleSize, i);
+			stateCounter.blend(0, isSwitched.cast(INT_SPECIES)).intoArray(state.currentStateCounter, i);
+			changeCounter.intoArray(state.changeIndicationCounter, i);
+			sampleMean.blend(currentValue, isReset).intoArray(state.sampleMean, i);
+			scalarProduct.blend(squaredValue, isReset).intoArray(state.scalarProduct, i);
+			density.blend(one, isReset).intoArray(state.sampleDensity, i);
+			storedAverageDensity.blend(one, isReset).intoArray(state.averageDensity, i);
+			isAnomalous.andNot(isReset).or(isDetected).intoArray(state.isInAnomalousState, i);
+
+			anomalies[i >>> 6] |= isDetected.toLong() << i;
+			increases[i >>> 6] |= currentValue.compare(GT, sampleMean).and(isDetected).toLong() << i;
+		}
+		return bound;
+	}
+}
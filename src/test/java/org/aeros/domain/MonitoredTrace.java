@@ -0,0 +1,150 @@
+package org.aeros.domain;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Trace of observations monitored with adaptive sampling, stored as a step function.
+ * <p>
+ * Only the samples that were actually taken are stored, together with the indexes (of the original trace) at which
+ * they were taken. Each sample is held until the index of the next sample (or until the end of the trace), hence the
+ * memory used by the trace depends only on the number of taken samples. The first sample may be taken after the start
+ * of the trace (if the first observations were skipped), in which case no sample is held before it.
+ */
+public class MonitoredTrace {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final int length;
+	private final List<TestInfrastructureElementStateREST> samples;
+	private int[] sampleIndexes;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param length length of the original trace
+	 */
+	public MonitoredTrace(final int length) {
+		this.length = length;
+		this.samples = new ArrayList<>();
+		this.sampleIndexes = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Method converts a list of monitored observations (in which skipped observations are replaced by the last
+	 * monitored one) into a trace. Consecutive occurrences of the same observation are merged into a single sample.
+	 *
+	 * @param monitoredSamples list of monitored observations
+	 * @return monitored trace
+	 */
+	public static MonitoredTrace fromList(final List<TestInfrastructureElementStateREST> monitoredSamples) {
+		final MonitoredTrace monitoredTrace = new MonitoredTrace(monitoredSamples.size());
+
+		for (int i = 0; i < monitoredSamples.size(); i++) {
+			if (i == 0 || monitoredSamples.get(i) != monitoredSamples.get(i - 1)) {
+				monitoredTrace.addSample(i, monitoredSamples.get(i));
+			}
+		}
+		return monitoredTrace;
+	}
+
+	/**
+	 * Method adds a sample taken at a given index of the original trace.
+	 *
+	 * @param idx    index of the original trace (greater than the index of the last sample, if any sample was
+	 *               already taken)
+	 * @param sample taken sample
+	 */
+	public void addSample(final int idx, final TestInfrastructureElementStateREST sample) {
+		if (idx < 0 || idx >= length || (!samples.isEmpty() && idx <= sampleIndexes[samples.size() - 1])) {
+			throw new IllegalArgumentException(format("Sample index %d is out of order.", idx));
+		}
+
+		if (samples.size() == sampleIndexes.length) {
+			sampleIndexes = Arrays.copyOf(sampleIndexes, sampleIndexes.length * 2);
+		}
+		sampleIndexes[samples.size()] = idx;
+		samples.add(sample);
+	}
+
+	/**
+	 * @return length of the original trace
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * @return number of taken samples
+	 */
+	public int getSamplesCount() {
+		return samples.size();
+	}
+
+	/**
+	 * @param sampleIdx index of the sample
+	 * @return taken sample
+	 */
+	public TestInfrastructureElementStateREST getSample(final int sampleIdx) {
+		return samples.get(sampleIdx);
+	}
+
+	/**
+	 * @return unmodifiable list of taken samples
+	 */
+	public List<TestInfrastructureElementStateREST> getSamples() {
+		return Collections.unmodifiableList(samples);
+	}
+
+	/**
+	 * @param sampleIdx index of the sample
+	 * @return index of the original trace at which the sample was taken
+	 */
+	public int getSampleStart(final int sampleIdx) {
+		return sampleIndexes[sampleIdx];
+	}
+
+	/**
+	 * @param sampleIdx index of the sample
+	 * @return index of the original trace at which the sample stops being held (exclusive)
+	 */
+	public int getSampleEnd(final int sampleIdx) {
+		return sampleIdx + 1 < samples.size() ? sampleIndexes[sampleIdx + 1] : length;
+	}
+
+	/**
+	 * @param sampleIdx index of the sample
+	 * @return number of observations of the original trace for which the sample is held
+	 */
+	public int getHoldDuration(final int sampleIdx) {
+		return getSampleEnd(sampleIdx) - getSampleStart(sampleIdx);
+	}
+
+	/**
+	 * @param idx index of the original trace
+	 * @return index of the sample held at a given index of the original trace (-1, if it precedes the first sample)
+	 */
+	public int findSample(final int idx) {
+		final int position = Arrays.binarySearch(sampleIndexes, 0, samples.size(), idx);
+		return position >= 0 ? position : -position - 2;
+	}
+
+	/**
+	 * Method expands the trace into a list containing a held sample for each index of the original trace, starting
+	 * from the index of the first sample.
+	 *
+	 * @return list of monitored observations
+	 */
+	public List<TestInfrastructureElementStateREST> toList() {
+		final List<TestInfrastructureElementStateREST> monitoredSamples = new ArrayList<>(length);
+
+		for (int sampleIdx = 0; sampleIdx < samples.size(); sampleIdx++) {
+			monitoredSamples.addAll(Collections.nCopies(getHoldDuration(sampleIdx), samples.get(sampleIdx)));
+		}
+		return monitoredSamples;
+	}
+}
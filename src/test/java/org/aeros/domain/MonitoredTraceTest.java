@@ -0,0 +1,96 @@
+package org.aeros.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of monitored traces stored as step functions.
+ */
+public class MonitoredTraceTest {
+
+	@Test
+	void mergeSamplesByIdentity() {
+		final TestInfrastructureElementStateREST first = createState(10);
+		final TestInfrastructureElementStateREST equalToFirst = createState(10);
+		final TestInfrastructureElementStateREST second = createState(20);
+		final List<TestInfrastructureElementStateREST> monitoredSamples =
+				List.of(first, first, equalToFirst, second, second, second, first);
+
+		final MonitoredTrace monitoredTrace = MonitoredTrace.fromList(monitoredSamples);
+
+		assertEquals(7, monitoredTrace.getLength());
+		assertEquals(4, monitoredTrace.getSamplesCount());
+		assertSame(equalToFirst, monitoredTrace.getSample(1));
+		assertEquals(List.of(0, 2, 3, 6), IntStream.range(0, 4).map(monitoredTrace::getSampleStart).boxed().toList());
+		assertEquals(List.of(2, 3, 6, 7), IntStream.range(0, 4).map(monitoredTrace::getSampleEnd).boxed().toList());
+		assertEquals(List.of(2, 1, 3, 1), IntStream.range(0, 4).map(monitoredTrace::getHoldDuration).boxed().toList());
+		assertEquals(monitoredSamples, monitoredTrace.toList());
+	}
+
+	@Test
+	void holdLastSampleUntilEndOfTrace() {
+		final MonitoredTrace monitoredTrace = new MonitoredTrace(100);
+
+		IntStream.range(0, 40).forEach(sampleIdx -> monitoredTrace.addSample(sampleIdx * 2, createState(sampleIdx)));
+
+		assertEquals(40, monitoredTrace.getSamplesCount());
+		assertEquals(78, monitoredTrace.getSampleStart(39));
+		assertEquals(100, monitoredTrace.getSampleEnd(39));
+		assertEquals(22, monitoredTrace.getHoldDuration(39));
+		assertEquals(0, monitoredTrace.findSample(0));
+		assertEquals(10, monitoredTrace.findSample(21));
+		assertEquals(39, monitoredTrace.findSample(99));
+		assertEquals(100, monitoredTrace.toList().size());
+		assertSame(monitoredTrace.getSample(39), monitoredTrace.toList().getLast());
+	}
+
+	@Test
+	void holdNoSampleBeforeFirstSample() {
+		final MonitoredTrace monitoredTrace = new MonitoredTrace(10);
+
+		monitoredTrace.addSample(3, createState(0));
+		monitoredTrace.addSample(6, createState(1));
+
+		assertEquals(3, monitoredTrace.getSampleStart(0));
+		assertEquals(-1, monitoredTrace.findSample(2));
+		assertEquals(0, monitoredTrace.findSample(3));
+		assertEquals(1, monitoredTrace.findSample(9));
+		assertEquals(7, monitoredTrace.toList().size());
+	}
+
+	@Test
+	void rejectSamplesOutOfOrder() {
+		final MonitoredTrace monitoredTrace = new MonitoredTrace(10);
+
+		assertThrows(IllegalArgumentException.class, () -> monitoredTrace.addSample(-1, createState(0)));
+		monitoredTrace.addSample(0, createState(0));
+		monitoredTrace.addSample(5, createState(1));
+		assertThrows(IllegalArgumentException.class, () -> monitoredTrace.addSample(5, createState(2)));
+		assertThrows(IllegalArgumentException.class, () -> monitoredTrace.addSample(3, createState(2)));
+		assertThrows(IllegalArgumentException.class, () -> monitoredTrace.addSample(10, createState(2)));
+		assertThrows(UnsupportedOperationException.class, () -> monitoredTrace.getSamples().add(createState(3)));
+	}
+
+	@Test
+	void convertEmptyTrace() {
+		final MonitoredTrace monitoredTrace = MonitoredTrace.fromList(List.of());
+
+		assertEquals(0, monitoredTrace.getLength());
+		assertEquals(0, monitoredTrace.getSamplesCount());
+		assertTrue(monitoredTrace.getSamples().isEmpty());
+		assertTrue(monitoredTrace.toList().isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> monitoredTrace.addSample(0, createState(0)));
+	}
+
+	private TestInfrastructureElementStateREST createState(final int cpuUsage) {
+		return new TestInfrastructureElementStateREST("ie", 4, cpuUsage, 1024, 512, 512, 50, 2048, 1024, 1024, 50,
+				true);
+	}
+}
@@ -0,0 +1,18 @@
+package org.aeros.domain;
+
+import org.aeros.base.parameters.DensityBasedAnomaliesParameters;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of evaluating a single combination of density-based detector parameters.
+ */
+@Getter
+@AllArgsConstructor
+public class ParameterSweepResult {
+
+	private DensityBasedAnomaliesParameters parameters;
+	private double anomalyScore;
+	private int detectedAnomaliesCount;
+}
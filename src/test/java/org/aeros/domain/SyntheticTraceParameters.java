@@ -0,0 +1,42 @@
+package org.aeros.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Parameters of a synthetic IE trace. Levels, amplitudes and magnitudes are given as fractions of the capacity of
+ * each resource, while rates are given as probabilities of starting an event at a single step (for each resource).
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyntheticTraceParameters {
+
+	@Builder.Default
+	private long seed = 1;
+	@Builder.Default
+	private int length = 1000;
+	@Builder.Default
+	private double baseLevel = 0.4;
+	@Builder.Default
+	private int seasonPeriod = 288;
+	@Builder.Default
+	private double seasonAmplitude = 0.15;
+	@Builder.Default
+	private double noiseLevel = 0.02;
+	@Builder.Default
+	private double levelShiftRate = 0.0005;
+	@Builder.Default
+	private double levelShiftMagnitude = 0.25;
+	@Builder.Default
+	private double spikeRate = 0.001;
+	@Builder.Default
+	private double spikeMagnitude = 0.4;
+	@Builder.Default
+	private int spikeDuration = 3;
+	@Builder.Default
+	private int anomalyWindowSize = 40;
+}
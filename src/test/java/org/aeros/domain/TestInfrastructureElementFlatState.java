@@ -0,0 +1,168 @@
+package org.aeros.domain;
+
+import java.io.IOException;
+import java.io.Serial;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+/**
+ * A test instance of IE state used in scenario description, stored with primitive fields.
+ * <p>
+ * It corresponds to {@link TestInfrastructureElementState}, but each {@code {"value": n}} wrapper of scenario data is
+ * unwrapped by {@link Deserializer} directly into a primitive field, without building intermediate maps. Metrics
+ * missing in scenario data are set to 0 (or false).
+ *
+ * @param currentCpuUsage     current CPU usage (in percentage)
+ * @param availableRam        available RAM
+ * @param currentRamUsage     current RAM usage
+ * @param currentRamUsagePct  current RAM usage (in percentage)
+ * @param availableDisk       available disk
+ * @param currentDiskUsage    current disk usage
+ * @param currentDiskUsagePct current disk usage (in percentage)
+ * @param realTimeCapable     information if IE is real-time capable
+ */
+@JsonDeserialize(using = TestInfrastructureElementFlatState.Deserializer.class)
+public record TestInfrastructureElementFlatState(int currentCpuUsage, int availableRam, int currentRamUsage,
+		int currentRamUsagePct, int availableDisk, int currentDiskUsage, int currentDiskUsagePct,
+		boolean realTimeCapable) {
+
+	private static final String VALUE = "value";
+
+	/**
+	 * Method converts IE state into its flat representation.
+	 *
+	 * @param ieState IE state
+	 * @return flat IE state
+	 */
+	public static TestInfrastructureElementFlatState of(final TestInfrastructureElementState ieState) {
+		return new TestInfrastructureElementFlatState(ieState.getCurrentCpuUsage().get(VALUE),
+				ieState.getAvailableRam().get(VALUE),
+				ieState.getCurrentRamUsage().get(VALUE),
+				ieState.getCurrentRamUsagePct().get(VALUE),
+				ieState.getAvailableDisk().get(VALUE),
+				ieState.getCurrentDiskUsage().get(VALUE),
+				ieState.getCurrentDiskUsagePct().get(VALUE),
+				ieState.getRealTimeCapable().get(VALUE));
+	}
+
+	/**
+	 * Method returns value corresponding to particular metric type.
+	 *
+	 * @param metricName type of the metric
+	 * @param ie         IE for which the state was reported
+	 * @return metric value
+	 * @see TestInfrastructureElementState#getMetricValue(String, TestInfrastructureElement)
+	 */
+	public double getMetricValue(final String metricName, final TestInfrastructureElement ie) {
+		return switch (metricName) {
+			case "CPU_USAGE" -> ie.getCpuCores() * currentCpuUsage / 100;
+			case "RAM_USAGE" -> currentRamUsage;
+			case "DISK_USAGE" -> currentDiskUsage;
+			default -> 0.0d;
+		};
+	}
+
+	/**
+	 * Deserializer of the flat IE state, which reads the values of metrics wrapped in {@code {"value": n}} objects.
+	 */
+	public static class Deserializer extends StdDeserializer<TestInfrastructureElementFlatState> {
+
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Default constructor.
+		 */
+		public Deserializer() {
+			super(TestInfrastructureElementFlatState.class);
+		}
+
+		@Override
+		public TestInfrastructureElementFlatState deserialize(final JsonParser parser,
+				final DeserializationContext context) throws IOException {
+			if (!parser.isExpectedStartObjectToken()) {
+				return (TestInfrastructureElementFlatState) context.handleUnexpectedToken(handledType(), parser);
+			}
+
+			int currentCpuUsage = 0;
+			int availableRam = 0;
+			int currentRamUsage = 0;
+			int currentRamUsagePct = 0;
+			int availableDisk = 0;
+			int currentDiskUsage = 0;
+			int currentDiskUsagePct = 0;
+			boolean realTimeCapable = false;
+
+			for (String fieldName = parser.nextFieldName(); fieldName != null; fieldName = parser.nextFieldName()) {
+				parser.nextToken();
+				switch (fieldName) {
+					case "currentCpuUsage" -> currentCpuUsage = readIntValue(parser, context, fieldName);
+					case "availableRam" -> availableRam = readIntValue(parser, context, fieldName);
+					case "currentRamUsage" -> currentRamUsage = readIntValue(parser, context, fieldName);
+					case "currentRamUsagePct" -> currentRamUsagePct = readIntValue(parser, context, fieldName);
+					case "availableDisk" -> availableDisk = readIntValue(parser, context, fieldName);
+					case "currentDiskUsage" -> currentDiskUsage = readIntValue(parser, context, fieldName);
+					case "currentDiskUsagePct" -> currentDiskUsagePct = readIntValue(parser, context, fieldName);
+					case "realTimeCapable" -> realTimeCapable = readBooleanValue(parser, context, fieldName);
+					default -> parser.skipChildren();
+				}
+			}
+			return new TestInfrastructureElementFlatState(currentCpuUsage, availableRam, currentRamUsage,
+					currentRamUsagePct, availableDisk, currentDiskUsage, currentDiskUsagePct, realTimeCapable);
+		}
+
+		private int readIntValue(final JsonParser parser, final DeserializationContext context,
+				final String fieldName) throws IOException {
+			if (!moveToValue(parser, context, fieldName)) {
+				return 0;
+			}
+
+			final int value = parser.getValueAsInt();
+			skipRemainingFields(parser);
+			return value;
+		}
+
+		private boolean readBooleanValue(final JsonParser parser, final DeserializationContext context,
+				final String fieldName) throws IOException {
+			if (!moveToValue(parser, context, fieldName)) {
+				return false;
+			}
+
+			final boolean value = parser.getValueAsBoolean();
+			skipRemainingFields(parser);
+			return value;
+		}
+
+		private boolean moveToValue(final JsonParser parser, final DeserializationContext context,
+				final String fieldName) throws IOException {
+			if (parser.currentToken() == JsonToken.VALUE_NULL) {
+				return false;
+			}
+			if (!parser.isExpectedStartObjectToken()) {
+				context.reportInputMismatch(this, "Expected object wrapping the value of %s.", fieldName);
+			}
+
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				final boolean isValue = VALUE.equals(parser.currentName());
+				parser.nextToken();
+
+				if (isValue) {
+					return true;
+				}
+				parser.skipChildren();
+			}
+			return false;
+		}
+
+		private void skipRemainingFields(final JsonParser parser) throws IOException {
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				parser.nextToken();
+				parser.skipChildren();
+			}
+		}
+	}
+}
@@ -17,6 +17,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import org.aeros.domain.AnomalyScoringParameters;
 import org.aeros.domain.AnomalyWindow;
+import org.aeros.domain.ResourceType;
 import org.aeros.domain.ScenarioDescription;
 
 /**
@@ -88,6 +89,16 @@ public class AnomalyScoreEvaluator {
 		return computeAnomalyScore(parameters, List.of("DISK_USAGE_INCREASE", "DISK_USAGE_DECREASE"));
 	}
 
+	/**
+	 * @param parameters   parameters of the score (e.g. containing ground-truth windows of a synthetic trace)
+	 * @param resourceType type of resource
+	 * @return score for all detected anomalies of a given resource
+	 */
+	public double computeAnomalyScore(final AnomalyScoringParameters parameters, final ResourceType resourceType) {
+		return computeAnomalyScore(parameters,
+				List.of(format("%s_INCREASE", resourceType.name()), format("%s_DECREASE", resourceType.name())));
+	}
+
 	/**
 	 * Formats information about computed anomaly score that is to be displayed.
 	 *
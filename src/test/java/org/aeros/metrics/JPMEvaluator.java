@@ -56,7 +56,7 @@ public class JPMEvaluator {
 	 * @param type     type of computed JPM
 	 * @return formatted message
 	 */
-	public String formatLog(final double valueJPM, final String type) {
+	public static String formatLog(final double valueJPM, final String type) {
 		return format("[JPM] Joint-Performance Metric (%s): %f%%", type, valueJPM);
 	}
 
@@ -65,7 +65,7 @@ public class MAPEEvaluator {
 	 * @param type      type of computed MAPE
 	 * @return formatted message
 	 */
-	public String formatLog(final double valueMAPE, final String type) {
+	public static String formatLog(final double valueMAPE, final String type) {
 		return format("[MAPE] Mean Absolute Percentage Error (%s): %f%%", type, valueMAPE);
 	}
 
@@ -77,7 +77,7 @@ public class MAPEEvaluator {
 
 						   return trueMetricVal == 0
 								   ? monitoredMetricVal
-								   : abs((trueMetricVal - monitoredMetricVal) / trueMetricVal) * 100;
+								   : abs((double) (trueMetricVal - monitoredMetricVal) / trueMetricVal) * 100;
 					   })
 					   .sum() / monitoredSamples.size();
 	}
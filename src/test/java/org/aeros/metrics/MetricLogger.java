@@ -1,5 +1,6 @@
 package org.aeros.metrics;
 
+import static org.aeros.metrics.SamplingQualityEvaluator.toColumns;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import java.util.List;
@@ -8,6 +9,7 @@ import java.util.Map;
 import org.aeros.domain.TestInfrastructureElementStateREST;
 import org.aeros.domain.MetricParameters;
 import org.aeros.domain.MetricType;
+import org.aeros.domain.MonitoredTrace;
 import org.aeros.domain.ScenarioDescription;
 import org.slf4j.Logger;
 
@@ -21,9 +23,7 @@ public class MetricLogger {
 	private final boolean isForAnomaly;
 	private ScenarioDescription description;
 	private AnomalyScoreEvaluator scoreEvaluator;
-	private JPMEvaluator jpmEvaluator;
-	private MAPEEvaluator mapeEvaluator;
-	private RatioEvaluator ratioEvaluator;
+	private SamplingQualityEvaluator qualityEvaluator;
 
 	/**
 	 * Constructor used for printing anomaly detection metrics.
@@ -59,9 +59,20 @@ public class MetricLogger {
 	 */
 	public MetricLogger(final List<TestInfrastructureElementStateREST> monitoredSample,
 			final List<TestInfrastructureElementStateREST> realSample, final int monitoredSampleCount) {
-		this.mapeEvaluator = new MAPEEvaluator(monitoredSample, realSample);
-		this.ratioEvaluator = new RatioEvaluator(monitoredSampleCount, monitoredSample);
-		this.jpmEvaluator = new JPMEvaluator(mapeEvaluator, ratioEvaluator);
+		this(MonitoredTrace.fromList(monitoredSample), realSample, monitoredSampleCount);
+	}
+
+	/**
+	 * Constructor used for printing adaptive sampling metrics of a monitored trace.
+	 *
+	 * @param monitoredTrace       trace of monitored observations
+	 * @param realSample           list of original observations
+	 * @param monitoredSampleCount size of monitored sample
+	 */
+	public MetricLogger(final MonitoredTrace monitoredTrace,
+			final List<TestInfrastructureElementStateREST> realSample, final int monitoredSampleCount) {
+		this.qualityEvaluator = new SamplingQualityEvaluator(monitoredTrace,
+				toColumns(realSample, monitoredTrace.getLength()), monitoredSampleCount, null);
 		this.isForAnomaly = false;
 	}
 
@@ -99,16 +110,15 @@ public class MetricLogger {
 		} else {
 			metricsMap.forEach((metric, _) -> {
 				switch (metric) {
-					case MAPE_CPU -> logger.info(mapeEvaluator.formatLog(mapeEvaluator.computeMAPEForCPU(), "CPU"));
-					case MAPE_RAM -> logger.info(mapeEvaluator.formatLog(mapeEvaluator.computeMAPEForRAM(), "RAM"));
-					case MAPE_DISK -> logger.info(mapeEvaluator.formatLog(mapeEvaluator.computeMAPEForDisk(), "DISK"));
-					case MAPE_AVG -> logger.info(mapeEvaluator.formatLog(mapeEvaluator.computeAvgMAPE(), "AVG"));
-					case JPM_CPU -> logger.info(jpmEvaluator.formatLog(jpmEvaluator.computeJPMForCPU(), "CPU"));
-					case JPM_RAM -> logger.info(jpmEvaluator.formatLog(jpmEvaluator.computeJPMForRAM(), "RAM"));
-					case JPM_DISK -> logger.info(jpmEvaluator.formatLog(jpmEvaluator.computeJPMForDisk(), "DISK"));
-					case JPM_AVG -> logger.info(jpmEvaluator.formatLog(jpmEvaluator.computeAvgJPM(), "AVG"));
-					case SAMPLE_RATIO ->
-							logger.info(ratioEvaluator.formatLog(ratioEvaluator.computeDataSamplesVolumeRatio()));
+					case MAPE_CPU -> logger.info(MAPEEvaluator.formatLog(qualityEvaluator.computeMetric(metric), "CPU"));
+					case MAPE_RAM -> logger.info(MAPEEvaluator.formatLog(qualityEvaluator.computeMetric(metric), "RAM"));
+					case MAPE_DISK -> logger.info(MAPEEvaluator.formatLog(qualityEvaluator.computeMetric(metric), "DISK"));
+					case MAPE_AVG -> logger.info(MAPEEvaluator.formatLog(qualityEvaluator.computeMetric(metric), "AVG"));
+					case JPM_CPU -> logger.info(JPMEvaluator.formatLog(qualityEvaluator.computeMetric(metric), "CPU"));
+					case JPM_RAM -> logger.info(JPMEvaluator.formatLog(qualityEvaluator.computeMetric(metric), "RAM"));
+					case JPM_DISK -> logger.info(JPMEvaluator.formatLog(qualityEvaluator.computeMetric(metric), "DISK"));
+					case JPM_AVG -> logger.info(JPMEvaluator.formatLog(qualityEvaluator.computeMetric(metric), "AVG"));
+					case SAMPLE_RATIO -> logger.info(RatioEvaluator.formatLog(qualityEvaluator.computeMetric(metric)));
 				}
 			});
 		}
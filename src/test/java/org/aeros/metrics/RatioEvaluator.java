@@ -32,7 +32,7 @@ public class RatioEvaluator {
 	 * @param value ratio value;
 	 * @return formatted message
 	 */
-	public String formatLog(final double value) {
+	public static String formatLog(final double value) {
 		return format("[Ratio] Percentage of monitored samples: %f%%", value);
 	}
 
@@ -0,0 +1,264 @@
+package org.aeros.metrics;
+
+import static java.lang.String.format;
+import static org.aeros.domain.ResourceType.CPU_USAGE;
+import static org.aeros.domain.ResourceType.DISK_USAGE;
+import static org.aeros.domain.ResourceType.RAM_USAGE;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.aeros.domain.MetricType;
+import org.aeros.domain.MonitoredTrace;
+import org.aeros.domain.ResourceType;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+
+/**
+ * Class computes quality metrics of adaptive sampling (MAPE, JPM and sample ratio) in a single pass.
+ * <p>
+ * Utilization values of true samples are stored in primitive columns indexed by {@link ResourceType#ordinal()}, while
+ * monitored samples are stored as runs of a {@link MonitoredTrace} (i.e. a value and a hold duration per taken sample).
+ * Absolute percentage errors of all metrics are accumulated in one pass over the columns, run by run (optionally split
+ * into chunks reduced in a fork-join pool), and cached, so that MAPEs and JPMs of all metrics are derived from the
+ * same sums. Errors are accumulated with compensated summation, as in {@link java.util.stream.DoubleStream#sum()},
+ * hence sequential results are identical to the ones computed by {@link MAPEEvaluator}, {@link JPMEvaluator} and
+ * {@link RatioEvaluator}.
+ */
+public class SamplingQualityEvaluator {
+
+	public static final int METRICS_COUNT = ResourceType.values().length;
+
+	private static final int CHUNK_SIZE = 1 << 16;
+	private static final int SUM_STATE_SIZE = 3;
+
+	private final int[][] monitoredValues;
+	private final int[] monitoredStarts;
+	private final int[][] trueColumns;
+	private final int samplesCount;
+	private final int monitoredSamplesCount;
+	private final ForkJoinPool pool;
+
+	private double[] mapes;
+
+	/**
+	 * Default constructor. Metrics are computed sequentially.
+	 *
+	 * @param monitoredSamples      a list encompassing monitored observations
+	 * @param trueSample            a list encompassing all observations
+	 * @param monitoredSamplesCount number of monitored samples
+	 */
+	public SamplingQualityEvaluator(final List<TestInfrastructureElementStateREST> monitoredSamples,
+			final List<TestInfrastructureElementStateREST> trueSample, final int monitoredSamplesCount) {
+		this(MonitoredTrace.fromList(monitoredSamples), toColumns(trueSample, monitoredSamples.size()),
+				monitoredSamplesCount, null);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param monitoredTrace        trace of monitored observations
+	 * @param trueColumns           utilization values of all observations (indexed by metric ordinal)
+	 * @param monitoredSamplesCount number of monitored samples
+	 * @param pool                  pool used to compute the metrics in parallel chunks (or null, if the metrics are
+	 *                              to be computed sequentially)
+	 */
+	public SamplingQualityEvaluator(final MonitoredTrace monitoredTrace, final int[][] trueColumns,
+			final int monitoredSamplesCount, final ForkJoinPool pool) {
+		this.monitoredValues = toColumns(monitoredTrace.getSamples(), monitoredTrace.getSamplesCount());
+		this.monitoredStarts = new int[monitoredTrace.getSamplesCount() + 1];
+		this.trueColumns = trueColumns;
+		this.samplesCount = monitoredTrace.getLength();
+		this.monitoredSamplesCount = monitoredSamplesCount;
+		this.pool = pool;
+
+		Arrays.setAll(monitoredStarts, sampleIdx -> sampleIdx < monitoredTrace.getSamplesCount()
+				? monitoredTrace.getSampleStart(sampleIdx)
+				: monitoredTrace.getLength());
+	}
+
+	/**
+	 * Method converts observations into primitive columns of utilization values.
+	 *
+	 * @param samples      list of observations
+	 * @param samplesCount number of observations that are to be converted
+	 * @return columns of CPU, disk and RAM usage (indexed by {@link ResourceType#ordinal()})
+	 */
+	public static int[][] toColumns(final List<TestInfrastructureElementStateREST> samples, final int samplesCount) {
+		final int[][] columns = new int[METRICS_COUNT][samplesCount];
+
+		for (int i = 0; i < samplesCount; i++) {
+			final TestInfrastructureElementStateREST sample = samples.get(i);
+			columns[CPU_USAGE.ordinal()][i] = sample.getCurrentCpuUsage();
+			columns[RAM_USAGE.ordinal()][i] = sample.getCurrentRamUsage();
+			columns[DISK_USAGE.ordinal()][i] = sample.getCurrentDiskUsage();
+		}
+		return columns;
+	}
+
+	/**
+	 * Method computes given quality metrics.
+	 *
+	 * @param metricTypes types of metrics that are to be computed
+	 * @return map of metric values
+	 */
+	public Map<MetricType, Double> computeMetrics(final Collection<MetricType> metricTypes) {
+		final Map<MetricType, Double> metrics = new EnumMap<>(MetricType.class);
+		metricTypes.forEach(metricType -> metrics.put(metricType, computeMetric(metricType)));
+		return metrics;
+	}
+
+	/**
+	 * Method computes given quality metric.
+	 *
+	 * @param metricType type of metric
+	 * @return metric value
+	 */
+	public double computeMetric(final MetricType metricType) {
+		return switch (metricType) {
+			case MAPE_CPU -> computeMAPE(CPU_USAGE);
+			case MAPE_RAM -> computeMAPE(RAM_USAGE);
+			case MAPE_DISK -> computeMAPE(DISK_USAGE);
+			case MAPE_AVG -> (computeMAPE(CPU_USAGE) + computeMAPE(RAM_USAGE) + computeMAPE(DISK_USAGE)) / 3;
+			case JPM_CPU -> computeJPM(CPU_USAGE);
+			case JPM_RAM -> computeJPM(RAM_USAGE);
+			case JPM_DISK -> computeJPM(DISK_USAGE);
+			case JPM_AVG -> (computeJPM(CPU_USAGE) + computeJPM(RAM_USAGE) + computeJPM(DISK_USAGE)) / 3;
+			case SAMPLE_RATIO -> computeDataSamplesVolumeRatio();
+			default -> throw new IllegalArgumentException(
+					format("Metric %s is not a quality metric of adaptive sampling.", metricType));
+		};
+	}
+
+	/**
+	 * @param metric type of resource
+	 * @return MAPE computed based on utilization of a given resource, over the observations starting from the first
+	 *         monitored sample (NaN, if no sample was monitored)
+	 */
+	public double computeMAPE(final ResourceType metric) {
+		if (mapes == null) {
+			mapes = new double[METRICS_COUNT];
+
+			if (monitoredStarts.length == 1) {
+				// no monitored value is held, so there is nothing to compare with true samples
+				Arrays.fill(mapes, Double.NaN);
+				return mapes[metric.ordinal()];
+			}
+
+			// observations preceding the first monitored sample have no held value to be compared with
+			final int firstMonitoredIdx = monitoredStarts[0];
+			final int comparedCount = samplesCount - firstMonitoredIdx;
+			final double[] errorSums = pool == null || comparedCount <= CHUNK_SIZE
+					? sumErrors(firstMonitoredIdx, samplesCount)
+					: pool.invoke(new ErrorsSumTask(firstMonitoredIdx, samplesCount));
+
+			for (int i = 0; i < METRICS_COUNT; i++) {
+				mapes[i] = getSum(errorSums, i) / comparedCount;
+			}
+		}
+		return mapes[metric.ordinal()];
+	}
+
+	/**
+	 * @param metric type of resource
+	 * @return JPM computed based on utilization of a given resource
+	 */
+	public double computeJPM(final ResourceType metric) {
+		return 100 - ((computeMAPE(metric) + computeDataSamplesVolumeRatio()) / 2);
+	}
+
+	/**
+	 * @return ratio between monitored and true data samples
+	 */
+	public double computeDataSamplesVolumeRatio() {
+		return ((double) monitoredSamplesCount / samplesCount) * 100;
+	}
+
+	private double[] sumErrors(final int from, final int to) {
+		final double[] errorSums = new double[METRICS_COUNT * SUM_STATE_SIZE];
+		final int position = Arrays.binarySearch(monitoredStarts, from);
+		final int firstSampleIdx = position >= 0 ? position : -position - 2;
+
+		for (int metric = 0; metric < METRICS_COUNT; metric++) {
+			final int[] trueColumn = trueColumns[metric];
+
+			for (int sampleIdx = firstSampleIdx; monitoredStarts[sampleIdx] < to; sampleIdx++) {
+				final int monitoredValue = monitoredValues[metric][sampleIdx];
+				final int sampleEnd = Math.min(to, monitoredStarts[sampleIdx + 1]);
+
+				for (int i = Math.max(from, monitoredStarts[sampleIdx]); i < sampleEnd; i++) {
+					final int trueValue = trueColumn[i];
+
+					addToSum(errorSums, metric, trueValue == 0
+							? monitoredValue
+							: Math.abs((double) (trueValue - monitoredValue) / trueValue) * 100);
+				}
+			}
+		}
+		return errorSums;
+	}
+
+	private static void addToSum(final double[] sums, final int metric, final double value) {
+		final int offset = metric * SUM_STATE_SIZE;
+		final double compensatedValue = value - sums[offset + 1];
+		final double sum = sums[offset] + compensatedValue;
+
+		sums[offset + 1] = (sum - sums[offset]) - compensatedValue;
+		sums[offset] = sum;
+		sums[offset + 2] += value;
+	}
+
+	private static void combineSums(final double[] sums, final double[] otherSums) {
+		for (int metric = 0; metric < METRICS_COUNT; metric++) {
+			final int offset = metric * SUM_STATE_SIZE;
+			final double simpleSum = sums[offset + 2];
+
+			addToSum(sums, metric, otherSums[offset]);
+			addToSum(sums, metric, -otherSums[offset + 1]);
+			sums[offset + 2] = simpleSum + otherSums[offset + 2];
+		}
+	}
+
+	private static double getSum(final double[] sums, final int metric) {
+		final int offset = metric * SUM_STATE_SIZE;
+		final double sum = sums[offset] - sums[offset + 1];
+		return Double.isNaN(sum) && Double.isInfinite(sums[offset + 2]) ? sums[offset + 2] : sum;
+	}
+
+	private final class ErrorsSumTask extends RecursiveTask<double[]> {
+
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+
+		private ErrorsSumTask(final int from, final int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected double[] compute() {
+			if (to - from <= CHUNK_SIZE) {
+				return sumErrors(from, to);
+			}
+
+			final int mid = (from + to) >>> 1;
+			final ErrorsSumTask leftTask = new ErrorsSumTask(from, mid);
+			final ErrorsSumTask rightTask = new ErrorsSumTask(mid, to);
+
+			leftTask.fork();
+			final double[] rightSums = rightTask.compute();
+			final double[] leftSums = leftTask.join();
+
+			combineSums(leftSums, rightSums);
+			return leftSums;
+		}
+	}
+}
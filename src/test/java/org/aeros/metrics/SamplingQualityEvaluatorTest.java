@@ -0,0 +1,131 @@
+package org.aeros.metrics;
+
+import static org.aeros.domain.MetricType.JPM_AVG;
+import static org.aeros.domain.MetricType.JPM_CPU;
+import static org.aeros.domain.MetricType.JPM_DISK;
+import static org.aeros.domain.MetricType.JPM_RAM;
+import static org.aeros.domain.MetricType.MAPE_AVG;
+import static org.aeros.domain.MetricType.MAPE_CPU;
+import static org.aeros.domain.MetricType.MAPE_DISK;
+import static org.aeros.domain.MetricType.MAPE_RAM;
+import static org.aeros.domain.MetricType.SAMPLE_RATIO;
+import static org.aeros.metrics.SamplingQualityEvaluator.toColumns;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.aeros.domain.MetricType;
+import org.aeros.domain.MonitoredTrace;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the fused evaluator of sampling quality on a random trace spanning several chunks of the fork-join
+ * computation. Sequential results are compared with the ones of {@link MAPEEvaluator}, {@link JPMEvaluator} and
+ * {@link RatioEvaluator}, while parallel results are compared with the sequential ones.
+ */
+public class SamplingQualityEvaluatorTest {
+
+	private static final int TRACE_LENGTH = 200_003;
+	private static final int SKIPPED_COUNT = 17;
+	private static final List<MetricType> METRICS = List.of(MAPE_CPU, MAPE_RAM, MAPE_DISK, MAPE_AVG, JPM_CPU, JPM_RAM,
+			JPM_DISK, JPM_AVG, SAMPLE_RATIO);
+
+	private static List<TestInfrastructureElementStateREST> trueSamples;
+	private static MonitoredTrace monitoredTrace;
+
+	@BeforeAll
+	static void generateTrace() {
+		final Random random = new Random(42);
+
+		trueSamples = IntStream.range(0, TRACE_LENGTH)
+				.mapToObj(idx -> new TestInfrastructureElementStateREST("ie", 8, random.nextInt(0, 101), 16_000,
+						8_000, random.nextInt(0, 16_000), 50, 500_000, 250_000, random.nextInt(100, 500_000), 50,
+						true))
+				.toList();
+		monitoredTrace = new MonitoredTrace(TRACE_LENGTH);
+		for (int idx = 0; idx < TRACE_LENGTH; idx += random.nextInt(1, 30)) {
+			monitoredTrace.addSample(idx, trueSamples.get(idx));
+		}
+	}
+
+	@Test
+	void computeMetricsSequentially() {
+		final List<TestInfrastructureElementStateREST> monitoredSamples = monitoredTrace.toList();
+		final MAPEEvaluator mapeEvaluator = new MAPEEvaluator(monitoredSamples, trueSamples);
+		final RatioEvaluator ratioEvaluator = new RatioEvaluator(monitoredTrace.getSamplesCount(), trueSamples);
+		final JPMEvaluator jpmEvaluator = new JPMEvaluator(mapeEvaluator, ratioEvaluator);
+		final Map<MetricType, Double> metrics = new SamplingQualityEvaluator(monitoredSamples, trueSamples,
+				monitoredTrace.getSamplesCount()).computeMetrics(METRICS);
+
+		assertEquals(mapeEvaluator.computeMAPEForCPU(), metrics.get(MAPE_CPU));
+		assertEquals(mapeEvaluator.computeMAPEForRAM(), metrics.get(MAPE_RAM));
+		assertEquals(mapeEvaluator.computeMAPEForDisk(), metrics.get(MAPE_DISK));
+		assertEquals(mapeEvaluator.computeAvgMAPE(), metrics.get(MAPE_AVG));
+		assertEquals(jpmEvaluator.computeJPMForCPU(), metrics.get(JPM_CPU));
+		assertEquals(jpmEvaluator.computeJPMForRAM(), metrics.get(JPM_RAM));
+		assertEquals(jpmEvaluator.computeJPMForDisk(), metrics.get(JPM_DISK));
+		assertEquals(jpmEvaluator.computeAvgJPM(), metrics.get(JPM_AVG));
+		assertEquals(ratioEvaluator.computeDataSamplesVolumeRatio(), metrics.get(SAMPLE_RATIO));
+	}
+
+	@Test
+	void computeMetricsInParallelChunks() {
+		final int[][] trueColumns = toColumns(trueSamples, TRACE_LENGTH);
+		final Map<MetricType, Double> sequentialMetrics = new SamplingQualityEvaluator(monitoredTrace, trueColumns,
+				monitoredTrace.getSamplesCount(), null).computeMetrics(METRICS);
+
+		try (final ForkJoinPool pool = new ForkJoinPool(4)) {
+			final Map<MetricType, Double> parallelMetrics = new SamplingQualityEvaluator(monitoredTrace, trueColumns,
+					monitoredTrace.getSamplesCount(), pool).computeMetrics(METRICS);
+
+			METRICS.forEach(metric -> assertEquals(sequentialMetrics.get(metric), parallelMetrics.get(metric),
+					Math.ulp(sequentialMetrics.get(metric)) * 16, metric.name()));
+		}
+	}
+
+	@Test
+	void computeMetricsWithSkippedFirstSamples() {
+		final MonitoredTrace skippingTrace = new MonitoredTrace(TRACE_LENGTH);
+		for (int idx = SKIPPED_COUNT; idx < TRACE_LENGTH; idx += 7) {
+			skippingTrace.addSample(idx, trueSamples.get(idx));
+		}
+
+		final MAPEEvaluator mapeEvaluator = new MAPEEvaluator(skippingTrace.toList(),
+				trueSamples.subList(SKIPPED_COUNT, TRACE_LENGTH));
+		final int[][] trueColumns = toColumns(trueSamples, TRACE_LENGTH);
+		final Map<MetricType, Double> sequentialMetrics = new SamplingQualityEvaluator(skippingTrace, trueColumns,
+				skippingTrace.getSamplesCount(), null).computeMetrics(METRICS);
+
+		assertEquals(mapeEvaluator.computeMAPEForCPU(), sequentialMetrics.get(MAPE_CPU));
+		assertEquals(mapeEvaluator.computeMAPEForRAM(), sequentialMetrics.get(MAPE_RAM));
+		assertEquals(mapeEvaluator.computeMAPEForDisk(), sequentialMetrics.get(MAPE_DISK));
+		assertEquals(new RatioEvaluator(skippingTrace.getSamplesCount(), trueSamples).computeDataSamplesVolumeRatio(),
+				sequentialMetrics.get(SAMPLE_RATIO));
+
+		try (final ForkJoinPool pool = new ForkJoinPool(4)) {
+			final Map<MetricType, Double> parallelMetrics = new SamplingQualityEvaluator(skippingTrace, trueColumns,
+					skippingTrace.getSamplesCount(), pool).computeMetrics(METRICS);
+
+			METRICS.forEach(metric -> assertEquals(sequentialMetrics.get(metric), parallelMetrics.get(metric),
+					Math.ulp(sequentialMetrics.get(metric)) * 16, metric.name()));
+		}
+	}
+
+	@Test
+	void computeMetricsWithoutMonitoredSamples() {
+		final SamplingQualityEvaluator qualityEvaluator = new SamplingQualityEvaluator(
+				new MonitoredTrace(TRACE_LENGTH), toColumns(trueSamples, TRACE_LENGTH), 0, ForkJoinPool.commonPool());
+		final Map<MetricType, Double> metrics = qualityEvaluator.computeMetrics(METRICS);
+
+		assertTrue(metrics.get(MAPE_AVG).isNaN());
+		assertTrue(metrics.get(JPM_CPU).isNaN());
+		assertEquals(0, metrics.get(SAMPLE_RATIO));
+	}
+}
@@ -0,0 +1,29 @@
+package org.aeros.pipeline;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sink collecting anomalies detected in the states of each IE.
+ */
+public class AnomalySink extends PipelineSink<IEStateEvent> {
+
+	private final Map<String, Map<Integer, List<String>>> detectedAnomalies = new HashMap<>();
+
+	/**
+	 * @param ieId identifier of the IE
+	 * @return map of indexes of anomalous states (starting from 1) to detected anomalies
+	 */
+	public Map<Integer, List<String>> getDetectedAnomalies(final String ieId) {
+		return detectedAnomalies.getOrDefault(ieId, Map.of());
+	}
+
+	@Override
+	protected void consume(final IEStateEvent event) {
+		if (!event.anomalies().isEmpty()) {
+			detectedAnomalies.computeIfAbsent(event.getIeId(), _ -> new HashMap<>())
+					.put(event.idx() + 1, event.anomalies());
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package org.aeros.pipeline;
+
+import org.aeros.base.config.DensityBasedAnomalyConfiguration;
+import org.aeros.base.config.PEWMASamplingConfiguration;
+import org.aeros.domain.TestInfrastructureElement;
+
+/**
+ * Feed of states reported by a single IE, processed by {@link ScenarioPipeline}.
+ *
+ * @param ie                    IE reporting the states (its identifier is used as the partition key and its data as
+ *                              the source of the states)
+ * @param samplingConfiguration configuration of adaptive sampling of the IE
+ * @param anomalyConfiguration  configuration of anomaly detection of the IE
+ */
+public record IEFeed(TestInfrastructureElement ie, PEWMASamplingConfiguration samplingConfiguration,
+					 DensityBasedAnomalyConfiguration anomalyConfiguration) {
+}
@@ -0,0 +1,63 @@
+package org.aeros.pipeline;
+
+import java.util.List;
+
+import org.aeros.domain.TestInfrastructureElementState;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+
+/**
+ * State of an IE passed between the stages of {@link ScenarioPipeline}. Each stage completes the event with its
+ * results.
+ *
+ * @param feed      feed of the IE
+ * @param idx       index of the state in the feed (starting from 0)
+ * @param ieState   state read from the data of the IE
+ * @param ieREST    state mapped to REST object (null before the mapping stage)
+ * @param monitored information if the state was sampled (false before the sampling stage)
+ * @param anomalies anomalies detected in the state (empty, if the state was not monitored)
+ */
+public record IEStateEvent(IEFeed feed, int idx, TestInfrastructureElementState ieState,
+						   TestInfrastructureElementStateREST ieREST, boolean monitored, List<String> anomalies) {
+
+	/**
+	 * Constructor of the event read from the data of the IE.
+	 *
+	 * @param feed    feed of the IE
+	 * @param idx     index of the state in the feed
+	 * @param ieState state read from the data of the IE
+	 */
+	public IEStateEvent(final IEFeed feed, final int idx, final TestInfrastructureElementState ieState) {
+		this(feed, idx, ieState, null, false, List.of());
+	}
+
+	/**
+	 * @return identifier of the IE (i.e. the partition key of the event)
+	 */
+	public String getIeId() {
+		return feed.ie().getId();
+	}
+
+	/**
+	 * @param mappedIeREST state mapped to REST object
+	 * @return copy of the event with a given REST object
+	 */
+	public IEStateEvent withIeREST(final TestInfrastructureElementStateREST mappedIeREST) {
+		return new IEStateEvent(feed, idx, ieState, mappedIeREST, monitored, anomalies);
+	}
+
+	/**
+	 * @param isMonitored information if the state was sampled
+	 * @return copy of the event with a given sampling decision
+	 */
+	public IEStateEvent withMonitored(final boolean isMonitored) {
+		return new IEStateEvent(feed, idx, ieState, ieREST, isMonitored, anomalies);
+	}
+
+	/**
+	 * @param detectedAnomalies anomalies detected in the state
+	 * @return copy of the event with given anomalies
+	 */
+	public IEStateEvent withAnomalies(final List<String> detectedAnomalies) {
+		return new IEStateEvent(feed, idx, ieState, ieREST, monitored, detectedAnomalies);
+	}
+}
@@ -0,0 +1,156 @@
+package org.aeros.pipeline;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Stage of the pipeline processing items in parallel partitions.
+ * <p>
+ * Items are assigned to partitions by their keys and the partitions are spread over a fixed number of workers, each
+ * of which has its own bounded buffer. Items of the same partition are always processed by the same worker, in the
+ * order in which they were received, hence the state of each partition is kept by its own {@link StageFunction}
+ * (created for the first item of the partition) without synchronization. Outputs of all workers are published through
+ * a single bounded buffer per subscriber.
+ * <p>
+ * Backpressure is propagated upstream: when the buffer of the next stage is full, the workers block, so that their
+ * buffers fill up and the stage stops requesting further items. Memory used by the stage is therefore bounded by the
+ * sizes of the buffers, regardless of the rate at which items are produced.
+ *
+ * @param <I> type of input items
+ * @param <O> type of output items
+ */
+public class PartitionedStage<I, O> implements Flow.Processor<I, O> {
+
+	private final StageMetrics metrics;
+	private final Function<? super I, String> partitionKey;
+	private final Function<? super I, StageFunction<I, O>> partitionFunctionFactory;
+	private final int bufferSize;
+	private final List<SubmissionPublisher<BufferedItem<I>>> workers;
+	private final SubmissionPublisher<O> output;
+	private final AtomicInteger activeWorkers;
+
+	private Flow.Subscription upstream;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param stageName                name of the stage
+	 * @param partitionKey             function returning the partition key of an item
+	 * @param partitionFunctionFactory factory creating the function of a partition based on its first item
+	 * @param parallelism              number of workers processing the partitions
+	 * @param bufferSize               size of the buffers of each worker and of each subscriber of the stage
+	 * @param executor                 executor running the workers and the delivery of outputs
+	 */
+	public PartitionedStage(final String stageName, final Function<? super I, String> partitionKey,
+			final Function<? super I, StageFunction<I, O>> partitionFunctionFactory, final int parallelism,
+			final int bufferSize, final Executor executor) {
+		this.metrics = new StageMetrics(stageName);
+		this.partitionKey = partitionKey;
+		this.partitionFunctionFactory = partitionFunctionFactory;
+		this.bufferSize = bufferSize;
+		this.output = new SubmissionPublisher<>(executor, bufferSize);
+		this.activeWorkers = new AtomicInteger(parallelism);
+		this.workers = IntStream.range(0, parallelism)
+				.mapToObj(_ -> {
+					final SubmissionPublisher<BufferedItem<I>> worker = new SubmissionPublisher<>(executor,
+							bufferSize);
+					worker.subscribe(new WorkerSubscriber());
+					return worker;
+				})
+				.toList();
+	}
+
+	/**
+	 * @return latency metrics of the stage
+	 */
+	public StageMetrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public void subscribe(final Flow.Subscriber<? super O> subscriber) {
+		output.subscribe(subscriber);
+	}
+
+	@Override
+	public void onSubscribe(final Flow.Subscription subscription) {
+		upstream = subscription;
+		subscription.request(bufferSize);
+	}
+
+	@Override
+	public void onNext(final I item) {
+		final int workerIdx = Math.floorMod(partitionKey.apply(item).hashCode(), workers.size());
+
+		workers.get(workerIdx).submit(new BufferedItem<>(item, System.nanoTime()));
+		upstream.request(1);
+	}
+
+	@Override
+	public void onError(final Throwable throwable) {
+		workers.forEach(worker -> worker.closeExceptionally(throwable));
+	}
+
+	@Override
+	public void onComplete() {
+		workers.forEach(SubmissionPublisher::close);
+	}
+
+	/**
+	 * Item waiting in the buffer of a worker.
+	 *
+	 * @param item        input item
+	 * @param arrivalTime time at which the item was accepted by the stage (in nanoseconds)
+	 * @param <I>         type of input item
+	 */
+	private record BufferedItem<I>(I item, long arrivalTime) {
+	}
+
+	private final class WorkerSubscriber implements Flow.Subscriber<BufferedItem<I>> {
+
+		private final Map<String, StageFunction<I, O>> partitionFunctions = new HashMap<>();
+		private final List<O> outputItems = new ArrayList<>();
+
+		@Override
+		public void onSubscribe(final Flow.Subscription subscription) {
+			subscription.request(Long.MAX_VALUE);
+		}
+
+		@Override
+		public void onNext(final BufferedItem<I> bufferedItem) {
+			final I item = bufferedItem.item();
+			final long startTime = System.nanoTime();
+
+			partitionFunctions.computeIfAbsent(partitionKey.apply(item), _ -> partitionFunctionFactory.apply(item))
+					.process(item, outputItems::add);
+			metrics.record(startTime - bufferedItem.arrivalTime(), System.nanoTime() - startTime);
+
+			outputItems.forEach(output::submit);
+			outputItems.clear();
+		}
+
+		@Override
+		public void onError(final Throwable throwable) {
+			if (upstream != null) {
+				upstream.cancel();
+			}
+			workers.forEach(SubmissionPublisher::close);
+			output.closeExceptionally(throwable);
+		}
+
+		@Override
+		public void onComplete() {
+			if (activeWorkers.decrementAndGet() == 0) {
+				output.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package org.aeros.pipeline;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Terminal subscriber of the pipeline consuming items incrementally. Items are consumed sequentially, and the results
+ * of the sink may be read once its completion is done.
+ *
+ * @param <T> type of consumed items
+ */
+public abstract class PipelineSink<T> implements Flow.Subscriber<T> {
+
+	private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+	/**
+	 * @return future completed when all items are consumed (or completed exceptionally, if the pipeline failed)
+	 */
+	public CompletableFuture<Void> getCompletion() {
+		return completion;
+	}
+
+	@Override
+	public void onSubscribe(final Flow.Subscription subscription) {
+		subscription.request(Long.MAX_VALUE);
+	}
+
+	@Override
+	public void onNext(final T item) {
+		consume(item);
+	}
+
+	@Override
+	public void onError(final Throwable throwable) {
+		completion.completeExceptionally(throwable);
+	}
+
+	@Override
+	public void onComplete() {
+		completion.complete(null);
+	}
+
+	/**
+	 * Method consumes a single item.
+	 *
+	 * @param item consumed item
+	 */
+	protected abstract void consume(T item);
+}
@@ -0,0 +1,118 @@
+package org.aeros.pipeline;
+
+import static java.lang.String.format;
+import static org.aeros.domain.ResourceType.CPU_USAGE;
+import static org.aeros.domain.ResourceType.DISK_USAGE;
+import static org.aeros.domain.ResourceType.RAM_USAGE;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.aeros.domain.MetricType;
+import org.aeros.domain.ResourceType;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+import org.aeros.metrics.SamplingQualityEvaluator;
+
+/**
+ * Sink computing quality metrics of adaptive sampling (MAPE, JPM and sample ratio) of each IE incrementally.
+ * <p>
+ * The last monitored state of each IE is held until the next monitored one and its absolute percentage errors with
+ * respect to all states are accumulated with compensated summation, so that only a constant-size state is kept per IE
+ * and the metrics are identical to the ones computed by {@link SamplingQualityEvaluator} for the whole trace.
+ */
+public class SamplingQualitySink extends PipelineSink<IEStateEvent> {
+
+	private static final int METRICS_COUNT = ResourceType.values().length;
+
+	private final Map<String, SamplingQuality> samplingQualities = new HashMap<>();
+
+	/**
+	 * Method computes given quality metrics of an IE.
+	 *
+	 * @param ieId        identifier of the IE
+	 * @param metricTypes types of metrics that are to be computed
+	 * @return map of metric values
+	 */
+	public Map<MetricType, Double> computeMetrics(final String ieId, final Collection<MetricType> metricTypes) {
+		final SamplingQuality samplingQuality = samplingQualities.get(ieId);
+
+		if (samplingQuality == null) {
+			throw new IllegalArgumentException(format("No states of IE %s were consumed.", ieId));
+		}
+
+		final Map<MetricType, Double> metrics = new EnumMap<>(MetricType.class);
+		metricTypes.forEach(metricType -> metrics.put(metricType, samplingQuality.computeMetric(metricType)));
+		return metrics;
+	}
+
+	@Override
+	protected void consume(final IEStateEvent event) {
+		samplingQualities.computeIfAbsent(event.getIeId(), _ -> new SamplingQuality()).update(event);
+	}
+
+	private static final class SamplingQuality {
+
+		private final int[] monitoredValues = new int[METRICS_COUNT];
+		private final double[] errorSums = new double[METRICS_COUNT];
+		private final double[] errorCompensations = new double[METRICS_COUNT];
+		private int samplesCount;
+		private int monitoredSamplesCount;
+
+		private void update(final IEStateEvent event) {
+			final TestInfrastructureElementStateREST ieREST = event.ieREST();
+
+			if (event.monitored()) {
+				monitoredValues[CPU_USAGE.ordinal()] = ieREST.getCurrentCpuUsage();
+				monitoredValues[RAM_USAGE.ordinal()] = ieREST.getCurrentRamUsage();
+				monitoredValues[DISK_USAGE.ordinal()] = ieREST.getCurrentDiskUsage();
+				monitoredSamplesCount++;
+			}
+			addError(CPU_USAGE.ordinal(), ieREST.getCurrentCpuUsage());
+			addError(RAM_USAGE.ordinal(), ieREST.getCurrentRamUsage());
+			addError(DISK_USAGE.ordinal(), ieREST.getCurrentDiskUsage());
+			samplesCount++;
+		}
+
+		private void addError(final int metric, final int trueValue) {
+			final int monitoredValue = monitoredValues[metric];
+			final double error = trueValue == 0
+					? monitoredValue
+					: Math.abs((double) (trueValue - monitoredValue) / trueValue) * 100;
+			final double compensatedError = error - errorCompensations[metric];
+			final double sum = errorSums[metric] + compensatedError;
+
+			errorCompensations[metric] = (sum - errorSums[metric]) - compensatedError;
+			errorSums[metric] = sum;
+		}
+
+		private double computeMetric(final MetricType metricType) {
+			return switch (metricType) {
+				case MAPE_CPU -> computeMAPE(CPU_USAGE);
+				case MAPE_RAM -> computeMAPE(RAM_USAGE);
+				case MAPE_DISK -> computeMAPE(DISK_USAGE);
+				case MAPE_AVG -> (computeMAPE(CPU_USAGE) + computeMAPE(RAM_USAGE) + computeMAPE(DISK_USAGE)) / 3;
+				case JPM_CPU -> computeJPM(CPU_USAGE);
+				case JPM_RAM -> computeJPM(RAM_USAGE);
+				case JPM_DISK -> computeJPM(DISK_USAGE);
+				case JPM_AVG -> (computeJPM(CPU_USAGE) + computeJPM(RAM_USAGE) + computeJPM(DISK_USAGE)) / 3;
+				case SAMPLE_RATIO -> computeDataSamplesVolumeRatio();
+				default -> throw new IllegalArgumentException(
+						format("Metric %s is not a quality metric of adaptive sampling.", metricType));
+			};
+		}
+
+		private double computeMAPE(final ResourceType metric) {
+			return (errorSums[metric.ordinal()] - errorCompensations[metric.ordinal()]) / samplesCount;
+		}
+
+		private double computeJPM(final ResourceType metric) {
+			return 100 - ((computeMAPE(metric) + computeDataSamplesVolumeRatio()) / 2);
+		}
+
+		private double computeDataSamplesVolumeRatio() {
+			return ((double) monitoredSamplesCount / samplesCount) * 100;
+		}
+	}
+}
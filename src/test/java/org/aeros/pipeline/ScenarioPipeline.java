@@ -0,0 +1,140 @@
+package org.aeros.pipeline;
+
+import static org.aeros.algorithms.SamplingAlgorithm.OBSERVATION_INTERVAL;
+import static org.aeros.utils.ScenarioMapper.mapToIEREST;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.aeros.base.DensityBasedAnomalyDetection;
+import org.aeros.base.PEWMASampling;
+
+/**
+ * Pipeline processing the states of IEs as a continuous stream, built on {@link java.util.concurrent.Flow}.
+ * <p>
+ * States are passed through the following stages: reading ({@link ScenarioSource}), mapping to REST objects,
+ * adaptive sampling ({@link PEWMASampling}) and anomaly detection of the monitored states
+ * ({@link DensityBasedAnomalyDetection}), and are consumed by incremental metric sinks ({@link SamplingQualitySink}
+ * and {@link AnomalySink}). Sampling and detection keep separate models for each IE, partitioned by the identifier of
+ * the IE. All stages have bounded buffers and propagate backpressure, hence the memory used by the pipeline doesn't
+ * depend on the length of the processed data. Stages are run in virtual threads and their latencies are measured.
+ */
+public class ScenarioPipeline {
+
+	private final List<IEFeed> feeds;
+	private final int parallelism;
+	private final int bufferSize;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param feeds       feeds of the processed IEs
+	 * @param parallelism number of workers of each stage
+	 * @param bufferSize  size of the buffers of each stage
+	 */
+	public ScenarioPipeline(final List<IEFeed> feeds, final int parallelism, final int bufferSize) {
+		this.feeds = feeds;
+		this.parallelism = parallelism;
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Method processes all states of the IEs and waits until they are consumed by the sinks.
+	 *
+	 * @return results of the pipeline
+	 */
+	public PipelineResult run() {
+		final SamplingQualitySink samplingQualitySink = new SamplingQualitySink();
+		final AnomalySink anomalySink = new AnomalySink();
+
+		try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			final ScenarioSource source = new ScenarioSource(feeds, bufferSize, executor);
+			final PartitionedStage<IEStateEvent, IEStateEvent> mapping = new PartitionedStage<>("mapping",
+					IEStateEvent::getIeId, _ -> ScenarioPipeline::mapState, parallelism, bufferSize, executor);
+			final PartitionedStage<IEStateEvent, IEStateEvent> sampling = new PartitionedStage<>("sampling",
+					IEStateEvent::getIeId, event -> new SamplingFunction(event.feed()), parallelism, bufferSize,
+					executor);
+			final PartitionedStage<IEStateEvent, IEStateEvent> detection = new PartitionedStage<>("detection",
+					IEStateEvent::getIeId, createDetectionFunctionFactory(), parallelism, bufferSize, executor);
+
+			source.subscribe(mapping);
+			mapping.subscribe(sampling);
+			sampling.subscribe(detection);
+			detection.subscribe(samplingQualitySink);
+			detection.subscribe(anomalySink);
+			source.start();
+
+			try {
+				CompletableFuture.allOf(samplingQualitySink.getCompletion(), anomalySink.getCompletion()).join();
+			} catch (final CompletionException e) {
+				throw new RuntimeException("Couldn't process the states of IEs in the pipeline.", e.getCause());
+			}
+			return new PipelineResult(samplingQualitySink, anomalySink, List.of(source.getMetrics(),
+					mapping.getMetrics(), sampling.getMetrics(), detection.getMetrics()));
+		}
+	}
+
+	private static void mapState(final IEStateEvent event, final Consumer<? super IEStateEvent> downstream) {
+		downstream.accept(event.withIeREST(mapToIEREST(event.feed().ie(), event.ieState())));
+	}
+
+	private static Function<IEStateEvent, StageFunction<IEStateEvent, IEStateEvent>> createDetectionFunctionFactory() {
+		return firstEvent -> {
+			final IEFeed feed = firstEvent.feed();
+			final DensityBasedAnomalyDetection anomalyDetection =
+					new DensityBasedAnomalyDetection(feed.anomalyConfiguration());
+
+			return (event, downstream) -> downstream.accept(event.monitored()
+					? event.withAnomalies(anomalyDetection.detectAnomalies(event.ieState(), feed.ie()))
+					: event);
+		};
+	}
+
+	/**
+	 * Results of the pipeline.
+	 *
+	 * @param samplingQualitySink sink containing quality metrics of adaptive sampling
+	 * @param anomalySink         sink containing detected anomalies
+	 * @param stageMetrics        latency metrics of all stages (in the order of the stages)
+	 */
+	public record PipelineResult(SamplingQualitySink samplingQualitySink, AnomalySink anomalySink,
+								 List<StageMetrics> stageMetrics) {
+	}
+
+	/**
+	 * Sampling of the states of a single IE. The state is monitored, if the sampling period estimated for the last
+	 * monitored state has passed, while the remaining states are passed as not monitored. If the estimated period is
+	 * shorter than the interval between states, the last monitored state is held until the end of the feed (as in
+	 * {@link org.aeros.algorithms.SamplingSimulator}).
+	 */
+	private static final class SamplingFunction implements StageFunction<IEStateEvent, IEStateEvent> {
+
+		private final IEFeed feed;
+		private final PEWMASampling sampling;
+		private int nextMonitoredIdx;
+
+		private SamplingFunction(final IEFeed feed) {
+			this.feed = feed;
+			this.sampling = new PEWMASampling(feed.samplingConfiguration());
+		}
+
+		@Override
+		public void process(final IEStateEvent event, final Consumer<? super IEStateEvent> downstream) {
+			if (event.idx() != nextMonitoredIdx) {
+				downstream.accept(event);
+				return;
+			}
+
+			final long samplingPeriod = sampling.estimateSamplingPeriod(event.ieState(), feed.ie());
+			final int periodInStates = (int) (samplingPeriod / OBSERVATION_INTERVAL);
+
+			nextMonitoredIdx = periodInStates > 0 ? event.idx() + periodInStates : -1;
+			downstream.accept(event.withMonitored(true));
+		}
+	}
+}
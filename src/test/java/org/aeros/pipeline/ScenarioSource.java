@@ -0,0 +1,98 @@
+package org.aeros.pipeline;
+
+import static org.aeros.utils.ScenarioReader.streamScenarioData;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.stream.Stream;
+
+import org.aeros.domain.TestInfrastructureElementState;
+
+/**
+ * Source of the pipeline publishing the states of several IEs.
+ * <p>
+ * Data of all IEs is streamed with {@link org.aeros.utils.ScenarioReader} (so the data is never read into memory as
+ * a whole) and the states of the IEs are interleaved one by one, as if the IEs were reporting concurrently. Reading
+ * blocks when the buffer of any subscriber is full. If data of any IE can't be read, the subscribers are completed
+ * exceptionally.
+ */
+public class ScenarioSource implements Flow.Publisher<IEStateEvent> {
+
+	private final List<IEFeed> feeds;
+	private final Executor executor;
+	private final SubmissionPublisher<IEStateEvent> publisher;
+	private final StageMetrics metrics;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param feeds      feeds of the IEs
+	 * @param bufferSize size of the buffer of each subscriber
+	 * @param executor   executor in which the data is read and delivered
+	 */
+	public ScenarioSource(final List<IEFeed> feeds, final int bufferSize, final Executor executor) {
+		this.feeds = feeds;
+		this.executor = executor;
+		this.publisher = new SubmissionPublisher<>(executor, bufferSize);
+		this.metrics = new StageMetrics("reading");
+	}
+
+	/**
+	 * @return latency metrics of reading (waiting time is always 0)
+	 */
+	public StageMetrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public void subscribe(final Flow.Subscriber<? super IEStateEvent> subscriber) {
+		publisher.subscribe(subscriber);
+	}
+
+	/**
+	 * Method starts reading the data asynchronously. It should be called once all subscribers are subscribed, since
+	 * the states published before the subscription are not delivered.
+	 */
+	public void start() {
+		executor.execute(this::readFeeds);
+	}
+
+	private void readFeeds() {
+		final List<Stream<TestInfrastructureElementState>> streams = new ArrayList<>(feeds.size());
+
+		try {
+			feeds.forEach(feed -> streams.add(streamScenarioData(feed.ie().getData())));
+
+			final List<Iterator<TestInfrastructureElementState>> iterators = streams.stream()
+					.map(Stream::iterator)
+					.toList();
+			boolean isAnyFeedActive = true;
+
+			for (int idx = 0; isAnyFeedActive; idx++) {
+				isAnyFeedActive = false;
+
+				for (int feedIdx = 0; feedIdx < feeds.size(); feedIdx++) {
+					final Iterator<TestInfrastructureElementState> iterator = iterators.get(feedIdx);
+					final long startTime = System.nanoTime();
+
+					if (iterator.hasNext()) {
+						final TestInfrastructureElementState ieState = iterator.next();
+
+						metrics.record(0, System.nanoTime() - startTime);
+						publisher.submit(new IEStateEvent(feeds.get(feedIdx), idx, ieState));
+						isAnyFeedActive = true;
+					}
+				}
+			}
+			publisher.close();
+		} catch (final RuntimeException e) {
+			publisher.closeExceptionally(e);
+		} finally {
+			streams.forEach(Stream::close);
+		}
+	}
+}
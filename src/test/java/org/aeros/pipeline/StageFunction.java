@@ -0,0 +1,22 @@
+package org.aeros.pipeline;
+
+import java.util.function.Consumer;
+
+/**
+ * Function processing the items of a single partition in a {@link PartitionedStage}. Items of the partition are
+ * passed sequentially, hence the function may keep the state of the partition without synchronization.
+ *
+ * @param <I> type of input items
+ * @param <O> type of output items
+ */
+@FunctionalInterface
+public interface StageFunction<I, O> {
+
+	/**
+	 * Method processes an item.
+	 *
+	 * @param item       input item
+	 * @param downstream consumer accepting any number of output items
+	 */
+	void process(I item, Consumer<? super O> downstream);
+}
@@ -0,0 +1,93 @@
+package org.aeros.pipeline;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency metrics of a single stage of the pipeline.
+ * <p>
+ * Waiting time is measured from the moment at which an item is accepted by the stage until its processing starts
+ * (i.e. the time spent in the buffer of the stage), while processing time covers only the stage function (the time
+ * spent waiting for the buffers of the next stages is excluded). Metrics are updated concurrently by all workers of
+ * the stage.
+ */
+public class StageMetrics {
+
+	private final String stageName;
+	private final LongAdder processedCount = new LongAdder();
+	private final LongAdder waitingTime = new LongAdder();
+	private final LongAdder processingTime = new LongAdder();
+	private final AtomicLong maxLatency = new AtomicLong();
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param stageName name of the stage
+	 */
+	public StageMetrics(final String stageName) {
+		this.stageName = stageName;
+	}
+
+	/**
+	 * Method records the processing of a single item.
+	 *
+	 * @param itemWaitingTime    time spent by the item in the buffer of the stage (in nanoseconds)
+	 * @param itemProcessingTime time of processing of the item (in nanoseconds)
+	 */
+	public void record(final long itemWaitingTime, final long itemProcessingTime) {
+		processedCount.increment();
+		waitingTime.add(itemWaitingTime);
+		processingTime.add(itemProcessingTime);
+		maxLatency.accumulateAndGet(itemWaitingTime + itemProcessingTime, Math::max);
+	}
+
+	/**
+	 * @return name of the stage
+	 */
+	public String getStageName() {
+		return stageName;
+	}
+
+	/**
+	 * @return number of items processed by the stage
+	 */
+	public long getProcessedCount() {
+		return processedCount.sum();
+	}
+
+	/**
+	 * @return mean time spent by items in the buffer of the stage (in nanoseconds)
+	 */
+	public double getMeanWaitingTime() {
+		return getMean(waitingTime);
+	}
+
+	/**
+	 * @return mean time of processing of items (in nanoseconds)
+	 */
+	public double getMeanProcessingTime() {
+		return getMean(processingTime);
+	}
+
+	/**
+	 * @return maximal latency (waiting and processing time) of a single item (in nanoseconds)
+	 */
+	public long getMaxLatency() {
+		return maxLatency.get();
+	}
+
+	@Override
+	public String toString() {
+		return format("%s: %d items, mean waiting %.1f us, mean processing %.1f us, max latency %d ms", stageName,
+				getProcessedCount(), getMeanWaitingTime() / 1000, getMeanProcessingTime() / 1000,
+				NANOSECONDS.toMillis(getMaxLatency()));
+	}
+
+	private double getMean(final LongAdder totalTime) {
+		final long count = getProcessedCount();
+		return count == 0 ? 0 : (double) totalTime.sum() / count;
+	}
+}
@@ -0,0 +1,56 @@
+package org.aeros.scheduler;
+
+import static java.lang.String.format;
+import static java.net.URLEncoder.encode;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.aeros.domain.TestInfrastructureElementStateREST;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@link IEStatePoller} retrieving the states of IEs in JSON format from a REST endpoint, under which the state of
+ * each IE is available at {@code <base URI>/<URL-encoded IE id>}.
+ */
+public class HttpIEStatePoller implements IEStatePoller {
+
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	private final HttpClient httpClient;
+	private final String baseUri;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param baseUri base URI of the endpoint
+	 */
+	public HttpIEStatePoller(final URI baseUri) {
+		this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		this.baseUri = baseUri.toString().replaceAll("/+$", "");
+	}
+
+	@Override
+	public TestInfrastructureElementStateREST pollState(final String ieId) {
+		final HttpRequest request = HttpRequest.newBuilder(URI.create(baseUri + "/" + encode(ieId, UTF_8))).build();
+
+		try {
+			final HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+			if (response.statusCode() != 200) {
+				throw new IllegalStateException(
+						format("Couldn't poll the state of IE %s (status %d).", ieId, response.statusCode()));
+			}
+			return mapper.readValue(response.body(), TestInfrastructureElementStateREST.class);
+		} catch (final IOException e) {
+			throw new RuntimeException(format("Couldn't poll the state of IE %s.", ieId), e);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(format("Polling of the state of IE %s was interrupted.", ieId), e);
+		}
+	}
+}
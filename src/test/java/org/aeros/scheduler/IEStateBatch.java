@@ -0,0 +1,130 @@
+package org.aeros.scheduler;
+
+import java.util.Arrays;
+
+import org.aeros.domain.TestInfrastructureElementFlatState;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+
+import lombok.Getter;
+
+/**
+ * Batch of states of a single IE decoded by {@link IEStateCodec}, stored in primitive columns.
+ * <p>
+ * Values of the integer metrics are stored in one column per field (indexed by field constants, e.g.
+ * {@link #CURRENT_CPU_USAGE}), in the order of samples. Metrics missing in a sample are set to 0 (or false), as in
+ * {@link TestInfrastructureElementFlatState}, while their absence is recorded separately. The columns are reused by
+ * consecutive decodings, so that no objects are created for each sample.
+ */
+public class IEStateBatch {
+
+	public static final int CPU_CORES = 0;
+	public static final int CURRENT_CPU_USAGE = 1;
+	public static final int RAM_CAPACITY = 2;
+	public static final int AVAILABLE_RAM = 3;
+	public static final int CURRENT_RAM_USAGE = 4;
+	public static final int CURRENT_RAM_USAGE_PCT = 5;
+	public static final int DISK_CAPACITY = 6;
+	public static final int AVAILABLE_DISK = 7;
+	public static final int CURRENT_DISK_USAGE = 8;
+	public static final int CURRENT_DISK_USAGE_PCT = 9;
+	public static final int REAL_TIME_CAPABLE = 10;
+	public static final int FIELDS_COUNT = 11;
+
+	@Getter
+	private String ieId;
+	@Getter
+	private int size;
+	private int[][] values;
+	private boolean[] realTimeCapable;
+	private int[] absentFields;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param capacity initial number of samples that can be stored without resizing the columns
+	 */
+	public IEStateBatch(final int capacity) {
+		this.values = new int[REAL_TIME_CAPABLE][capacity];
+		this.realTimeCapable = new boolean[capacity];
+		this.absentFields = new int[capacity];
+	}
+
+	/**
+	 * @param field field of IE state
+	 * @param idx   index of the sample
+	 * @return value of an integer field (0, if the field is missing)
+	 */
+	public int getValue(final int field, final int idx) {
+		return values[field][idx];
+	}
+
+	/**
+	 * @param idx index of the sample
+	 * @return information if IE is real-time capable (false, if the field is missing)
+	 */
+	public boolean isRealTimeCapable(final int idx) {
+		return realTimeCapable[idx];
+	}
+
+	/**
+	 * @param field field of IE state
+	 * @param idx   index of the sample
+	 * @return information if the field is present in the sample
+	 */
+	public boolean isPresent(final int field, final int idx) {
+		return (absentFields[idx] & (1 << field)) == 0;
+	}
+
+	/**
+	 * Method converts the sample into flat IE state.
+	 *
+	 * @param idx index of the sample
+	 * @return flat IE state
+	 */
+	public TestInfrastructureElementFlatState toFlatState(final int idx) {
+		return new TestInfrastructureElementFlatState(values[CURRENT_CPU_USAGE][idx], values[AVAILABLE_RAM][idx],
+				values[CURRENT_RAM_USAGE][idx], values[CURRENT_RAM_USAGE_PCT][idx], values[AVAILABLE_DISK][idx],
+				values[CURRENT_DISK_USAGE][idx], values[CURRENT_DISK_USAGE_PCT][idx], realTimeCapable[idx]);
+	}
+
+	/**
+	 * Method converts the sample into REST object, in which missing fields are set to null.
+	 *
+	 * @param idx index of the sample
+	 * @return REST IE state
+	 */
+	public TestInfrastructureElementStateREST toREST(final int idx) {
+		return new TestInfrastructureElementStateREST(ieId, getBoxedValue(CPU_CORES, idx),
+				getBoxedValue(CURRENT_CPU_USAGE, idx), getBoxedValue(RAM_CAPACITY, idx),
+				getBoxedValue(AVAILABLE_RAM, idx), getBoxedValue(CURRENT_RAM_USAGE, idx),
+				getBoxedValue(CURRENT_RAM_USAGE_PCT, idx), getBoxedValue(DISK_CAPACITY, idx),
+				getBoxedValue(AVAILABLE_DISK, idx), getBoxedValue(CURRENT_DISK_USAGE, idx),
+				getBoxedValue(CURRENT_DISK_USAGE_PCT, idx),
+				isPresent(REAL_TIME_CAPABLE, idx) ? realTimeCapable[idx] : null);
+	}
+
+	void reset(final String ieId, final int size) {
+		if (size > absentFields.length) {
+			final int capacity = Math.max(size, 2 * absentFields.length);
+
+			values = Arrays.stream(values).map(column -> Arrays.copyOf(column, capacity)).toArray(int[][]::new);
+			realTimeCapable = Arrays.copyOf(realTimeCapable, capacity);
+			absentFields = Arrays.copyOf(absentFields, capacity);
+		}
+		this.ieId = ieId;
+		this.size = size;
+	}
+
+	void setSample(final int idx, final int absentFieldsMask, final boolean isRealTimeCapable) {
+		absentFields[idx] = absentFieldsMask;
+		realTimeCapable[idx] = isRealTimeCapable;
+	}
+
+	void setValue(final int field, final int idx, final int value) {
+		values[field][idx] = value;
+	}
+
+	private Integer getBoxedValue(final int field, final int idx) {
+		return isPresent(field, idx) ? values[field][idx] : null;
+	}
+}
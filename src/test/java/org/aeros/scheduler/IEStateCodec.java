@@ -0,0 +1,229 @@
+package org.aeros.scheduler;
+
+import static java.lang.String.format;
+import static org.aeros.base.StateSnapshot.getKeySize;
+import static org.aeros.base.StateSnapshot.readKey;
+import static org.aeros.base.StateSnapshot.writeKey;
+import static org.aeros.scheduler.IEStateBatch.AVAILABLE_DISK;
+import static org.aeros.scheduler.IEStateBatch.AVAILABLE_RAM;
+import static org.aeros.scheduler.IEStateBatch.CPU_CORES;
+import static org.aeros.scheduler.IEStateBatch.CURRENT_CPU_USAGE;
+import static org.aeros.scheduler.IEStateBatch.CURRENT_DISK_USAGE;
+import static org.aeros.scheduler.IEStateBatch.CURRENT_DISK_USAGE_PCT;
+import static org.aeros.scheduler.IEStateBatch.CURRENT_RAM_USAGE;
+import static org.aeros.scheduler.IEStateBatch.CURRENT_RAM_USAGE_PCT;
+import static org.aeros.scheduler.IEStateBatch.DISK_CAPACITY;
+import static org.aeros.scheduler.IEStateBatch.FIELDS_COUNT;
+import static org.aeros.scheduler.IEStateBatch.RAM_CAPACITY;
+import static org.aeros.scheduler.IEStateBatch.REAL_TIME_CAPABLE;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.aeros.domain.TestInfrastructureElementStateREST;
+
+/**
+ * Class with methods used to encode and decode batches of states of a single IE in compact binary format, used in
+ * place of JSON when many states are transferred at once.
+ * <p>
+ * Each batch starts with a header: magic number (int), format version (short), IE id (encoded as the keys of
+ * {@link org.aeros.base.StateSnapshot}) and number of samples (int). Each sample consists of flags (varint: real-time
+ * capability in the lowest bit, followed by one bit per field marking its absence) and of the values of all present
+ * integer fields, in the order of {@link IEStateBatch} field constants. Each value is encoded as a zigzag varint of
+ * the difference from the last present value of the same field in the batch (or from 0), so that slowly changing
+ * metrics and constant capacities take a single byte. Batches are independent of each other.
+ */
+public class IEStateCodec {
+
+	public static final int MAGIC = 0x41454942;
+	public static final short VERSION = 1;
+	public static final int MAX_VARINT_SIZE = 5;
+
+	private static final int INTEGER_FIELDS_COUNT = REAL_TIME_CAPABLE;
+
+	/**
+	 * Method computes upper bound of the size of the encoded batch.
+	 *
+	 * @param ieId         identifier of IE
+	 * @param samplesCount number of samples in the batch
+	 * @return maximal number of bytes occupied by the batch
+	 */
+	public static int getMaxBatchSize(final String ieId, final int samplesCount) {
+		return Integer.BYTES + Short.BYTES + getKeySize(ieId) + Integer.BYTES
+				+ samplesCount * (INTEGER_FIELDS_COUNT + 1) * MAX_VARINT_SIZE;
+	}
+
+	/**
+	 * Method encodes the batch of IE states.
+	 *
+	 * @param ieId   identifier of IE
+	 * @param states states of IE (in the order of their reporting)
+	 * @return encoded batch
+	 */
+	public static byte[] encodeBatch(final String ieId, final List<TestInfrastructureElementStateREST> states) {
+		final ByteBuffer buffer = ByteBuffer.allocate(getMaxBatchSize(ieId, states.size()));
+
+		encodeBatch(buffer, ieId, states);
+		return Arrays.copyOf(buffer.array(), buffer.position());
+	}
+
+	/**
+	 * Method encodes the batch of IE states.
+	 *
+	 * @param buffer buffer to which the batch is written (with at least {@link #getMaxBatchSize} bytes remaining)
+	 * @param ieId   identifier of IE
+	 * @param states states of IE (in the order of their reporting)
+	 */
+	public static void encodeBatch(final ByteBuffer buffer, final String ieId,
+			final List<TestInfrastructureElementStateREST> states) {
+		final int[] lastValues = new int[INTEGER_FIELDS_COUNT];
+
+		buffer.putInt(MAGIC).putShort(VERSION);
+		writeKey(buffer, ieId);
+		buffer.putInt(states.size());
+
+		for (final TestInfrastructureElementStateREST state : states) {
+			if (!ieId.equals(state.getId())) {
+				throw new IllegalArgumentException(
+						format("State of IE %s can't be encoded in the batch of IE %s.", state.getId(), ieId));
+			}
+
+			int flags = Boolean.TRUE.equals(state.getRealTimeCapable()) ? 1 : 0;
+			for (int field = 0; field < FIELDS_COUNT; field++) {
+				if (isAbsent(state, field)) {
+					flags |= 1 << (field + 1);
+				}
+			}
+			writeVarInt(buffer, flags);
+
+			for (int field = 0; field < INTEGER_FIELDS_COUNT; field++) {
+				final Integer value = getValue(state, field);
+
+				if (value != null) {
+					writeVarInt(buffer, zigzag(value - lastValues[field]));
+					lastValues[field] = value;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Method decodes the batch of IE states into a new batch.
+	 *
+	 * @param buffer buffer from which the batch is read
+	 * @return decoded batch
+	 */
+	public static IEStateBatch decodeBatch(final ByteBuffer buffer) {
+		return decodeBatch(buffer, new IEStateBatch(0));
+	}
+
+	/**
+	 * Method decodes the batch of IE states, reusing columns of a given batch.
+	 *
+	 * @param buffer buffer from which the batch is read
+	 * @param batch  batch to which the states are decoded
+	 * @return decoded batch
+	 */
+	public static IEStateBatch decodeBatch(final ByteBuffer buffer, final IEStateBatch batch) {
+		final int[] lastValues = new int[INTEGER_FIELDS_COUNT];
+
+		try {
+			final int samplesCount = readHeader(buffer, batch);
+
+			for (int idx = 0; idx < samplesCount; idx++) {
+				final int flags = readVarInt(buffer);
+				final int absentFields = flags >>> 1;
+
+				batch.setSample(idx, absentFields, (flags & 1) != 0);
+				for (int field = 0; field < INTEGER_FIELDS_COUNT; field++) {
+					if ((absentFields & (1 << field)) == 0) {
+						lastValues[field] += unzigzag(readVarInt(buffer));
+						batch.setValue(field, idx, lastValues[field]);
+					} else {
+						batch.setValue(field, idx, 0);
+					}
+				}
+			}
+		} catch (final BufferUnderflowException e) {
+			throw new IllegalStateException("Batch of IE states is truncated.", e);
+		}
+		return batch;
+	}
+
+	private static int readHeader(final ByteBuffer buffer, final IEStateBatch batch) {
+		if (buffer.remaining() < Integer.BYTES + Short.BYTES || buffer.getInt() != MAGIC) {
+			throw new IllegalStateException("Provided data is not a batch of IE states.");
+		}
+
+		final short version = buffer.getShort();
+
+		if (version < 1 || version > VERSION) {
+			throw new IllegalStateException(format("Unsupported batch version %d.", version));
+		}
+
+		final String ieId = readKey(buffer);
+		final int samplesCount = buffer.getInt();
+
+		// each sample takes at least one byte, so the count is verified before the batch is resized
+		if (samplesCount < 0 || samplesCount > buffer.remaining()) {
+			throw new IllegalStateException(format("Invalid number of samples %d in the batch of %d remaining bytes.",
+					samplesCount, buffer.remaining()));
+		}
+		batch.reset(ieId, samplesCount);
+		return samplesCount;
+	}
+
+	private static boolean isAbsent(final TestInfrastructureElementStateREST state, final int field) {
+		return field == REAL_TIME_CAPABLE ? state.getRealTimeCapable() == null : getValue(state, field) == null;
+	}
+
+	private static Integer getValue(final TestInfrastructureElementStateREST state, final int field) {
+		return switch (field) {
+			case CPU_CORES -> state.getCpuCores();
+			case CURRENT_CPU_USAGE -> state.getCurrentCpuUsage();
+			case RAM_CAPACITY -> state.getRamCapacity();
+			case AVAILABLE_RAM -> state.getAvailableRam();
+			case CURRENT_RAM_USAGE -> state.getCurrentRamUsage();
+			case CURRENT_RAM_USAGE_PCT -> state.getCurrentRamUsagePct();
+			case DISK_CAPACITY -> state.getDiskCapacity();
+			case AVAILABLE_DISK -> state.getAvailableDisk();
+			case CURRENT_DISK_USAGE -> state.getCurrentDiskUsage();
+			case CURRENT_DISK_USAGE_PCT -> state.getCurrentDiskUsagePct();
+			default -> throw new IllegalArgumentException(format("Field %d is not an integer field.", field));
+		};
+	}
+
+	private static int zigzag(final int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private static int unzigzag(final int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void writeVarInt(final ByteBuffer buffer, final int value) {
+		int remainingValue = value;
+
+		while ((remainingValue & ~0x7F) != 0) {
+			buffer.put((byte) ((remainingValue & 0x7F) | 0x80));
+			remainingValue >>>= 7;
+		}
+		buffer.put((byte) remainingValue);
+	}
+
+	private static int readVarInt(final ByteBuffer buffer) {
+		int value = 0;
+
+		for (int shift = 0; shift < MAX_VARINT_SIZE * 7; shift += 7) {
+			final byte encodedByte = buffer.get();
+
+			value |= (encodedByte & 0x7F) << shift;
+			if (encodedByte >= 0) {
+				return value;
+			}
+		}
+		throw new IllegalStateException("Batch of IE states contains malformed varint.");
+	}
+}
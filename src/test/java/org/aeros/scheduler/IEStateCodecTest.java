@@ -0,0 +1,81 @@
+package org.aeros.scheduler;
+
+import static org.aeros.base.StateSnapshot.getKeySize;
+import static org.aeros.base.StateSnapshot.writeKey;
+import static org.aeros.scheduler.IEStateCodec.MAGIC;
+import static org.aeros.scheduler.IEStateCodec.VERSION;
+import static org.aeros.scheduler.IEStateCodec.decodeBatch;
+import static org.aeros.scheduler.IEStateCodec.encodeBatch;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.aeros.domain.TestInfrastructureElementStateREST;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of decoding of malformed batches of IE states, which must be rejected with {@link IllegalStateException}.
+ */
+public class IEStateCodecTest {
+
+	private static final String IE_ID = "ie";
+
+	private final List<TestInfrastructureElementStateREST> states = IntStream.range(0, 10)
+			.mapToObj(idx -> new TestInfrastructureElementStateREST(IE_ID, 4, idx * 10, 1024, 512 - idx, 512 + idx,
+					50, 2048, idx % 3 == 0 ? null : 1024, 1024, 50, idx % 2 == 0))
+			.toList();
+
+	@Test
+	void decodeEncodedBatch() {
+		final IEStateBatch batch = decodeBatch(ByteBuffer.wrap(encodeBatch(IE_ID, states)));
+
+		assertEquals(states.size(), batch.getSize());
+		IntStream.range(0, states.size()).forEach(idx ->
+				assertEquals(states.get(idx).toString(), batch.toREST(idx).toString()));
+	}
+
+	@Test
+	void rejectTruncatedBatch() {
+		final byte[] encodedBatch = encodeBatch(IE_ID, states);
+
+		for (int length = 0; length < encodedBatch.length; length++) {
+			final ByteBuffer truncatedBatch = ByteBuffer.wrap(encodedBatch, 0, length);
+			assertThrows(IllegalStateException.class, () -> decodeBatch(truncatedBatch));
+		}
+	}
+
+	@Test
+	void rejectInvalidHeader() {
+		final ByteBuffer invalidMagic = createHeader(MAGIC + 1, VERSION, 0);
+		final ByteBuffer zeroVersion = createHeader(MAGIC, (short) 0, 0);
+		final ByteBuffer unsupportedVersion = createHeader(MAGIC, (short) (VERSION + 1), 0);
+		final ByteBuffer negativeCount = createHeader(MAGIC, VERSION, -1);
+
+		assertThrows(IllegalStateException.class, () -> decodeBatch(invalidMagic));
+		assertThrows(IllegalStateException.class, () -> decodeBatch(zeroVersion));
+		assertThrows(IllegalStateException.class, () -> decodeBatch(unsupportedVersion));
+		assertThrows(IllegalStateException.class, () -> decodeBatch(negativeCount));
+		assertEquals(0, decodeBatch(createHeader(MAGIC, VERSION, 0)).getSize());
+	}
+
+	@Test
+	void rejectOversizedSamplesCount() {
+		final byte[] encodedBatch = encodeBatch(IE_ID, states);
+		final ByteBuffer oversizedBatch = ByteBuffer.wrap(encodedBatch);
+		final int samplesCountOffset = Integer.BYTES + Short.BYTES + getKeySize(IE_ID);
+
+		oversizedBatch.putInt(samplesCountOffset, Integer.MAX_VALUE);
+		assertThrows(IllegalStateException.class, () -> decodeBatch(oversizedBatch));
+		assertThrows(IllegalStateException.class, () -> decodeBatch(createHeader(MAGIC, VERSION, Integer.MAX_VALUE)));
+	}
+
+	private ByteBuffer createHeader(final int magic, final short version, final int samplesCount) {
+		final ByteBuffer header = ByteBuffer.allocate(64).putInt(magic).putShort(version);
+
+		writeKey(header, IE_ID);
+		return header.putInt(samplesCount).flip();
+	}
+}
@@ -0,0 +1,18 @@
+package org.aeros.scheduler;
+
+import org.aeros.domain.TestInfrastructureElementStateREST;
+
+/**
+ * Source of the current states of IEs polled by {@link SamplingScheduler}.
+ */
+@FunctionalInterface
+public interface IEStatePoller {
+
+	/**
+	 * Method retrieves the current state of IE.
+	 *
+	 * @param ieId identifier of IE
+	 * @return current IE state
+	 */
+	TestInfrastructureElementStateREST pollState(String ieId);
+}
@@ -0,0 +1,112 @@
+package org.aeros.scheduler;
+
+import static java.lang.String.format;
+import static java.net.URLDecoder.decode;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.aeros.domain.TestInfrastructureElementStateREST;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in of the REST endpoint of the self-awareness service, built on the JDK {@link HttpServer}. The state
+ * of each IE is served in JSON format at {@code <base URI>/<URL-encoded IE id>} and requests are handled on virtual
+ * threads.
+ * <p>
+ * Headers and body of a response are written separately, so the JVM should run with
+ * {@code -Dsun.net.httpserver.nodelay=true} (as configured for the tests in the build). Otherwise, the body is delayed
+ * until the (delayed) acknowledgement of the headers, which limits each connection to ~25 requests per second.
+ */
+public class IEStateStandInServer implements AutoCloseable {
+
+	private static final String CONTEXT_PATH = "/ie-states/";
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	private final Function<String, TestInfrastructureElementStateREST> stateProvider;
+	private final ExecutorService executor;
+	private final HttpServer server;
+	private final LongAdder requestsCount;
+	private final LongAdder sentBytes;
+
+	/**
+	 * Default constructor. The server is started on a random port of the loopback interface.
+	 *
+	 * @param stateProvider function returning the current state of IE with a given id (or null if IE is unknown)
+	 */
+	public IEStateStandInServer(final Function<String, TestInfrastructureElementStateREST> stateProvider) {
+		this.stateProvider = stateProvider;
+		this.executor = Executors.newVirtualThreadPerTaskExecutor();
+		this.requestsCount = new LongAdder();
+		this.sentBytes = new LongAdder();
+
+		try {
+			this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+		} catch (final IOException e) {
+			throw new RuntimeException("Couldn't start the stand-in server.", e);
+		}
+		server.createContext(CONTEXT_PATH, this::handleRequest);
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	/**
+	 * @return base URI under which the states of IEs are served
+	 */
+	public URI getBaseUri() {
+		return URI.create(format("http://%s:%d%s", server.getAddress().getHostString(), server.getAddress().getPort(),
+				CONTEXT_PATH));
+	}
+
+	/**
+	 * @return number of handled requests
+	 */
+	public long getRequestsCount() {
+		return requestsCount.sum();
+	}
+
+	/**
+	 * @return number of bytes sent in response bodies
+	 */
+	public long getSentBytes() {
+		return sentBytes.sum();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.close();
+	}
+
+	private void handleRequest(final HttpExchange exchange) throws IOException {
+		try (exchange) {
+			final String ieId = decode(exchange.getRequestURI().getRawPath().substring(CONTEXT_PATH.length()), UTF_8);
+			final TestInfrastructureElementStateREST state = stateProvider.apply(ieId);
+
+			requestsCount.increment();
+			if (state == null) {
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+
+			final byte[] body = mapper.writeValueAsBytes(state);
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			try (final OutputStream responseBody = exchange.getResponseBody()) {
+				responseBody.write(body);
+			}
+			sentBytes.add(body.length);
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package org.aeros.scheduler;
+
+import static java.util.Objects.requireNonNullElse;
+import static org.aeros.algorithms.AnomalyDetector.NO_ANOMALIES;
+import static org.aeros.domain.ResourceType.CPU_USAGE;
+import static org.aeros.domain.ResourceType.DISK_USAGE;
+import static org.aeros.domain.ResourceType.RAM_USAGE;
+import static org.aeros.domain.TestInfrastructureElementStateREST.getAmountOfUsedCores;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.aeros.algorithms.AnomalyDetector;
+import org.aeros.domain.ResourceType;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+
+/**
+ * Consumer of the states polled by {@link SamplingScheduler}, which passes them to the {@link AnomalyDetector anomaly
+ * detectors} of IEs.
+ * <p>
+ * Detector of each IE is created on the first state of the IE. Since the scheduler polls each IE at most once at a
+ * time, states of the same IE are never passed concurrently, hence the detectors are not synchronized. Metrics
+ * missing in polled states are observed as 0, as in {@link org.aeros.algorithms.SamplingAlgorithm}.
+ */
+public class PolledStateDetection implements Consumer<TestInfrastructureElementStateREST> {
+
+	private static final int METRICS_COUNT = ResourceType.values().length;
+
+	private final Supplier<? extends AnomalyDetector> detectorFactory;
+	private final Map<String, IEDetection> detections;
+	private final LongAdder statesCount;
+	private final LongAdder anomalousStatesCount;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param detectorFactory factory creating the detector of a single IE
+	 */
+	public PolledStateDetection(final Supplier<? extends AnomalyDetector> detectorFactory) {
+		this.detectorFactory = detectorFactory;
+		this.detections = new ConcurrentHashMap<>();
+		this.statesCount = new LongAdder();
+		this.anomalousStatesCount = new LongAdder();
+	}
+
+	@Override
+	public void accept(final TestInfrastructureElementStateREST state) {
+		final IEDetection detection = detections.computeIfAbsent(state.getId(),
+				_ -> new IEDetection(detectorFactory.get(), new double[METRICS_COUNT]));
+		final double[] observations = detection.observations();
+
+		observations[CPU_USAGE.ordinal()] = requireNonNullElse(getAmountOfUsedCores(state), 0d);
+		observations[RAM_USAGE.ordinal()] = requireNonNullElse(state.getCurrentRamUsage(), 0);
+		observations[DISK_USAGE.ordinal()] = requireNonNullElse(state.getCurrentDiskUsage(), 0);
+
+		if (detection.detector().detectAnomalies(observations) != NO_ANOMALIES) {
+			anomalousStatesCount.increment();
+		}
+		statesCount.increment();
+	}
+
+	/**
+	 * @return number of IEs whose states were passed to the detectors
+	 */
+	public int getDetectorsCount() {
+		return detections.size();
+	}
+
+	/**
+	 * @return number of states passed to the detectors
+	 */
+	public long getStatesCount() {
+		return statesCount.sum();
+	}
+
+	/**
+	 * @return number of states in which anomalies were detected
+	 */
+	public long getAnomalousStatesCount() {
+		return anomalousStatesCount.sum();
+	}
+
+	private record IEDetection(AnomalyDetector detector, double[] observations) {
+	}
+}
@@ -0,0 +1,312 @@
+package org.aeros.scheduler;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.aeros.base.CompiledPEWMASampling.METRICS_COUNT;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.aeros.base.CompiledPEWMASampling;
+import org.aeros.base.PEWMASamplingState;
+import org.aeros.base.config.PEWMASamplingConfiguration;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+import org.slf4j.Logger;
+
+/**
+ * Scheduler polling the states of IEs according to the sampling periods estimated by PEWMA sampling.
+ * <p>
+ * The next poll deadline of each IE is kept in a {@link TimingWheel}. A single scheduling thread wakes up once per
+ * tick, retrieves the IEs whose deadlines expired and dispatches them, in batches of IEs due in the same tick, to
+ * virtual threads. Each batch polls the states of its IEs, passes them to the state consumer, estimates the next
+ * sampling periods ({@link CompiledPEWMASampling}) and re-schedules the IEs. The scheduling thread is parked when no
+ * IE is scheduled, so the number of wake-ups is bounded by the tick rate, while the polling jitter is bounded by the
+ * tick duration. The timing wheel is driven by the monotonic clock ({@link System#nanoTime()}), counted in milliseconds
+ * since the creation of the scheduler, so that steps of the wall clock neither fire nor stall the scheduled polls.
+ * Epoch times of the first polls are converted to the monotonic clock on registration.
+ * <p>
+ * The models of IEs are stored in a {@link PEWMASamplingState} allocated for a fixed number of IEs. Since each IE is
+ * scheduled at most once at a time, its models are never updated concurrently.
+ */
+public class SamplingScheduler implements AutoCloseable {
+
+	private static final Logger logger = getLogger(SamplingScheduler.class);
+
+	private final CompiledPEWMASampling samplingAlgorithm;
+	private final IEStatePoller statePoller;
+	private final Consumer<TestInfrastructureElementStateREST> stateConsumer;
+	private final int maxBatchSize;
+	private final long originTime;
+	private final long originNanoTime;
+
+	private final ReentrantLock lock;
+	private final Condition isScheduled;
+	private final TimingWheel timingWheel;
+	private final Map<String, Integer> entries;
+	private final List<String> ieIds;
+	private final ExecutorService executor;
+	private final Thread schedulingThread;
+
+	private final LongAdder pollsCount;
+	private final LongAdder failedPollsCount;
+	private final LongAdder batchesCount;
+
+	private final PEWMASamplingState samplingState;
+	private final long[] deadlines;
+	private long wakeUpsCount;
+	private long totalLateness;
+	private long maxLateness;
+	private long dispatchedCount;
+	private volatile boolean isRunning;
+
+	/**
+	 * Default constructor. The scheduler starts immediately.
+	 *
+	 * @param samplingModelConfiguration configuration of PEWMA sampling models
+	 * @param statePoller                source of the IE states
+	 * @param stateConsumer              consumer of the polled IE states (called concurrently by virtual threads)
+	 * @param capacity                   maximal number of registered IEs
+	 * @param tickDuration               duration of a single tick of the timing wheel (in milliseconds)
+	 * @param maxBatchSize               maximal number of IEs polled by a single virtual thread
+	 */
+	public SamplingScheduler(final PEWMASamplingConfiguration samplingModelConfiguration,
+			final IEStatePoller statePoller,
+			final Consumer<TestInfrastructureElementStateREST> stateConsumer,
+			final int capacity,
+			final long tickDuration,
+			final int maxBatchSize) {
+		this.samplingAlgorithm = new CompiledPEWMASampling(samplingModelConfiguration);
+		this.statePoller = statePoller;
+		this.stateConsumer = stateConsumer;
+		this.maxBatchSize = maxBatchSize;
+		this.originTime = System.currentTimeMillis();
+		this.originNanoTime = System.nanoTime();
+
+		this.lock = new ReentrantLock();
+		this.isScheduled = lock.newCondition();
+		this.timingWheel = new TimingWheel(tickDuration, 0, capacity);
+		this.entries = new HashMap<>();
+		this.ieIds = new ArrayList<>();
+		this.executor = Executors.newVirtualThreadPerTaskExecutor();
+
+		this.pollsCount = new LongAdder();
+		this.failedPollsCount = new LongAdder();
+		this.batchesCount = new LongAdder();
+
+		this.samplingState = new PEWMASamplingState(capacity * METRICS_COUNT);
+		this.deadlines = new long[capacity];
+		this.isRunning = true;
+		this.schedulingThread = Thread.ofPlatform().name("sampling-scheduler").daemon().start(this::runScheduling);
+	}
+
+	/**
+	 * Method registers IE, which is to be polled for the first time at a given time.
+	 *
+	 * @param ieId          identifier of IE
+	 * @param firstPollTime epoch time of the first poll (in milliseconds)
+	 */
+	public void register(final String ieId, final long firstPollTime) {
+		lock.lock();
+		try {
+			if (entries.containsKey(ieId)) {
+				throw new IllegalArgumentException(format("IE %s is already registered.", ieId));
+			}
+
+			if (ieIds.size() == deadlines.length) {
+				throw new IllegalStateException(format("Maximal number of %d IEs is already registered.",
+						deadlines.length));
+			}
+
+			final int entry = ieIds.size();
+			entries.put(ieId, entry);
+			ieIds.add(ieId);
+			schedule(entry, firstPollTime - originTime);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return number of registered IEs
+	 */
+	public int getRegisteredElementsCount() {
+		lock.lock();
+		try {
+			return ieIds.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return number of completed polls
+	 */
+	public long getPollsCount() {
+		return pollsCount.sum();
+	}
+
+	/**
+	 * @return number of polls that failed
+	 */
+	public long getFailedPollsCount() {
+		return failedPollsCount.sum();
+	}
+
+	/**
+	 * @return number of dispatched batches of polls
+	 */
+	public long getBatchesCount() {
+		return batchesCount.sum();
+	}
+
+	/**
+	 * @return number of wake-ups of the scheduling thread
+	 */
+	public long getWakeUpsCount() {
+		lock.lock();
+		try {
+			return wakeUpsCount;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return mean delay between the poll deadlines and dispatching of polls (in milliseconds)
+	 */
+	public double getMeanLateness() {
+		lock.lock();
+		try {
+			return dispatchedCount == 0 ? 0 : (double) totalLateness / dispatchedCount;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return maximal delay between the poll deadline and dispatching of a poll (in milliseconds)
+	 */
+	public long getMaxLateness() {
+		lock.lock();
+		try {
+			return maxLateness;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void close() {
+		isRunning = false;
+		schedulingThread.interrupt();
+		try {
+			schedulingThread.join();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		executor.close();
+	}
+
+	private void runScheduling() {
+		final int[] batch = new int[maxBatchSize];
+
+		while (isRunning) {
+			lock.lock();
+			try {
+				wakeUpsCount++;
+				dispatchExpiredPolls(batch);
+
+				if (timingWheel.size() == 0) {
+					isScheduled.await();
+				} else {
+					final long waitTime = timingWheel.getNextTickTime() - getCurrentTime();
+					if (waitTime > 0) {
+						isScheduled.await(waitTime, TimeUnit.MILLISECONDS);
+					}
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	private void dispatchExpiredPolls(final int[] batch) {
+		final long currentTime = getCurrentTime();
+		int count;
+
+		while ((count = timingWheel.pollExpired(currentTime, batch)) > 0) {
+			final int[] batchEntries = Arrays.copyOf(batch, count);
+			final String[] batchIeIds = new String[count];
+			final int[] firstSlots = new int[count];
+
+			for (int i = 0; i < count; i++) {
+				final long lateness = Math.max(0, currentTime - deadlines[batchEntries[i]]);
+				totalLateness += lateness;
+				maxLateness = Math.max(maxLateness, lateness);
+				batchIeIds[i] = ieIds.get(batchEntries[i]);
+				firstSlots[i] = batchEntries[i] * METRICS_COUNT;
+			}
+			dispatchedCount += count;
+			batchesCount.increment();
+			executor.execute(() -> pollBatch(batchEntries, batchIeIds, firstSlots));
+		}
+	}
+
+	private void pollBatch(final int[] batchEntries, final String[] batchIeIds, final int[] firstSlots) {
+		final double[] observations = new double[METRICS_COUNT];
+		final long[] nextPollTimes = new long[batchEntries.length];
+
+		for (int i = 0; i < batchEntries.length; i++) {
+			final long pollTime = getCurrentTime();
+			try {
+				final TestInfrastructureElementStateREST state = statePoller.pollState(batchIeIds[i]);
+				samplingAlgorithm.readObservations(state, observations);
+				stateConsumer.accept(state);
+				nextPollTimes[i] = pollTime + samplingAlgorithm.estimateSamplingPeriod(samplingState,
+						firstSlots[i], observations);
+				pollsCount.increment();
+			} catch (final RuntimeException e) {
+				logger.warn("Couldn't poll the state of IE {}.", batchIeIds[i], e);
+				nextPollTimes[i] = pollTime + samplingAlgorithm.getMinPeriod();
+				failedPollsCount.increment();
+			}
+		}
+
+		lock.lock();
+		try {
+			for (int i = 0; i < batchEntries.length; i++) {
+				schedule(batchEntries[i], nextPollTimes[i]);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private long getCurrentTime() {
+		return NANOSECONDS.toMillis(System.nanoTime() - originNanoTime);
+	}
+
+	private void schedule(final int entry, final long deadline) {
+		final boolean isWheelEmpty = timingWheel.size() == 0;
+
+		deadlines[entry] = deadline;
+		timingWheel.schedule(entry, deadline);
+		if (isWheelEmpty) {
+			isScheduled.signal();
+		}
+	}
+}
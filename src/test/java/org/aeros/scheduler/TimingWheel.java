@@ -0,0 +1,151 @@
+package org.aeros.scheduler;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel storing deadlines of entries identified by consecutive integers (e.g. indexes of IEs).
+ * <p>
+ * The wheel consists of {@link #LEVELS} levels of {@link #WHEEL_SIZE} buckets. A bucket of the first level covers a
+ * single tick, while a bucket of each next level covers all ticks of the previous level. Entries whose deadlines are
+ * beyond the range of the wheel are kept in the last level and re-inserted once it is cascaded. The buckets are
+ * singly-linked lists stored in primitive arrays, so scheduling and expiration of entries do not allocate any objects.
+ * <p>
+ * The wheel is not thread-safe.
+ */
+public class TimingWheel {
+
+	public static final int LEVELS = 4;
+	public static final int WHEEL_SIZE = 64;
+
+	private static final int WHEEL_BITS = Integer.numberOfTrailingZeros(WHEEL_SIZE);
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+	private static final int NO_ENTRY = -1;
+
+	private final long tickDuration;
+	private final long startTime;
+	private final int[][] buckets;
+
+	private int[] nextEntries;
+	private long[] deadlineTicks;
+	private long currentTick;
+	private int expiringEntry;
+	private int size;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param tickDuration duration of a single tick (in milliseconds)
+	 * @param startTime    time corresponding to the first tick (in milliseconds)
+	 * @param capacity     expected number of entries
+	 */
+	public TimingWheel(final long tickDuration, final long startTime, final int capacity) {
+		this.tickDuration = tickDuration;
+		this.startTime = startTime;
+		this.buckets = new int[LEVELS][WHEEL_SIZE];
+		this.nextEntries = new int[Math.max(1, capacity)];
+		this.deadlineTicks = new long[Math.max(1, capacity)];
+		this.expiringEntry = NO_ENTRY;
+
+		Arrays.stream(buckets).forEach(bucket -> Arrays.fill(bucket, NO_ENTRY));
+	}
+
+	/**
+	 * Method schedules the entry. Entries with deadlines that have already passed expire at the next tick.
+	 *
+	 * @param entry    identifier of the entry (it must not be already scheduled)
+	 * @param deadline deadline of the entry (in milliseconds)
+	 */
+	public void schedule(final int entry, final long deadline) {
+		if (entry >= nextEntries.length) {
+			final int newCapacity = Math.max(entry + 1, nextEntries.length * 2);
+			nextEntries = Arrays.copyOf(nextEntries, newCapacity);
+			deadlineTicks = Arrays.copyOf(deadlineTicks, newCapacity);
+		}
+		deadlineTicks[entry] = Math.max(currentTick + 1, Math.floorDiv(deadline - startTime, tickDuration));
+		insert(entry);
+		size++;
+	}
+
+	/**
+	 * Method retrieves a batch of expired entries. All entries of a single batch expire at the same tick, so that
+	 * the entries due in the same bucket are coalesced.
+	 *
+	 * @param currentTime current time (in milliseconds)
+	 * @param batch       array to which expired entries are written
+	 * @return number of expired entries written to the batch (0 if no entry has expired)
+	 */
+	public int pollExpired(final long currentTime, final int[] batch) {
+		final long targetTick = Math.floorDiv(currentTime - startTime, tickDuration);
+		int count = 0;
+
+		while (count < batch.length) {
+			if (expiringEntry != NO_ENTRY) {
+				batch[count++] = expiringEntry;
+				expiringEntry = nextEntries[expiringEntry];
+			} else if (count > 0 || currentTick >= targetTick) {
+				break;
+			} else if (size == 0) {
+				currentTick = targetTick;
+			} else {
+				advance();
+			}
+		}
+		size -= count;
+		return count;
+	}
+
+	/**
+	 * @return number of scheduled entries
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return time at which the next tick starts (in milliseconds)
+	 */
+	public long getNextTickTime() {
+		return startTime + (currentTick + 1) * tickDuration;
+	}
+
+	private void advance() {
+		currentTick++;
+		for (int level = 1; level < LEVELS && (currentTick & (1L << WHEEL_BITS * level) - 1) == 0; level++) {
+			final int bucketIdx = (int) (currentTick >>> WHEEL_BITS * level) & WHEEL_MASK;
+			int entry = buckets[level][bucketIdx];
+
+			buckets[level][bucketIdx] = NO_ENTRY;
+			while (entry != NO_ENTRY) {
+				final int nextEntry = nextEntries[entry];
+				insert(entry);
+				entry = nextEntry;
+			}
+		}
+
+		final int bucketIdx = (int) currentTick & WHEEL_MASK;
+		expiringEntry = buckets[0][bucketIdx];
+		buckets[0][bucketIdx] = NO_ENTRY;
+	}
+
+	private void insert(final int entry) {
+		final long deadlineTick = deadlineTicks[entry];
+
+		for (int level = 0; level < LEVELS; level++) {
+			final int levelShift = WHEEL_BITS * level;
+			// buckets of the level are cyclic, so the deadline must be less than a full turn of the level ahead
+			if ((deadlineTick >>> levelShift) - (currentTick >>> levelShift) < WHEEL_SIZE) {
+				addToBucket(level, (int) (deadlineTick >>> levelShift) & WHEEL_MASK, entry);
+				return;
+			}
+		}
+
+		// deadline beyond the range of the wheel - the entry is re-inserted once the last bucket is cascaded
+		final int lastLevel = LEVELS - 1;
+		addToBucket(lastLevel, (int) ((currentTick >>> WHEEL_BITS * lastLevel) + WHEEL_MASK) & WHEEL_MASK, entry);
+	}
+
+	private void addToBucket(final int level, final int bucketIdx, final int entry) {
+		nextEntries[entry] = buckets[level][bucketIdx];
+		buckets[level][bucketIdx] = entry;
+	}
+}
@@ -0,0 +1,144 @@
+package org.aeros.scheduler;
+
+import static org.aeros.scheduler.TimingWheel.LEVELS;
+import static org.aeros.scheduler.TimingWheel.WHEEL_SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the timing wheel driven by a manual clock. The tick at which each entry expires is derived from
+ * {@link TimingWheel#getNextTickTime()} after each poll and compared with the tick of its deadline.
+ */
+public class TimingWheelTest {
+
+	private static final long TICK_DURATION = 10;
+	private static final long START_TIME = 1_000;
+	private static final long WHEEL_RANGE = 1L << 6 * LEVELS;
+
+	@Test
+	void expireEntriesOfAllLevels() {
+		final List<Long> deadlineTicks = LongStream.range(1, LEVELS + 1)
+				.map(level -> 1L << 6 * level)
+				.flatMap(levelRange -> LongStream.of(levelRange - 1, levelRange, levelRange + 1, 3 * levelRange + 5))
+				.filter(deadlineTick -> deadlineTick < WHEEL_RANGE)
+				.boxed()
+				.toList();
+		final TimingWheel wheel = new TimingWheel(TICK_DURATION, START_TIME, deadlineTicks.size());
+		final Map<Integer, Long> expectedTicks = new HashMap<>();
+
+		IntStream.range(0, deadlineTicks.size()).forEach(entry -> {
+			wheel.schedule(entry, getTickTime(deadlineTicks.get(entry)) + entry % TICK_DURATION);
+			expectedTicks.put(entry, deadlineTicks.get(entry));
+		});
+
+		assertEquals(expectedTicks, pollExpired(wheel, getTickTime(WHEEL_RANGE), 64));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void expireEntriesBeyondRange() {
+		final TimingWheel wheel = new TimingWheel(TICK_DURATION, START_TIME, 1);
+		final long[] deadlineTicks =
+				{ WHEEL_RANGE - 1, WHEEL_RANGE, WHEEL_RANGE + WHEEL_SIZE + 3, 3 * WHEEL_RANGE + 7 };
+		final Map<Integer, Long> expectedTicks = new HashMap<>();
+
+		pollExpired(wheel, getTickTime(12_345), 1);
+		for (int entry = 0; entry < deadlineTicks.length; entry++) {
+			final long deadlineTick = 12_345 + deadlineTicks[entry];
+
+			wheel.schedule(entry, getTickTime(deadlineTick));
+			expectedTicks.put(entry, deadlineTick);
+		}
+
+		assertEquals(Map.of(), pollExpired(wheel, getTickTime(12_345 + WHEEL_RANGE - 2), 8));
+		assertEquals(expectedTicks, pollExpired(wheel, getTickTime(4 * WHEEL_RANGE), 8));
+	}
+
+	@Test
+	void expireDueEntriesAtNextTick() {
+		final TimingWheel wheel = new TimingWheel(TICK_DURATION, START_TIME, 4);
+
+		pollExpired(wheel, getTickTime(100), 1);
+		wheel.schedule(0, START_TIME - 5 * TICK_DURATION);
+		wheel.schedule(1, getTickTime(50));
+		wheel.schedule(2, getTickTime(100) + TICK_DURATION - 1);
+
+		assertEquals(Map.of(0, 101L, 1, 101L, 2, 101L), pollExpired(wheel, getTickTime(101), 4));
+		assertEquals(101, (wheel.getNextTickTime() - START_TIME) / TICK_DURATION - 1);
+	}
+
+	@Test
+	void coalesceEntriesOfSingleTick() {
+		final TimingWheel wheel = new TimingWheel(TICK_DURATION, START_TIME, 5);
+		final int[] batch = new int[2];
+
+		IntStream.range(0, 3).forEach(entry -> wheel.schedule(entry, getTickTime(70) + 3 * entry));
+		wheel.schedule(3, getTickTime(71));
+		wheel.schedule(4, getTickTime(70 + WHEEL_SIZE * WHEEL_SIZE));
+
+		assertEquals(2, wheel.pollExpired(getTickTime(1_000), batch));
+		assertEquals(1, wheel.pollExpired(getTickTime(1_000), batch));
+		assertEquals(70, (wheel.getNextTickTime() - START_TIME) / TICK_DURATION - 1);
+		assertEquals(1, wheel.pollExpired(getTickTime(1_000), batch));
+		assertEquals(3, batch[0]);
+		assertEquals(0, wheel.pollExpired(getTickTime(1_000), batch));
+		assertEquals(1, wheel.size());
+	}
+
+	@Test
+	void expireRandomEntries() {
+		final Random random = new Random(42);
+		final TimingWheel wheel = new TimingWheel(TICK_DURATION, START_TIME, 1);
+		final Map<Integer, Long> expectedTicks = new HashMap<>();
+		final Map<Integer, Long> expiredTicks = new HashMap<>();
+		int nextEntry = 0;
+
+		for (int round = 0; round < 20; round++) {
+			final long currentTick = (wheel.getNextTickTime() - START_TIME) / TICK_DURATION - 1;
+
+			for (int i = 0; i < 500; i++) {
+				final long deadlineTick = currentTick + (random.nextInt(10) == 0
+						? WHEEL_RANGE + random.nextLong(WHEEL_RANGE)
+						: random.nextLong(-2, 1L << 6 * random.nextInt(1, LEVELS + 1)));
+
+				wheel.schedule(nextEntry, getTickTime(deadlineTick) + random.nextLong(TICK_DURATION));
+				expectedTicks.put(nextEntry++, Math.max(currentTick + 1, deadlineTick));
+			}
+			pollExpired(wheel, getTickTime(currentTick + random.nextLong(1L << 20)), 16)
+					.forEach((entry, tick) -> assertNull(expiredTicks.put(entry, tick)));
+		}
+		pollExpired(wheel, getTickTime(3 * WHEEL_RANGE), 16)
+				.forEach((entry, tick) -> assertNull(expiredTicks.put(entry, tick)));
+
+		assertEquals(expectedTicks, expiredTicks);
+		assertEquals(0, wheel.size());
+	}
+
+	private Map<Integer, Long> pollExpired(final TimingWheel wheel, final long currentTime, final int batchSize) {
+		final Map<Integer, Long> expiredTicks = new HashMap<>();
+		final int[] batch = new int[batchSize];
+		int count;
+
+		while ((count = wheel.pollExpired(currentTime, batch)) > 0) {
+			final long tick = (wheel.getNextTickTime() - START_TIME) / TICK_DURATION - 1;
+
+			for (int i = 0; i < count; i++) {
+				assertNull(expiredTicks.put(batch[i], tick));
+			}
+		}
+		return expiredTicks;
+	}
+
+	private long getTickTime(final long tick) {
+		return START_TIME + tick * TICK_DURATION;
+	}
+}
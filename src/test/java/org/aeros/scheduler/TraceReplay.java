@@ -0,0 +1,78 @@
+package org.aeros.scheduler;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.aeros.domain.TestInfrastructureElementStateREST;
+
+/**
+ * Provider of IE states replaying scenario traces in real time, e.g. for {@link IEStateStandInServer}.
+ * <p>
+ * Each registered IE replays a trace starting at a given offset, advancing by one state per observation interval
+ * since the start of the replay (and wrapping around at the end of the trace). Elapsed time is measured with the
+ * monotonic clock, so that the replay isn't affected by adjustments of the system time. Returned states are copies of
+ * the states of the trace with the identifier of the IE, so that many IEs can share the same trace.
+ */
+public class TraceReplay implements Function<String, TestInfrastructureElementStateREST> {
+
+	private final long startNanoTime;
+	private final long observationIntervalNanos;
+	private final Map<String, ReplayedTrace> replayedTraces;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param startTime           time at which the replay starts (epoch time in milliseconds, which may be in the past
+	 *                            or in the future)
+	 * @param observationInterval interval between consecutive states of the traces (in milliseconds)
+	 */
+	public TraceReplay(final long startTime, final long observationInterval) {
+		this.startNanoTime = System.nanoTime() - MILLISECONDS.toNanos(System.currentTimeMillis() - startTime);
+		this.observationIntervalNanos = MILLISECONDS.toNanos(observationInterval);
+		this.replayedTraces = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Method registers IE replaying a given trace.
+	 *
+	 * @param ieId   identifier of IE
+	 * @param trace  replayed trace
+	 * @param offset index of the state of the trace returned at the start of the replay
+	 */
+	public void register(final String ieId, final List<TestInfrastructureElementStateREST> trace, final int offset) {
+		replayedTraces.put(ieId, new ReplayedTrace(trace, offset));
+	}
+
+	/**
+	 * Method returns the current state of IE.
+	 *
+	 * @param ieId identifier of IE
+	 * @return current IE state or null, if IE is not registered
+	 */
+	@Override
+	public TestInfrastructureElementStateREST apply(final String ieId) {
+		final ReplayedTrace replayedTrace = replayedTraces.get(ieId);
+
+		if (replayedTrace == null) {
+			return null;
+		}
+
+		final List<TestInfrastructureElementStateREST> trace = replayedTrace.trace();
+		// before the start of the replay, the elapsed time is negative and states preceding the offset are returned
+		final long elapsedStates = Math.floorDiv(System.nanoTime() - startNanoTime, observationIntervalNanos);
+		final TestInfrastructureElementStateREST state =
+				trace.get(Math.floorMod(replayedTrace.offset() + elapsedStates, trace.size()));
+
+		return new TestInfrastructureElementStateREST(ieId, state.getCpuCores(), state.getCurrentCpuUsage(),
+				state.getRamCapacity(), state.getAvailableRam(), state.getCurrentRamUsage(),
+				state.getCurrentRamUsagePct(), state.getDiskCapacity(), state.getAvailableDisk(),
+				state.getCurrentDiskUsage(), state.getCurrentDiskUsagePct(), state.getRealTimeCapable());
+	}
+
+	private record ReplayedTrace(List<TestInfrastructureElementStateREST> trace, int offset) {
+	}
+}
@@ -0,0 +1,48 @@
+package org.aeros.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.aeros.domain.TestInfrastructureElementStateREST;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the replay of traces. Observation interval of one hour is used, so that the replayed states don't change
+ * while the test is executed.
+ */
+public class TraceReplayTest {
+
+	private static final long OBSERVATION_INTERVAL = 3_600_000;
+	private static final int TRACE_LENGTH = 7;
+
+	private final List<TestInfrastructureElementStateREST> trace = IntStream.range(0, TRACE_LENGTH)
+			.mapToObj(idx -> new TestInfrastructureElementStateREST("trace", 4, idx, 1024, 512, 512, 50, 2048, 1024,
+					1024, 50, true))
+			.toList();
+
+	@Test
+	void replayTraceFromOffset() {
+		final TraceReplay traceReplay =
+				new TraceReplay(System.currentTimeMillis() - 12 * OBSERVATION_INTERVAL - 1000, OBSERVATION_INTERVAL);
+
+		traceReplay.register("ie", trace, 3);
+
+		final TestInfrastructureElementStateREST state = traceReplay.apply("ie");
+		assertEquals("ie", state.getId());
+		assertEquals((3 + 12) % TRACE_LENGTH, state.getCurrentCpuUsage());
+		assertNull(traceReplay.apply("unknown"));
+	}
+
+	@Test
+	void replayStatesPrecedingOffsetBeforeStart() {
+		final TraceReplay traceReplay =
+				new TraceReplay(System.currentTimeMillis() + 10 * OBSERVATION_INTERVAL - 1000, OBSERVATION_INTERVAL);
+
+		traceReplay.register("ie", trace, 2);
+
+		assertEquals(Math.floorMod(2 - 10, TRACE_LENGTH), traceReplay.apply("ie").getCurrentCpuUsage());
+	}
+}
@@ -0,0 +1,285 @@
+package org.aeros.utils;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reader of CSV files (e.g. results of NAB benchmark), which parses fields directly from the bytes of the file.
+ * <p>
+ * Rows are located by their offsets in the underlying buffer and only the fields that are requested are parsed, so
+ * neither lines nor unused fields are copied into strings. Files are expected to contain a header row, fields
+ * separated with commas and rows separated with {@code \n} or {@code \r\n}. Fields may be enclosed in double quotes
+ * (in which case they may contain separators, line breaks and quotes escaped by doubling them), as in RFC 4180.
+ */
+public class CsvReader {
+
+	private static final byte SEPARATOR = ',';
+	private static final byte NEW_LINE = '\n';
+	private static final byte CARRIAGE_RETURN = '\r';
+	private static final byte QUOTE = '"';
+
+	private static final int MAX_FAST_PATH_DIGITS = 15;
+	private static final int MAX_FAST_PATH_EXPONENT = 22;
+	private static final double[] POWERS_OF_TEN = new double[MAX_FAST_PATH_EXPONENT + 1];
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i <= MAX_FAST_PATH_EXPONENT; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	private final ByteBuffer data;
+	private final int limit;
+	private final int firstRowStart;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param data content of the CSV file (the buffer is read between its position and limit)
+	 */
+	public CsvReader(final ByteBuffer data) {
+		this.data = data.slice();
+		this.limit = this.data.limit();
+		this.firstRowStart = getNextRowStart(0);
+	}
+
+	/**
+	 * Method opens CSV file from the resources. Files are mapped into memory, while other resources (e.g. the ones
+	 * packed in JAR) are read into a buffer.
+	 *
+	 * @param resourcePath path to the resource
+	 * @return CSV reader
+	 */
+	public static CsvReader fromResource(final String resourcePath) {
+		final URL resourceUrl = CsvReader.class.getClassLoader().getResource(resourcePath);
+
+		if (resourceUrl == null) {
+			throw new IllegalArgumentException(format("CSV file %s doesn't exist.", resourcePath));
+		}
+
+		try {
+			if ("file".equals(resourceUrl.getProtocol())) {
+				try (final FileChannel channel = FileChannel.open(Path.of(resourceUrl.toURI()), READ)) {
+					return new CsvReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+				}
+			}
+			try (final InputStream inputStream = resourceUrl.openStream()) {
+				return new CsvReader(ByteBuffer.wrap(inputStream.readAllBytes()));
+			}
+		} catch (final IOException | URISyntaxException e) {
+			throw new RuntimeException(format("Couldn't read CSV file %s.", resourcePath), e);
+		}
+	}
+
+	/**
+	 * Method iterates over the rows of the file (skipping the header).
+	 *
+	 * @param rowConsumer consumer accepting the index (starting from 0 for the first row after the header) and the
+	 *                    offset of each row
+	 */
+	public void forEachRow(final RowConsumer rowConsumer) {
+		int rowIdx = 0;
+
+		for (int rowStart = firstRowStart; rowStart < limit; rowStart = getNextRowStart(rowStart)) {
+			rowConsumer.accept(rowIdx++, rowStart);
+		}
+	}
+
+	/**
+	 * Method builds an index of rows by the values of a given column. If a value occurs in several rows, the first
+	 * one is indexed.
+	 *
+	 * @param keyColumn index of the column containing keys
+	 * @return map of keys to offsets of rows
+	 */
+	public Map<String, Integer> indexRows(final int keyColumn) {
+		final Map<String, Integer> rowsIndex = new HashMap<>();
+		forEachRow((rowIdx, rowStart) -> rowsIndex.putIfAbsent(getString(rowStart, keyColumn), rowStart));
+		return rowsIndex;
+	}
+
+	/**
+	 * @param rowStart offset of the row
+	 * @param column   index of the column
+	 * @return value of the field decoded as UTF-8 string (without enclosing quotes)
+	 */
+	public String getString(final int rowStart, final int column) {
+		final int fieldStart = getFieldStart(rowStart, column);
+
+		if (fieldStart < limit && data.get(fieldStart) == QUOTE) {
+			final byte[] bytes = new byte[getClosingQuote(fieldStart) - fieldStart - 1];
+
+			data.get(fieldStart + 1, bytes);
+			return new String(bytes, UTF_8).replace("\"\"", "\"");
+		}
+
+		final byte[] bytes = new byte[getFieldEnd(fieldStart) - fieldStart];
+
+		data.get(fieldStart, bytes);
+		return new String(bytes, UTF_8);
+	}
+
+	/**
+	 * Method parses a field as a double. Decimal numbers with at most 15 significant digits are converted directly
+	 * from bytes (which is exact), while the remaining ones are parsed by {@link Double#parseDouble(String)}.
+	 *
+	 * @param rowStart offset of the row
+	 * @param column   index of the column
+	 * @return value of the field
+	 */
+	public double getDouble(final int rowStart, final int column) {
+		final int fieldStart = getFieldStart(rowStart, column);
+		final int fieldEnd = getFieldEnd(fieldStart);
+		final double value = parseDoubleFastPath(fieldStart, fieldEnd);
+
+		return Double.isNaN(value) ? Double.parseDouble(getString(rowStart, column)) : value;
+	}
+
+	private double parseDoubleFastPath(final int fieldStart, final int fieldEnd) {
+		int position = fieldStart;
+		final boolean isNegative = position < fieldEnd && data.get(position) == '-';
+		if (isNegative || (position < fieldEnd && data.get(position) == '+')) {
+			position++;
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int significantDigits = 0;
+		int exponent = 0;
+		boolean isFraction = false;
+
+		for (; position < fieldEnd; position++) {
+			final byte character = data.get(position);
+
+			if (character >= '0' && character <= '9') {
+				if (mantissa != 0 || character != '0') {
+					significantDigits++;
+				}
+				if (significantDigits > MAX_FAST_PATH_DIGITS) {
+					return Double.NaN;
+				}
+				mantissa = mantissa * 10 + (character - '0');
+				exponent -= isFraction ? 1 : 0;
+				digits++;
+			} else if (character == '.' && !isFraction) {
+				isFraction = true;
+			} else if ((character == 'e' || character == 'E') && digits > 0) {
+				final int exponentStart = position + 1;
+				final boolean isExponentNegative = exponentStart < fieldEnd && data.get(exponentStart) == '-';
+				int explicitExponent = 0;
+
+				position = isExponentNegative || (exponentStart < fieldEnd && data.get(exponentStart) == '+')
+						? exponentStart + 1
+						: exponentStart;
+				if (position == fieldEnd) {
+					return Double.NaN;
+				}
+				for (; position < fieldEnd; position++) {
+					final byte exponentCharacter = data.get(position);
+					if (exponentCharacter < '0' || exponentCharacter > '9'
+							|| explicitExponent > MAX_FAST_PATH_EXPONENT) {
+						return Double.NaN;
+					}
+					explicitExponent = explicitExponent * 10 + (exponentCharacter - '0');
+				}
+				exponent += isExponentNegative ? -explicitExponent : explicitExponent;
+			} else {
+				return Double.NaN;
+			}
+		}
+
+		if (digits == 0 || Math.abs(exponent) > MAX_FAST_PATH_EXPONENT) {
+			return Double.NaN;
+		}
+
+		final double value = exponent < 0
+				? mantissa / POWERS_OF_TEN[-exponent]
+				: mantissa * POWERS_OF_TEN[exponent];
+		return isNegative ? -value : value;
+	}
+
+	private int getFieldStart(final int rowStart, final int column) {
+		int fieldStart = rowStart;
+
+		for (int i = 0; i < column; i++) {
+			final int fieldEnd = getFieldEnd(fieldStart);
+			if (fieldEnd == limit || data.get(fieldEnd) != SEPARATOR) {
+				throw new IllegalArgumentException(
+						format("Row at offset %d doesn't have column %d.", rowStart, column));
+			}
+			fieldStart = fieldEnd + 1;
+		}
+		return fieldStart;
+	}
+
+	private int getFieldEnd(final int fieldStart) {
+		int position = fieldStart < limit && data.get(fieldStart) == QUOTE
+				? getClosingQuote(fieldStart) + 1
+				: fieldStart;
+
+		while (position < limit) {
+			final byte character = data.get(position);
+			if (character == SEPARATOR || character == NEW_LINE) {
+				break;
+			}
+			position++;
+		}
+		final boolean isRowEnd = position == limit || data.get(position) == NEW_LINE;
+		return isRowEnd && position > fieldStart && data.get(position - 1) == CARRIAGE_RETURN
+				? position - 1
+				: position;
+	}
+
+	private int getClosingQuote(final int openingQuote) {
+		for (int position = openingQuote + 1; position < limit; position++) {
+			if (data.get(position) == QUOTE) {
+				if (position + 1 == limit || data.get(position + 1) != QUOTE) {
+					return position;
+				}
+				position++;
+			}
+		}
+		throw new IllegalArgumentException(format("Quoted field at offset %d is not terminated.", openingQuote));
+	}
+
+	private int getNextRowStart(final int rowStart) {
+		boolean isQuoted = false;
+
+		for (int position = rowStart; position < limit; position++) {
+			final byte character = data.get(position);
+
+			if (character == QUOTE) {
+				// escaped quotes toggle the state twice, so only enclosing quotes have an effect
+				isQuoted = !isQuoted;
+			} else if (character == NEW_LINE && !isQuoted) {
+				return position + 1;
+			}
+		}
+		return limit;
+	}
+
+	/**
+	 * Consumer of rows of CSV file.
+	 */
+	@FunctionalInterface
+	public interface RowConsumer {
+
+		/**
+		 * @param rowIdx   index of the row (starting from 0 for the first row after the header)
+		 * @param rowStart offset of the row
+		 */
+		void accept(int rowIdx, int rowStart);
+	}
+}
@@ -0,0 +1,115 @@
+package org.aeros.utils;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of the byte-level CSV parser. Parsed doubles are compared with the results of
+ * {@link Double#parseDouble(String)}, which must be identical on both the fast and the fallback path.
+ */
+public class CsvReaderTest {
+
+	@Test
+	void readQuotedFields() {
+		final CsvReader csvReader = createReader("name,value,comment\n"
+				+ "\"a,b\",1,\"say \"\"hi\"\"\"\n"
+				+ "\"multi\nline\",\"-2.5\",\n"
+				+ "\"\",3,plain\n");
+		final List<Integer> rowStarts = getRowStarts(csvReader);
+
+		assertEquals(3, rowStarts.size());
+		assertEquals("a,b", csvReader.getString(rowStarts.get(0), 0));
+		assertEquals(1, csvReader.getDouble(rowStarts.get(0), 1));
+		assertEquals("say \"hi\"", csvReader.getString(rowStarts.get(0), 2));
+		assertEquals("multi\nline", csvReader.getString(rowStarts.get(1), 0));
+		assertEquals(-2.5, csvReader.getDouble(rowStarts.get(1), 1));
+		assertEquals("", csvReader.getString(rowStarts.get(1), 2));
+		assertEquals("", csvReader.getString(rowStarts.get(2), 0));
+		assertEquals("plain", csvReader.getString(rowStarts.get(2), 2));
+		assertEquals(Map.of("a,b", rowStarts.get(0), "multi\nline", rowStarts.get(1), "", rowStarts.get(2)),
+				csvReader.indexRows(0));
+	}
+
+	@Test
+	void readRowsSeparatedWithCRLF() {
+		final CsvReader csvReader = createReader("key,value\r\nfirst,1.5\r\n\"second\",2\r\n");
+		final List<Integer> rowStarts = getRowStarts(csvReader);
+
+		assertEquals(2, rowStarts.size());
+		assertEquals("value", csvReader.getString(0, 1));
+		assertEquals("1.5", csvReader.getString(rowStarts.get(0), 1));
+		assertEquals(1.5, csvReader.getDouble(rowStarts.get(0), 1));
+		assertEquals("second", csvReader.getString(rowStarts.get(1), 0));
+		assertEquals(2, csvReader.getDouble(rowStarts.get(1), 1));
+	}
+
+	@Test
+	void readLastRowWithoutNewLine() {
+		final CsvReader csvReader = createReader("key,value\nfirst,1\nlast,-7e2");
+		final List<Integer> rowStarts = getRowStarts(csvReader);
+
+		assertEquals(2, rowStarts.size());
+		assertEquals("last", csvReader.getString(rowStarts.get(1), 0));
+		assertEquals(-700, csvReader.getDouble(rowStarts.get(1), 1));
+		assertEquals(0, getRowStarts(createReader("key,value")).size());
+	}
+
+	@Test
+	void parseDoublesOfVariousFormats() {
+		final Random random = new Random(42);
+		final List<String> values = new ArrayList<>(List.of("0", "-0", "-0.0", "+7", "007.50", ".5", "-.25", "1e3",
+				"1E+3", "-2.5E-3", "1e-22", "1e22", "1e23", "123.456e2", "0.000123e-20", "12345678901234567",
+				"0.1", "-0.30000000000000004", "4.9E-324", "1.7976931348623157E308", "NaN", "-Infinity"));
+
+		for (int i = 0; i < 3_000; i++) {
+			final double value = random.nextDouble(-1, 1) * Math.pow(10, random.nextInt(-30, 30));
+
+			values.add(switch (i % 4) {
+				case 0 -> Double.toString(value);
+				case 1 -> format(Locale.ROOT, "%.6f", value);
+				case 2 -> format(Locale.ROOT, "%.3e", value);
+				default -> Long.toString(random.nextLong());
+			});
+		}
+
+		final CsvReader csvReader = createReader("value\n" + String.join("\n", values) + "\n");
+		getRowStarts(csvReader).forEach(rowStart -> {
+			final String value = csvReader.getString(rowStart, 0);
+			assertEquals(Double.parseDouble(value), csvReader.getDouble(rowStart, 0), value);
+		});
+	}
+
+	@Test
+	void rejectMalformedRows() {
+		final CsvReader csvReader = createReader("key,value\nfirst\n\"unterminated,1\n");
+
+		assertThrows(IllegalArgumentException.class, () -> csvReader.getString(getRowStarts(csvReader).get(0), 1));
+		assertThrows(IllegalArgumentException.class, () -> csvReader.getString(getRowStarts(csvReader).get(1), 0));
+		assertThrows(NumberFormatException.class, () -> csvReader.getDouble(0, 0));
+	}
+
+	private CsvReader createReader(final String content) {
+		return new CsvReader(ByteBuffer.wrap(content.getBytes(UTF_8)));
+	}
+
+	private List<Integer> getRowStarts(final CsvReader csvReader) {
+		final List<Integer> rowStarts = new ArrayList<>();
+
+		csvReader.forEachRow((rowIdx, rowStart) -> {
+			assertEquals(rowStarts.size(), rowIdx);
+			rowStarts.add(rowStart);
+		});
+		return rowStarts;
+	}
+}
@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.function.ToDoubleFunction;
 import java.util.stream.IntStream;
 
+import org.aeros.domain.MonitoredTrace;
 import org.aeros.domain.TestInfrastructureElementStateREST;
 import org.knowm.xchart.BitmapEncoder;
 import org.knowm.xchart.XYChart;
@@ -98,7 +99,47 @@ public class ResultVisualization {
 			final String methodName,
 			final String metricType,
 			final String unit) {
-		final double[] monitoredSampleData = monitoredSamples.stream().mapToDouble(getMetricUtilization).toArray();
+		plotAndSaveSamplingCharts(realSamples, MonitoredTrace.fromList(monitoredSamples), getMetricUtilization,
+				getMetricCapacity, testTitle, methodName, metricType, unit);
+	}
+
+	/**
+	 * Method plots two charts of a monitored trace, which are then saved. The monitored sample is plotted as a step
+	 * function - with the points at which each taken sample starts and stops being held.
+	 *
+	 * @param realSamples          data of real sample that is to be visualized
+	 * @param monitoredTrace       trace of monitored sample that is to be visualized
+	 * @param getMetricUtilization function applied to retrieve relevant metric  data
+	 * @param getMetricCapacity    function applied to retrieve capacity of the metric
+	 * @param testTitle            details (i.e. type of conducted test) attached to the chart title
+	 * @param methodName           name of the method used in sampling
+	 * @param metricType           type of the metric for which the chart is plotted
+	 * @param unit                 unit of the metric for which the chart is plotted
+	 * @see #plotAndSaveSamplingCharts(List, List, ToDoubleFunction, ToDoubleFunction, String, String, String, String)
+	 */
+	public static void plotAndSaveSamplingCharts(final List<TestInfrastructureElementStateREST> realSamples,
+			final MonitoredTrace monitoredTrace,
+			final ToDoubleFunction<TestInfrastructureElementStateREST> getMetricUtilization,
+			final ToDoubleFunction<TestInfrastructureElementStateREST> getMetricCapacity,
+			final String testTitle,
+			final String methodName,
+			final String metricType,
+			final String unit) {
+		final double[] monitoredTimeStamps = new double[2 * monitoredTrace.getSamplesCount()];
+		final double[] monitoredSampleData = new double[2 * monitoredTrace.getSamplesCount()];
+		int pointsCount = 0;
+
+		for (int sampleIdx = 0; sampleIdx < monitoredTrace.getSamplesCount(); sampleIdx++) {
+			final double sampleValue = getMetricUtilization.applyAsDouble(monitoredTrace.getSample(sampleIdx));
+
+			monitoredTimeStamps[pointsCount] = monitoredTrace.getSampleStart(sampleIdx) + 1;
+			monitoredSampleData[pointsCount++] = sampleValue;
+			if (monitoredTrace.getHoldDuration(sampleIdx) > 1) {
+				monitoredTimeStamps[pointsCount] = monitoredTrace.getSampleEnd(sampleIdx);
+				monitoredSampleData[pointsCount++] = sampleValue;
+			}
+		}
+
 		final double[] realSampleData = realSamples.stream().mapToDouble(getMetricUtilization).toArray();
 		final double[] timeStamps = getTimeInterval(realSampleData.length);
 
@@ -106,7 +147,7 @@ public class ResultVisualization {
 		final String yAxisTitle = format("%s usage [%s]", capitalize(metricType), unit);
 
 		final XYChart monitoredChart = crateMonitoredSampleChart(metricType, yAxisTitle, methodName, maxYValue,
-				timeStamps, monitoredSampleData);
+				Arrays.copyOf(monitoredTimeStamps, pointsCount), Arrays.copyOf(monitoredSampleData, pointsCount));
 		final XYChart realChart = crateRealSampleChart(metricType, yAxisTitle, maxYValue, timeStamps, realSampleData);
 
 		saveChart(monitoredChart, "monitoredsample", testTitle);
@@ -0,0 +1,429 @@
+package org.aeros.utils;
+
+import static java.lang.String.format;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.aeros.domain.TestInfrastructureElementFlatState;
+
+/**
+ * Columnar binary cache of scenario data, opened by mapping the cache file into memory.
+ * <p>
+ * The cache file consists of a 64-byte header followed by one column of ints per field of
+ * {@link TestInfrastructureElementFlatState} (in the order of {@link Column}). The header stores the number of IE
+ * states together with the size, the modification time and the SHA-256 hash of the source JSON file. The cache is
+ * considered fresh when the size and the modification time of the source file match the header or, if only the
+ * modification time differs, when the hash of the source file matches the stored one. Otherwise, the source file is
+ * parsed again and the cache file is atomically replaced, so that it can be safely shared by several JVMs.
+ * <p>
+ * Opening a fresh cache does not read the columns - they are paged in by the operating system when accessed. The cache
+ * must be closed to unmap the file.
+ */
+public class ScenarioDataCache implements AutoCloseable {
+
+	private static final int MAGIC = 0x41455243;
+	private static final int VERSION = 1;
+	private static final String HASH_ALGORITHM = "SHA-256";
+	private static final int HASH_SIZE = 32;
+	private static final String CACHE_EXTENSION = ".bin";
+
+	private static final long MAGIC_OFFSET = 0;
+	private static final long VERSION_OFFSET = 4;
+	private static final long COLUMNS_COUNT_OFFSET = 8;
+	private static final long STATES_COUNT_OFFSET = 12;
+	private static final long SOURCE_SIZE_OFFSET = 16;
+	private static final long SOURCE_MODIFIED_OFFSET = 24;
+	private static final long SOURCE_HASH_OFFSET = 32;
+	private static final long HEADER_SIZE = 64;
+
+	private static final int INITIAL_CAPACITY = 1024;
+	private static final long NO_SOURCE = -1;
+
+	/**
+	 * Columns of the cache file, corresponding to the fields of {@link TestInfrastructureElementFlatState}.
+	 */
+	public enum Column {
+		CURRENT_CPU_USAGE,
+		AVAILABLE_RAM,
+		CURRENT_RAM_USAGE,
+		CURRENT_RAM_USAGE_PCT,
+		AVAILABLE_DISK,
+		CURRENT_DISK_USAGE,
+		CURRENT_DISK_USAGE_PCT,
+		REAL_TIME_CAPABLE
+	}
+
+	private static final int COLUMNS_COUNT = Column.values().length;
+
+	private final Arena arena;
+	private final MemorySegment segment;
+	private final int statesCount;
+
+	private ScenarioDataCache(final Arena arena, final MemorySegment segment) {
+		this.arena = arena;
+		this.segment = segment;
+		this.statesCount = segment.byteSize() >= HEADER_SIZE ? segment.get(JAVA_INT, STATES_COUNT_OFFSET) : 0;
+	}
+
+	/**
+	 * Method opens the cache of a given source file. If the cache file doesn't exist or is not fresh, it is
+	 * (re)created from the source file.
+	 *
+	 * @param sourcePath path to the JSON file with scenario data
+	 * @param cachePath  path to the cache file
+	 * @return opened cache
+	 */
+	public static ScenarioDataCache open(final Path sourcePath, final Path cachePath) {
+		try {
+			final long sourceSize = Files.size(sourcePath);
+			final long sourceModified = Files.getLastModifiedTime(sourcePath).toMillis();
+
+			if (Files.exists(cachePath)) {
+				final ScenarioDataCache cache = map(cachePath);
+				if (cache.isFresh(sourcePath, sourceSize, sourceModified)) {
+					return cache;
+				}
+				cache.close();
+			}
+
+			convert(sourcePath, cachePath, sourceSize, sourceModified);
+			return map(cachePath);
+		} catch (final IOException e) {
+			throw new RuntimeException(format("Couldn't open scenario data cache %s.", cachePath), e);
+		}
+	}
+
+	/**
+	 * Method opens an existing cache file without checking its source (e.g. a file with a generated trace).
+	 *
+	 * @param cachePath path to the cache file
+	 * @return opened cache
+	 */
+	public static ScenarioDataCache open(final Path cachePath) {
+		try {
+			final ScenarioDataCache cache = map(cachePath);
+			if (!cache.isValid()) {
+				cache.close();
+				throw new IllegalStateException(format("File %s is not a complete scenario data cache.", cachePath));
+			}
+			return cache;
+		} catch (final IOException e) {
+			throw new RuntimeException(format("Couldn't open scenario data cache %s.", cachePath), e);
+		}
+	}
+
+	/**
+	 * Method creates a writer of the cache file, to which IE states are written one by one (e.g. when a trace is
+	 * generated). The file is recognized as a cache only once all IE states are written and the writer is closed.
+	 *
+	 * @param cachePath   path to the cache file
+	 * @param statesCount number of IE states that are to be written
+	 * @return writer of the cache file
+	 */
+	public static Writer createWriter(final Path cachePath, final int statesCount) {
+		try {
+			return new Writer(cachePath, statesCount, NO_SOURCE, NO_SOURCE, new byte[HASH_SIZE]);
+		} catch (final IOException e) {
+			throw new RuntimeException(format("Couldn't create scenario data cache %s.", cachePath), e);
+		}
+	}
+
+	/**
+	 * Method resolves the path of the cache file of given scenario data.
+	 *
+	 * @param cacheDirectory       directory containing cache files
+	 * @param scenarioDataFileName name of the file with scenario data
+	 * @return path to the cache file
+	 */
+	public static Path getCachePath(final Path cacheDirectory, final String scenarioDataFileName) {
+		return cacheDirectory.resolve(scenarioDataFileName + CACHE_EXTENSION);
+	}
+
+	/**
+	 * @return number of cached IE states
+	 */
+	public int size() {
+		return statesCount;
+	}
+
+	/**
+	 * Method returns a column of the cache without copying it.
+	 *
+	 * @param column column of the cache
+	 * @return read-only memory segment containing the values of the column (ints in native byte order)
+	 */
+	public MemorySegment getColumn(final Column column) {
+		return segment.asSlice(getColumnOffset(column), (long) statesCount * Integer.BYTES);
+	}
+
+	/**
+	 * @param column column of the cache
+	 * @param idx    index of the IE state
+	 * @return value of a given column of the IE state
+	 */
+	public int getValue(final Column column, final int idx) {
+		return segment.getAtIndex(JAVA_INT, getColumnOffset(column) / Integer.BYTES + idx);
+	}
+
+	/**
+	 * @param idx index of the IE state
+	 * @return flat IE state
+	 */
+	public TestInfrastructureElementFlatState getState(final int idx) {
+		return new TestInfrastructureElementFlatState(getValue(Column.CURRENT_CPU_USAGE, idx),
+				getValue(Column.AVAILABLE_RAM, idx),
+				getValue(Column.CURRENT_RAM_USAGE, idx),
+				getValue(Column.CURRENT_RAM_USAGE_PCT, idx),
+				getValue(Column.AVAILABLE_DISK, idx),
+				getValue(Column.CURRENT_DISK_USAGE, idx),
+				getValue(Column.CURRENT_DISK_USAGE_PCT, idx),
+				getValue(Column.REAL_TIME_CAPABLE, idx) != 0);
+	}
+
+	/**
+	 * @return list view of cached IE states (states are created when accessed)
+	 */
+	public List<TestInfrastructureElementFlatState> asList() {
+		return new AbstractList<>() {
+			@Override
+			public TestInfrastructureElementFlatState get(final int idx) {
+				return getState(idx);
+			}
+
+			@Override
+			public int size() {
+				return statesCount;
+			}
+		};
+	}
+
+	/**
+	 * @return stream of cached IE states
+	 */
+	public Stream<TestInfrastructureElementFlatState> stream() {
+		return IntStream.range(0, statesCount).mapToObj(this::getState);
+	}
+
+	@Override
+	public void close() {
+		arena.close();
+	}
+
+	private long getColumnOffset(final Column column) {
+		return HEADER_SIZE + (long) column.ordinal() * statesCount * Integer.BYTES;
+	}
+
+	private boolean isValid() {
+		return segment.byteSize() >= HEADER_SIZE
+				&& segment.get(JAVA_INT, MAGIC_OFFSET) == MAGIC
+				&& segment.get(JAVA_INT, VERSION_OFFSET) == VERSION
+				&& segment.get(JAVA_INT, COLUMNS_COUNT_OFFSET) == COLUMNS_COUNT
+				&& segment.byteSize() == getFileSize(statesCount);
+	}
+
+	private boolean isFresh(final Path sourcePath, final long sourceSize, final long sourceModified)
+			throws IOException {
+		if (!isValid() || segment.get(JAVA_LONG, SOURCE_SIZE_OFFSET) != sourceSize) {
+			return false;
+		}
+		if (segment.get(JAVA_LONG, SOURCE_MODIFIED_OFFSET) == sourceModified) {
+			return true;
+		}
+
+		try (final InputStream inputStream = Files.newInputStream(sourcePath)) {
+			final MessageDigest digest = createDigest();
+			final DigestInputStream digestStream = new DigestInputStream(inputStream, digest);
+			digestStream.transferTo(OutputStream.nullOutputStream());
+			return Arrays.equals(digest.digest(), segment.asSlice(SOURCE_HASH_OFFSET, HASH_SIZE)
+					.toArray(ValueLayout.JAVA_BYTE));
+		}
+	}
+
+	private static ScenarioDataCache map(final Path cachePath) throws IOException {
+		final Arena arena = Arena.ofShared();
+
+		try (final FileChannel channel = FileChannel.open(cachePath, READ)) {
+			return new ScenarioDataCache(arena, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena));
+		} catch (final IOException | RuntimeException e) {
+			arena.close();
+			throw e;
+		}
+	}
+
+	private static void convert(final Path sourcePath, final Path cachePath, final long sourceSize,
+			final long sourceModified) throws IOException {
+		final MessageDigest digest = createDigest();
+		final int[][] columns = new int[COLUMNS_COUNT][INITIAL_CAPACITY];
+		int statesCount = 0;
+
+		final DigestInputStream digestStream = new DigestInputStream(Files.newInputStream(sourcePath), digest);
+		try (final Stream<TestInfrastructureElementFlatState> states =
+				ScenarioReader.streamFlatScenarioData(digestStream)) {
+			final Iterator<TestInfrastructureElementFlatState> iterator = states.iterator();
+
+			while (iterator.hasNext()) {
+				final TestInfrastructureElementFlatState state = iterator.next();
+				if (statesCount == columns[0].length) {
+					for (int column = 0; column < COLUMNS_COUNT; column++) {
+						columns[column] = Arrays.copyOf(columns[column], statesCount * 2);
+					}
+				}
+				columns[Column.CURRENT_CPU_USAGE.ordinal()][statesCount] = state.currentCpuUsage();
+				columns[Column.AVAILABLE_RAM.ordinal()][statesCount] = state.availableRam();
+				columns[Column.CURRENT_RAM_USAGE.ordinal()][statesCount] = state.currentRamUsage();
+				columns[Column.CURRENT_RAM_USAGE_PCT.ordinal()][statesCount] = state.currentRamUsagePct();
+				columns[Column.AVAILABLE_DISK.ordinal()][statesCount] = state.availableDisk();
+				columns[Column.CURRENT_DISK_USAGE.ordinal()][statesCount] = state.currentDiskUsage();
+				columns[Column.CURRENT_DISK_USAGE_PCT.ordinal()][statesCount] = state.currentDiskUsagePct();
+				columns[Column.REAL_TIME_CAPABLE.ordinal()][statesCount] = state.realTimeCapable() ? 1 : 0;
+				statesCount++;
+			}
+			// bytes following the array are also part of the hashed source
+			digestStream.transferTo(OutputStream.nullOutputStream());
+		}
+
+		Files.createDirectories(cachePath.toAbsolutePath().getParent());
+		final Path tempPath = Files.createTempFile(cachePath.toAbsolutePath().getParent(),
+				cachePath.getFileName().toString(), ".tmp");
+
+		try {
+			writeCacheFile(tempPath, columns, statesCount, sourceSize, sourceModified, digest.digest());
+			Files.move(tempPath, cachePath, ATOMIC_MOVE, REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(tempPath);
+		}
+	}
+
+	private static void writeCacheFile(final Path path, final int[][] columns, final int statesCount,
+			final long sourceSize, final long sourceModified, final byte[] sourceHash) throws IOException {
+		try (final Arena arena = Arena.ofConfined();
+				final FileChannel channel = FileChannel.open(path, READ, WRITE)) {
+			final MemorySegment segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, getFileSize(statesCount),
+					arena);
+
+			writeHeader(segment, statesCount, sourceSize, sourceModified, sourceHash);
+			for (int column = 0; column < COLUMNS_COUNT; column++) {
+				MemorySegment.copy(columns[column], 0, segment, JAVA_INT,
+						HEADER_SIZE + (long) column * statesCount * Integer.BYTES, statesCount);
+			}
+			// magic is written last, so that the file is not recognized as a cache until it is complete
+			segment.set(JAVA_INT, MAGIC_OFFSET, MAGIC);
+			segment.force();
+		}
+	}
+
+	private static void writeHeader(final MemorySegment segment, final int statesCount, final long sourceSize,
+			final long sourceModified, final byte[] sourceHash) {
+		segment.set(JAVA_INT, VERSION_OFFSET, VERSION);
+		segment.set(JAVA_INT, COLUMNS_COUNT_OFFSET, COLUMNS_COUNT);
+		segment.set(JAVA_INT, STATES_COUNT_OFFSET, statesCount);
+		segment.set(JAVA_LONG, SOURCE_SIZE_OFFSET, sourceSize);
+		segment.set(JAVA_LONG, SOURCE_MODIFIED_OFFSET, sourceModified);
+		MemorySegment.copy(sourceHash, 0, segment, ValueLayout.JAVA_BYTE, SOURCE_HASH_OFFSET, HASH_SIZE);
+	}
+
+	private static long getFileSize(final int statesCount) {
+		return HEADER_SIZE + (long) COLUMNS_COUNT * statesCount * Integer.BYTES;
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(format("Hash algorithm %s is not available.", HASH_ALGORITHM), e);
+		}
+	}
+
+	/**
+	 * Writer of the cache file, which writes IE states one by one directly to the mapped file.
+	 */
+	public static final class Writer implements AutoCloseable {
+
+		private final Arena arena;
+		private final MemorySegment segment;
+		private final int statesCount;
+		private final long[] columnOffsets;
+		private int writtenStatesCount;
+
+		private Writer(final Path cachePath, final int statesCount, final long sourceSize, final long sourceModified,
+				final byte[] sourceHash) throws IOException {
+			this.arena = Arena.ofConfined();
+			this.statesCount = statesCount;
+			this.columnOffsets = new long[COLUMNS_COUNT];
+
+			try (final FileChannel channel = FileChannel.open(cachePath, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+				this.segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, getFileSize(statesCount), arena);
+			} catch (final IOException | RuntimeException e) {
+				arena.close();
+				throw e;
+			}
+
+			writeHeader(segment, statesCount, sourceSize, sourceModified, sourceHash);
+			Arrays.setAll(columnOffsets, column -> HEADER_SIZE + (long) column * statesCount * Integer.BYTES);
+		}
+
+		/**
+		 * Method appends IE state to the cache file.
+		 *
+		 * @param state flat IE state
+		 */
+		public void write(final TestInfrastructureElementFlatState state) {
+			if (writtenStatesCount == statesCount) {
+				throw new IllegalStateException(format("All %d IE states were already written.", statesCount));
+			}
+
+			final long offset = (long) writtenStatesCount++ * Integer.BYTES;
+			segment.set(JAVA_INT, columnOffsets[Column.CURRENT_CPU_USAGE.ordinal()] + offset, state.currentCpuUsage());
+			segment.set(JAVA_INT, columnOffsets[Column.AVAILABLE_RAM.ordinal()] + offset, state.availableRam());
+			segment.set(JAVA_INT, columnOffsets[Column.CURRENT_RAM_USAGE.ordinal()] + offset, state.currentRamUsage());
+			segment.set(JAVA_INT, columnOffsets[Column.CURRENT_RAM_USAGE_PCT.ordinal()] + offset,
+					state.currentRamUsagePct());
+			segment.set(JAVA_INT, columnOffsets[Column.AVAILABLE_DISK.ordinal()] + offset, state.availableDisk());
+			segment.set(JAVA_INT, columnOffsets[Column.CURRENT_DISK_USAGE.ordinal()] + offset,
+					state.currentDiskUsage());
+			segment.set(JAVA_INT, columnOffsets[Column.CURRENT_DISK_USAGE_PCT.ordinal()] + offset,
+					state.currentDiskUsagePct());
+			segment.set(JAVA_INT, columnOffsets[Column.REAL_TIME_CAPABLE.ordinal()] + offset,
+					state.realTimeCapable() ? 1 : 0);
+		}
+
+		@Override
+		public void close() {
+			try {
+				if (writtenStatesCount != statesCount) {
+					throw new IllegalStateException(format("Only %d out of %d IE states were written.",
+							writtenStatesCount, statesCount));
+				}
+				segment.set(JAVA_INT, MAGIC_OFFSET, MAGIC);
+				segment.force();
+			} finally {
+				arena.close();
+			}
+		}
+	}
+}
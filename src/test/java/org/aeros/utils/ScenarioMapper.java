@@ -3,6 +3,8 @@ package org.aeros.utils;
 import java.util.List;
 import java.util.Map;
 
+import org.aeros.domain.TestInfrastructureElement;
+import org.aeros.domain.TestInfrastructureElementFlatState;
 import org.aeros.domain.TestInfrastructureElementStateREST;
 import org.aeros.domain.ScenarioDescription;
 import org.aeros.domain.TestInfrastructureElementState;
@@ -25,21 +27,71 @@ public class ScenarioMapper {
 			final ScenarioDescription scenarioDescription,
 			final List<TestInfrastructureElementState> infrastructureElementStates) {
 		return infrastructureElementStates.stream()
-				.map(ieState -> new TestInfrastructureElementStateREST(scenarioDescription.getIe().getId(),
-						scenarioDescription.getIe().getCpuCores(),
-						ieState.getCurrentCpuUsage().get(VALUE),
-						scenarioDescription.getIe().getRamCapacity(),
-						ieState.getAvailableRam().get(VALUE),
-						ieState.getCurrentRamUsage().get(VALUE),
-						ieState.getCurrentRamUsagePct().get(VALUE),
-						scenarioDescription.getIe().getDiskCapacity(),
-						ieState.getAvailableDisk().get(VALUE),
-						ieState.getCurrentDiskUsage().get(VALUE),
-						ieState.getCurrentDiskUsagePct().get(VALUE),
-						ieState.getRealTimeCapable().get(VALUE)))
+				.map(ieState -> mapToIEREST(scenarioDescription.getIe(), ieState))
 				.toList();
 	}
 
+	/**
+	 * Methods maps test IE state into REST IE object.
+	 *
+	 * @param ie      test IE containing domain IE characteristics
+	 * @param ieState IE state defined in test data
+	 * @return IE REST object
+	 */
+	public static TestInfrastructureElementStateREST mapToIEREST(final TestInfrastructureElement ie,
+			final TestInfrastructureElementState ieState) {
+		return new TestInfrastructureElementStateREST(ie.getId(),
+				ie.getCpuCores(),
+				ieState.getCurrentCpuUsage().get(VALUE),
+				ie.getRamCapacity(),
+				ieState.getAvailableRam().get(VALUE),
+				ieState.getCurrentRamUsage().get(VALUE),
+				ieState.getCurrentRamUsagePct().get(VALUE),
+				ie.getDiskCapacity(),
+				ieState.getAvailableDisk().get(VALUE),
+				ieState.getCurrentDiskUsage().get(VALUE),
+				ieState.getCurrentDiskUsagePct().get(VALUE),
+				ieState.getRealTimeCapable().get(VALUE));
+	}
+
+	/**
+	 * Methods maps a list of flat test IE states into a list of REST IE object.
+	 *
+	 * @param scenarioDescription         description of the scenario containing domain IE characteristics
+	 * @param infrastructureElementStates list of flat IE states defined in test data
+	 * @return list of IE REST objects
+	 */
+	public static List<TestInfrastructureElementStateREST> mapFlatToIEREST(
+			final ScenarioDescription scenarioDescription,
+			final List<TestInfrastructureElementFlatState> infrastructureElementStates) {
+		return infrastructureElementStates.stream()
+				.map(ieState -> mapToIEREST(scenarioDescription, ieState))
+				.toList();
+	}
+
+	/**
+	 * Methods maps flat test IE state into REST IE object.
+	 *
+	 * @param scenarioDescription description of the scenario containing domain IE characteristics
+	 * @param ieState             flat IE state defined in test data
+	 * @return IE REST object
+	 */
+	public static TestInfrastructureElementStateREST mapToIEREST(final ScenarioDescription scenarioDescription,
+			final TestInfrastructureElementFlatState ieState) {
+		return new TestInfrastructureElementStateREST(scenarioDescription.getIe().getId(),
+				scenarioDescription.getIe().getCpuCores(),
+				ieState.currentCpuUsage(),
+				scenarioDescription.getIe().getRamCapacity(),
+				ieState.availableRam(),
+				ieState.currentRamUsage(),
+				ieState.currentRamUsagePct(),
+				scenarioDescription.getIe().getDiskCapacity(),
+				ieState.availableDisk(),
+				ieState.currentDiskUsage(),
+				ieState.currentDiskUsagePct(),
+				ieState.realTimeCapable());
+	}
+
 	/**
 	 * Method maps test IE into an IE monitored with adaptive sampling (i.e. with updated utilization values).
 	 *
@@ -49,17 +101,33 @@ public class ScenarioMapper {
 	 */
 	public static TestInfrastructureElementStateREST mapToMonitoredIE(
 			final TestInfrastructureElementStateREST ieREST, final Map<String, Double> monitoredValues) {
+		return mapToMonitoredIE(ieREST, monitoredValues.get("CPU"), monitoredValues.get("RAM"),
+				monitoredValues.get("DISK"));
+	}
+
+	/**
+	 * Method maps test IE into an IE monitored with adaptive sampling (i.e. with updated utilization values). CPU
+	 * usage remains missing, if the number of CPU cores of IE is missing.
+	 *
+	 * @param ieREST        original IE
+	 * @param monitoredCPU  monitored amount of used CPU cores
+	 * @param monitoredRAM  monitored RAM usage
+	 * @param monitoredDisk monitored disk usage
+	 * @return updated IE
+	 */
+	public static TestInfrastructureElementStateREST mapToMonitoredIE(final TestInfrastructureElementStateREST ieREST,
+			final double monitoredCPU, final double monitoredRAM, final double monitoredDisk) {
 		final TestInfrastructureElementStateREST updatedIE = new TestInfrastructureElementStateREST(
 				ieREST.getId(),
 				ieREST.getCpuCores(),
-				(int) (monitoredValues.get("CPU") * 100 / ieREST.getCpuCores()),
+				ieREST.getCpuCores() == null ? null : (int) (monitoredCPU * 100 / ieREST.getCpuCores()),
 				ieREST.getRamCapacity(),
 				ieREST.getAvailableRam(),
-				monitoredValues.get("RAM").intValue(),
+				(int) monitoredRAM,
 				ieREST.getCurrentDiskUsagePct(),
 				ieREST.getDiskCapacity(),
 				ieREST.getAvailableDisk(),
-				monitoredValues.get("DISK").intValue(),
+				(int) monitoredDisk,
 				ieREST.getCurrentDiskUsagePct(),
 				ieREST.getRealTimeCapable()
 		);
@@ -1,21 +1,33 @@
 package org.aeros.utils;
 
-import static java.lang.Double.parseDouble;
 import static java.lang.String.format;
 import static java.lang.String.join;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.aeros.domain.AnomalyDetectionResult;
 import org.aeros.domain.ScenarioDescription;
+import org.aeros.domain.TestInfrastructureElementFlatState;
 import org.aeros.domain.TestInfrastructureElementState;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -32,7 +44,19 @@ public class ScenarioReader {
 	private static final int ROW_SCORE = 4;
 	private static final int ROW_ANOMALY_RESULT = 2;
 
+	private static final String CACHE_DIR_PROPERTY = "aeros.scenario.cache.dir";
+	private static final String DEFAULT_CACHE_DIR = "target/scenario-cache";
+
+	private static final int MAX_CACHED_RESULTS = 8;
+
 	private static final ObjectMapper mapper = new ObjectMapper();
+	// scores are copied out of the CSV files, so that the cache doesn't retain mapped buffers
+	private static final Map<String, Map<String, Double>> resultsScores = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<String, Map<String, Double>> eldest) {
+			return size() > MAX_CACHED_RESULTS;
+		}
+	};
 
 	/**
 	 * Method reads JSON file with scenario data.
@@ -52,6 +76,111 @@ public class ScenarioReader {
 		}
 	}
 
+	/**
+	 * Method reads JSON file with scenario data lazily. IE states are parsed one by one while the stream is consumed,
+	 * so that traces of arbitrary length are processed in constant memory. The stream must be closed once consumed.
+	 *
+	 * @param scenarioDataFileName name of the file that is to be read
+	 * @return stream of parsed IE states
+	 */
+	public static Stream<TestInfrastructureElementState> streamScenarioData(final String scenarioDataFileName) {
+		return streamScenarioData(openScenarioData(scenarioDataFileName));
+	}
+
+	/**
+	 * Method reads scenario data (JSON array of IE states) lazily from a given input. The input is closed together
+	 * with the stream.
+	 *
+	 * @param inputStream input containing scenario data
+	 * @return stream of parsed IE states
+	 */
+	public static Stream<TestInfrastructureElementState> streamScenarioData(final InputStream inputStream) {
+		return streamStates(inputStream, TestInfrastructureElementState.class);
+	}
+
+	/**
+	 * Method reads scenario data into flat IE states, without building intermediate maps. The states are read from
+	 * the columnar cache of scenario data (see {@link #mapScenarioData(String)}), unless the cache directory property
+	 * is blank.
+	 *
+	 * @param scenarioDataFileName name of the file that is to be read
+	 * @return parsed IE test data
+	 */
+	public static List<TestInfrastructureElementFlatState> readFlatScenarioData(final String scenarioDataFileName) {
+		try (final Stream<TestInfrastructureElementFlatState> states = streamFlatScenarioData(scenarioDataFileName)) {
+			return states.toList();
+		}
+	}
+
+	/**
+	 * Method reads scenario data lazily into flat IE states. The states are read from the columnar cache of scenario
+	 * data (see {@link #mapScenarioData(String)}), unless the cache directory property is blank. The stream must be
+	 * closed once consumed.
+	 *
+	 * @param scenarioDataFileName name of the file that is to be read
+	 * @return stream of parsed IE states
+	 * @see #streamScenarioData(String)
+	 */
+	public static Stream<TestInfrastructureElementFlatState> streamFlatScenarioData(
+			final String scenarioDataFileName) {
+		if (isCacheEnabled() && getScenarioDataPath(scenarioDataFileName) != null) {
+			final ScenarioDataCache cache = mapScenarioData(scenarioDataFileName);
+			return cache.stream().onClose(cache::close);
+		}
+		return streamFlatScenarioData(openScenarioData(scenarioDataFileName));
+	}
+
+	/**
+	 * Method reads scenario data (JSON array of IE states) lazily from a given input into flat IE states. The input is
+	 * closed together with the stream.
+	 *
+	 * @param inputStream input containing scenario data
+	 * @return stream of parsed IE states
+	 */
+	public static Stream<TestInfrastructureElementFlatState> streamFlatScenarioData(final InputStream inputStream) {
+		return streamStates(inputStream, TestInfrastructureElementFlatState.class);
+	}
+
+	/**
+	 * Method opens the columnar cache of scenario data, stored in the directory given by {@value #CACHE_DIR_PROPERTY}
+	 * system property (by default {@value #DEFAULT_CACHE_DIR}). If the cache doesn't exist or is outdated, it is
+	 * created from the JSON file with scenario data. The cache must be closed once it is no longer used.
+	 *
+	 * @param scenarioDataFileName name of the file with scenario data
+	 * @return opened cache of scenario data
+	 */
+	public static ScenarioDataCache mapScenarioData(final String scenarioDataFileName) {
+		final Path sourcePath = getScenarioDataPath(scenarioDataFileName);
+
+		if (sourcePath == null) {
+			throw new IllegalArgumentException(
+					format("Scenario data file %s cannot be cached, since it is not a file.", scenarioDataFileName));
+		}
+		final Path cacheDirectory = Path.of(System.getProperty(CACHE_DIR_PROPERTY, DEFAULT_CACHE_DIR));
+		return ScenarioDataCache.open(sourcePath, ScenarioDataCache.getCachePath(cacheDirectory, scenarioDataFileName));
+	}
+
+	/**
+	 * Method reads JSON file with scenario data and pushes parsed IE states to a consumer as soon as they are read.
+	 *
+	 * @param scenarioDataFileName name of the file that is to be read
+	 * @param stateConsumer        consumer of parsed IE states
+	 * @return number of read IE states
+	 */
+	public static int readScenarioData(final String scenarioDataFileName,
+			final Consumer<TestInfrastructureElementState> stateConsumer) {
+		int statesCount = 0;
+
+		try (final Stream<TestInfrastructureElementState> states = streamScenarioData(scenarioDataFileName)) {
+			final Iterator<TestInfrastructureElementState> iterator = states.iterator();
+			while (iterator.hasNext()) {
+				stateConsumer.accept(iterator.next());
+				statesCount++;
+			}
+		}
+		return statesCount;
+	}
+
 	/**
 	 * Method reads JSON file with scenario configuration.
 	 *
@@ -89,6 +218,33 @@ public class ScenarioReader {
 				.build();
 	}
 
+	/**
+	 * Method reads the anomaly scores assigned to consecutive observations by an anomaly detection algorithm.
+	 *
+	 * @param detectionResultsName name of the file with detected anomalies
+	 * @return anomaly scores ordered in the same way as observations
+	 */
+	public static double[] readAnomalyScores(final String detectionResultsName) {
+		final CsvReader csvReader = CsvReader.fromResource(join("/", TEST_SCENARIO_BENCHMARK_PATH,
+				detectionResultsName));
+		final DoubleStream.Builder anomalyScores = DoubleStream.builder();
+
+		csvReader.forEachRow((rowIdx, rowStart) -> anomalyScores.add(csvReader.getDouble(rowStart,
+				ROW_ANOMALY_RESULT)));
+		return anomalyScores.build().toArray();
+	}
+
+	/**
+	 * Method reads the overall NAB score of anomaly detection.
+	 *
+	 * @param allResultsName    name of the file with overall anomaly detection results
+	 * @param detectionFileName name of the file with detected anomalies referred in CSV file
+	 * @return NAB score or null, if the results of a given file are not available
+	 */
+	public static Double readNABScore(final String allResultsName, final String detectionFileName) {
+		return readAnomalyScore(join("/", TEST_SCENARIO_BENCHMARK_PATH, allResultsName), detectionFileName);
+	}
+
 	/**
 	 * Method retrieves complete scenario configuration file name.
 	 *
@@ -109,39 +265,127 @@ public class ScenarioReader {
 		return format("Executing test scenario. %s", scenarioDescription.getDescription());
 	}
 
-	private static Map<Integer, List<String>> readDetectedAnomalies(final String fullDetectionPath,
-			final Double threshold) {
-		final InputStream inputStream = ScenarioReader.class.getClassLoader().getResourceAsStream(fullDetectionPath);
+	private static boolean isCacheEnabled() {
+		return !System.getProperty(CACHE_DIR_PROPERTY, DEFAULT_CACHE_DIR).isBlank();
+	}
+
+	private static Path getScenarioDataPath(final String scenarioDataFileName) {
+		final String dataFileName = join("/", TEST_SCENARIO_DATA_PATH, scenarioDataFileName);
+		final URL dataFileUrl = ScenarioReader.class.getClassLoader().getResource(dataFileName);
 
-		try (final Scanner scanner = new Scanner(inputStream)) {
-			final AtomicInteger rowCount = new AtomicInteger(0);
-			final Map<Integer, List<String>> detectedAnomalies = new HashMap<>();
+		if (dataFileUrl == null) {
+			throw new IllegalArgumentException(format("Scenario data file %s doesn't exist.", dataFileName));
+		}
+		if (!"file".equals(dataFileUrl.getProtocol())) {
+			return null;
+		}
 
-			while (scanner.hasNextLine()) {
-				final String[] resultRow = scanner.nextLine().split(",");
-				if (rowCount.get() > 0 && parseDouble(resultRow[ROW_ANOMALY_RESULT]) > threshold) {
-					detectedAnomalies.put(rowCount.get(), List.of("OTHER"));
-				}
-				rowCount.incrementAndGet();
+		try {
+			return Path.of(dataFileUrl.toURI());
+		} catch (final URISyntaxException e) {
+			throw new RuntimeException("Couldn't resolve the path of scenario data file.", e);
+		}
+	}
+
+	private static InputStream openScenarioData(final String scenarioDataFileName) {
+		final String dataFileName = join("/", TEST_SCENARIO_DATA_PATH, scenarioDataFileName);
+		final InputStream inputStream = ScenarioReader.class.getClassLoader().getResourceAsStream(dataFileName);
+
+		if (inputStream == null) {
+			throw new IllegalArgumentException(format("Scenario data file %s doesn't exist.", dataFileName));
+		}
+		return inputStream;
+	}
+
+	private static <T> Stream<T> streamStates(final InputStream inputStream, final Class<T> stateClass) {
+		final JsonParser parser;
+
+		try {
+			parser = mapper.createParser(inputStream);
+			if (parser.nextToken() != JsonToken.START_ARRAY) {
+				parser.close();
+				throw new IllegalStateException("Scenario data is not an array of IE states.");
 			}
-			return detectedAnomalies;
+		} catch (final IOException e) {
+			throw new RuntimeException("Couldn't read scenario data from the file.", e);
 		}
+
+		final Spliterator<T> states = Spliterators.spliteratorUnknownSize(
+				new StateIterator<>(parser, stateClass), Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(states, false).onClose(() -> {
+			try {
+				parser.close();
+			} catch (final IOException e) {
+				throw new RuntimeException("Couldn't close scenario data file.", e);
+			}
+		});
+	}
+
+	private static Map<Integer, List<String>> readDetectedAnomalies(final String fullDetectionPath,
+			final Double threshold) {
+		final CsvReader csvReader = CsvReader.fromResource(fullDetectionPath);
+		final Map<Integer, List<String>> detectedAnomalies = new HashMap<>();
+
+		csvReader.forEachRow((rowIdx, rowStart) -> {
+			if (csvReader.getDouble(rowStart, ROW_ANOMALY_RESULT) > threshold) {
+				detectedAnomalies.put(rowIdx + 1, List.of("OTHER"));
+			}
+		});
+		return detectedAnomalies;
 	}
 
 	private static Double readAnomalyScore(final String fullResultsPath, final String detectionFileName) {
-		final InputStream inputStream = ScenarioReader.class.getClassLoader().getResourceAsStream(fullResultsPath);
+		synchronized (resultsScores) {
+			return resultsScores.computeIfAbsent(fullResultsPath, resultsPath -> {
+				final CsvReader csvReader = CsvReader.fromResource(resultsPath);
+				final Map<String, Double> scores = new HashMap<>();
 
-		try (final Scanner scanner = new Scanner(inputStream)) {
-			final AtomicInteger rowCount = new AtomicInteger(0);
+				csvReader.indexRows(ROW_FILE_NAME).forEach((fileName, rowStart) ->
+						scores.put(fileName, csvReader.getDouble(rowStart, ROW_SCORE)));
+				return scores;
+			}).get(detectionFileName);
+		}
+	}
+
+	private static final class StateIterator<T> implements Iterator<T> {
+
+		private final JsonParser parser;
+		private final Class<T> stateClass;
+		private JsonToken nextToken;
 
-			while (scanner.hasNextLine()) {
-				final String[] resultRow = scanner.nextLine().split(",");
-				if (rowCount.get() > 0 && resultRow[ROW_FILE_NAME].equals(detectionFileName)) {
-					return parseDouble(resultRow[ROW_SCORE]);
+		private StateIterator(final JsonParser parser, final Class<T> stateClass) {
+			this.parser = parser;
+			this.stateClass = stateClass;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (nextToken == null) {
+				try {
+					nextToken = parser.nextToken();
+				} catch (final IOException e) {
+					throw new RuntimeException("Couldn't read scenario data from the file.", e);
 				}
-				rowCount.incrementAndGet();
+			}
+
+			if (nextToken != JsonToken.START_OBJECT && nextToken != JsonToken.END_ARRAY) {
+				throw new IllegalStateException(format("Unexpected token %s in scenario data.", nextToken));
+			}
+			return nextToken == JsonToken.START_OBJECT;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			try {
+				nextToken = null;
+				return mapper.readValue(parser, stateClass);
+			} catch (final IOException e) {
+				throw new RuntimeException("Couldn't read scenario data from the file.", e);
 			}
 		}
-		return null;
 	}
 }
@@ -0,0 +1,127 @@
+package org.aeros.utils;
+
+import static org.aeros.utils.ScenarioMapper.mapToIEREST;
+import static org.aeros.utils.ScenarioReader.getScenarioConfigName;
+import static org.aeros.utils.ScenarioReader.readScenario;
+import static org.aeros.utils.ScenarioReader.readScenarioData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+import org.aeros.domain.ScenarioDescription;
+import org.aeros.domain.TestInfrastructureElementState;
+import org.aeros.domain.TestInfrastructureElementStateREST;
+
+/**
+ * Runner executing combinations of test scenarios and algorithms concurrently.
+ * <p>
+ * Data of each scenario is read once (all scenarios are read in parallel) and shared by all algorithms run on the
+ * scenario, so it must be treated as read-only. Each algorithm run is submitted as a separate fork-join task as soon
+ * as the data of its scenario is available, hence the total execution time is bounded by the slowest run rather than
+ * by the sum of all runs (given enough workers in the pool). Runs must create their own instances of algorithms, so
+ * that no state is shared between them. Results are collected in the order of scenarios and, within each scenario,
+ * in the order of algorithm runs, independently of the order in which the runs are completed.
+ */
+public class ScenarioRunner {
+
+	/**
+	 * Method runs given algorithms on given scenarios.
+	 *
+	 * @param scenarioNames         names of the scenarios
+	 * @param algorithmRunsProvider function providing algorithm runs executed on the data of a scenario
+	 * @param forkJoinPool          pool in which the scenarios are read and the algorithms are run
+	 * @param <R>                   type of the results of algorithm runs
+	 * @return results of all algorithm runs (including the failed ones)
+	 */
+	public static <R> List<RunResult<R>> runScenarios(final List<String> scenarioNames,
+			final Function<ScenarioData, List<AlgorithmRun<R>>> algorithmRunsProvider,
+			final ForkJoinPool forkJoinPool) {
+		final List<ForkJoinTask<ScenarioData>> readingTasks = scenarioNames.stream()
+				.map(scenarioName -> forkJoinPool.submit(() -> readScenarioForRun(scenarioName)))
+				.toList();
+		final List<ForkJoinTask<RunResult<R>>> runTasks = new ArrayList<>();
+
+		readingTasks.forEach(readingTask -> {
+			final ScenarioData scenarioData = readingTask.join();
+			algorithmRunsProvider.apply(scenarioData).forEach(algorithmRun -> runTasks.add(
+					forkJoinPool.submit(() -> executeRun(scenarioData, algorithmRun))));
+		});
+		return runTasks.stream()
+				.map(ForkJoinTask::join)
+				.toList();
+	}
+
+	private static ScenarioData readScenarioForRun(final String scenarioName) {
+		final ScenarioDescription scenarioDescription = readScenario(getScenarioConfigName(scenarioName));
+		final List<TestInfrastructureElementState> ieData =
+				List.copyOf(readScenarioData(scenarioDescription.getIe().getData()));
+
+		return new ScenarioData(scenarioName, scenarioDescription, ieData, mapToIEREST(scenarioDescription, ieData));
+	}
+
+	private static <R> RunResult<R> executeRun(final ScenarioData scenarioData, final AlgorithmRun<R> algorithmRun) {
+		final long startTime = System.nanoTime();
+
+		try {
+			final R result = algorithmRun.execution().apply(scenarioData);
+			return new RunResult<>(scenarioData, algorithmRun.name(), System.nanoTime() - startTime, result, null);
+		} catch (final RuntimeException | AssertionError e) {
+			return new RunResult<>(scenarioData, algorithmRun.name(), System.nanoTime() - startTime, null, e);
+		}
+	}
+
+	/**
+	 * Data of the scenario shared (read-only) by all algorithm runs.
+	 *
+	 * @param scenarioName        name of the scenario
+	 * @param scenarioDescription description of the scenario
+	 * @param ieData              IE states defined in the scenario data (unmodifiable)
+	 * @param ieRESTData          IE states mapped to REST objects (unmodifiable)
+	 */
+	public record ScenarioData(String scenarioName, ScenarioDescription scenarioDescription,
+							   List<TestInfrastructureElementState> ieData,
+							   List<TestInfrastructureElementStateREST> ieRESTData) {
+	}
+
+	/**
+	 * Run of a single algorithm on the data of a scenario.
+	 *
+	 * @param name      name of the algorithm
+	 * @param execution function executing the algorithm (with its own state) on the data of the scenario
+	 * @param <R>       type of the result of the run
+	 */
+	public record AlgorithmRun<R>(String name, Function<ScenarioData, R> execution) {
+	}
+
+	/**
+	 * Result of a single algorithm run.
+	 *
+	 * @param scenarioData  data of the scenario on which the algorithm was run
+	 * @param algorithmName name of the algorithm
+	 * @param elapsedTime   execution time of the run (in nanoseconds)
+	 * @param result        result of the run (null, if the run failed)
+	 * @param failure       error that caused the failure of the run (null, if the run succeeded)
+	 * @param <R>           type of the result of the run
+	 */
+	public record RunResult<R>(ScenarioData scenarioData, String algorithmName, long elapsedTime, R result,
+							   Throwable failure) {
+
+		/**
+		 * Method returns the result of the run or rethrows the error that caused its failure.
+		 *
+		 * @return result of the run
+		 */
+		public R getResult() {
+			if (failure instanceof final RuntimeException e) {
+				throw e;
+			}
+			if (failure instanceof final Error e) {
+				throw e;
+			}
+			return result;
+		}
+	}
+}
@@ -52,7 +52,7 @@ public class StatisticalOperations {
 	 * @return data density
 	 */
 	public static double computeDensity(final double sampleMean, final double scalarProduct,
-			final Double currentValue) {
+			final double currentValue) {
 		final double meanDeviation = currentValue - sampleMean;
 		final double squaredMean = pow(sampleMean, 2);
 
@@ -74,6 +74,50 @@ public class StatisticalOperations {
 				.orElse(1D);
 	}
 
+	/**
+	 * Method computes sample mean value on primitives. The first observation of the sample initializes the mean.
+	 *
+	 * @param sampleSize   updated size of the sample
+	 * @param previousMean previous mean value (ignored for the first observation)
+	 * @param currentValue new observation value
+	 * @return updated mean value
+	 */
+	public static double updateMeanValue(final int sampleSize, final double previousMean,
+			final double currentValue) {
+		return sampleSize == 1 ? currentValue : previousMean + (currentValue - previousMean) / sampleSize;
+	}
+
+	/**
+	 * Method computes updated scalar product value on primitives. The first observation of the sample initializes
+	 * the scalar product.
+	 *
+	 * @param sampleSize            updated size of the sample
+	 * @param previousScalarProduct previous scalar product value (ignored for the first observation)
+	 * @param currentValue          new observation value
+	 * @return updated scalar product value
+	 */
+	public static double updateScalarProduct(final int sampleSize, final double previousScalarProduct,
+			final double currentValue) {
+		final double squaredValue = pow(currentValue, 2);
+		return sampleSize == 1
+				? squaredValue
+				: previousScalarProduct + (squaredValue - previousScalarProduct) / sampleSize;
+	}
+
+	/**
+	 * Method computes mean data density on primitives. The first observation of the sample yields density 1.
+	 *
+	 * @param sampleSize       updated size of the sample
+	 * @param previousDensity  previous data density value (ignored for the first observation)
+	 * @param occurrenceNumber number of consecutive observations for which the density remained unchanged
+	 * @param newDensity       the latest density value
+	 * @return mean density
+	 */
+	public static double updateMeanDensity(final int sampleSize, final double previousDensity,
+			final int occurrenceNumber, final double newDensity) {
+		return sampleSize == 1 ? 1D : getUpdatedDensity(previousDensity, newDensity, occurrenceNumber);
+	}
+
 	/**
 	 * Method calculates the PEWMA probability using std and sample distance.
 	 *
@@ -105,7 +149,7 @@ public class StatisticalOperations {
 		return distance / (2 * sqrt(2));
 	}
 
-	private static double getUpdatedDensity(final Double previousDensity, final double newDensity,
+	private static double getUpdatedDensity(final double previousDensity, final double newDensity,
 			final int occurrenceNumber) {
 		final double densityDifference = abs(newDensity - previousDensity);
 		return (previousDensity + (newDensity - previousDensity) / occurrenceNumber) * (1 - densityDifference) +
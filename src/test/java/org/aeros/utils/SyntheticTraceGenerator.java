@@ -0,0 +1,207 @@
+package org.aeros.utils;
+
+import static java.lang.String.format;
+import static org.aeros.domain.ResourceType.CPU_USAGE;
+import static org.aeros.domain.ResourceType.DISK_USAGE;
+import static org.aeros.domain.ResourceType.RAM_USAGE;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+import org.aeros.domain.AnomalyWindow;
+import org.aeros.domain.ResourceType;
+import org.aeros.domain.SyntheticTraceParameters;
+import org.aeros.domain.TestInfrastructureElement;
+import org.aeros.domain.TestInfrastructureElementFlatState;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Class generates deterministic synthetic IE traces of arbitrary length.
+ * <p>
+ * Usage of each resource is composed of a base level, daily-like seasonality (with a phase shifted for each resource),
+ * Gaussian noise, level shifts and spikes, which are started at random steps with configured rates. Each level shift
+ * and spike is reported as a ground-truth {@link AnomalyWindow} of the resource (windows use the indexes of detected
+ * anomalies, i.e. starting from 1, and the overlapping ones are merged). The same parameters (including the seed)
+ * always produce the same trace. States are generated one by one, so that traces can be streamed to disk without
+ * being kept in memory.
+ */
+public class SyntheticTraceGenerator {
+
+	private static final int METRICS_COUNT = ResourceType.values().length;
+	private static final int CPU_CAPACITY = 100;
+	private static final double MIN_LEVEL = 0.1;
+	private static final double MAX_LEVEL = 0.9;
+	private static final String VALUE = "value";
+
+	private final SyntheticTraceParameters parameters;
+	private final TestInfrastructureElement ie;
+	private final int[] capacities;
+
+	/**
+	 * Default constructor.
+	 *
+	 * @param parameters parameters of the generated trace
+	 * @param ie         IE for which the trace is generated (its capacities bound the usage of resources)
+	 */
+	public SyntheticTraceGenerator(final SyntheticTraceParameters parameters, final TestInfrastructureElement ie) {
+		this.parameters = parameters;
+		this.ie = ie;
+		this.capacities = new int[METRICS_COUNT];
+
+		capacities[CPU_USAGE.ordinal()] = CPU_CAPACITY;
+		capacities[RAM_USAGE.ordinal()] = ie.getRamCapacity();
+		capacities[DISK_USAGE.ordinal()] = ie.getDiskCapacity();
+	}
+
+	/**
+	 * Method generates the trace and passes its states to a given consumer.
+	 *
+	 * @param stateConsumer consumer of generated IE states
+	 * @return ground-truth anomaly windows of each resource
+	 */
+	public Map<ResourceType, List<AnomalyWindow>> generate(
+			final Consumer<TestInfrastructureElementFlatState> stateConsumer) {
+		final Map<ResourceType, List<AnomalyWindow>> anomalyWindows = new EnumMap<>(ResourceType.class);
+		final SplittableRandom random = new SplittableRandom(parameters.getSeed());
+		final double[] levels = new double[METRICS_COUNT];
+		final int[] remainingSpikeSteps = new int[METRICS_COUNT];
+		final double[] spikeMagnitudes = new double[METRICS_COUNT];
+		final int[] values = new int[METRICS_COUNT];
+
+		for (final ResourceType resourceType : ResourceType.values()) {
+			levels[resourceType.ordinal()] = parameters.getBaseLevel() * capacities[resourceType.ordinal()];
+			anomalyWindows.put(resourceType, new ArrayList<>());
+		}
+
+		for (int idx = 0; idx < parameters.getLength(); idx++) {
+			for (final ResourceType resourceType : ResourceType.values()) {
+				final int metric = resourceType.ordinal();
+				final double capacity = capacities[metric];
+
+				if (random.nextDouble() < parameters.getLevelShiftRate()) {
+					final double shift = parameters.getLevelShiftMagnitude() * capacity;
+					final boolean canDecrease = levels[metric] - shift >= MIN_LEVEL * capacity;
+					final boolean isDecrease = levels[metric] + shift > MAX_LEVEL * capacity
+											   || (canDecrease && random.nextBoolean());
+					levels[metric] += isDecrease ? -shift : shift;
+					addAnomalyWindow(anomalyWindows.get(resourceType), idx);
+				}
+				if (remainingSpikeSteps[metric] == 0 && random.nextDouble() < parameters.getSpikeRate()) {
+					remainingSpikeSteps[metric] = parameters.getSpikeDuration();
+					final double spikeMagnitude = parameters.getSpikeMagnitude() * capacity;
+					spikeMagnitudes[metric] = random.nextBoolean() ? spikeMagnitude : -spikeMagnitude;
+					addAnomalyWindow(anomalyWindows.get(resourceType), idx);
+				}
+
+				final double seasonality = parameters.getSeasonAmplitude() * capacity * Math.sin(2 * Math.PI
+						* (idx + (double) metric * parameters.getSeasonPeriod() / METRICS_COUNT)
+						/ parameters.getSeasonPeriod());
+				final double noise = parameters.getNoiseLevel() * capacity * random.nextGaussian();
+				final double spike = remainingSpikeSteps[metric] > 0 ? spikeMagnitudes[metric] : 0;
+
+				remainingSpikeSteps[metric] = Math.max(0, remainingSpikeSteps[metric] - 1);
+				values[metric] = Math.clamp(Math.round(levels[metric] + seasonality + noise + spike), 0,
+						capacities[metric]);
+			}
+			stateConsumer.accept(createState(values));
+		}
+		return anomalyWindows;
+	}
+
+	/**
+	 * Method generates the trace into a columnar cache file (see {@link ScenarioDataCache}), which can be then opened
+	 * with {@link ScenarioDataCache#open(Path)}.
+	 *
+	 * @param cachePath path to the file to which the trace is written
+	 * @return ground-truth anomaly windows of each resource
+	 */
+	public Map<ResourceType, List<AnomalyWindow>> generate(final Path cachePath) {
+		try (final ScenarioDataCache.Writer writer = ScenarioDataCache.createWriter(cachePath,
+				parameters.getLength())) {
+			return generate(writer::write);
+		}
+	}
+
+	/**
+	 * Method generates the trace as JSON scenario data (i.e. in the format of the files of test scenarios).
+	 *
+	 * @param outputStream output to which the trace is written (it is not closed)
+	 * @return ground-truth anomaly windows of each resource
+	 */
+	public Map<ResourceType, List<AnomalyWindow>> generate(final OutputStream outputStream) {
+		try (final JsonGenerator generator = new JsonFactory().createGenerator(outputStream)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.writeStartArray();
+
+			final Map<ResourceType, List<AnomalyWindow>> anomalyWindows = generate(state -> writeState(generator,
+					state));
+
+			generator.writeEndArray();
+			return anomalyWindows;
+		} catch (final IOException e) {
+			throw new RuntimeException("Couldn't write synthetic trace.", e);
+		}
+	}
+
+	private void addAnomalyWindow(final List<AnomalyWindow> anomalyWindows, final int idx) {
+		final int anomalyIdx = idx + 1;
+		final int startIdx = Math.max(1, anomalyIdx - parameters.getAnomalyWindowSize() / 2);
+		final int endIdx = Math.min(parameters.getLength(), anomalyIdx + parameters.getAnomalyWindowSize() / 2);
+
+		if (!anomalyWindows.isEmpty() && anomalyWindows.getLast().getEndIdx() >= startIdx) {
+			final AnomalyWindow lastWindow = anomalyWindows.removeLast();
+			anomalyWindows.add(new AnomalyWindow(lastWindow.getStartIdx(), Math.max(lastWindow.getEndIdx(), endIdx)));
+		} else {
+			anomalyWindows.add(new AnomalyWindow(startIdx, endIdx));
+		}
+	}
+
+	private TestInfrastructureElementFlatState createState(final int[] values) {
+		final int ramUsage = values[RAM_USAGE.ordinal()];
+		final int diskUsage = values[DISK_USAGE.ordinal()];
+
+		return new TestInfrastructureElementFlatState(values[CPU_USAGE.ordinal()],
+				ie.getRamCapacity() - ramUsage,
+				ramUsage,
+				(int) ((long) ramUsage * 100 / ie.getRamCapacity()),
+				ie.getDiskCapacity() - diskUsage,
+				diskUsage,
+				(int) ((long) diskUsage * 100 / ie.getDiskCapacity()),
+				false);
+	}
+
+	private void writeState(final JsonGenerator generator, final TestInfrastructureElementFlatState state) {
+		try {
+			generator.writeStartObject();
+			writeValue(generator, "currentCpuUsage", state.currentCpuUsage());
+			writeValue(generator, "availableRam", state.availableRam());
+			writeValue(generator, "currentRamUsage", state.currentRamUsage());
+			writeValue(generator, "currentRamUsagePct", state.currentRamUsagePct());
+			writeValue(generator, "availableDisk", state.availableDisk());
+			writeValue(generator, "currentDiskUsage", state.currentDiskUsage());
+			writeValue(generator, "currentDiskUsagePct", state.currentDiskUsagePct());
+			generator.writeObjectFieldStart("realTimeCapable");
+			generator.writeBooleanField(VALUE, state.realTimeCapable());
+			generator.writeEndObject();
+			generator.writeEndObject();
+		} catch (final IOException e) {
+			throw new RuntimeException(format("Couldn't write IE state %s.", state), e);
+		}
+	}
+
+	private void writeValue(final JsonGenerator generator, final String fieldName, final int value)
+			throws IOException {
+		generator.writeObjectFieldStart(fieldName);
+		generator.writeNumberField(VALUE, value);
+		generator.writeEndObject();
+	}
+}